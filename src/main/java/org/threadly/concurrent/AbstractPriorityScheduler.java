@@ -1,14 +1,29 @@
 package org.threadly.concurrent;
 
+import java.util.AbstractQueue;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 import org.threadly.concurrent.collections.ConcurrentArrayList;
 import org.threadly.concurrent.future.ListenableFuture;
@@ -97,10 +112,72 @@ public abstract class AbstractPriorityScheduler extends AbstractSubmitterSchedul
     return submitScheduled(task, result, 0, priority);
   }
 
+  @Override
+  public <T> ListenableFuture<T> submit(Callable<T> task) {
+    return submitScheduled(task, 0, defaultPriority);
+  }
+
   @Override
   public <T> ListenableFuture<T> submit(Callable<T> task, TaskPriority priority) {
     return submitScheduled(task, 0, priority);
   }
+  
+  @Override
+  public <T> ListenableFuture<T> submitScheduled(Callable<T> task, long delayInMs) {
+    return submitScheduled(task, delayInMs, defaultPriority);
+  }
+
+  @Override
+  public void executeAll(Collection<? extends Runnable> tasks, TaskPriority priority) {
+    ArgumentVerifier.assertNotNull(tasks, "tasks");
+    if (tasks.isEmpty()) {
+      return;
+    }
+    for (Runnable r : tasks) {
+      ArgumentVerifier.assertNotNull(r, "task");
+    }
+    if (priority == null) {
+      priority = defaultPriority;
+    }
+    
+    doExecuteAll(tasks, priority);
+  }
+
+  @Override
+  public <T> List<ListenableFuture<T>> submitAll(Collection<? extends Callable<T>> tasks, 
+                                                 TaskPriority priority) {
+    ArgumentVerifier.assertNotNull(tasks, "tasks");
+    if (priority == null) {
+      priority = defaultPriority;
+    }
+    
+    List<ListenableFutureTask<T>> futures = new ArrayList<>(tasks.size());
+    for (Callable<T> c : tasks) {
+      ArgumentVerifier.assertNotNull(c, "task");
+      futures.add(new ListenableFutureTask<>(false, c, this));
+    }
+    if (! futures.isEmpty()) {
+      doExecuteAll(futures, priority);
+    }
+    
+    return new ArrayList<>(futures);
+  }
+  
+  /**
+   * Should execute the provided tasks as soon as possible.  Arguments have already been verified 
+   * before this is invoked.  By default this will invoke 
+   * {@link #doSchedule(Runnable, long, TaskPriority)} for each task, however extending classes 
+   * should override this to queue the tasks in a single operation.
+   * 
+   * @since 5.37
+   * @param tasks Tasks to execute, will not be empty or contain {@code null} tasks
+   * @param priority Priority for tasks, will not be {@code null}
+   */
+  protected void doExecuteAll(Collection<? extends Runnable> tasks, TaskPriority priority) {
+    for (Runnable r : tasks) {
+      doSchedule(r, 0, priority);
+    }
+  }
 
   @Override
   public void schedule(Runnable task, long delayInMs, TaskPriority priority) {
@@ -129,7 +206,17 @@ public abstract class AbstractPriorityScheduler extends AbstractSubmitterSchedul
     }
 
     ListenableRunnableFuture<T> rf = new ListenableFutureTask<>(false, task, this);
-    doSchedule(rf, delayInMs, priority);
+    OneTimeTaskWrapper tw = doSchedule(rf, delayInMs, priority);
+    if (tw != null && tw.owningQueueSet != null && 
+        (delayInMs > 0 || tw.owningQueueSet.taskIndex != null)) {
+      // track when canceled so the task can be purged rather than held till its run time
+      QueueSet queueSet = tw.owningQueueSet;
+      rf.listener(() -> {
+        if (rf.isCancelled()) {
+          queueSet.removeQueuedTask(tw);
+        }
+      });
+    }
     
     return rf;
   }
@@ -182,6 +269,23 @@ public abstract class AbstractPriorityScheduler extends AbstractSubmitterSchedul
     return getQueueManager().getQueueSet(priority).queueSize();
   }
   
+  /**
+   * Returns the quantity of tasks which were canceled or removed, but are still held in the 
+   * queues.  These tasks will never execute, and will be dropped as they are reached in the 
+   * queue.  Once they represent a large enough portion of the queued tasks they will be purged 
+   * from the queues.
+   * 
+   * @since 5.37
+   * @return Quantity of canceled tasks still held in the queues
+   */
+  public int getDeadTaskCount() {
+    int result = 0;
+    for (TaskPriority p : TaskPriority.values()) {
+      result += getQueueManager().getQueueSet(p).getDeadTaskCount();
+    }
+    return result;
+  }
+  
   @Override
   public int getWaitingForExecutionTaskCount() {
     int result = 0;
@@ -198,19 +302,34 @@ public abstract class AbstractPriorityScheduler extends AbstractSubmitterSchedul
     }
     
     QueueSet qs = getQueueManager().getQueueSet(priority);
-    int result = qs.executeQueue.size();
+    // canceled or removed tasks may still be held in the queues till they are purged
+    int result = qs.heldReadyTaskCount();
+    if (qs.executeRing != null) {
+      result += qs.executeRing.size();
+    }
+    for (TaskWrapper tw : qs.executeQueue) {
+      if (! tw.invalidated) {
+        result++;
+      }
+    }
+    for (TaskWrapper tw : qs.localExecuteQueue) {
+      if (! tw.invalidated) {
+        result++;
+      }
+    }
     for (int i = 0; i < qs.scheduleQueue.size(); i++) {
       try {
-        if (qs.scheduleQueue.get(i).getScheduleDelay() > 0) {
+        TaskWrapper tw = qs.scheduleQueue.get(i);
+        if (tw.getScheduleDelay() > 0) {
           break;
-        } else {
+        } else if (! tw.invalidated) {
           result++;
         }
       } catch (IndexOutOfBoundsException e) {
         break;
       }
     }
-    return result;
+    return result + qs.readyRecurringTaskCount();
   }
   
   /**
@@ -224,6 +343,18 @@ public abstract class AbstractPriorityScheduler extends AbstractSubmitterSchedul
      * blocking threads waiting for tasks to consume.
      */
     public void handleQueueUpdate();
+    
+    /**
+     * Invoked when multiple tasks have been added to the queue set at once.  This can be used to 
+     * wake up to as many blocking threads as can consume the added tasks.  By default this just 
+     * invokes {@link #handleQueueUpdate()}.
+     * 
+     * @since 5.37
+     * @param taskCount Number of tasks which were added
+     */
+    public default void handleQueueUpdate(int taskCount) {
+      handleQueueUpdate();
+    }
   }
 
   /**
@@ -236,186 +367,1791 @@ public abstract class AbstractPriorityScheduler extends AbstractSubmitterSchedul
    * @since 4.0.0
    */
   protected static class QueueSet {
+    protected static final int PURGE_MIN_DEAD_TASKS = 64;
+    
     protected final QueueSetListener queueListener;
     protected final ConcurrentLinkedQueue<OneTimeTaskWrapper> executeQueue;
     protected final ConcurrentArrayList<TaskWrapper> scheduleQueue;
     protected final Function<Integer, Long> scheduleQueueRunTimeByIndex;
+    protected final LongAdder deadTaskCount;
+    // removed tasks still in the local queue, dropped by the consuming thread rather than purged
+    protected final LongAdder localDeadTaskCount;
+    protected final ReentrantLock purgeLock;
+    // only used if task removal index is enabled
+    protected final ConcurrentHashMap<Object, Object> taskIndex;
+    // only used if an execute ring buffer is enabled
+    protected final ExecuteRingBuffer executeRing;
+    // recurring tasks waiting for their next run, ordered by the run time they were queued with
+    protected final ConcurrentSkipListSet<RecurringTaskWrapper> recurringQueue;
+    // all recurring tasks in this set, including ones which are currently executing
+    protected final Set<RecurringTaskWrapper> recurringTasks;
+    // tasks submitted by the consuming thread to itself, only modified by that thread
+    protected final LocalTaskQueue localExecuteQueue;
     
     public QueueSet(QueueSetListener queueListener) {
+      this(queueListener, false);
+    }
+    
+    /**
+     * Constructs a new {@link QueueSet}.  If {@code indexTasks} is {@code true} an index from the 
+     * submitted task (as well as any tasks or futures it wraps) to its {@link TaskWrapper} will 
+     * be maintained.  This allows {@link #remove(Runnable)} and {@link #remove(Callable)} to 
+     * find the task without a queue scan.  One time tasks removed through the index are only 
+     * invalidated, and will be dropped as consumers reach them in the queue.
+     * 
+     * @since 5.37
+     * @param queueListener Listener to be invoked when the head of a queue has been updated
+     * @param indexTasks {@code true} to maintain a task removal index
+     */
+    public QueueSet(QueueSetListener queueListener, boolean indexTasks) {
+      this(queueListener, indexTasks, 0);
+    }
+    
+    /**
+     * Constructs a new {@link QueueSet}.  See {@link #QueueSet(QueueSetListener, boolean)} for 
+     * details on the task removal index.  If {@code executeRingCapacity} is greater than zero an 
+     * {@link ExecuteRingBuffer} of (at least) that capacity will be preallocated, allowing tasks 
+     * to be provided through {@link #offerExecute(Runnable, long)} without allocating a wrapper or 
+     * queue node.
+     * 
+     * @since 5.37
+     * @param queueListener Listener to be invoked when the head of a queue has been updated
+     * @param indexTasks {@code true} to maintain a task removal index
+     * @param executeRingCapacity Slots to preallocate for execution, or {@code 0} to disable
+     */
+    public QueueSet(QueueSetListener queueListener, boolean indexTasks, int executeRingCapacity) {
+      ArgumentVerifier.assertNotNegative(executeRingCapacity, "executeRingCapacity");
+      
       this.queueListener = queueListener;
       this.executeQueue = new ConcurrentLinkedQueue<>();
       this.scheduleQueue = new ConcurrentArrayList<>(QUEUE_FRONT_PADDING, QUEUE_REAR_PADDING);
       scheduleQueueRunTimeByIndex = (index) -> scheduleQueue.get(index).getRunTime();
+      this.deadTaskCount = new LongAdder();
+      this.localDeadTaskCount = new LongAdder();
+      this.purgeLock = new ReentrantLock();
+      this.taskIndex = indexTasks ? new ConcurrentHashMap<>() : null;
+      this.executeRing = executeRingCapacity > 0 ? new ExecuteRingBuffer(executeRingCapacity) : null;
+      this.recurringQueue = new ConcurrentSkipListSet<>(RecurringTaskWrapper.QUEUE_ORDER);
+      this.recurringTasks = ConcurrentHashMap.newKeySet();
+      this.localExecuteQueue = new LocalTaskQueue();
+    }
+
+    /**
+     * Attempts to add a task for immediate execution into the {@link ExecuteRingBuffer}.  This 
+     * does not allocate, but will fail if the ring buffer is not enabled or is currently full, in 
+     * which case the task should be added through {@link #addExecute(OneTimeTaskWrapper)}.  To 
+     * maintain execution order, tasks will also not be accepted while the execute queue has 
+     * tasks from a previous overflow.  No safety checks are done at this point.
+     * <p>
+     * The provided run time should be the same time a wrapper added through 
+     * {@link #addExecute(OneTimeTaskWrapper)} would have been given, so that tasks in the ring 
+     * are arbitrated the same against other priorities.
+     * 
+     * @since 5.37
+     * @param task Task to be executed
+     * @param runTime Time the task was submitted for execution
+     * @return {@code true} if the task was accepted
+     */
+    public boolean offerExecute(Runnable task, long runTime) {
+      if (executeRing == null || ! executeQueue.isEmpty() || ! executeRing.offer(task, runTime)) {
+        return false;
+      }
+      
+      queueListener.handleQueueUpdate();
+      return true;
+    }
+
+    /**
+     * Adds a task for immediate execution.  No safety checks are done at this point, the task 
+     * will be immediately added and available for consumption.
+     * 
+     * @param task Task to add to end of execute queue
+     */
+    public void addExecute(OneTimeTaskWrapper task) {
+      prepareTask(task);
+      executeQueue.add(task);
+
+      queueListener.handleQueueUpdate();
+    }
+
+    /**
+     * Adds a task for immediate execution into {@link #localExecuteQueue}.  This must only be 
+     * invoked by the single thread which is consuming tasks from this {@link QueueSet}, and 
+     * only while it is consuming tasks.  Because that thread is already running, no CAS is needed 
+     * to add the task and the listener is not notified.  No safety checks are done at this point.
+     * 
+     * @since 5.37
+     * @param task Task to add to end of the local execute queue
+     */
+    public void addLocalExecute(OneTimeTaskWrapper task) {
+      prepareTask(task);
+      localExecuteQueue.offer(task);
+    }
+
+    /**
+     * Adds multiple tasks for immediate execution.  All tasks will be added to the execute queue 
+     * in a single linking operation, and then the listener will be notified once for all the 
+     * tasks.  No safety checks are done at this point.
+     * 
+     * @since 5.37
+     * @param tasks Tasks to add to end of execute queue
+     */
+    public void addExecuteAll(Collection<? extends OneTimeTaskWrapper> tasks) {
+      for (OneTimeTaskWrapper tw : tasks) {
+        prepareTask(tw);
+      }
+      executeQueue.addAll(tasks);
+
+      queueListener.handleQueueUpdate(tasks.size());
+    }
+
+    /**
+     * Adds a task for delayed execution.  No safety checks are done at this point.  This call 
+     * will safely find the insertion point in the scheduled queue and insert it into that 
+     * queue.  Recurring tasks are instead added into {@link #recurringQueue}.
+     * 
+     * @param task Task to insert into the schedule queue
+     */
+    public void addScheduled(TaskWrapper task) {
+      prepareTask(task);
+      if (task instanceof RecurringTaskWrapper) {
+        RecurringTaskWrapper rtw = (RecurringTaskWrapper)task;
+        recurringTasks.add(rtw);
+        if (queueRecurring(rtw)) {
+          queueListener.handleQueueUpdate();
+        }
+        return;
+      }
+      int insertionIndex;
+      synchronized (scheduleQueue.getModificationLock()) {
+        insertionIndex = SortUtils.getInsertionEndIndex(scheduleQueueRunTimeByIndex, 
+                                                        scheduleQueue.size() - 1, 
+                                                        task.getRunTime(), true);
+        scheduleQueue.add(insertionIndex, task);
+      }
+      
+      if (insertionIndex == 0) {
+        queueListener.handleQueueUpdate();
+      }
+    }
+
+    /**
+     * Inserts a recurring task into {@link #recurringQueue} using its current run time.  The task 
+     * must already be tracked in {@link #recurringTasks}, and must not currently be in the 
+     * recurring queue.  If the task has been removed concurrently it will not be left queued.
+     * 
+     * @since 5.37
+     * @param task Recurring task to be queued for its next run
+     * @return {@code true} if the task is now at the head of the recurring queue
+     */
+    protected boolean queueRecurring(RecurringTaskWrapper task) {
+      task.queuedRunTime = task.nextRunTime;
+      recurringQueue.add(task);
+      if (! task.isQueued()) {
+        // removed while being added, removal may not have seen the task in the queue
+        recurringQueue.remove(task);
+        return false;
+      }
+      return peekRecurring() == task;
+    }
+
+    /**
+     * Returns the recurring task which is queued to run next, without removing it.
+     * 
+     * @since 5.37
+     * @return Next recurring task or {@code null} if none are queued
+     */
+    protected RecurringTaskWrapper peekRecurring() {
+      if (recurringQueue.isEmpty()) {
+        return null;
+      }
+      try {
+        return recurringQueue.first();
+      } catch (NoSuchElementException e) {
+        // removed between checks
+        return null;
+      }
+    }
+
+    /**
+     * Counts the recurring tasks which are queued and ready to execute.
+     * 
+     * @since 5.37
+     * @return Number of recurring tasks ready for execution
+     */
+    protected int readyRecurringTaskCount() {
+      int result = 0;
+      for (RecurringTaskWrapper tw : recurringQueue) {
+        if (tw.getScheduleDelay() > 0) {
+          break;
+        } else if (! tw.invalidated) {
+          result++;
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Counts tasks which are ready to execute, but are held outside of the execute, schedule and 
+     * recurring queues (for example in a timing wheel which the consumer has not advanced yet).  
+     * This must not modify the queues.
+     * 
+     * @since 5.37
+     * @return Number of ready tasks held outside of the standard queues
+     */
+    protected int heldReadyTaskCount() {
+      return 0;
+    }
+
+    /**
+     * Removes a given callable from the internal queues (if it exists).
+     * 
+     * @param task Callable to search for and remove
+     * @return {@code true} if the task was found and removed
+     */
+    public boolean remove(Callable<?> task) {
+      if (taskIndex != null) {
+        Object indexed = task == null ? null : taskIndex.get(task);
+        if (indexed != null && ! (indexed instanceof IndexCollision)) {
+          return removeQueuedTask((TaskWrapper)indexed);
+        } else if (indexed == null) {
+          // tasks in the execute ring are never indexed
+          return executeRing != null && 
+                   executeRing.remove((r) -> ContainerHelper.isContained(r, task));
+        }
+      }
+      return removeMatching((tw) -> ContainerHelper.isContained(tw.task, task)) || 
+               (executeRing != null && 
+                  executeRing.remove((r) -> ContainerHelper.isContained(r, task)));
+    }
+
+    /**
+     * Removes a given Runnable from the internal queues (if it exists).
+     * 
+     * @param task Runnable to search for and remove
+     * @return {@code true} if the task was found and removed
+     */
+    public boolean remove(Runnable task) {
+      if (taskIndex != null) {
+        Object indexed = task == null ? null : taskIndex.get(task);
+        if (indexed != null && ! (indexed instanceof IndexCollision)) {
+          return removeQueuedTask((TaskWrapper)indexed);
+        } else if (indexed == null) {
+          // tasks in the execute ring are never indexed
+          return executeRing != null && 
+                   executeRing.remove((r) -> ContainerHelper.isContained(r, task));
+        }
+      }
+      return removeMatching((tw) -> ContainerHelper.isContained(tw.task, task)) || 
+               (executeRing != null && 
+                  executeRing.remove((r) -> ContainerHelper.isContained(r, task)));
+    }
+
+    /**
+     * Searches the queues for the first task which matches the provided filter.  If found the 
+     * task is invalidated and removed.  This is used when the task removal index is not enabled, 
+     * or when multiple queued tasks are indexed under the same key.
+     * 
+     * @since 5.37
+     * @param filter Filter to check if the task matches
+     * @return {@code true} if a task was found and removed
+     */
+    protected boolean removeMatching(Predicate<TaskWrapper> filter) {
+      {
+        Iterator<? extends TaskWrapper> it = executeQueue.iterator();
+        while (it.hasNext()) {
+          TaskWrapper tw = it.next();
+          if (filter.test(tw)) {
+            if (taskIndex != null) {
+              if (removeQueuedTask(tw)) {
+                return true;
+              }
+            } else if (executeQueue.remove(tw)) {
+              tw.invalidate();
+              taskPurged(tw);
+              return true;
+            }
+          }
+        }
+      }
+      // local tasks can only be removed from the queue by the consuming thread
+      for (OneTimeTaskWrapper tw : localExecuteQueue) {
+        if (filter.test(tw) && removeQueuedTask(tw)) {
+          return true;
+        }
+      }
+      synchronized (scheduleQueue.getModificationLock()) {
+        Iterator<? extends TaskWrapper> it = scheduleQueue.iterator();
+        while (it.hasNext()) {
+          TaskWrapper tw = it.next();
+          if (filter.test(tw)) {
+            if (taskIndex != null) {
+              if (removeQueuedTask(tw)) {
+                return true;
+              }
+            } else {
+              tw.invalidate();
+              it.remove();
+              taskPurged(tw);
+              
+              return true;
+            }
+          }
+        }
+      }
+      for (RecurringTaskWrapper tw : recurringTasks) {
+        if (filter.test(tw) && removeQueuedTask(tw)) {
+          return true;
+        }
+      }
+      
+      return false;
+    }
+
+    /**
+     * Invoked before a task is added into one of the queues.  This associates the task with this 
+     * {@link QueueSet} so that it can later be removed or purged without searching for it, and 
+     * adds it into the {@link #taskIndex} if enabled.
+     * 
+     * @since 5.37
+     * @param tw Task which is about to be queued
+     */
+    protected void prepareTask(TaskWrapper tw) {
+      tw.owningQueueSet = this;
+      if (taskIndex != null) {
+        indexTask(tw);
+      }
+    }
+
+    /**
+     * Removes a task which is known to be held within this {@link QueueSet}.  One time tasks are 
+     * only invalidated and left in their queue, consumers will drop them (and update the dead 
+     * task count) once they are reached, or they will be removed once enough dead tasks have 
+     * accumulated for {@link #purgeDeadTasks()} to be worth while.  Recurring tasks are removed 
+     * immediately, and if currently executing will not be queued again.
+     * 
+     * @since 5.37
+     * @param tw Task to be removed
+     * @return {@code true} if the task was removed, {@code false} if already running or removed
+     */
+    protected boolean removeQueuedTask(TaskWrapper tw) {
+      if (tw instanceof OneTimeTaskWrapper) {
+        // count before the task can be purged so the count never goes negative
+        LongAdder deadCounter = deadTaskCounter(tw);
+        deadCounter.increment();
+        if (! tw.setQueueState(TaskWrapper.QUEUE_STATE_QUEUED, TaskWrapper.QUEUE_STATE_REMOVED)) {
+          deadCounter.decrement();
+          return false;
+        }
+      } else if (tw instanceof RecurringTaskWrapper) {
+        if (! tw.setQueueState(TaskWrapper.QUEUE_STATE_QUEUED, TaskWrapper.QUEUE_STATE_PURGED)) {
+          return false;
+        }
+        recurringQueue.remove(tw);
+        recurringTasks.remove(tw);
+      } else {
+        synchronized (scheduleQueue.getModificationLock()) {
+          if (! tw.setQueueState(TaskWrapper.QUEUE_STATE_QUEUED, TaskWrapper.QUEUE_STATE_PURGED) || 
+              ! scheduleQueue.remove(tw)) {
+            return false;
+          }
+        }
+      }
+      tw.invalidate();
+      unindexTask(tw);
+      
+      if (shouldPurgeDeadTasks()) {
+        purgeDeadTasks();
+      }
+      return true;
+    }
+
+    /**
+     * Invoked once a one time task has been removed from its queue in preparation for 
+     * execution.  This will claim the task for execution, or if it was already removed (for 
+     * example because it was canceled) drop it.
+     * 
+     * @since 5.37
+     * @param tw Task which has been removed from its queue
+     * @return {@code true} if the task should be executed
+     */
+    protected boolean claimForExecution(TaskWrapper tw) {
+      if (tw.setQueueState(TaskWrapper.QUEUE_STATE_QUEUED, TaskWrapper.QUEUE_STATE_CLAIMED)) {
+        unindexTask(tw);
+        return true;
+      } else {
+        purgeIfRemoved(tw);
+        return false;
+      }
+    }
+
+    /**
+     * Invoked after a task has been removed from the queues without being executed.  This 
+     * ensures the task can no longer be executed, as well as updating the dead task count if it 
+     * had already been removed through {@link #removeQueuedTask(TaskWrapper)}.
+     * 
+     * @since 5.37
+     * @param tw Task which was removed from the queues
+     */
+    protected void taskPurged(TaskWrapper tw) {
+      if (tw.setQueueState(TaskWrapper.QUEUE_STATE_QUEUED, TaskWrapper.QUEUE_STATE_PURGED)) {
+        unindexTask(tw);
+      } else {
+        purgeIfRemoved(tw);
+      }
+    }
+
+    /**
+     * Invoked as a task is being dropped from the queues.  If the task was previously removed 
+     * through {@link #removeQueuedTask(TaskWrapper)} this will update the dead task count.
+     * 
+     * @since 5.37
+     * @param tw Task which is being dropped
+     * @return {@code true} if the task had been removed and is now purged
+     */
+    protected boolean purgeIfRemoved(TaskWrapper tw) {
+      if (tw.queueState == TaskWrapper.QUEUE_STATE_REMOVED && 
+          tw.setQueueState(TaskWrapper.QUEUE_STATE_REMOVED, TaskWrapper.QUEUE_STATE_PURGED)) {
+        deadTaskCounter(tw).decrement();
+        return true;
+      } else {
+        return false;
+      }
+    }
+
+    /**
+     * Returns the counter a removed task should be tracked in.  Tasks in the 
+     * {@link #localExecuteQueue} are tracked separately since {@link #purgeDeadTasks()} can not 
+     * remove them, they are only dropped once the consuming thread reaches them.  Counting them 
+     * towards {@link #shouldPurgeDeadTasks()} would cause purges which can not reduce the count.
+     * 
+     * @since 5.37
+     * @param tw Task which is being removed or dropped
+     * @return Counter for the dead task
+     */
+    protected LongAdder deadTaskCounter(TaskWrapper tw) {
+      if (tw instanceof OneTimeTaskWrapper && 
+          ((OneTimeTaskWrapper)tw).taskQueue == localExecuteQueue) {
+        return localDeadTaskCount;
+      } else {
+        return deadTaskCount;
+      }
+    }
+
+    /**
+     * Returns the quantity of tasks which have been canceled or removed, but are still held in 
+     * the queues waiting to be purged (or for local tasks, dropped by the consuming thread).
+     * 
+     * @since 5.37
+     * @return Quantity of dead tasks still held in the queues
+     */
+    public int getDeadTaskCount() {
+      return deadTaskCount.intValue() + localDeadTaskCount.intValue();
+    }
+
+    /**
+     * Checks if enough dead tasks have accumulated that a call to {@link #purgeDeadTasks()} 
+     * should be made.  This is once there are at least {@link #PURGE_MIN_DEAD_TASKS} dead tasks, 
+     * and they represent at least half of the scheduled tasks.
+     * 
+     * @since 5.37
+     * @return {@code true} if dead tasks should be purged
+     */
+    protected boolean shouldPurgeDeadTasks() {
+      int deadCount = deadTaskCount.intValue();
+      return deadCount >= PURGE_MIN_DEAD_TASKS && deadCount * 2 >= scheduledTaskCount() && 
+               ! purgeLock.isLocked();
+    }
+
+    /**
+     * Returns the quantity of tasks held for delayed execution, including dead tasks which have 
+     * not been purged yet.
+     * 
+     * @since 5.37
+     * @return Quantity of tasks held for delayed execution
+     */
+    protected int scheduledTaskCount() {
+      return scheduleQueue.size() + recurringTasks.size();
+    }
+
+    /**
+     * Removes any tasks from the queues which were removed or canceled but are still held.  This 
+     * will traverse the queues, so it is only invoked once the dead tasks are a large enough 
+     * fraction of the queue that the cost is amortized over the removals.  If another thread is 
+     * already purging this will return immediately.
+     * 
+     * @since 5.37
+     */
+    protected void purgeDeadTasks() {
+      if (! purgeLock.tryLock()) {
+        return;
+      }
+      try {
+        Iterator<OneTimeTaskWrapper> it = executeQueue.iterator();
+        while (it.hasNext()) {
+          if (purgeIfRemoved(it.next())) {
+            it.remove();
+          }
+        }
+        synchronized (scheduleQueue.getModificationLock()) {
+          HashSet<TaskWrapper> deadTasks = null;
+          for (TaskWrapper tw : scheduleQueue) {
+            if (purgeIfRemoved(tw)) {
+              if (deadTasks == null) {
+                deadTasks = new HashSet<>();
+              }
+              deadTasks.add(tw);
+            }
+          }
+          if (deadTasks != null) {
+            scheduleQueue.removeAll(deadTasks);
+          }
+        }
+      } finally {
+        purgeLock.unlock();
+      }
+    }
+
+    /**
+     * Adds the task into {@link #taskIndex}.  The task is indexed under the submitted task, as 
+     * well as any runnables or callables it contains (so that a submitted future can be removed 
+     * by the callable which was provided).  If a key is shared by multiple queued tasks, it is 
+     * marked so that removal falls back to a queue search for that key.
+     * 
+     * @param tw Task to be indexed, must be done before the task is added to a queue
+     */
+    protected void indexTask(TaskWrapper tw) {
+      // keys are retained since futures may release their contained task once complete
+      ArrayList<Object> keys = new ArrayList<>(4);
+      collectIndexKeys(tw.task, keys);
+      tw.indexKeys = keys.toArray();
+      for (Object key : tw.indexKeys) {
+        taskIndex.compute(key, (k, v) -> {
+          if (v == null || v == tw) {
+            return tw;
+          } else if (v instanceof IndexCollision) {
+            ((IndexCollision)v).count++;
+            return v;
+          } else {
+            return new IndexCollision();
+          }
+        });
+      }
+    }
+
+    /**
+     * Removes the task from {@link #taskIndex}.  This must be invoked only once per task, after 
+     * the task has transitioned out of the queued index state.
+     * 
+     * @param tw Task to be removed from the index
+     */
+    protected void unindexTask(TaskWrapper tw) {
+      if (tw.indexKeys == null) {
+        // task was added directly to the queue, and thus never indexed
+        return;
+      }
+      for (Object key : tw.indexKeys) {
+        taskIndex.computeIfPresent(key, (k, v) -> {
+          if (v == tw) {
+            return null;
+          } else if (v instanceof IndexCollision) {
+            IndexCollision collision = (IndexCollision)v;
+            // we don't know which tasks remain, so the search is used till they have all left
+            return --collision.count == 0 ? null : collision;
+          } else {
+            return v;
+          }
+        });
+      }
+    }
+
+    private static void collectIndexKeys(Object key, List<Object> keys) {
+      keys.add(key);
+      if (key instanceof RunnableContainer) {
+        Runnable r = ((RunnableContainer)key).getContainedRunnable();
+        if (r != null && r != key) {
+          collectIndexKeys(r, keys);
+        }
+      }
+      if (key instanceof CallableContainer) {
+        Callable<?> c = ((CallableContainer<?>)key).getContainedCallable();
+        if (c != null && c != key) {
+          collectIndexKeys(c, keys);
+        }
+      }
+    }
+
+    /**
+     * Call to get the total quantity of tasks within both stored queues.  This returns the total 
+     * quantity of items in both the execute and scheduled queue.  If there are scheduled tasks 
+     * which are NOT ready to run, they will still be included in this total.
+     * 
+     * @return Total quantity of tasks queued
+     */
+    public int queueSize() {
+      return executeQueue.size() + localExecuteQueue.size() + scheduleQueue.size() + 
+               recurringTasks.size() - deadTaskCount.intValue() - localDeadTaskCount.intValue() + 
+               (executeRing == null ? 0 : executeRing.size());
+    }
+
+    public void drainQueueInto(List<TaskWrapper> removedTasks) {
+      if (executeRing != null) {
+        Runnable r;
+        while ((r = executeRing.poll()) != null) {
+          removedTasks.add(new ImmediateTaskWrapper(r, null));
+        }
+      }
+      clearQueue(executeQueue, removedTasks);
+      // local tasks are left in their queue to be dropped once reached by the consuming thread
+      for (OneTimeTaskWrapper tw : localExecuteQueue) {
+        if (removeQueuedTask(tw) && ! (tw.task instanceof InternalRunnable) && 
+            (! (tw.task instanceof Future) || ! ((Future<?>)tw.task).isCancelled())) {
+          removedTasks.add(SortUtils.getInsertionEndIndex((index) -> 
+                                                            removedTasks.get(index).getRunTime(), 
+                                                          removedTasks.size() - 1, 
+                                                          tw.getRunTime(), true), 
+                           tw);
+        }
+      }
+      synchronized (scheduleQueue.getModificationLock()) {
+        clearQueue(scheduleQueue, removedTasks);
+      }
+      clearQueue(recurringTasks, removedTasks);
+      recurringQueue.clear();
+    }
+  
+    protected void clearQueue(Collection<? extends TaskWrapper> queue, 
+                              List<TaskWrapper> resultList) {
+      boolean resultWasEmpty = resultList.isEmpty();
+      Iterator<? extends TaskWrapper> it = queue.iterator();
+      while (it.hasNext()) {
+        TaskWrapper tw = it.next();
+        if (tw.setQueueState(TaskWrapper.QUEUE_STATE_QUEUED, TaskWrapper.QUEUE_STATE_PURGED)) {
+          unindexTask(tw);
+        } else if (purgeIfRemoved(tw)) {
+          // already removed or canceled
+          continue;
+        }
+        // no need to cancel and return tasks which are already canceled
+        if (! (tw.task instanceof Future) || ! ((Future<?>)tw.task).isCancelled()) {
+          tw.invalidate();
+          // don't return tasks which were used only for internal behavior management
+          if (! (tw.task instanceof InternalRunnable)) {
+            if (resultWasEmpty) {
+              resultList.add(tw);
+            } else {
+              resultList.add(SortUtils.getInsertionEndIndex((index) -> 
+                                                              resultList.get(index).getRunTime(), 
+                                                            resultList.size() - 1, 
+                                                            tw.getRunTime(), true), 
+                             tw);
+            }
+          }
+        }
+      }
+      queue.clear();
+    }
+    
+    /**
+     * Gets the next task from this {@link QueueSet}.  This inspects both the execute queue and 
+     * against scheduled tasks to determine which task in this {@link QueueSet} should be executed 
+     * next.
+     * <p>
+     * The task returned from this may not be ready to executed, but at the time of calling it 
+     * will be the next one to execute.
+     * 
+     * @return TaskWrapper which will be executed next, or {@code null} if there are no tasks
+     */
+    public TaskWrapper getNextTask() {
+      TaskWrapper scheduledTask = scheduleQueue.peekFirst();
+      TaskWrapper recurringTask = peekRecurring();
+      if (recurringTask != null && 
+          (scheduledTask == null || recurringTask.getRunTime() < scheduledTask.getRunTime())) {
+        scheduledTask = recurringTask;
+      }
+      TaskWrapper executeTask = executeQueue.peek();
+      if (executeRing != null) {
+        // ring tasks are only added while the execute queue is empty, so they are always first
+        TaskWrapper ringTask = executeRing.peek();
+        if (ringTask != null) {
+          executeTask = ringTask;
+        }
+      }
+      TaskWrapper localTask = localExecuteQueue.peek();
+      if (localTask != null && 
+          (executeTask == null || localTask.getRunTime() < executeTask.getRunTime())) {
+        executeTask = localTask;
+      }
+      if (executeTask != null) {
+        if (scheduledTask != null && scheduledTask.getRunTime() < executeTask.getRunTime()) {
+          return scheduledTask;
+        } else {
+          return executeTask;
+        }
+      } else {
+        return scheduledTask;
+      }
+    }
+  }
+
+  /**
+   * Value stored in {@link QueueSet#taskIndex} when multiple queued tasks are indexed under the 
+   * same key.  Only modified while the index entry is being computed.
+   * 
+   * @since 5.37
+   */
+  protected static class IndexCollision {
+    protected int count = 2;
+  }
+
+  /**
+   * Bounded multi-producer / multi-consumer ring buffer of preallocated task slots.  Each slot is 
+   * a {@link RingSlotTaskWrapper} which is reused as the ring wraps around, so once constructed 
+   * adding and executing tasks through this ring does not allocate.  Ordering of the slots is 
+   * managed through a sequence number per slot, so producers and consumers only contend on the 
+   * head or tail position they are advancing.
+   * <p>
+   * The head slot is provided from {@link #peek()} so that it can participate in the normal 
+   * {@link QueueSet} task arbitration.  A consumer claims it through 
+   * {@link TaskWrapper#canExecute(short)}, and the slot is only released back to producers once 
+   * {@link TaskWrapper#runTask()} has been invoked.  A slot which is claimed but not yet run will 
+   * cause producers to see the ring as full, rather than waiting.
+   * 
+   * @since 5.37
+   */
+  protected static class ExecuteRingBuffer {
+    protected final RingSlotTaskWrapper[] slots;
+    protected final int mask;
+    protected final AtomicLong head;  // next position to be consumed
+    protected final AtomicLong tail;  // next position to be produced
+
+    /**
+     * Constructs a new {@link ExecuteRingBuffer}.  The capacity will be rounded up to the next 
+     * power of two (and at least two).
+     * 
+     * @param capacity Minimum number of task slots to preallocate
+     */
+    public ExecuteRingBuffer(int capacity) {
+      ArgumentVerifier.assertGreaterThanZero(capacity, "capacity");
+      
+      int size = 2;
+      while (size < capacity) {
+        size <<= 1;
+      }
+      this.slots = new RingSlotTaskWrapper[size];
+      this.mask = size - 1;
+      for (int i = 0; i < size; i++) {
+        slots[i] = new RingSlotTaskWrapper(this, i);
+      }
+      this.head = new AtomicLong(0);
+      this.tail = new AtomicLong(0);
+    }
+
+    /**
+     * Attempts to add a task into the next slot of the ring.
+     * 
+     * @param task Task to be added
+     * @param runTime Run time for the task, used when arbitrating against other queues
+     * @return {@code true} if added, {@code false} if the ring is full
+     */
+    public boolean offer(Runnable task, long runTime) {
+      while (true) {
+        long pos = tail.get();
+        RingSlotTaskWrapper slot = slots[(int)pos & mask];
+        long seq = slot.sequence;
+        if (seq == pos) {
+          if (tail.compareAndSet(pos, pos + 1)) {
+            slot.slotTask = task;
+            slot.runTime = runTime;
+            slot.sequence = pos + 1;  // publish to consumers
+            return true;
+          }
+        } else if (seq < pos) {
+          // slot from previous lap has not been consumed yet
+          return false;
+        } // else another producer has advanced the tail, retry
+      }
+    }
+
+    /**
+     * Returns the slot at the head of the ring if it contains a task ready for consumption.
+     * 
+     * @return Head slot or {@code null} if none is ready
+     */
+    public RingSlotTaskWrapper peek() {
+      long pos = head.get();
+      RingSlotTaskWrapper slot = slots[(int)pos & mask];
+      return slot.sequence == pos + 1 ? slot : null;
+    }
+
+    /**
+     * Attempts to claim the provided slot for execution.  This will only succeed if the slot is 
+     * currently published and at the head of the ring.  Once claimed the slot must be released 
+     * with {@link #release(RingSlotTaskWrapper)}.
+     * 
+     * @param slot Slot to claim
+     * @return {@code true} if the slot was claimed
+     */
+    protected boolean claim(RingSlotTaskWrapper slot) {
+      long pos = slot.sequence - 1;
+      // sequence may indicate the slot was released, in which case it will not map to this index
+      return ((int)pos & mask) == slot.index && head.compareAndSet(pos, pos + 1);
+    }
+
+    /**
+     * Releases a claimed slot back to producers, returning the task it contained.
+     * 
+     * @param slot Slot previously claimed
+     * @return Task held in the slot, or {@code null} if it was removed
+     */
+    protected Runnable release(RingSlotTaskWrapper slot) {
+      Runnable result = RingSlotTaskWrapper.SLOT_TASK_UPDATER.getAndSet(slot, null);
+      slot.sequence = slot.sequence - 1 + slots.length;
+      return result;
+    }
+
+    /**
+     * Removes and returns the next task from the ring, skipping any removed tasks.
+     * 
+     * @return Next task or {@code null} if the ring is empty
+     */
+    public Runnable poll() {
+      while (true) {
+        RingSlotTaskWrapper slot = peek();
+        if (slot == null) {
+          if (head.get() == tail.get()) {
+            return null;
+          }
+          // producer or consumer has not finished with the head slot yet
+          Thread.yield();
+        } else if (claim(slot)) {
+          Runnable result = release(slot);
+          if (result != null) {
+            return result;
+          }
+        }
+      }
+    }
+
+    /**
+     * Removes the first queued task which matches the filter.  The slot will remain in the ring 
+     * until it is reached by a consumer, but the task will not be executed.
+     * 
+     * @param filter Filter to match the task against
+     * @return {@code true} if a matching task was removed
+     */
+    public boolean remove(Predicate<Runnable> filter) {
+      for (long pos = head.get(); pos < tail.get(); pos++) {
+        RingSlotTaskWrapper slot = slots[(int)pos & mask];
+        Runnable r = slot.slotTask;
+        if (r != null && slot.sequence == pos + 1 && filter.test(r) && 
+            RingSlotTaskWrapper.SLOT_TASK_UPDATER.compareAndSet(slot, r, null)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Returns the approximate number of slots which are currently in use.
+     * 
+     * @return Number of queued tasks
+     */
+    public int size() {
+      return (int)Math.max(0, tail.get() - head.get());
+    }
+  }
+
+  /**
+   * Queue of tasks which were submitted by the thread consuming from a {@link QueueSet} to 
+   * itself.  Tasks are only added and removed by that single consuming thread, so this is backed 
+   * by a growable array with no CAS operations or locking.  The head and tail positions are 
+   * published with ordered writes, so that other threads can still inspect the queue (through 
+   * {@link #peek()}, {@link #size()} or iteration) in order to count or remove tasks.  Those 
+   * threads must never modify the queue, instead queued tasks are removed by invalidating them, 
+   * and will be dropped once reached by the consuming thread.
+   * <p>
+   * Only the head task may be removed through {@link #remove(Object)}, which matches how 
+   * {@link OneTimeTaskWrapper#canExecute(short)} will claim tasks from this queue.
+   * 
+   * @since 5.37
+   */
+  protected static class LocalTaskQueue extends AbstractQueue<OneTimeTaskWrapper> {
+    protected static final int INITIAL_CAPACITY = 16;
+    private static final AtomicLongFieldUpdater<LocalTaskQueue> HEAD_UPDATER = 
+        AtomicLongFieldUpdater.newUpdater(LocalTaskQueue.class, "head");
+    private static final AtomicLongFieldUpdater<LocalTaskQueue> TAIL_UPDATER = 
+        AtomicLongFieldUpdater.newUpdater(LocalTaskQueue.class, "tail");
+    
+    // lazily constructed since most queue sets will never have local tasks
+    protected volatile OneTimeTaskWrapper[] buffer = null;
+    protected volatile long head = 0;  // next position to be consumed
+    protected volatile long tail = 0;  // next position to be produced
+
+    /**
+     * Adds a task to the end of the queue.  This must only be invoked by the consuming thread.
+     * 
+     * @param task Task to be added
+     * @return Always {@code true} as the queue will grow as needed
+     */
+    @Override
+    public boolean offer(OneTimeTaskWrapper task) {
+      OneTimeTaskWrapper[] buffer = this.buffer;
+      long tail = this.tail;
+      if (buffer == null) {
+        buffer = this.buffer = new OneTimeTaskWrapper[INITIAL_CAPACITY];
+      } else if (tail - head == buffer.length) {
+        buffer = grow(buffer, tail);
+      }
+      buffer[(int)tail & (buffer.length - 1)] = task;
+      TAIL_UPDATER.lazySet(this, tail + 1);  // publish to other threads
+      return true;
+    }
+    
+    private OneTimeTaskWrapper[] grow(OneTimeTaskWrapper[] buffer, long tail) {
+      OneTimeTaskWrapper[] result = new OneTimeTaskWrapper[buffer.length * 2];
+      for (long i = head; i < tail; i++) {
+        result[(int)i & (result.length - 1)] = buffer[(int)i & (buffer.length - 1)];
+      }
+      this.buffer = result;
+      return result;
+    }
+
+    /**
+     * Returns the task at the head of the queue.  If invoked by a thread other than the 
+     * consuming thread, the returned task may have already been consumed, or {@code null} may be 
+     * returned while tasks are still queued.
+     * 
+     * @return Head task or {@code null} if the queue is empty
+     */
+    @Override
+    public OneTimeTaskWrapper peek() {
+      long head = this.head;
+      if (head == tail) {
+        return null;
+      }
+      OneTimeTaskWrapper[] buffer = this.buffer;
+      return buffer[(int)head & (buffer.length - 1)];
+    }
+
+    /**
+     * Removes the task at the head of the queue.  This must only be invoked by the consuming 
+     * thread.
+     * 
+     * @return Removed task or {@code null} if the queue is empty
+     */
+    @Override
+    public OneTimeTaskWrapper poll() {
+      long head = this.head;
+      if (head == tail) {
+        return null;
+      }
+      OneTimeTaskWrapper[] buffer = this.buffer;
+      int index = (int)head & (buffer.length - 1);
+      OneTimeTaskWrapper result = buffer[index];
+      buffer[index] = null;
+      HEAD_UPDATER.lazySet(this, head + 1);
+      return result;
+    }
+
+    /**
+     * Removes the provided task if it is at the head of the queue.  This must only be invoked by 
+     * the consuming thread.
+     * 
+     * @param o Task to be removed
+     * @return {@code true} if the task was at the head of the queue and has been removed
+     */
+    @Override
+    public boolean remove(Object o) {
+      if (o != null && peek() == o) {
+        poll();
+        return true;
+      } else {
+        return false;
+      }
+    }
+
+    @Override
+    public int size() {
+      long head = this.head;
+      return (int)(tail - head);
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return head == tail;
+    }
+
+    /**
+     * Returns an iterator over the queued tasks.  The iterator may be used by any thread, but 
+     * does not support removal.  If the queue is modified during iteration tasks may be missed 
+     * or returned more than once.
+     * 
+     * @return Iterator over the queued tasks
+     */
+    @Override
+    public Iterator<OneTimeTaskWrapper> iterator() {
+      long head = this.head;
+      long tail = this.tail;
+      OneTimeTaskWrapper[] buffer = this.buffer;
+      return new Iterator<OneTimeTaskWrapper>() {
+        private long position = head;
+        private OneTimeTaskWrapper next = advance();
+        
+        private OneTimeTaskWrapper advance() {
+          while (buffer != null && position < tail) {
+            OneTimeTaskWrapper tw = buffer[(int)(position++) & (buffer.length - 1)];
+            if (tw != null) {
+              return tw;
+            }
+          }
+          return null;
+        }
+        
+        @Override
+        public boolean hasNext() {
+          return next != null;
+        }
+
+        @Override
+        public OneTimeTaskWrapper next() {
+          if (next == null) {
+            throw new NoSuchElementException();
+          }
+          OneTimeTaskWrapper result = next;
+          next = advance();
+          return result;
+        }
+      };
+    }
+  }
+
+  /**
+   * Reusable task wrapper which represents a single slot of an {@link ExecuteRingBuffer}.  The 
+   * contained task and run time are updated each time the slot is produced into.
+   * 
+   * @since 5.37
+   */
+  protected static class RingSlotTaskWrapper extends TaskWrapper {
+    protected static final AtomicReferenceFieldUpdater<RingSlotTaskWrapper, Runnable> SLOT_TASK_UPDATER = 
+        AtomicReferenceFieldUpdater.newUpdater(RingSlotTaskWrapper.class, Runnable.class, "slotTask");
+    
+    protected final ExecuteRingBuffer ring;
+    protected final int index;
+    protected volatile long sequence;
+    protected volatile Runnable slotTask;
+    protected volatile long runTime;
+
+    protected RingSlotTaskWrapper(ExecuteRingBuffer ring, int index) {
+      super(null);
+      
+      this.ring = ring;
+      this.index = index;
+      this.sequence = index;
+      this.slotTask = null;
+      this.runTime = 0;
+    }
+
+    @Override
+    public void runTask() {
+      Runnable r = ring.release(this);
+      if (r != null) {
+        try {
+          r.run();
+        } catch (Throwable t) {
+          ExceptionUtils.handleException(t);
+        }
+      }
+    }
+
+    /**
+     * Similar to {@link #runTask()}, except that any failure from the task will be thrown rather 
+     * than handled.  This allows the consumer to handle task failures itself.
+     * 
+     * @since 5.37
+     * @return {@code true} if the task was run, {@code false} if it was removed before running
+     */
+    public boolean runTaskUnhandled() {
+      Runnable r = ring.release(this);
+      if (r == null) {
+        return false;
+      }
+      r.run();
+      return true;
+    }
+
+    @Override
+    public short getExecuteReference() {
+      // claiming is guarded by the ring sequence instead
+      return 0;
+    }
+
+    @Override
+    public boolean canExecute(short ignoredExecuteReference) {
+      return ring.claim(this);
+    }
+
+    @Override
+    public long getRunTime() {
+      return runTime;
+    }
+
+    @Override
+    public long getPureRunTime() {
+      return runTime;
+    }
+
+    @Override
+    public long getScheduleDelay() {
+      // slots only hold tasks for immediate execution
+      return 0;
+    }
+
+    @Override
+    public Runnable getContainedRunnable() {
+      return slotTask;
+    }
+
+    @Override
+    public String toString() {
+      return String.valueOf(slotTask);
+    }
+  }
+
+  /**
+   * Implementation of {@link QueueSet} which holds delayed one time tasks in a hierarchical timing
+   * wheel rather than inserting them directly into the sorted schedule queue.  Submitting a
+   * delayed task is a lock free queue insertion, and the sorted {@link #scheduleQueue} only ever
+   * contains tasks which are within one tick of being ready to run (as well as recurring tasks,
+   * which continue to be managed in the sorted queue).  This keeps the insertion cost and lock
+   * hold time small even with a very large number of pending timeouts.
+   * <p>
+   * As time progresses, the wheel is advanced by threads consuming tasks from this queue set.
+   * When a wheel slot becomes due its tasks are transferred into the sorted schedule queue, so
+   * execution order is maintained for tasks which are further apart than the tick resolution.
+   * Tasks within the same tick are still ordered correctly once transferred, the only imprecision
+   * is that a consuming thread may wait up to one additional tick before the transfer.
+   *
+   * @since 5.37
+   */
+  protected static class TimingWheelQueueSet extends QueueSet {
+    protected static final int WHEEL_BITS = 8;
+    protected static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    protected static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    protected static final int WHEEL_LEVELS = 4;
+
+    protected final long tickMillis;
+    protected final ConcurrentLinkedQueue<OneTimeTaskWrapper> incomingQueue;
+    protected final ReentrantLock wheelLock;
+    protected final AtomicReference<TaskWrapper> wheelHead;
+    protected final LongAdder wheelTaskCount;
+    // reused while the head is unchanged, so polling the head does not allocate
+    private volatile WheelPlaceholderTaskWrapper headPlaceholder;
+    // below fields can only be accessed while holding wheelLock
+    private final ArrayList<OneTimeTaskWrapper>[][] wheel;
+    private final int[] levelCounts;
+    private final ArrayList<OneTimeTaskWrapper> overflow;
+    private long wheelTick;
+
+    public TimingWheelQueueSet(QueueSetListener queueListener, long tickMillis) {
+      this(queueListener, tickMillis, false);
+    }
+
+    /**
+     * Constructs a new {@link TimingWheelQueueSet}, optionally maintaining a task removal index.  
+     * See {@link QueueSet#QueueSet(QueueSetListener, boolean)} for details on the index.
+     * 
+     * @param queueListener Listener to be invoked when the head of a queue has been updated
+     * @param tickMillis Tick resolution of the timing wheel in milliseconds
+     * @param indexTasks {@code true} to maintain a task removal index
+     */
+    public TimingWheelQueueSet(QueueSetListener queueListener, long tickMillis, 
+                               boolean indexTasks) {
+      this(queueListener, tickMillis, indexTasks, 0);
+    }
+
+    /**
+     * Constructs a new {@link TimingWheelQueueSet}, optionally maintaining a task removal index 
+     * and execute ring buffer.  See {@link QueueSet#QueueSet(QueueSetListener, boolean, int)} 
+     * for details on the index and ring buffer.
+     * 
+     * @param queueListener Listener to be invoked when the head of a queue has been updated
+     * @param tickMillis Tick resolution of the timing wheel in milliseconds
+     * @param indexTasks {@code true} to maintain a task removal index
+     * @param executeRingCapacity Slots to preallocate for execution, or {@code 0} to disable
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheelQueueSet(QueueSetListener queueListener, long tickMillis, 
+                               boolean indexTasks, int executeRingCapacity) {
+      super(queueListener, indexTasks, executeRingCapacity);
+
+      ArgumentVerifier.assertGreaterThanZero(tickMillis, "tickMillis");
+
+      this.tickMillis = tickMillis;
+      this.incomingQueue = new ConcurrentLinkedQueue<>();
+      this.wheelLock = new ReentrantLock();
+      this.wheelHead = new AtomicReference<>(null);
+      this.wheelTaskCount = new LongAdder();
+      this.headPlaceholder = null;
+      this.wheel = new ArrayList[WHEEL_LEVELS][WHEEL_SIZE];
+      this.levelCounts = new int[WHEEL_LEVELS];
+      this.overflow = new ArrayList<>(0);
+      this.wheelTick = (Clock.accurateForwardProgressingMillis() / tickMillis) + 1;
+    }
+
+    /**
+     * Adds a task for delayed execution.  One time tasks which are not due within the current
+     * tick are added to the timing wheel without any locking.  Recurring tasks, or tasks which
+     * are due soon, are inserted directly into the sorted schedule queue.
+     *
+     * @param task Task to insert into the schedule queue
+     */
+    @Override
+    public void addScheduled(TaskWrapper task) {
+      long runTime = task.getRunTime();
+      if (! (task instanceof OneTimeTaskWrapper) ||
+          runTime < Clock.lastKnownForwardProgressingMillis() + tickMillis) {
+        super.addScheduled(task);
+        return;
+      }
+
+      prepareTask(task);
+      wheelTaskCount.increment();
+      incomingQueue.add((OneTimeTaskWrapper)task);
+
+      while (true) {
+        TaskWrapper currentHead = wheelHead.get();
+        if (currentHead != null && currentHead.getRunTime() <= runTime) {
+          break;
+        } else if (wheelHead.compareAndSet(currentHead, task)) {
+          queueListener.handleQueueUpdate();
+          break;
+        }
+      }
+    }
+
+    @Override
+    protected boolean removeMatching(Predicate<TaskWrapper> filter) {
+      return super.removeMatching(filter) || removeFromWheel(filter);
+    }
+
+    /**
+     * Removes a task which is known to be held within this {@link QueueSet}.  If the task has 
+     * been placed into a wheel slot, it is removed from that slot directly using the location 
+     * recorded on the task.  Tasks which have not yet been placed (or have been transferred to 
+     * the schedule queue) are handled the same as {@link QueueSet#removeQueuedTask(TaskWrapper)}.
+     *
+     * @param tw Task to be removed
+     * @return {@code true} if the task was removed, {@code false} if already running or removed
+     */
+    @Override
+    protected boolean removeQueuedTask(TaskWrapper tw) {
+      if (tw instanceof OneTimeTaskWrapper) {
+        OneTimeTaskWrapper otw = (OneTimeTaskWrapper)tw;
+        wheelLock.lock();
+        try {
+          if (otw.wheelSlot != null) {
+            if (! tw.setQueueState(TaskWrapper.QUEUE_STATE_QUEUED, TaskWrapper.QUEUE_STATE_PURGED)) {
+              return false;
+            }
+            removeFromSlot(otw);
+            wheelTaskCount.decrement();
+            tw.invalidate();
+            unindexTask(tw);
+            // if this was the wheel head, it will be replaced when the wheel next advances
+            return true;
+          }
+        } finally {
+          wheelLock.unlock();
+        }
+      }
+      return super.removeQueuedTask(tw);
+    }
+
+    /**
+     * Searches the tasks held in the wheel (but not yet transferred to the schedule queue) for a
+     * task matching the provided filter.  If found the task is invalidated and removed.  This is 
+     * only used when the task could not be found through the task removal index.
+     *
+     * @param filter Filter to check if the task matches
+     * @return {@code true} if a task was found and removed
+     */
+    private boolean removeFromWheel(Predicate<TaskWrapper> filter) {
+      wheelLock.lock();
+      try {
+        Iterator<OneTimeTaskWrapper> it = incomingQueue.iterator();
+        while (it.hasNext()) {
+          OneTimeTaskWrapper tw = it.next();
+          if (filter.test(tw) && (taskIndex == null || super.removeQueuedTask(tw)) && 
+              incomingQueue.remove(tw)) {
+            tw.invalidate();
+            wheelTaskCount.decrement();
+            taskPurged(tw);
+            return true;
+          }
+        }
+        for (int level = 0; level < WHEEL_LEVELS; level++) {
+          if (levelCounts[level] == 0) {
+            continue;
+          }
+          for (ArrayList<OneTimeTaskWrapper> slot : wheel[level]) {
+            if (slot != null && removeFromList(slot, filter)) {
+              return true;
+            }
+          }
+        }
+        return removeFromList(overflow, filter);
+      } finally {
+        wheelLock.unlock();
+      }
+    }
+
+    private boolean removeFromList(List<OneTimeTaskWrapper> list, 
+                                   Predicate<TaskWrapper> filter) {
+      for (OneTimeTaskWrapper tw : list) {
+        if (filter.test(tw) && 
+            tw.setQueueState(TaskWrapper.QUEUE_STATE_QUEUED, TaskWrapper.QUEUE_STATE_PURGED)) {
+          removeFromSlot(tw);
+          wheelTaskCount.decrement();
+          tw.invalidate();
+          unindexTask(tw);
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Adds a task into a wheel slot, recording its location on the task so it can later be 
+     * removed without searching.  This must only be invoked while holding {@link #wheelLock}.
+     *
+     * @param slot Slot to add the task into
+     * @param level Wheel level of the slot, or {@link #WHEEL_LEVELS} for the overflow list
+     * @param task Task to be added
+     */
+    private static void addToSlot(ArrayList<OneTimeTaskWrapper> slot, int level, 
+                                  OneTimeTaskWrapper task) {
+      task.wheelSlot = slot;
+      task.wheelLevel = level;
+      task.wheelSlotPosition = slot.size();
+      slot.add(task);
+    }
+
+    /**
+     * Removes a task from the wheel slot it is recorded in.  The last task of the slot is moved 
+     * into its position, so removal is constant time.  This must only be invoked while holding 
+     * {@link #wheelLock}.
+     *
+     * @param task Task to be removed from its slot
+     */
+    private void removeFromSlot(OneTimeTaskWrapper task) {
+      ArrayList<OneTimeTaskWrapper> slot = task.wheelSlot;
+      OneTimeTaskWrapper last = slot.remove(slot.size() - 1);
+      if (last != task) {
+        slot.set(task.wheelSlotPosition, last);
+        last.wheelSlotPosition = task.wheelSlotPosition;
+      }
+      if (task.wheelLevel < WHEEL_LEVELS) {
+        levelCounts[task.wheelLevel]--;
+      }
+      task.wheelSlot = null;
+    }
+
+    /**
+     * Moves all tasks out of a slot, clearing their recorded location.  This must only be invoked 
+     * while holding {@link #wheelLock}.
+     *
+     * @param slot Slot to take the tasks from
+     * @param result List to add the tasks into
+     */
+    private static void takeSlot(ArrayList<OneTimeTaskWrapper> slot, List<? super OneTimeTaskWrapper> result) {
+      for (OneTimeTaskWrapper tw : slot) {
+        tw.wheelSlot = null;
+        result.add(tw);
+      }
+      slot.clear();
+    }
+
+    @Override
+    protected int heldReadyTaskCount() {
+      TaskWrapper head = wheelHead.get();
+      if (head == null || head.getScheduleDelay() > 0) {
+        return 0;
+      }
+      long now = Clock.accurateForwardProgressingMillis();
+      int result = 0;
+      wheelLock.lock();
+      try {
+        result += countReady(incomingQueue, now);
+        for (int level = 0; level < WHEEL_LEVELS; level++) {
+          if (levelCounts[level] == 0) {
+            continue;
+          }
+          for (ArrayList<OneTimeTaskWrapper> slot : wheel[level]) {
+            if (slot != null) {
+              result += countReady(slot, now);
+            }
+          }
+        }
+        result += countReady(overflow, now);
+      } finally {
+        wheelLock.unlock();
+      }
+      return result;
+    }
+
+    private static int countReady(Collection<OneTimeTaskWrapper> tasks, long now) {
+      int result = 0;
+      for (OneTimeTaskWrapper tw : tasks) {
+        if (! tw.invalidated && tw.getRunTime() <= now) {
+          result++;
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public int queueSize() {
+      return super.queueSize() + wheelTaskCount.intValue();
+    }
+
+    @Override
+    protected int scheduledTaskCount() {
+      return super.scheduledTaskCount() + wheelTaskCount.intValue();
+    }
+
+    @Override
+    protected void purgeDeadTasks() {
+      super.purgeDeadTasks();
+
+      wheelLock.lock();
+      try {
+        Iterator<OneTimeTaskWrapper> it = incomingQueue.iterator();
+        while (it.hasNext()) {
+          if (purgeIfRemoved(it.next())) {
+            it.remove();
+            wheelTaskCount.decrement();
+          }
+        }
+        for (int level = 0; level < WHEEL_LEVELS; level++) {
+          if (levelCounts[level] == 0) {
+            continue;
+          }
+          for (ArrayList<OneTimeTaskWrapper> slot : wheel[level]) {
+            if (slot != null) {
+              levelCounts[level] -= purgeList(slot);
+            }
+          }
+        }
+        purgeList(overflow);
+      } finally {
+        wheelLock.unlock();
+      }
+    }
+
+    private int purgeList(List<OneTimeTaskWrapper> list) {
+      int startSize = list.size();
+      if (! list.removeIf(this::purgeIfRemoved)) {
+        return 0;
+      }
+      // positions have shifted, so they must be recorded again
+      for (int i = 0; i < list.size(); i++) {
+        list.get(i).wheelSlotPosition = i;
+      }
+      int purgedCount = startSize - list.size();
+      wheelTaskCount.add(-purgedCount);
+      return purgedCount;
+    }
+
+    @Override
+    public void drainQueueInto(List<TaskWrapper> removedTasks) {
+      super.drainQueueInto(removedTasks);
+
+      wheelLock.lock();
+      try {
+        ArrayList<TaskWrapper> wheelTasks = new ArrayList<>(wheelTaskCount.intValue());
+        TaskWrapper tw;
+        while ((tw = incomingQueue.poll()) != null) {
+          wheelTasks.add(tw);
+        }
+        for (int level = 0; level < WHEEL_LEVELS; level++) {
+          for (ArrayList<OneTimeTaskWrapper> slot : wheel[level]) {
+            if (slot != null) {
+              takeSlot(slot, wheelTasks);
+            }
+          }
+          levelCounts[level] = 0;
+        }
+        takeSlot(overflow, wheelTasks);
+        wheelTaskCount.add(-wheelTasks.size());
+        wheelHead.set(null);
+
+        clearQueue(wheelTasks, removedTasks);
+      } finally {
+        wheelLock.unlock();
+      }
     }
 
     /**
-     * Adds a task for immediate execution.  No safety checks are done at this point, the task 
-     * will be immediately added and available for consumption.
-     * 
-     * @param task Task to add to end of execute queue
+     * Gets the next task from this {@link QueueSet}.  If the earliest task in the wheel is due
+     * within the next tick this will first attempt to advance the wheel (transferring due tasks
+     * into the sorted schedule queue).  If another thread is currently advancing the wheel this
+     * will not block for it.
+     * <p>
+     * If the next task is still held within the wheel, a place holder task will be returned.  The
+     * place holder represents the time the next task should run, but can never be executed.
+     * Once that time has been reached a future invocation will transfer the actual task so it can
+     * be executed.
+     *
+     * @return TaskWrapper which will be executed next, or {@code null} if there are no tasks
      */
-    public void addExecute(OneTimeTaskWrapper task) {
-      executeQueue.add(task);
+    @Override
+    public TaskWrapper getNextTask() {
+      TaskWrapper wheelTask = wheelHead.get();
+      if (wheelTask != null &&
+          wheelTask.getRunTime() < Clock.lastKnownForwardProgressingMillis() + tickMillis &&
+          wheelLock.tryLock()) {
+        try {
+          advanceWheel();
+        } finally {
+          wheelLock.unlock();
+        }
+        wheelTask = wheelHead.get();
+      }
 
-      queueListener.handleQueueUpdate();
+      TaskWrapper nextTask = super.getNextTask();
+      if (wheelTask == null ||
+          (nextTask != null && nextTask.getRunTime() <= wheelTask.getRunTime())) {
+        return nextTask;
+      } else {
+        WheelPlaceholderTaskWrapper placeholder = headPlaceholder;
+        if (placeholder == null || placeholder.wheelTask != wheelTask) {
+          headPlaceholder = placeholder = new WheelPlaceholderTaskWrapper(wheelTask);
+        }
+        return placeholder;
+      }
     }
 
     /**
-     * Adds a task for delayed execution.  No safety checks are done at this point.  This call 
-     * will safely find the insertion point in the scheduled queue and insert it into that 
-     * queue.
-     * 
-     * @param task Task to insert into the schedule queue
+     * Advances the wheel forward to the current time.  Tasks which have been added since the
+     * last advance are placed into their wheel slot, and any slots which are now due are
+     * transferred into the schedule queue.  This must only be invoked while holding
+     * {@link #wheelLock}.
      */
-    public void addScheduled(TaskWrapper task) {
-      int insertionIndex;
-      synchronized (scheduleQueue.getModificationLock()) {
-        insertionIndex = SortUtils.getInsertionEndIndex(scheduleQueueRunTimeByIndex, 
-                                                        scheduleQueue.size() - 1, 
-                                                        task.getRunTime(), true);
-        scheduleQueue.add(insertionIndex, task);
-      }
-      
-      if (insertionIndex == 0) {
-        queueListener.handleQueueUpdate();
+    private void advanceWheel() {
+      ArrayList<TaskWrapper> dueTasks = new ArrayList<>();
+      long nowTick = Clock.accurateForwardProgressingMillis() / tickMillis;
+      TaskWrapper newHead;
+      do {
+        OneTimeTaskWrapper tw;
+        while ((tw = incomingQueue.poll()) != null) {
+          placeInWheel(tw, dueTasks);
+        }
+
+        while (wheelTick <= nowTick) {
+          if ((wheelTick & WHEEL_MASK) == 0) {
+            cascade(dueTasks);
+          }
+
+          ArrayList<OneTimeTaskWrapper> slot = wheel[0][(int)(wheelTick & WHEEL_MASK)];
+          if (slot != null && ! slot.isEmpty()) {
+            levelCounts[0] -= slot.size();
+            takeSlot(slot, dueTasks);
+          }
+          wheelTick++;
+
+          // skip forward past any ticks which we know have no tasks
+          int lowestLevel = 0;
+          while (lowestLevel < WHEEL_LEVELS && levelCounts[lowestLevel] == 0) {
+            lowestLevel++;
+          }
+          if (lowestLevel == WHEEL_LEVELS && overflow.isEmpty()) {
+            wheelTick = Math.max(wheelTick, nowTick + 1);
+          } else if (lowestLevel > 0) {
+            int shift = WHEEL_BITS * lowestLevel;
+            if ((wheelTick & ((1L << shift) - 1)) != 0) {
+              wheelTick = Math.min(((wheelTick >>> shift) + 1) << shift, nowTick + 1);
+            }
+          }
+        }
+
+        newHead = findWheelHead();
+        wheelHead.set(newHead);
+        // loop in case tasks were added while we were setting the new head
+      } while (! incomingQueue.isEmpty());
+
+      if (! dueTasks.isEmpty()) {
+        transferDueTasks(dueTasks);
       }
     }
 
     /**
-     * Removes a given callable from the internal queues (if it exists).
-     * 
-     * @param task Callable to search for and remove
-     * @return {@code true} if the task was found and removed
+     * Places the task into the appropriate wheel slot relative to the current wheel tick.  If the
+     * task is already due it will be added to the provided list instead.
+     *
+     * @param task Task to be placed into the wheel
+     * @param dueTasks List to add the task to if it's already due
      */
-    public boolean remove(Callable<?> task) {
-      {
-        Iterator<? extends TaskWrapper> it = executeQueue.iterator();
-        while (it.hasNext()) {
-          TaskWrapper tw = it.next();
-          if (ContainerHelper.isContained(tw.task, task) && executeQueue.remove(tw)) {
-            tw.invalidate();
-            return true;
-          }
-        }
+    private void placeInWheel(OneTimeTaskWrapper task, List<TaskWrapper> dueTasks) {
+      long taskTick = task.getRunTime() / tickMillis;
+      if (taskTick < wheelTick) {
+        dueTasks.add(task);
+        return;
       }
-      synchronized (scheduleQueue.getModificationLock()) {
-        Iterator<? extends TaskWrapper> it = scheduleQueue.iterator();
-        while (it.hasNext()) {
-          TaskWrapper tw = it.next();
-          if (ContainerHelper.isContained(tw.task, task)) {
-            tw.invalidate();
-            it.remove();
-            
-            return true;
+      for (int level = 0; level < WHEEL_LEVELS; level++) {
+        int shift = WHEEL_BITS * (level + 1);
+        if ((taskTick >>> shift) == (wheelTick >>> shift)) {
+          int slotIndex = (int)((taskTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+          ArrayList<OneTimeTaskWrapper> slot = wheel[level][slotIndex];
+          if (slot == null) {
+            slot = wheel[level][slotIndex] = new ArrayList<>(2);
           }
+          addToSlot(slot, level, task);
+          levelCounts[level]++;
+          return;
         }
       }
-      
-      return false;
+      addToSlot(overflow, WHEEL_LEVELS, task);
     }
 
     /**
-     * Removes a given Runnable from the internal queues (if it exists).
-     * 
-     * @param task Runnable to search for and remove
-     * @return {@code true} if the task was found and removed
+     * Invoked as the wheel tick reaches a boundary for the first level.  This moves tasks from the
+     * higher levels down into the lower levels as their time range is reached.
+     *
+     * @param dueTasks List to add tasks into if any are found to be already due
      */
-    public boolean remove(Runnable task) {
-      {
-        Iterator<? extends TaskWrapper> it = executeQueue.iterator();
-        while (it.hasNext()) {
-          TaskWrapper tw = it.next();
-          if (ContainerHelper.isContained(tw.task, task) && executeQueue.remove(tw)) {
-            tw.invalidate();
-            return true;
-          }
+    private void cascade(List<TaskWrapper> dueTasks) {
+      if (! overflow.isEmpty() &&
+          (wheelTick & ((1L << (WHEEL_BITS * (WHEEL_LEVELS - 1))) - 1)) == 0) {
+        ArrayList<OneTimeTaskWrapper> overflowCopy = new ArrayList<>(overflow.size());
+        takeSlot(overflow, overflowCopy);
+        for (OneTimeTaskWrapper tw : overflowCopy) {
+          placeInWheel(tw, dueTasks);
         }
       }
-      synchronized (scheduleQueue.getModificationLock()) {
-        Iterator<? extends TaskWrapper> it = scheduleQueue.iterator();
-        while (it.hasNext()) {
-          TaskWrapper tw = it.next();
-          if (ContainerHelper.isContained(tw.task, task)) {
-            tw.invalidate();
-            it.remove();
-            
-            return true;
+      for (int level = WHEEL_LEVELS - 1; level > 0; level--) {
+        int shift = WHEEL_BITS * level;
+        if (levelCounts[level] == 0 || (wheelTick & ((1L << shift) - 1)) != 0) {
+          continue;
+        }
+        ArrayList<OneTimeTaskWrapper> slot = wheel[level][(int)((wheelTick >>> shift) & WHEEL_MASK)];
+        if (slot != null && ! slot.isEmpty()) {
+          levelCounts[level] -= slot.size();
+          ArrayList<OneTimeTaskWrapper> slotCopy = new ArrayList<>(slot.size());
+          takeSlot(slot, slotCopy);
+          for (OneTimeTaskWrapper tw : slotCopy) {
+            placeInWheel(tw, dueTasks);
           }
         }
       }
-      
-      return false;
     }
 
     /**
-     * Call to get the total quantity of tasks within both stored queues.  This returns the total 
-     * quantity of items in both the execute and scheduled queue.  If there are scheduled tasks 
-     * which are NOT ready to run, they will still be included in this total.
-     * 
-     * @return Total quantity of tasks queued
+     * Finds the earliest task held within the wheel.  This is the earliest task within the first
+     * populated slot of the lowest populated level.
+     *
+     * @return Earliest task in the wheel, or {@code null} if the wheel is empty
      */
-    public int queueSize() {
-      return executeQueue.size() + scheduleQueue.size();
-    }
-
-    public void drainQueueInto(List<TaskWrapper> removedTasks) {
-      clearQueue(executeQueue, removedTasks);
-      synchronized (scheduleQueue.getModificationLock()) {
-        clearQueue(scheduleQueue, removedTasks);
+    private TaskWrapper findWheelHead() {
+      for (int level = 0; level < WHEEL_LEVELS; level++) {
+        if (levelCounts[level] == 0) {
+          continue;
+        }
+        for (int i = (int)((wheelTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+             i < WHEEL_SIZE; i++) {
+          ArrayList<OneTimeTaskWrapper> slot = wheel[level][i];
+          if (slot != null && ! slot.isEmpty()) {
+            return findEarliest(slot);
+          }
+        }
       }
+      return findEarliest(overflow);
     }
-  
-    private static void clearQueue(Collection<? extends TaskWrapper> queue, 
-                                   List<TaskWrapper> resultList) {
-      boolean resultWasEmpty = resultList.isEmpty();
-      Iterator<? extends TaskWrapper> it = queue.iterator();
-      while (it.hasNext()) {
-        TaskWrapper tw = it.next();
-        // no need to cancel and return tasks which are already canceled
-        if (! (tw.task instanceof Future) || ! ((Future<?>)tw.task).isCancelled()) {
-          tw.invalidate();
-          // don't return tasks which were used only for internal behavior management
-          if (! (tw.task instanceof InternalRunnable)) {
-            if (resultWasEmpty) {
-              resultList.add(tw);
-            } else {
-              resultList.add(SortUtils.getInsertionEndIndex((index) -> 
-                                                              resultList.get(index).getRunTime(), 
-                                                            resultList.size() - 1, 
-                                                            tw.getRunTime(), true), 
-                             tw);
-            }
-          }
+
+    private static TaskWrapper findEarliest(List<OneTimeTaskWrapper> tasks) {
+      TaskWrapper result = null;
+      for (TaskWrapper tw : tasks) {
+        if (result == null || tw.getRunTime() < result.getRunTime()) {
+          result = tw;
         }
       }
-      queue.clear();
+      return result;
     }
-    
+
     /**
-     * Gets the next task from this {@link QueueSet}.  This inspects both the execute queue and 
-     * against scheduled tasks to determine which task in this {@link QueueSet} should be executed 
-     * next.
-     * <p>
-     * The task returned from this may not be ready to executed, but at the time of calling it 
-     * will be the next one to execute.
-     * 
-     * @return TaskWrapper which will be executed next, or {@code null} if there are no tasks
+     * Transfers tasks which are now due (or within the next tick of being due) into the sorted
+     * schedule queue.  Tasks which were invalidated while in the wheel are dropped.
+     *
+     * @param dueTasks Tasks which are to be moved into the schedule queue
      */
-    public TaskWrapper getNextTask() {
-      TaskWrapper scheduledTask = scheduleQueue.peekFirst();
-      TaskWrapper executeTask = executeQueue.peek();
-      if (executeTask != null) {
-        if (scheduledTask != null && scheduledTask.getRunTime() < executeTask.getRunTime()) {
-          return scheduledTask;
-        } else {
-          return executeTask;
+    private void transferDueTasks(List<TaskWrapper> dueTasks) {
+      wheelTaskCount.add(-dueTasks.size());
+      boolean headUpdated = false;
+      synchronized (scheduleQueue.getModificationLock()) {
+        for (TaskWrapper tw : dueTasks) {
+          if (tw.invalidated) {
+            purgeIfRemoved(tw);
+            continue;
+          }
+          int insertionIndex = SortUtils.getInsertionEndIndex(scheduleQueueRunTimeByIndex,
+                                                              scheduleQueue.size() - 1,
+                                                              tw.getRunTime(), true);
+          scheduleQueue.add(insertionIndex, tw);
+          headUpdated |= insertionIndex == 0;
         }
-      } else {
-        return scheduledTask;
+      }
+
+      if (headUpdated) {
+        queueListener.handleQueueUpdate();
       }
     }
   }
-  
+
+  /**
+   * Task wrapper returned from {@link TimingWheelQueueSet#getNextTask()} when the next task is
+   * still held within the timing wheel.  This provides the run time of that task so consuming
+   * threads can know how long to wait, but it can never be executed itself.
+   *
+   * @since 5.37
+   */
+  protected static class WheelPlaceholderTaskWrapper extends TaskWrapper {
+    protected final TaskWrapper wheelTask;
+    protected final long runTime;
+
+    protected WheelPlaceholderTaskWrapper(TaskWrapper wheelTask) {
+      super(wheelTask.task);
+
+      this.wheelTask = wheelTask;
+      this.runTime = wheelTask.getRunTime();
+    }
+
+    @Override
+    public void runTask() {
+      // should never be invoked since it can never be executed
+    }
+
+    @Override
+    public short getExecuteReference() {
+      return 0;
+    }
+
+    @Override
+    public boolean canExecute(short executeReference) {
+      // the task must first be transferred out of the wheel
+      return false;
+    }
+
+    @Override
+    public long getRunTime() {
+      return runTime;
+    }
+
+    @Override
+    public long getPureRunTime() {
+      return runTime;
+    }
+  }
+
   /**
    * A service which manages the execute queues.  It runs a task to consume from the queues and 
    * execute those tasks as workers become available.  It also manages the queues as tasks are 
@@ -430,10 +2166,75 @@ public abstract class AbstractPriorityScheduler extends AbstractSubmitterSchedul
     private volatile long maxWaitForLowPriorityInMs;
     
     public QueueManager(QueueSetListener queueSetListener, long maxWaitForLowPriorityInMs) {
-      this.highPriorityQueueSet = new QueueSet(queueSetListener);
-      this.lowPriorityQueueSet = new QueueSet(queueSetListener);
-      this.starvablePriorityQueueSet = new QueueSet(queueSetListener);
-      
+      this(queueSetListener, maxWaitForLowPriorityInMs, 0);
+    }
+
+    /**
+     * Constructs a new {@link QueueManager}.  If {@code scheduleTickMillis} is greater than zero
+     * a {@link TimingWheelQueueSet} will be used for each priority, otherwise the default
+     * {@link QueueSet} which inserts delayed tasks directly into a sorted queue is used.
+     *
+     * @param queueSetListener Listener to be invoked when the head of a queue has been updated
+     * @param maxWaitForLowPriorityInMs time low priority tasks to wait if there are high priority tasks ready to run
+     * @param scheduleTickMillis Tick resolution of timing wheel, or {@code 0} to use a sorted schedule queue
+     */
+    public QueueManager(QueueSetListener queueSetListener, long maxWaitForLowPriorityInMs,
+                        long scheduleTickMillis) {
+      this(queueSetListener, maxWaitForLowPriorityInMs, scheduleTickMillis, false);
+    }
+
+    /**
+     * Constructs a new {@link QueueManager}.  If {@code scheduleTickMillis} is greater than zero
+     * a {@link TimingWheelQueueSet} will be used for each priority, otherwise the default
+     * {@link QueueSet} which inserts delayed tasks directly into a sorted queue is used.  If 
+     * {@code indexTasks} is {@code true} each {@link QueueSet} will maintain a task removal 
+     * index, see {@link QueueSet#QueueSet(QueueSetListener, boolean)}.
+     *
+     * @since 5.37
+     * @param queueSetListener Listener to be invoked when the head of a queue has been updated
+     * @param maxWaitForLowPriorityInMs time low priority tasks to wait if there are high priority tasks ready to run
+     * @param scheduleTickMillis Tick resolution of timing wheel, or {@code 0} to use a sorted schedule queue
+     * @param indexTasks {@code true} to maintain an index for constant time task removal
+     */
+    public QueueManager(QueueSetListener queueSetListener, long maxWaitForLowPriorityInMs,
+                        long scheduleTickMillis, boolean indexTasks) {
+      this(queueSetListener, maxWaitForLowPriorityInMs, scheduleTickMillis, indexTasks, 0);
+    }
+
+    /**
+     * Constructs a new {@link QueueManager}.  In addition to the options described in 
+     * {@link #QueueManager(QueueSetListener, long, long, boolean)}, if 
+     * {@code executeRingCapacity} is greater than zero each {@link QueueSet} will preallocate an 
+     * {@link ExecuteRingBuffer} for allocation free task execution.
+     *
+     * @since 5.37
+     * @param queueSetListener Listener to be invoked when the head of a queue has been updated
+     * @param maxWaitForLowPriorityInMs time low priority tasks to wait if there are high priority tasks ready to run
+     * @param scheduleTickMillis Tick resolution of timing wheel, or {@code 0} to use a sorted schedule queue
+     * @param indexTasks {@code true} to maintain an index for constant time task removal
+     * @param executeRingCapacity Slots to preallocate per priority, or {@code 0} to disable
+     */
+    public QueueManager(QueueSetListener queueSetListener, long maxWaitForLowPriorityInMs,
+                        long scheduleTickMillis, boolean indexTasks, int executeRingCapacity) {
+      ArgumentVerifier.assertNotNegative(scheduleTickMillis, "scheduleTickMillis");
+
+      if (scheduleTickMillis > 0) {
+        this.highPriorityQueueSet = 
+            new TimingWheelQueueSet(queueSetListener, scheduleTickMillis, 
+                                    indexTasks, executeRingCapacity);
+        this.lowPriorityQueueSet = 
+            new TimingWheelQueueSet(queueSetListener, scheduleTickMillis, 
+                                    indexTasks, executeRingCapacity);
+        this.starvablePriorityQueueSet = 
+            new TimingWheelQueueSet(queueSetListener, scheduleTickMillis, 
+                                    indexTasks, executeRingCapacity);
+      } else {
+        this.highPriorityQueueSet = new QueueSet(queueSetListener, indexTasks, executeRingCapacity);
+        this.lowPriorityQueueSet = new QueueSet(queueSetListener, indexTasks, executeRingCapacity);
+        this.starvablePriorityQueueSet = 
+            new QueueSet(queueSetListener, indexTasks, executeRingCapacity);
+      }
+
       // call to verify and set values
       setMaxWaitForLowPriority(maxWaitForLowPriorityInMs);
     }
@@ -482,10 +2283,23 @@ public abstract class AbstractPriorityScheduler extends AbstractSubmitterSchedul
      * @return Task to be executed next, or {@code null} if no tasks at all are queued
      */
     public TaskWrapper getNextTask() {
+      return getNextTask(highPriorityQueueSet.getNextTask());
+    }
+    
+    /**
+     * Gets the next task currently queued for execution, using the provided task as the next high 
+     * priority task.  This allows high priority tasks which are held outside of the 
+     * {@link #highPriorityQueueSet} (for example in a worker local queue) to participate in the 
+     * same priority arbitration with the low and starvable priority queues.
+     * 
+     * @since 5.37
+     * @param nextHighPriorityTask Next high priority task to consider, or {@code null} if none
+     * @return Task to be executed next, or {@code null} if no tasks at all are queued
+     */
+    public TaskWrapper getNextTask(TaskWrapper nextHighPriorityTask) {
       // First compare between high and low priority task queues
       // then depending on that state, we may check starvable
       TaskWrapper nextTask;
-      TaskWrapper nextHighPriorityTask = highPriorityQueueSet.getNextTask();
       TaskWrapper nextLowPriorityTask = lowPriorityQueueSet.getNextTask();
       if (nextLowPriorityTask == null) {
         nextTask = nextHighPriorityTask;
@@ -533,13 +2347,26 @@ public abstract class AbstractPriorityScheduler extends AbstractSubmitterSchedul
       }
     }
     
+    /**
+     * Invoked once a task returned from {@link #getNextTask()} has been claimed for execution by a 
+     * pool thread.  By default this does nothing, but allows extending managers to account for 
+     * the tasks executed from each {@link QueueSet}.
+     * 
+     * @since 5.37
+     * @param task Task which is about to be executed
+     */
+    public void taskClaimed(TaskWrapper task) {
+      // ignored by default
+    }
+    
     /**
      * Removes the runnable task from the execution queue.  It is possible for the runnable to 
      * still run until this call has returned.
      * <p>
      * Note that this call has high guarantees on the ability to remove the task (as in a complete 
      * guarantee).  But while this is being invoked, it will reduce the throughput of execution, 
-     * so should NOT be used extremely frequently.
+     * so should NOT be used extremely frequently.  Unless the queue sets were constructed with 
+     * a task removal index, in which case the task is found without searching the queues.
      * 
      * @param task The original runnable provided to the executor
      * @return {@code true} if the runnable was found and removed
@@ -555,7 +2382,8 @@ public abstract class AbstractPriorityScheduler extends AbstractSubmitterSchedul
      * <p>
      * Note that this call has high guarantees on the ability to remove the task (as in a complete 
      * guarantee).  But while this is being invoked, it will reduce the throughput of execution, 
-     * so should NOT be used extremely frequently.
+     * so should NOT be used extremely frequently.  Unless the queue sets were constructed with 
+     * a task removal index, in which case the task is found without searching the queues.
      * 
      * @param task The original callable provided to the executor
      * @return {@code true} if the callable was found and removed
@@ -597,12 +2425,51 @@ public abstract class AbstractPriorityScheduler extends AbstractSubmitterSchedul
    * @since 1.0.0
    */
   protected abstract static class TaskWrapper implements RunnableContainer {
+    protected static final int QUEUE_STATE_QUEUED = 0;
+    protected static final int QUEUE_STATE_CLAIMED = 1;
+    protected static final int QUEUE_STATE_REMOVED = 2;
+    protected static final int QUEUE_STATE_PURGED = 3;
+    private static final AtomicIntegerFieldUpdater<TaskWrapper> QUEUE_STATE_UPDATER = 
+        AtomicIntegerFieldUpdater.newUpdater(TaskWrapper.class, "queueState");
+    
     protected final Runnable task;
     protected volatile boolean invalidated;
+    // below are set once the task is added to a QueueSet
+    protected QueueSet owningQueueSet;
+    protected Object[] indexKeys; // only set if the QueueSet has a task removal index
+    private volatile int queueState;
     
     public TaskWrapper(Runnable task) {
       this.task = task;
       invalidated = false;
+      owningQueueSet = null;
+      indexKeys = null;
+      queueState = QUEUE_STATE_QUEUED;
+    }
+    
+    /**
+     * Atomically transitions the queue state of this task.  This is used to ensure a task which 
+     * may be removed while still held in the queue (for example when canceled) is either 
+     * executed or removed, but never both.
+     * 
+     * @since 5.37
+     * @param expect State the task is expected to currently be in
+     * @param update State to transition the task to
+     * @return {@code true} if the state was updated
+     */
+    protected boolean setQueueState(int expect, int update) {
+      return QUEUE_STATE_UPDATER.compareAndSet(this, expect, update);
+    }
+    
+    /**
+     * Checks if the task is still held for execution, and has not been claimed or removed.  
+     * Recurring tasks remain in this state until removed.
+     * 
+     * @since 5.37
+     * @return {@code true} if the task is in the queued state
+     */
+    protected boolean isQueued() {
+      return queueState == QUEUE_STATE_QUEUED;
     }
     
     /**
@@ -694,6 +2561,10 @@ public abstract class AbstractPriorityScheduler extends AbstractSubmitterSchedul
     protected final long runTime;
     // optimization to avoid queue traversal on failure to remove, cheaper than AtomicBoolean
     private volatile boolean executed;
+    // location while held in a TimingWheelQueueSet slot, only accessed while holding the wheel lock
+    protected ArrayList<OneTimeTaskWrapper> wheelSlot;
+    protected int wheelLevel;
+    protected int wheelSlotPosition;
     
     protected OneTimeTaskWrapper(Runnable task, Queue<? extends TaskWrapper> taskQueue, long runTime) {
       super(task);
@@ -701,6 +2572,9 @@ public abstract class AbstractPriorityScheduler extends AbstractSubmitterSchedul
       this.taskQueue = taskQueue;
       this.runTime = runTime;
       this.executed = false;
+      this.wheelSlot = null;
+      this.wheelLevel = -1;
+      this.wheelSlotPosition = -1;
     }
     
     @Override
@@ -735,7 +2609,8 @@ public abstract class AbstractPriorityScheduler extends AbstractSubmitterSchedul
       if (! executed && 
           (executed = true) & // set executed as soon as possible, before removal attempt
           taskQueue.remove(this)) { // every task is wrapped in a unique wrapper, so we can remove 'this' safely
-        return true;
+        // task may have been removed (ie canceled) while still left in the queue
+        return owningQueueSet == null || owningQueueSet.claimForExecution(this);
       } else {
         return false;
       }
@@ -763,24 +2638,58 @@ public abstract class AbstractPriorityScheduler extends AbstractSubmitterSchedul
   
   /**
    * Abstract wrapper for any tasks which run repeatedly.
+   * <p>
+   * Execution is claimed with a single CAS on {@link #executeState}.  The state is incremented 
+   * when the task is claimed, and again once it has been rescheduled, so an odd value indicates 
+   * the task is executing.  Because the state only increases, a consumer holding a stale 
+   * execute reference can not claim the task again.  While executing the task is removed from 
+   * {@link QueueSet#recurringQueue}, and it is inserted back at its new run time once finished.  
+   * The recurring queue is ordered by run time, so neither operation requires locking or a 
+   * linear search of the queue.
    * 
    * @since 3.1.0
    */
   protected abstract static class RecurringTaskWrapper extends TaskWrapper {
+    protected static final Comparator<RecurringTaskWrapper> QUEUE_ORDER = (rtw1, rtw2) -> {
+      if (rtw1 == rtw2) {
+        return 0;
+      }
+      int result = Long.compare(rtw1.queuedRunTime, rtw2.queuedRunTime);
+      if (result == 0) {
+        result = Long.compare(rtw1.sequence, rtw2.sequence);
+      }
+      return result;
+    };
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final AtomicIntegerFieldUpdater<RecurringTaskWrapper> EXECUTE_STATE_UPDATER = 
+        AtomicIntegerFieldUpdater.newUpdater(RecurringTaskWrapper.class, "executeState");
+    
     protected final QueueSet queueSet;
-    protected volatile boolean executing;
+    protected final long sequence;
     protected long nextRunTime;
-    // executeFlipCounter is used to prevent multiple executions when consumed concurrently
-    // only changed when queue is locked...overflow is fine
-    private volatile short executeFlipCounter;
+    // run time the task is sorted by, only changed while not in the recurring queue
+    protected long queuedRunTime;
+    // even when waiting to run, odd when executing...overflow is fine
+    protected volatile int executeState;
     
     protected RecurringTaskWrapper(Runnable task, QueueSet queueSet, long firstRunTime) {
       super(task);
       
       this.queueSet = queueSet;
-      executing = false;
+      this.sequence = SEQUENCE.getAndIncrement();
       this.nextRunTime = firstRunTime;
-      executeFlipCounter = 0;
+      this.queuedRunTime = firstRunTime;
+      this.executeState = 0;
+    }
+    
+    /**
+     * Checks if the task has been claimed for execution and is not yet rescheduled.
+     * 
+     * @since 5.37
+     * @return {@code true} if the task is currently executing
+     */
+    public boolean isExecuting() {
+      return (executeState & 1) != 0;
     }
     
     @Override
@@ -790,7 +2699,7 @@ public abstract class AbstractPriorityScheduler extends AbstractSubmitterSchedul
     
     @Override
     public long getRunTime() {
-      if (executing) {
+      if (isExecuting()) {
         return Long.MAX_VALUE;
       } else {
         return nextRunTime;
@@ -799,7 +2708,7 @@ public abstract class AbstractPriorityScheduler extends AbstractSubmitterSchedul
     
     @Override
     public long getScheduleDelay() {
-      if (executing) {
+      if (isExecuting()) {
         // this would only be likely if two threads were trying to run the same task
         return Long.MAX_VALUE;
       } else if (nextRunTime > Clock.lastKnownForwardProgressingMillis()) {
@@ -811,71 +2720,35 @@ public abstract class AbstractPriorityScheduler extends AbstractSubmitterSchedul
     
     @Override
     public short getExecuteReference() {
-      return executeFlipCounter;
+      return (short)executeState;
     }
 
     @Override
     public boolean canExecute(short executeReference) {
-      if (executing | executeFlipCounter != executeReference) {
+      int casState = executeState;
+      if ((casState & 1) != 0 || (short)casState != executeReference || 
+          ! isQueued() || 
+          ! EXECUTE_STATE_UPDATER.compareAndSet(this, casState, casState + 1)) {
+        // this task is already running, removed, or was rescheduled since the reference
         return false;
       }
-      synchronized (queueSet.scheduleQueue.getModificationLock()) {
-        if (executing | executeFlipCounter != executeReference) {
-          // this task is already running, or not ready to run, so ignore
-          return false;
-        } else {
-          /* we have to reposition to the end atomically so that this task can be removed if 
-           * requested to be removed.  We can put it at the end because we know this task wont 
-           * run again till it has finished (which it will be inserted at the correct point in 
-           * queue then.
-           */
-          int sourceIndex = queueSet.scheduleQueue.indexOf(this);
-          if (sourceIndex >= 0) {
-            if (sourceIndex < queueSet.scheduleQueue.size() - 1 && 
-                queueSet.scheduleQueue.get(sourceIndex + 1).getRunTime() != Long.MAX_VALUE) {
-              queueSet.scheduleQueue.reposition(sourceIndex, queueSet.scheduleQueue.size());
-            }
-            executing = true;
-            executeFlipCounter++;
-            return true;
-          } else {
-            return false;
-          }
-        }
-      }
+      // removal is by the run time it was queued with, so it does not need to be searched for
+      queueSet.recurringQueue.remove(this);
+      return true;
     }
 
     /**
-     * Call to find and reposition a scheduled task.  It is expected that the task provided has 
-     * already been added to the queue.  This call will use 
-     * {@link RecurringTaskWrapper#getRunTime()} to figure out what the new position within the 
-     * queue should be.
+     * Invoked once the task has finished execution and {@code nextRunTime} has been updated.  
+     * This will make the task eligible for execution again and insert it back into the recurring 
+     * queue.  If the new position is at the head of the queue the {@link QueueSetListener} will 
+     * be notified.
      */
     protected void reschedule() {
-      int insertionIndex = -1;
-      synchronized (queueSet.scheduleQueue.getModificationLock()) {
-        int currentIndex = queueSet.scheduleQueue.lastIndexOf(this);
-        if (currentIndex > 0) {
-          insertionIndex = SortUtils.getInsertionEndIndex(queueSet.scheduleQueueRunTimeByIndex, 
-                                                          queueSet.scheduleQueue.size() - 1, 
-                                                          nextRunTime, true);
-          
-          queueSet.scheduleQueue.reposition(currentIndex, insertionIndex);
-        } else if (currentIndex == 0) {
-          insertionIndex = 0;
-        } else {
-          // task removed, no-op, but might as well tidy up the state even though nothing cares
-        }
-        
-        // we can only update executing AFTER the reposition has finished
-        // The synchronization lock must be held during this because changing executing
-        // changes the scheduled delay, and thus we can not have other threads examining the task queue
-        executing = false;
-        executeFlipCounter++;  // increment again to indicate execute state change
-      }
-
-      // kind of awkward we need to know here, but we we need to let the queue set know if the head changed
-      if (insertionIndex == 0) {
+      boolean queueHead = queueSet.queueRecurring(this);
+      // must be queued before it can be claimed, so the claiming thread is able to remove it
+      // only the executing thread may modify the state, so a volatile increment is safe
+      executeState++;
+      if (queueHead) {
         queueSet.queueListener.handleQueueUpdate();
       }
     }
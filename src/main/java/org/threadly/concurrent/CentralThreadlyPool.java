@@ -1,8 +1,20 @@
 package org.threadly.concurrent;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool.ManagedBlocker;
 import java.util.concurrent.atomic.LongAdder;
 
+import org.threadly.concurrent.wrapper.interceptor.SchedulerServiceTaskInterceptor;
 import org.threadly.concurrent.wrapper.limiter.SchedulerServiceLimiter;
 import org.threadly.concurrent.wrapper.limiter.SingleThreadSchedulerSubPool;
 import org.threadly.concurrent.wrapper.priority.DefaultPriorityWrapper;
@@ -40,6 +52,11 @@ import org.threadly.util.StringUtils;
  * threads need to be provided, and how much of the general processing threads the pool can take 
  * advantage of.
  * <p>
+ * Tasks which must block (for example on I/O) while running on the central pool should do so
+ * through {@link #managedBlock(ManagedBlocker)}.  While blocked the central pool will be expanded
+ * so that the blocked thread does not prevent other tasks from running.  If the blocked task is
+ * from {@link #computationPool()}, that pool's concurrency is expanded as well.
+ * <p>
  * Stats (like {@link SchedulerService#getActiveTaskCount()} and 
  * {@link SchedulerService#getQueuedTaskCount()}, etc) from provided pools will always be 
  * representative of the entire central pool rather than just relative to the returned pool.
@@ -52,20 +69,36 @@ public class CentralThreadlyPool {
   protected static final PriorityScheduler MASTER_SCHEDULER;
   protected static final PrioritySchedulerService LOW_PRIORITY_MASTER_SCHEDULER;
   protected static final PrioritySchedulerService STARVABLE_PRIORITY_MASTER_SCHEDULER;
-  protected static final SchedulerService COMPUTATION_POOL;
+  protected static final SchedulerServiceLimiter COMPUTATION_POOL;
   protected static final SchedulerService LOW_PRIORITY_POOL;
   protected static final PrioritySchedulerService SINGLE_THREADED_LOW_PRIORITY_POOL;
   protected static final PerTaskSizingSubmitterScheduler PER_TASK_SIZING_POOL;
+  // weak so that threads which have stopped can be collected, only accessed when blocking
+  protected static final Map<Thread, Boolean> CENTRAL_POOL_THREADS;
+  // set while a thread is running a task from the computation pool
+  protected static final ThreadLocal<Boolean> RUNNING_COMPUTATION_TASK;
+  // weak so that sub-pools can be collected, only modified when sub-pools are constructed or inspected
+  protected static final Set<Reference<? extends TrackedSubPool>> SUB_POOLS;
+  protected static final ReferenceQueue<TrackedSubPool> COLLECTED_SUB_POOLS;
+  private static final int COMPUTATION_THREAD_COUNT;
   private static volatile int genericThreadCount;
+  private static volatile int managedBlockingCount;
+  private static volatile int managedComputationBlockingCount;
   
   static {
     int cpuCount = Runtime.getRuntime().availableProcessors();
+    COMPUTATION_THREAD_COUNT = cpuCount;
     genericThreadCount = 1; // must have at least one
+    managedBlockingCount = 0;
+    managedComputationBlockingCount = 0;
+    CENTRAL_POOL_THREADS = Collections.synchronizedMap(new WeakHashMap<>());
+    RUNNING_COMPUTATION_TASK = new ThreadLocal<>();
+    SUB_POOLS = ConcurrentHashMap.newKeySet();
+    COLLECTED_SUB_POOLS = new ReferenceQueue<>();
     MASTER_SCHEDULER = // start with computation + 1 for interior management tasks and + 1 for shared use
         new PriorityScheduler(cpuCount + genericThreadCount + 1, 
                               TaskPriority.High, LOW_PRIORITY_MAX_WAIT_IN_MS, 
-                              new ConfigurableThreadFactory("CentralThreadlyPool-", false, 
-                                                            true, Thread.NORM_PRIORITY, null, null));
+                              new CentralThreadFactory());
     LOW_PRIORITY_MASTER_SCHEDULER = 
         new DefaultPriorityWrapper(MASTER_SCHEDULER, TaskPriority.Low);
     STARVABLE_PRIORITY_MASTER_SCHEDULER = 
@@ -73,7 +106,11 @@ public class CentralThreadlyPool {
     
     POOL_SIZE_UPDATER = new PoolResizeUpdater(LOW_PRIORITY_MASTER_SCHEDULER);
     
-    COMPUTATION_POOL = new SchedulerServiceLimiter(MASTER_SCHEDULER, cpuCount);
+    // tasks are wrapped so that managed blocking knows to compensate the computation concurrency
+    SchedulerService computationScheduler = 
+        new SchedulerServiceTaskInterceptor(MASTER_SCHEDULER, 
+                                            (r, recurring) -> new ComputationTaskWrapper(r));
+    COMPUTATION_POOL = new SchedulerServiceLimiter(computationScheduler, cpuCount);
     LOW_PRIORITY_POOL = new DynamicGenericThreadLimiter(TaskPriority.Low, 0, -1, 
                                                         "CentralThreadlyPool-LowPriority", true);
     SINGLE_THREADED_LOW_PRIORITY_POOL = 
@@ -107,6 +144,138 @@ public class CentralThreadlyPool {
     return genericThreadCount;
   }
 
+  /**
+   * Run a blocking operation in a way that the central pool can compensate for.  If invoked from
+   * a thread of the central pool, and the blocker is not immediately releasable, the central pool
+   * will be expanded by one thread until the blocker completes.  If the blocking task was 
+   * submitted to {@link #computationPool()}, that pool's concurrency is also increased by one 
+   * while blocked, so that the pool can keep as many CPU bound tasks running as there are 
+   * processors, even when some of its tasks are blocked.
+   * <p>
+   * Once the blocker completes the computation concurrency will be immediately restored.  The
+   * central pool size is restored with a delay, so that repeated blocking does not churn threads.
+   * <p>
+   * Like {@link java.util.concurrent.ForkJoinPool#managedBlock(ManagedBlocker)} this will 
+   * repeatedly invoke {@link ManagedBlocker#block()} until either it or
+   * {@link ManagedBlocker#isReleasable()} returns {@code true}.  If invoked from a thread which is
+   * not part of the central pool, the blocker will be run without any compensation.
+   *
+   * @since 5.37
+   * @param blocker The blocking operation to run
+   * @throws InterruptedException Thrown if the blocker was interrupted while blocking
+   */
+  public static void managedBlock(ManagedBlocker blocker) throws InterruptedException {
+    ArgumentVerifier.assertNotNull(blocker, "blocker");
+    
+    if (blocker.isReleasable()) {
+      return;
+    } else if (! CENTRAL_POOL_THREADS.containsKey(Thread.currentThread())) {
+      while (! blocker.isReleasable() && ! blocker.block()) {
+        // block till releasable
+      }
+      return;
+    }
+    
+    boolean computationTask = RUNNING_COMPUTATION_TASK.get() == Boolean.TRUE;
+    adjustManagedBlockingCount(1, computationTask);
+    try {
+      while (! blocker.isReleasable() && ! blocker.block()) {
+        // block till releasable
+      }
+    } finally {
+      adjustManagedBlockingCount(-1, computationTask);
+    }
+  }
+  
+  private static void adjustManagedBlockingCount(int delta, boolean computationTask) {
+    synchronized (CentralThreadlyPool.class) {
+      managedBlockingCount += delta;
+      if (computationTask) {
+        managedComputationBlockingCount += delta;
+      }
+    }
+    if (computationTask) {
+      /* Set outside of the lock since increasing the limit will submit waiting tasks.  Because of 
+       * that a concurrent update may be applied out of order, so loop till the limit matches.
+       */
+      int maxConcurrency;
+      do {
+        maxConcurrency = COMPUTATION_THREAD_COUNT + managedComputationBlockingCount;
+        COMPUTATION_POOL.setMaxConcurrency(maxConcurrency);
+      } while (maxConcurrency != COMPUTATION_THREAD_COUNT + managedComputationBlockingCount);
+    }
+    POOL_SIZE_UPDATER.adjustPoolSize(delta);
+  }
+  
+  /**
+   * Reports the number of central pool threads currently blocked within 
+   * {@link #managedBlock(ManagedBlocker)}, and thus being compensated for.
+   * 
+   * @since 5.37
+   * @return The number of threads blocked in a managed blocker
+   */
+  public static int getManagedBlockingCount() {
+    return managedBlockingCount;
+  }
+
+  /**
+   * Produces a point in time snapshot of every sub-pool currently provided by the central pool
+   * (those returned from the {@code singleThreadPool}, {@code threadPool} and
+   * {@code rangedThreadPool} functions, as well as the pools backing {@link #lowPriorityPool()}).
+   * Sub-pools which have been garbage collected will no longer be reported.  This can be useful to
+   * find which sub-pools are consuming threads or queuing work, and to determine if additional
+   * generic threads should be added with {@link #increaseGenericThreads(int)}.
+   * <p>
+   * The returned list is sorted so that the sub-pools with the most running tasks (followed by the
+   * most queued tasks) are first.  Because the counts of each sub-pool are read without locking,
+   * they may not be consistent with each other if tasks are concurrently being executed.
+   *
+   * @since 5.37
+   * @return A list of stats for each sub-pool at the time of invocation
+   */
+  public static List<SubPoolStats> getSubPoolStats() {
+    removeCollectedSubPools();
+
+    List<SubPoolStats> result = new ArrayList<>(SUB_POOLS.size());
+    for (Reference<? extends TrackedSubPool> ref : SUB_POOLS) {
+      TrackedSubPool subPool = ref.get();
+      if (subPool != null) {
+        result.add(subPool.makeSubPoolStats());
+      }
+    }
+    result.sort((s1, s2) -> {
+      if (s1.getRunningTaskCount() != s2.getRunningTaskCount()) {
+        return Integer.compare(s2.getRunningTaskCount(), s1.getRunningTaskCount());
+      } else {
+        return Integer.compare(s2.getQueuedTaskCount(), s1.getQueuedTaskCount());
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Records a newly constructed sub-pool so that it can be included in
+   * {@link #getSubPoolStats()}.  This is only invoked on construction, so the task submission path
+   * is not impacted.
+   *
+   * @param subPool Sub-pool to start tracking
+   */
+  protected static void registerSubPool(TrackedSubPool subPool) {
+    removeCollectedSubPools();
+
+    SUB_POOLS.add(new WeakReference<>(subPool, COLLECTED_SUB_POOLS));
+  }
+
+  /**
+   * Removes the references for any sub-pools which have been garbage collected.
+   */
+  private static void removeCollectedSubPools() {
+    Reference<? extends TrackedSubPool> ref;
+    while ((ref = COLLECTED_SUB_POOLS.poll()) != null) {
+      SUB_POOLS.remove(ref);
+    }
+  }
+
   /**
    * Thread pool well suited for running CPU intensive computations on the tasks thread.
    * 
@@ -661,15 +830,168 @@ public class CentralThreadlyPool {
     }
   }
   
+  /**
+   * Wrapper for tasks submitted to {@link #computationPool()}.  This marks the thread as running 
+   * a computation task so that {@link #managedBlock(ManagedBlocker)} knows to compensate the 
+   * computation pool's concurrency.
+   * 
+   * @since 5.37
+   */
+  protected static class ComputationTaskWrapper implements Runnable, RunnableContainer {
+    private final Runnable task;
+    
+    protected ComputationTaskWrapper(Runnable task) {
+      this.task = task;
+    }
+    
+    @Override
+    public void run() {
+      Boolean previous = RUNNING_COMPUTATION_TASK.get();
+      RUNNING_COMPUTATION_TASK.set(Boolean.TRUE);
+      try {
+        task.run();
+      } finally {
+        RUNNING_COMPUTATION_TASK.set(previous);
+      }
+    }
+
+    @Override
+    public Runnable getContainedRunnable() {
+      return task;
+    }
+  }
+  
+  /**
+   * Point in time stats of a sub-pool provided by the central pool.  Instances are produced from
+   * {@link CentralThreadlyPool#getSubPoolStats()}, and will not update after being returned.
+   * 
+   * @since 5.37
+   */
+  public static class SubPoolStats {
+    private final String poolType;
+    private final String threadName;
+    private final int guaranteedThreads;
+    private final int maxThreads;
+    private final int runningTaskCount;
+    private final int queuedTaskCount;
+    
+    protected SubPoolStats(String poolType, String threadName, int guaranteedThreads, 
+                           int maxThreads, int runningTaskCount, int queuedTaskCount) {
+      this.poolType = poolType;
+      this.threadName = threadName;
+      this.guaranteedThreads = guaranteedThreads;
+      this.maxThreads = maxThreads;
+      this.runningTaskCount = runningTaskCount;
+      this.queuedTaskCount = queuedTaskCount;
+    }
+    
+    /**
+     * Returns the simple class name of the sub-pool implementation.
+     * 
+     * @return The type of sub-pool
+     */
+    public String getPoolType() {
+      return poolType;
+    }
+    
+    /**
+     * Returns the thread name provided when the sub-pool was requested.
+     * 
+     * @return Thread name of the sub-pool, or {@code null} if none was provided
+     */
+    public String getThreadName() {
+      return threadName;
+    }
+    
+    /**
+     * Returns the number of threads the central pool was expanded by for this sub-pool.
+     * 
+     * @return Number of threads guaranteed to the sub-pool
+     */
+    public int getGuaranteedThreads() {
+      return guaranteedThreads;
+    }
+    
+    /**
+     * Returns the maximum number of threads the sub-pool may use at once.
+     * 
+     * @return Maximum threads for the sub-pool, or {@code -1} if it may use any available threads
+     */
+    public int getMaxThreads() {
+      return maxThreads;
+    }
+    
+    /**
+     * Returns the number of tasks which had been handed to the central pool for execution.  This 
+     * includes tasks currently running, as well as those waiting in the central pool for a thread.
+     * 
+     * @return Number of tasks running from the sub-pool
+     */
+    public int getRunningTaskCount() {
+      return runningTaskCount;
+    }
+    
+    /**
+     * Returns the number of tasks held in the sub-pool which have not yet been handed to the 
+     * central pool (for example because the sub-pool was at its max threads).
+     * 
+     * @return Number of tasks queued in the sub-pool
+     */
+    public int getQueuedTaskCount() {
+      return queuedTaskCount;
+    }
+    
+    @Override
+    public String toString() {
+      return poolType + (threadName == null ? "" : "[" + threadName + "]") + 
+               ", guaranteedThreads=" + guaranteedThreads + ", maxThreads=" + maxThreads + 
+               ", running=" + runningTaskCount + ", queued=" + queuedTaskCount;
+    }
+  }
+  
+  /**
+   * Interface for sub-pools which are tracked so that they can be reported in 
+   * {@link CentralThreadlyPool#getSubPoolStats()}.
+   */
+  protected interface TrackedSubPool {
+    /**
+     * Constructs a snapshot of the sub-pool's current state.
+     * 
+     * @return Stats representing the sub-pool at the time of invocation
+     */
+    public SubPoolStats makeSubPoolStats();
+  }
+  
+  /**
+   * Thread factory for the central pool's threads.  Created threads are recorded in 
+   * {@link #CENTRAL_POOL_THREADS} so that {@link #managedBlock(ManagedBlocker)} knows when 
+   * compensation is necessary.
+   */
+  protected static class CentralThreadFactory extends ConfigurableThreadFactory {
+    public CentralThreadFactory() {
+      super("CentralThreadlyPool-", false, true, Thread.NORM_PRIORITY, null, null);
+    }
+    
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread t = super.newThread(r);
+      CENTRAL_POOL_THREADS.put(t, Boolean.TRUE);
+      return t;
+    }
+  }
+  
   /**
    * Implementation of {@link SingleThreadSchedulerSubPool} in order to get efficient single 
    * threaded execution on top of the central pool.  In addition to handling possible pool size 
    * changes, this also handles making sure the pool returns the same stats / values of the 
    * delegate pool.
    */
-  protected static class SingleThreadSubPool extends SingleThreadSchedulerSubPool {
+  protected static class SingleThreadSubPool extends SingleThreadSchedulerSubPool 
+                                            implements TrackedSubPool {
     @SuppressWarnings("unused")
     private final Object gcReference; // object just held on to track garbage collection
+    protected final String threadName;
+    protected final boolean threadGuaranteed;
     
     protected SingleThreadSubPool(TaskPriority tickPriority, boolean threadGuaranteed, 
                                   String threadName, boolean replaceName) {
@@ -677,6 +999,17 @@ public class CentralThreadlyPool {
             TaskPriority.High, LOW_PRIORITY_MAX_WAIT_IN_MS);
 
       this.gcReference = threadGuaranteed ? new PoolResizer(1) : null;
+      this.threadName = StringUtils.isNullOrEmpty(threadName) ? null : threadName;
+      this.threadGuaranteed = threadGuaranteed;
+      
+      registerSubPool(this);
+    }
+
+    @Override
+    public SubPoolStats makeSubPoolStats() {
+      // super functions to get this sub-pool's stats rather than the central pool's
+      return new SubPoolStats(getClass().getSimpleName(), threadName, threadGuaranteed ? 1 : 0, 1, 
+                              super.getActiveTaskCount(), super.getQueuedTaskCount());
     }
 
     // SingleThreadSchedulerSubPool does not normally consider the parent pools load
@@ -738,9 +1071,13 @@ public class CentralThreadlyPool {
    * This is necessary to be sure that when a returned scheduler requests a given qty of threads, 
    * those resources are for sure available to them.
    */
-  protected static class MasterSchedulerResizingLimiter extends SchedulerServiceLimiter {
+  protected static class MasterSchedulerResizingLimiter extends SchedulerServiceLimiter 
+                                                       implements TrackedSubPool {
     @SuppressWarnings("unused")
     private final Object gcReference; // object just held on to track garbage collection
+    protected final String threadName;
+    protected final int guaranteedThreads;
+    protected final int maxThreads;
     
     public MasterSchedulerResizingLimiter(TaskPriority priority, int guaranteedThreads, 
                                           int maxThreads, String threadName, boolean replaceName) {
@@ -752,6 +1089,18 @@ public class CentralThreadlyPool {
       }
       
       this.gcReference = guaranteedThreads > 0 ? new PoolResizer(guaranteedThreads) : null;
+      this.threadName = StringUtils.isNullOrEmpty(threadName) ? null : threadName;
+      this.guaranteedThreads = guaranteedThreads > 0 ? guaranteedThreads : 0;
+      this.maxThreads = getMaxConcurrency();
+      
+      registerSubPool(this);
+    }
+
+    @Override
+    public SubPoolStats makeSubPoolStats() {
+      return new SubPoolStats(getClass().getSimpleName(), threadName, guaranteedThreads, 
+                              maxThreads == Integer.MAX_VALUE ? -1 : maxThreads, 
+                              getCurrentlyRunningCount(), getUnsubmittedTaskCount());
     }
   }
   
@@ -764,15 +1113,9 @@ public class CentralThreadlyPool {
    * is a better option.
    */
   protected static class DynamicGenericThreadLimiter extends MasterSchedulerResizingLimiter {
-    private final int guaranteedThreads;
-    private final int maxThreads;
-    
     public DynamicGenericThreadLimiter(TaskPriority priority, int guaranteedThreads, 
                                        int maxThreads, String threadName, boolean replaceName) {
       super(priority, guaranteedThreads, maxThreads, threadName, replaceName);
-      
-      this.guaranteedThreads = guaranteedThreads > 0 ? guaranteedThreads : 0;
-      this.maxThreads = getMaxConcurrency();
     }
 
     @Override
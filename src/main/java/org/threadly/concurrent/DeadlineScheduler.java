@@ -0,0 +1,308 @@
+package org.threadly.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.threadly.concurrent.future.ListenableFuture;
+import org.threadly.concurrent.future.ListenableFutureTask;
+import org.threadly.util.ArgumentVerifier;
+import org.threadly.util.Clock;
+
+/**
+ * A {@link PriorityScheduler} which in addition to the normal prioritized tasks, can accept
+ * tasks with an absolute deadline.  Tasks with a deadline are executed in earliest deadline first
+ * order, and ahead of all tasks submitted without a deadline (which are treated as having an
+ * infinitely far deadline).
+ * <p>
+ * A deadline is the latest time the task may start execution, in comparison with
+ * {@link Clock#accurateForwardProgressingMillis()}.  If a task's deadline has passed before it
+ * reaches a thread, the task will not be invoked.  Instead the deadline miss count will be
+ * incremented, and if the task was submitted with a future that future will be canceled.  Tasks
+ * which have missed their deadline are dropped as the next task is selected, so under overload
+ * threads are not spent on work whose result is no longer wanted, while the tasks closest to
+ * their deadline are kept at the front of the queue.
+ * <p>
+ * Tasks submitted without a deadline behave exactly as they do in {@link PriorityScheduler}.
+ * Deadline tasks are dispatched ahead of them, with the exception that low priority tasks which
+ * have waited longer than the max wait for low priority will still be executed.  A steady stream
+ * of deadline tasks can however delay high priority tasks submitted without a deadline
+ * indefinitely.
+ *
+ * @since 5.37
+ */
+public class DeadlineScheduler extends PriorityScheduler {
+  protected final DeadlineQueueManager deadlineQueueManager;
+
+  /**
+   * Constructs a new thread pool, though threads will be lazily started as it has tasks ready to
+   * run.  This defaults to all newly created threads being daemon threads.
+   *
+   * @param poolSize Thread pool size that should be maintained
+   */
+  public DeadlineScheduler(int poolSize) {
+    this(poolSize, null);
+  }
+
+  /**
+   * Constructs a new thread pool, though threads will be lazily started as it has tasks ready to
+   * run.
+   *
+   * @param poolSize Thread pool size that should be maintained
+   * @param threadFactory thread factory for producing new threads within executor
+   */
+  public DeadlineScheduler(int poolSize, ThreadFactory threadFactory) {
+    this(new WorkerPool(threadFactory, poolSize), TaskPriority.High);
+  }
+
+  /**
+   * This constructor is designed for extending classes to be able to provide their own
+   * implementation of {@link WorkerPool}.  Ultimately all constructors will defer to this one.
+   *
+   * @param workerPool WorkerPool to handle accepting tasks and providing them to a worker for execution
+   * @param defaultPriority Default priority for tasks submitted without a deadline or priority
+   */
+  protected DeadlineScheduler(WorkerPool workerPool, TaskPriority defaultPriority) {
+    this(workerPool, defaultPriority, new DeadlineQueueManager(workerPool));
+  }
+
+  private DeadlineScheduler(WorkerPool workerPool, TaskPriority defaultPriority,
+                            DeadlineQueueManager queueManager) {
+    super(workerPool, defaultPriority, queueManager);
+
+    this.deadlineQueueManager = queueManager;
+  }
+
+  /**
+   * Executes the task once threads are available, ordered by the provided deadline.  If the
+   * deadline has passed by the time a thread is available, the task will be dropped without being
+   * invoked.
+   *
+   * @param task Runnable to execute
+   * @param deadline Absolute time in milliseconds the task must start by
+   */
+  public void executeWithDeadline(Runnable task, long deadline) {
+    ArgumentVerifier.assertNotNull(task, "task");
+
+    addToScheduleQueue(deadlineQueueManager.deadlineQueueSet,
+                       new DeadlineTaskWrapper(task, deadlineQueueManager.deadlineQueueSet,
+                                               deadline, deadlineQueueManager.deadlineMissCount));
+  }
+
+  /**
+   * Submits the task to be executed once threads are available, ordered by the provided
+   * deadline.  If the deadline has passed by the time a thread is available, the task will not
+   * be invoked and the returned future will be canceled.
+   *
+   * @param task Runnable to execute
+   * @param deadline Absolute time in milliseconds the task must start by
+   * @return Future to represent when the execution has occurred
+   */
+  public ListenableFuture<?> submitWithDeadline(Runnable task, long deadline) {
+    return submitWithDeadline(task, null, deadline);
+  }
+
+  /**
+   * Submits the task to be executed once threads are available, ordered by the provided
+   * deadline.  If the deadline has passed by the time a thread is available, the task will not
+   * be invoked and the returned future will be canceled.
+   *
+   * @param <T> type of result returned from the future
+   * @param task Runnable to execute
+   * @param result Result to provide to the future once the task has completed
+   * @param deadline Absolute time in milliseconds the task must start by
+   * @return Future to represent when the execution has occurred and provide the given result
+   */
+  public <T> ListenableFuture<T> submitWithDeadline(Runnable task, T result, long deadline) {
+    return submitWithDeadline(RunnableCallableAdapter.adapt(task, result), deadline);
+  }
+
+  /**
+   * Submits the task to be executed once threads are available, ordered by the provided
+   * deadline.  If the deadline has passed by the time a thread is available, the task will not
+   * be invoked and the returned future will be canceled.
+   *
+   * @param <T> type of result returned from the future
+   * @param task Callable to execute
+   * @param deadline Absolute time in milliseconds the task must start by
+   * @return Future to represent when the execution has occurred and provide the result
+   */
+  public <T> ListenableFuture<T> submitWithDeadline(Callable<T> task, long deadline) {
+    ArgumentVerifier.assertNotNull(task, "task");
+
+    ListenableFutureTask<T> lft = new ListenableFutureTask<>(false, task, this);
+    executeWithDeadline(lft, deadline);
+    return lft;
+  }
+
+  /**
+   * Returns the total number of deadline tasks which were dropped because their deadline had
+   * passed before they could start execution.
+   *
+   * @return Number of tasks which missed their deadline
+   */
+  public long getDeadlineMissCount() {
+    return deadlineQueueManager.deadlineMissCount.sum();
+  }
+
+  /**
+   * Returns the number of tasks with a deadline which are queued waiting for a thread.  Tasks
+   * whose deadline has passed will still be included until they are dropped while a thread is
+   * selecting its next task.
+   *
+   * @return Number of queued deadline tasks
+   */
+  public int getDeadlineQueuedTaskCount() {
+    return deadlineQueueManager.deadlineQueueSet.queueSize();
+  }
+
+  @Override
+  public int getQueuedTaskCount() {
+    return super.getQueuedTaskCount() + getDeadlineQueuedTaskCount();
+  }
+
+  @Override
+  public int getWaitingForExecutionTaskCount() {
+    // deadline tasks are always ready to execute
+    return super.getWaitingForExecutionTaskCount() + getDeadlineQueuedTaskCount();
+  }
+
+  @Override
+  public int getDeadTaskCount() {
+    return super.getDeadTaskCount() + deadlineQueueManager.deadlineQueueSet.getDeadTaskCount();
+  }
+
+  /**
+   * {@link QueueManager} which holds deadline tasks in an additional {@link QueueSet}.  The
+   * schedule queue of that set is sorted by deadline, and any task in it is given precedence
+   * over the prioritized queue sets, unless a low priority task has exceeded its max wait.
+   *
+   * @since 5.37
+   */
+  protected static class DeadlineQueueManager extends QueueManager {
+    protected final QueueSet deadlineQueueSet;
+    protected final LongAdder deadlineMissCount;
+
+    /**
+     * Constructs a new {@link DeadlineQueueManager}.
+     *
+     * @param queueSetListener Listener to be invoked when the head of a queue has been updated
+     */
+    public DeadlineQueueManager(QueueSetListener queueSetListener) {
+      super(queueSetListener, DEFAULT_LOW_PRIORITY_MAX_WAIT_IN_MS);
+
+      this.deadlineQueueSet = new QueueSet(queueSetListener);
+      this.deadlineMissCount = new LongAdder();
+    }
+
+    @Override
+    public List<Runnable> clearQueue() {
+      List<TaskWrapper> wrapperList = new ArrayList<>(deadlineQueueSet.queueSize());
+      deadlineQueueSet.drainQueueInto(wrapperList);
+      List<Runnable> result = ContainerHelper.getContainedRunnables(wrapperList);
+      result.addAll(super.clearQueue());
+      return result;
+    }
+
+    @Override
+    public TaskWrapper getNextTask(TaskWrapper nextHighPriorityTask) {
+      TaskWrapper deadlineTask = getNextDeadlineTask();
+      if (deadlineTask == null || lowPriorityWaitExceeded()) {
+        return super.getNextTask(nextHighPriorityTask);
+      }
+      return deadlineTask;
+    }
+
+    /**
+     * Returns the next deadline task which has not yet missed its deadline.  Tasks at the head of
+     * the deadline queue which have already missed their deadline are claimed and dropped here,
+     * so that they never take a thread from tasks which can still run.
+     *
+     * @return The next deadline task, or {@code null} if no deadline tasks are queued
+     */
+    protected TaskWrapper getNextDeadlineTask() {
+      while (true) {
+        TaskWrapper deadlineTask = deadlineQueueSet.getNextTask();
+        if (deadlineTask == null ||
+            deadlineTask.getRunTime() >= Clock.lastKnownForwardProgressingMillis()) {
+          return deadlineTask;
+        } else if (deadlineTask.canExecute(deadlineTask.getExecuteReference())) {
+          ((DeadlineTaskWrapper)deadlineTask).deadlineMissed();
+        } // else task was claimed or removed concurrently, check the new head
+      }
+    }
+
+    /**
+     * Checks if the next low priority task is ready and has waited longer than the max wait for
+     * low priority.  In that case it should be arbitrated as usual rather than deferring to the
+     * deadline tasks.
+     *
+     * @return {@code true} if the next low priority task has exceeded its max wait
+     */
+    protected boolean lowPriorityWaitExceeded() {
+      TaskWrapper nextLowPriorityTask = lowPriorityQueueSet.getNextTask();
+      return nextLowPriorityTask != null &&
+          Clock.lastKnownForwardProgressingMillis() - nextLowPriorityTask.getRunTime() >
+            getMaxWaitForLowPriority();
+    }
+
+    @Override
+    public boolean remove(Runnable task) {
+      return deadlineQueueSet.remove(task) || super.remove(task);
+    }
+
+    @Override
+    public boolean remove(Callable<?> task) {
+      return deadlineQueueSet.remove(task) || super.remove(task);
+    }
+  }
+
+  /**
+   * Wrapper for tasks submitted with a deadline.  The deadline is provided as the run time so
+   * that the task is sorted by deadline within the schedule queue, but the task is always ready
+   * to execute.  If the deadline has passed the task is dropped instead, normally as it is
+   * selected from the queue, but also if the deadline passes just before the task is run.
+   *
+   * @since 5.37
+   */
+  protected static class DeadlineTaskWrapper extends OneTimeTaskWrapper {
+    protected final LongAdder deadlineMissCount;
+
+    protected DeadlineTaskWrapper(Runnable task, QueueSet queueSet, long deadline,
+                                  LongAdder deadlineMissCount) {
+      super(task, queueSet.scheduleQueue, deadline);
+
+      this.deadlineMissCount = deadlineMissCount;
+    }
+
+    @Override
+    public long getScheduleDelay() {
+      // run time is the deadline, task can always execute
+      return 0;
+    }
+
+    /**
+     * Invoked once the task has been claimed but will not be run because its deadline has passed.
+     */
+    protected void deadlineMissed() {
+      deadlineMissCount.increment();
+      if (task instanceof Future) {
+        ((Future<?>)task).cancel(false);
+      }
+    }
+
+    @Override
+    public void runTask() {
+      if (invalidated) {
+        return;
+      } else if (runTime < Clock.accurateForwardProgressingMillis()) {
+        deadlineMissed();
+      } else {
+        super.runTask();
+      }
+    }
+  }
+}
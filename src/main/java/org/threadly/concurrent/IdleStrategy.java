@@ -0,0 +1,221 @@
+package org.threadly.concurrent;
+
+import java.util.concurrent.locks.LockSupport;
+
+import org.threadly.util.ArgumentVerifier;
+
+/**
+ * Strategy for how a thread waits when it has no tasks ready to execute.  The default for all
+ * threadly pools is {@link ParkIdleStrategy}, which parks the thread until it is unparked once a
+ * task is submitted.  Waking a parked thread requires an OS level wake up, which for latency
+ * sensitive hand offs can be significant.  Other strategies allow a thread to instead busy spin
+ * or yield (checking for tasks between each invocation), trading CPU time for dispatch latency.
+ * <p>
+ * {@link #idle(int, long)} is invoked in a loop by the idle thread, which will check for new tasks
+ * between each invocation.  Because of that implementations are allowed to return early (even
+ * immediately), but must not wait longer than the provided max idle time.  A thread which is
+ * waiting for a task will still be unparked as tasks are submitted, so implementations which
+ * park do not need to do anything further to be woken up.
+ * <p>
+ * A single instance may be shared by multiple threads (and pools) so implementations must be
+ * thread safe.
+ *
+ * @since 5.37
+ */
+public interface IdleStrategy {
+  /**
+   * Invoked when the thread has no tasks to execute.  The thread will check for tasks once this
+   * returns, and if it still finds no tasks to execute this will be invoked again with an
+   * incremented {@code idleCount}.  After very long idle periods {@code idleCount} may overflow 
+   * to a negative value, which should be treated as a thread which has been idle for a long time.
+   *
+   * @param idleCount Number of times this has been invoked since the thread last found a task, starting at zero
+   * @param maxIdleNanos Maximum time in nanoseconds to wait, or {@link Long#MAX_VALUE} to wait until unparked
+   */
+  public void idle(int idleCount, long maxIdleNanos);
+
+  /**
+   * Invoked when a thread which had previously invoked {@link #idle(int, long)} has found a task
+   * to execute.  This can be used by implementations to adapt to the rate tasks are arriving.
+   *
+   * @param idleCount Number of times {@link #idle(int, long)} was invoked before a task was found
+   */
+  public default void idleEnded(int idleCount) {
+    // ignored by default
+  }
+
+  /**
+   * Idle strategy which will park the thread until a task is submitted.  This uses no CPU while
+   * idle, but requires the thread to be woken up by the OS before it can execute a new task.
+   * This is the default strategy.
+   * <p>
+   * This class should not be constructed, instead it should be provided via the static function
+   * {@link ParkIdleStrategy#instance()}.
+   *
+   * @since 5.37
+   */
+  public static class ParkIdleStrategy implements IdleStrategy {
+    private static final ParkIdleStrategy INSTANCE = new ParkIdleStrategy();
+
+    /**
+     * Provides the {@link ParkIdleStrategy} instance.
+     *
+     * @return ParkIdleStrategy instance
+     */
+    public static ParkIdleStrategy instance() {
+      return INSTANCE;
+    }
+
+    private ParkIdleStrategy() {
+      // don't allow external construction
+    }
+
+    @Override
+    public void idle(int idleCount, long maxIdleNanos) {
+      if (maxIdleNanos == Long.MAX_VALUE) {
+        LockSupport.park();
+      } else {
+        LockSupport.parkNanos(maxIdleNanos);
+      }
+    }
+  }
+
+  /**
+   * Idle strategy which will never block, instead returning immediately so that the thread
+   * continuously checks for new tasks.  This provides the lowest possible dispatch latency, but
+   * will consume a full CPU core per idle thread.  This should only be used for pools whose
+   * thread count is less than the number of available cores.
+   * <p>
+   * This class should not be constructed, instead it should be provided via the static function
+   * {@link BusySpinIdleStrategy#instance()}.
+   *
+   * @since 5.37
+   */
+  public static class BusySpinIdleStrategy implements IdleStrategy {
+    private static final BusySpinIdleStrategy INSTANCE = new BusySpinIdleStrategy();
+
+    /**
+     * Provides the {@link BusySpinIdleStrategy} instance.
+     *
+     * @return BusySpinIdleStrategy instance
+     */
+    public static BusySpinIdleStrategy instance() {
+      return INSTANCE;
+    }
+
+    private BusySpinIdleStrategy() {
+      // don't allow external construction
+    }
+
+    @Override
+    public void idle(int idleCount, long maxIdleNanos) {
+      // return immediately so the thread checks for tasks again
+    }
+  }
+
+  /**
+   * Idle strategy which will first spin, then {@link Thread#yield()}, and finally park the thread
+   * if no tasks have been found.  Tasks which arrive shortly after the thread becomes idle will be
+   * picked up without the thread needing to be woken up, while threads idle for longer periods
+   * will not continue to consume CPU.
+   *
+   * @since 5.37
+   */
+  public static class SpinYieldIdleStrategy implements IdleStrategy {
+    protected final int spinCount;
+    protected final int yieldCount;
+
+    /**
+     * Constructs a new {@link SpinYieldIdleStrategy}.
+     *
+     * @param spinCount Number of idle checks to spin for before yielding
+     * @param yieldCount Number of idle checks to yield for before parking
+     */
+    public SpinYieldIdleStrategy(int spinCount, int yieldCount) {
+      ArgumentVerifier.assertNotNegative(spinCount, "spinCount");
+      ArgumentVerifier.assertNotNegative(yieldCount, "yieldCount");
+
+      this.spinCount = spinCount;
+      this.yieldCount = yieldCount;
+    }
+
+    @Override
+    public void idle(int idleCount, long maxIdleNanos) {
+      if (idleCount < 0) {
+        ParkIdleStrategy.INSTANCE.idle(idleCount, maxIdleNanos);
+      } else if (idleCount < spinCount) {
+        return;
+      } else if (idleCount - spinCount < yieldCount) {
+        Thread.yield();
+      } else {
+        ParkIdleStrategy.INSTANCE.idle(idleCount, maxIdleNanos);
+      }
+    }
+  }
+
+  /**
+   * Idle strategy which adapts how long threads spin before parking based off how frequently
+   * tasks arrive while spinning.  If a task is found while the thread is spinning, the spin limit
+   * will be increased (up to the provided max).  If instead the thread had to park before a task
+   * arrived, the spin limit will be reduced (down to the provided min).  This way when tasks are
+   * arriving frequently threads will spin to reduce dispatch latency, but once the rate of tasks
+   * drops off threads will quickly return to parking.
+   * <p>
+   * The spin limit is shared for all threads using this instance, and updated without
+   * synchronization.  Because of that a separate instance should be used for each pool.
+   *
+   * @since 5.37
+   */
+  public static class AdaptiveSpinIdleStrategy implements IdleStrategy {
+    protected final int minSpinCount;
+    protected final int maxSpinCount;
+    private volatile int spinLimit;
+
+    /**
+     * Constructs a new {@link AdaptiveSpinIdleStrategy}.
+     *
+     * @param minSpinCount Minimum number of idle checks to spin for before parking, must be at least one
+     * @param maxSpinCount Maximum number of idle checks to spin for before parking
+     */
+    public AdaptiveSpinIdleStrategy(int minSpinCount, int maxSpinCount) {
+      ArgumentVerifier.assertGreaterThanZero(minSpinCount, "minSpinCount");
+      if (maxSpinCount < minSpinCount) {
+        throw new IllegalArgumentException("maxSpinCount must be >= minSpinCount");
+      }
+
+      this.minSpinCount = minSpinCount;
+      this.maxSpinCount = maxSpinCount;
+      this.spinLimit = minSpinCount;
+    }
+
+    /**
+     * Check the current number of idle checks threads will spin for before parking.
+     *
+     * @return Current spin limit
+     */
+    public int getSpinLimit() {
+      return spinLimit;
+    }
+
+    @Override
+    public void idle(int idleCount, long maxIdleNanos) {
+      if (idleCount >= spinLimit || idleCount < 0) {
+        ParkIdleStrategy.INSTANCE.idle(idleCount, maxIdleNanos);
+      }
+    }
+
+    @Override
+    public void idleEnded(int idleCount) {
+      int currentLimit = spinLimit;
+      if (idleCount > 0 && idleCount <= currentLimit) {
+        // task arrived while spinning, spin longer in the future
+        if (currentLimit < maxSpinCount) {
+          spinLimit = (int)Math.min(maxSpinCount, currentLimit * 2L);
+        }
+      } else if (currentLimit > minSpinCount) {
+        // we had to park, reduce spinning
+        spinLimit = Math.max(minSpinCount, currentLimit / 2);
+      }
+    }
+  }
+}
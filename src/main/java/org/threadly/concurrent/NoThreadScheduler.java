@@ -1,5 +1,7 @@
 package org.threadly.concurrent;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.atomic.AtomicReference;
@@ -21,7 +23,9 @@ import org.threadly.util.ExceptionUtils;
  * {@link #tick(ExceptionHandler)}.  Since it is running on the calling thread, calls to 
  * {@code Object.wait()} and {@code Thread.sleep()} from sub tasks will block (possibly forever).  
  * The call to {@link #tick(ExceptionHandler)} will not unblock till there is no more work for the 
- * scheduler to currently handle.
+ * scheduler to currently handle.  If the calling thread needs to bound how long it is used for, 
+ * {@link #tick(ExceptionHandler, int, long)} will return once a task count or time budget is 
+ * reached.
  * 
  * @since 2.0.0
  */
@@ -30,7 +34,10 @@ public class NoThreadScheduler extends AbstractPriorityScheduler {
   protected final QueueManager queueManager;
   protected final AtomicReference<Thread> blockingThread;
   private volatile boolean tickRunning;
-  private volatile boolean tickCanceled;
+  protected volatile boolean tickCanceled;
+  private volatile IdleStrategy idleStrategy;
+  // only set by the thread while it is within tick, so other threads will never see themselves
+  private Thread tickThread;
   
   /**
    * Constructs a new {@link NoThreadScheduler} scheduler.
@@ -46,25 +53,82 @@ public class NoThreadScheduler extends AbstractPriorityScheduler {
    * @param maxWaitForLowPriorityInMs time low priority tasks to wait if there are high priority tasks ready to run
    */
   public NoThreadScheduler(TaskPriority defaultPriority, long maxWaitForLowPriorityInMs) {
+    this(defaultPriority, maxWaitForLowPriorityInMs, 0);
+  }
+  
+  /**
+   * Constructs a new {@link NoThreadScheduler} scheduler with specified default priority behavior.  
+   * If {@code scheduleTickMillis} is greater than zero, delayed tasks will be held in a timing 
+   * wheel with that tick resolution until they are close to execution.  This makes scheduling 
+   * large numbers of delayed tasks (for example timeouts which rarely execute) cheaper, at the 
+   * cost of those tasks possibly executing up to one tick later than requested.  Because the 
+   * wheel progresses based off {@link org.threadly.util.Clock}, a tick value should not be 
+   * provided if {@link #nowInMillis(boolean)} is overridden.
+   * 
+   * @since 5.37
+   * @param defaultPriority Default priority for tasks which are submitted without any specified priority
+   * @param maxWaitForLowPriorityInMs time low priority tasks to wait if there are high priority tasks ready to run
+   * @param scheduleTickMillis Tick resolution of timing wheel, or {@code 0} to use a sorted schedule queue
+   */
+  public NoThreadScheduler(TaskPriority defaultPriority, long maxWaitForLowPriorityInMs, 
+                           long scheduleTickMillis) {
+    this(defaultPriority, maxWaitForLowPriorityInMs, scheduleTickMillis, 0);
+  }
+  
+  /**
+   * Constructs a new {@link NoThreadScheduler} scheduler with specified default priority behavior.  
+   * See {@link #NoThreadScheduler(TaskPriority, long, long)} for details on 
+   * {@code scheduleTickMillis}.  If {@code executeRingCapacity} is greater than zero, each 
+   * priority preallocates a ring of that many task slots.  Tasks provided through 
+   * {@link #execute(Runnable, TaskPriority)} from threads other than the one invoking 
+   * {@link #tick(ExceptionHandler)} will be placed into a free slot without allocating, and only 
+   * wake the ticking thread if it is blocked waiting for tasks.  This is useful when the 
+   * scheduler is ticked from a dedicated thread, and many tasks are handed to it from other 
+   * threads.
+   * <p>
+   * Regardless of this setting, tasks which are executed by the thread currently invoking 
+   * {@link #tick(ExceptionHandler)} are queued into a local queue which needs no synchronization.
+   * 
+   * @since 5.37
+   * @param defaultPriority Default priority for tasks which are submitted without any specified priority
+   * @param maxWaitForLowPriorityInMs time low priority tasks to wait if there are high priority tasks ready to run
+   * @param scheduleTickMillis Tick resolution of timing wheel, or {@code 0} to use a sorted schedule queue
+   * @param executeRingCapacity Task slots to preallocate per priority, or {@code 0} to disable
+   */
+  public NoThreadScheduler(TaskPriority defaultPriority, long maxWaitForLowPriorityInMs, 
+                           long scheduleTickMillis, int executeRingCapacity) {
     super(defaultPriority);
     
     queueManager = new QueueManager(queueListener = new QueueSetListener() {
       @Override
       public void handleQueueUpdate() {
-        Thread t = blockingThread.get();
-        if (t != null) {
-          LockSupport.unpark(t);
-        }
+        wakeUpBlockingThread();
       }
-    }, maxWaitForLowPriorityInMs);
+    }, maxWaitForLowPriorityInMs, scheduleTickMillis, false, executeRingCapacity);
     blockingThread = new AtomicReference<>(null);
     tickRunning = false;
     tickCanceled = false;
+    idleStrategy = IdleStrategy.ParkIdleStrategy.instance();
     
     // call to verify and set values
     setMaxWaitForLowPriority(maxWaitForLowPriorityInMs);
   }
 
+  /**
+   * Invoked when the queue has been updated (or the tick canceled) to wake up a thread which may 
+   * be waiting in {@link #blockingTick(ExceptionHandler)}.  Extending classes which block in a 
+   * different way can override this to wake their thread, but should still invoke the super 
+   * implementation.
+   * 
+   * @since 5.37
+   */
+  protected void wakeUpBlockingThread() {
+    Thread t = blockingThread.get();
+    if (t != null) {
+      LockSupport.unpark(t);
+    }
+  }
+
   /**
    * Abstract call to get the value the scheduler should use to represent the current time.  This 
    * can be overridden if someone wanted to artificially change the time.
@@ -80,6 +144,29 @@ public class NoThreadScheduler extends AbstractPriorityScheduler {
     }
   }
   
+  /**
+   * Getter for the strategy used by {@link #blockingTick(ExceptionHandler)} to wait for tasks.
+   * 
+   * @since 5.37
+   * @return Current idle strategy
+   */
+  public IdleStrategy getIdleStrategy() {
+    return idleStrategy;
+  }
+  
+  /**
+   * Sets the strategy {@link #blockingTick(ExceptionHandler)} will use while waiting for tasks to 
+   * be ready.  By default the blocking thread will park until a task is ready.
+   * 
+   * @since 5.37
+   * @param idleStrategy Strategy to wait for tasks with
+   */
+  public void setIdleStrategy(IdleStrategy idleStrategy) {
+    ArgumentVerifier.assertNotNull(idleStrategy, "idleStrategy");
+    
+    this.idleStrategy = idleStrategy;
+  }
+  
   /**
    * Call to cancel current or the next tick call.  If currently in a 
    * {@link #tick(ExceptionHandler)} call (weather blocking waiting for tasks, or currently running 
@@ -119,7 +206,36 @@ public class NoThreadScheduler extends AbstractPriorityScheduler {
    * @return quantity of tasks run during this tick invocation
    */
   public int tick(ExceptionHandler exceptionHandler) {
-    return tick(exceptionHandler, true);
+    return tick(exceptionHandler, true, Integer.MAX_VALUE, Long.MAX_VALUE);
+  }
+  
+  /**
+   * Similar to {@link #tick(ExceptionHandler)}, except that this invocation will return once 
+   * either {@code maxTasks} have run, or {@code maxNanos} have elapsed since the tick started.  
+   * This allows the scheduler to be progressed from a host loop which needs a bounded time per 
+   * iteration (for example a game or GUI frame), without a large backlog stalling that loop.  
+   * The time budget is checked between tasks, so a single long running task may exceed it.
+   * <p>
+   * Tasks not run due to the budget remain queued with their original position.  Because the 
+   * next task is always selected based off how long it has been waiting (with low priority 
+   * tasks still guaranteed to run once they have waited beyond the max wait for low priority), 
+   * the fairness between priorities is maintained across budgeted ticks.
+   * <p>
+   * The same threading restrictions as {@link #tick(ExceptionHandler)} apply.
+   * 
+   * @since 5.37
+   * @param exceptionHandler Exception handler implementation to call if any tasks throw an 
+   *                           exception, or null to have exceptions thrown out of this call
+   * @param maxTasks Maximum number of tasks to run before returning
+   * @param maxNanos Maximum time in nanoseconds to run tasks for, {@link Long#MAX_VALUE} for no limit
+   * @return {@code true} if there are still tasks ready to run once this returns
+   */
+  public boolean tick(ExceptionHandler exceptionHandler, int maxTasks, long maxNanos) {
+    ArgumentVerifier.assertGreaterThanZero(maxTasks, "maxTasks");
+    ArgumentVerifier.assertGreaterThanZero(maxNanos, "maxNanos");
+    
+    tick(exceptionHandler, true, maxTasks, maxNanos);
+    return hasTaskReadyToRun();
   }
   
   /**
@@ -131,19 +247,36 @@ public class NoThreadScheduler extends AbstractPriorityScheduler {
    *                           exception, or null to have exceptions thrown out of this call
    * @param resetCancelTickIfNoTasksRan if {@code true} will reset cancelTick weather tasks ran or 
    *                                      not, otherwise cancelTick will only be reset if tasks ran 
+   * @param maxTasks Maximum number of tasks to run before returning
+   * @param maxNanos Maximum time in nanoseconds to run tasks for, {@link Long#MAX_VALUE} for no limit
    * @return quantity of tasks run during this tick invocation
    */
-  private int tick(ExceptionHandler exceptionHandler, boolean resetCancelTickIfNoTasksRan) {
+  private int tick(ExceptionHandler exceptionHandler, boolean resetCancelTickIfNoTasksRan, 
+                   int maxTasks, long maxNanos) {
     int tasks = 0;
     TaskWrapper nextTask;
+    Thread previousTickThread = tickThread;
+    tickThread = Thread.currentThread();
     tickRunning = true;
+    // only query the clock if there is a time budget
+    long startNanos = maxNanos == Long.MAX_VALUE ? 0 : Clock.accurateTimeNanos();
     try {
-      while ((nextTask = getNextReadyTask()) != null && ! tickCanceled) {
+      while (tasks < maxTasks && 
+             (maxNanos == Long.MAX_VALUE || tasks == 0 || 
+                Clock.accurateTimeNanos() - startNanos < maxNanos) && 
+             (nextTask = getNextReadyTask()) != null && ! tickCanceled) {
         // call will remove task from queue, or reposition as necessary
         // we can cheat with the execution reference since task de-queue is single threaded
         if (nextTask.canExecute(nextTask.getExecuteReference())) {
           try {
-            nextTask.runTask();
+            if (nextTask instanceof RingSlotTaskWrapper) {
+              // ring slots would handle failures themselves, instead provide to exception handler
+              if (! ((RingSlotTaskWrapper)nextTask).runTaskUnhandled()) {
+                continue; // removed before it could run
+              }
+            } else {
+              nextTask.runTask();
+            }
           } catch (Throwable t) {
             if (exceptionHandler != null) {
               exceptionHandler.handleException(t);
@@ -164,12 +297,14 @@ public class NoThreadScheduler extends AbstractPriorityScheduler {
       return tasks;
     } finally {
       tickRunning = false;
+      tickThread = previousTickThread;
     }
   }
   
   /**
    * This is similar to {@link #tick(ExceptionHandler)}, except that it will block until there are 
-   * tasks ready to run, or until {@link #cancelTick()} is invoked.  
+   * tasks ready to run, or until {@link #cancelTick()} is invoked.  How the thread waits for tasks 
+   * can be configured with {@link #setIdleStrategy(IdleStrategy)}.
    * <p>
    * Once there are tasks ready to run, this will continue to block as it runs as many tasks that 
    * are ready to run.  
@@ -195,52 +330,128 @@ public class NoThreadScheduler extends AbstractPriorityScheduler {
    * @throws InterruptedException thrown if thread is interrupted waiting for task to run
    */
   public int blockingTick(ExceptionHandler exceptionHandler) throws InterruptedException {
-    int initialTickResult = tick(exceptionHandler, false);
+    int initialTickResult = tick(exceptionHandler, false, Integer.MAX_VALUE, Long.MAX_VALUE);
     if (initialTickResult == 0) {
-      Thread currentThread = Thread.currentThread();
-      // we already tried to optimistically run something above, so we now must prepare to park
-      // and park if we still find nothing to execute
-      if (! blockingThread.compareAndSet(null, currentThread)) {
-        throw new IllegalStateException("Another thread is already blocking!!");
+      if (! blockTillTaskReady()) {
+        return 0;
       }
-      try {
-        while (true) {
-          /* we must check the cancelTick once we have the lock 
-           * since that is when the .notify() would happen.
-           */
-          if (tickCanceled) {
-            tickCanceled = false;
-            return 0;
-          } else if (currentThread.isInterrupted()) {
-            throw new InterruptedException();
-          }
-          TaskWrapper nextTask = queueManager.getNextTask();
-          if (nextTask == null) {
-              LockSupport.park();
+      
+      return tick(exceptionHandler, true, Integer.MAX_VALUE, Long.MAX_VALUE);
+    } else {
+      return initialTickResult;
+    }
+  }
+  
+  /**
+   * This is similar to {@link #blockingTick(ExceptionHandler)}, except that once tasks are ready 
+   * to run, it will only run them until either {@code maxTasks} have run, or {@code maxNanos} 
+   * have elapsed since tasks started to run.  Time spent blocking for tasks to be ready does not 
+   * count against the time budget.  See {@link #tick(ExceptionHandler, int, long)} for how 
+   * tasks which are not run due to the budget are handled.
+   * <p>
+   * The same threading restrictions as {@link #blockingTick(ExceptionHandler)} apply.
+   * 
+   * @since 5.37
+   * @param exceptionHandler Exception handler implementation to call if any tasks throw an 
+   *                           exception, or null to have exceptions thrown out of this call
+   * @param maxTasks Maximum number of tasks to run before returning
+   * @param maxNanos Maximum time in nanoseconds to run tasks for, {@link Long#MAX_VALUE} for no limit
+   * @return {@code true} if there are still tasks ready to run once this returns
+   * @throws InterruptedException thrown if thread is interrupted waiting for task to run
+   */
+  public boolean blockingTick(ExceptionHandler exceptionHandler, 
+                              int maxTasks, long maxNanos) throws InterruptedException {
+    ArgumentVerifier.assertGreaterThanZero(maxTasks, "maxTasks");
+    ArgumentVerifier.assertGreaterThanZero(maxNanos, "maxNanos");
+    
+    if (tick(exceptionHandler, false, maxTasks, maxNanos) == 0 && blockTillTaskReady()) {
+      tick(exceptionHandler, true, maxTasks, maxNanos);
+    }
+    return hasTaskReadyToRun();
+  }
+  
+  /**
+   * Blocks the invoking thread until a task is ready to run, or until {@link #cancelTick()} is 
+   * invoked.  This should only be invoked after an optimistic tick failed to run any tasks.
+   * 
+   * @return {@code true} if a task is ready to run, {@code false} if the tick was canceled
+   * @throws InterruptedException thrown if thread is interrupted waiting for task to run
+   */
+  private boolean blockTillTaskReady() throws InterruptedException {
+    Thread currentThread = Thread.currentThread();
+    // we already tried to optimistically run something above, so we now must prepare to park
+    // and park if we still find nothing to execute
+    if (! blockingThread.compareAndSet(null, currentThread)) {
+      throw new IllegalStateException("Another thread is already blocking!!");
+    }
+    IdleStrategy idleStrategy = this.idleStrategy;
+    int idleCount = 0;
+    try {
+      while (true) {
+        /* we must check the cancelTick once we have the lock 
+         * since that is when the .notify() would happen.
+         */
+        if (tickCanceled) {
+          tickCanceled = false;
+          return false;
+        } else if (currentThread.isInterrupted()) {
+          throw new InterruptedException();
+        }
+        TaskWrapper nextTask = queueManager.getNextTask();
+        if (nextTask == null) {
+          idleStrategy.idle(idleCount++, Long.MAX_VALUE);
+        } else {
+          long nextTaskDelay = nextTask.getScheduleDelay();
+          if (nextTaskDelay > 0) {
+            idleStrategy.idle(idleCount++, Clock.NANOS_IN_MILLISECOND * nextTaskDelay);
           } else {
-            long nextTaskDelay = nextTask.getScheduleDelay();
-            if (nextTaskDelay > 0) {
-              LockSupport.parkNanos(Clock.NANOS_IN_MILLISECOND * nextTaskDelay);
-            } else {
-              // task is ready to run, so break loop
-              break;
+            // task is ready to run, so break loop
+            if (idleCount > 0) {
+              idleStrategy.idleEnded(idleCount);
             }
+            break;
           }
         }
-      } finally {
-        // lazy set should be safe here as a CAS operation (the only read done for this atomic) 
-        // should invoke a volatile write to see the update.  But assuming it does not (since the 
-        // docs are not perfectly clear on it), in theory only one thread should be invoking tick 
-        // anyways, so the worst case would be another thread sees us as still blocking even 
-        // though we have gone into tick (or completed), but that would be an indication of a bad 
-        // design pattern with NoThreadScheduler.  If only one thread is invoking tick (as it 
-        // should).  This would never be seen.
-        blockingThread.lazySet(null);
       }
-      
-      return tick(exceptionHandler, true);
-    } else {
-      return initialTickResult;
+    } finally {
+      // lazy set should be safe here as a CAS operation (the only read done for this atomic) 
+      // should invoke a volatile write to see the update.  But assuming it does not (since the 
+      // docs are not perfectly clear on it), in theory only one thread should be invoking tick 
+      // anyways, so the worst case would be another thread sees us as still blocking even 
+      // though we have gone into tick (or completed), but that would be an indication of a bad 
+      // design pattern with NoThreadScheduler.  If only one thread is invoking tick (as it 
+      // should).  This would never be seen.
+      blockingThread.lazySet(null);
+    }
+    return true;
+  }
+
+  @Override
+  protected void doExecute(Runnable task) {
+    doExecute(task, defaultPriority);
+  }
+
+  @Override
+  public void execute(Runnable task, TaskPriority priority) {
+    ArgumentVerifier.assertNotNull(task, "task");
+    
+    doExecute(task, priority == null ? defaultPriority : priority);
+  }
+  
+  /**
+   * Executes the task with the provided priority.  If invoked from a thread other than the one 
+   * currently invoking {@link #tick(ExceptionHandler)}, and the {@link QueueSet} for the priority 
+   * has an execute ring buffer with free slots, the task will be provided without allocation.  
+   * Otherwise this will defer to {@link #doSchedule(Runnable, long, TaskPriority)}.
+   * 
+   * @param task Task to execute, already verified to not be {@code null}
+   * @param priority Priority for the task, will not be {@code null}
+   */
+  private void doExecute(Runnable task, TaskPriority priority) {
+    QueueSet queueSet = queueManager.getQueueSet(priority);
+    if (queueSet.executeRing == null || tickThread == Thread.currentThread() || 
+        ! queueSet.offerExecute(task, nowInMillis(false))) {
+      doSchedule(task, 0, priority);
     }
   }
 
@@ -248,7 +459,12 @@ public class NoThreadScheduler extends AbstractPriorityScheduler {
   protected OneTimeTaskWrapper doSchedule(Runnable task, long delayInMillis, TaskPriority priority) {
     QueueSet queueSet = queueManager.getQueueSet(priority);
     OneTimeTaskWrapper result;
-    if (delayInMillis == 0) {
+    if (delayInMillis == 0 && tickThread == Thread.currentThread()) {
+      // submitted from a running task, so this thread will consume it before blocking again
+      queueSet.addLocalExecute((result = new NoThreadOneTimeTaskWrapper(task, 
+                                                                        queueSet.localExecuteQueue, 
+                                                                        nowInMillis(false))));
+    } else if (delayInMillis == 0) {
       queueSet.addExecute((result = new NoThreadOneTimeTaskWrapper(task, queueSet.executeQueue, 
                                                                    nowInMillis(false))));
     } else {
@@ -258,6 +474,24 @@ public class NoThreadScheduler extends AbstractPriorityScheduler {
     return result;
   }
 
+  @Override
+  protected void doExecuteAll(Collection<? extends Runnable> tasks, TaskPriority priority) {
+    QueueSet queueSet = queueManager.getQueueSet(priority);
+    long now = nowInMillis(false);
+    if (tickThread == Thread.currentThread()) {
+      for (Runnable r : tasks) {
+        queueSet.addLocalExecute(new NoThreadOneTimeTaskWrapper(r, queueSet.localExecuteQueue, 
+                                                                now));
+      }
+      return;
+    }
+    List<OneTimeTaskWrapper> wrappers = new ArrayList<>(tasks.size());
+    for (Runnable r : tasks) {
+      wrappers.add(new NoThreadOneTimeTaskWrapper(r, queueSet.executeQueue, now));
+    }
+    queueSet.addExecuteAll(wrappers);
+  }
+
   @Override
   public void scheduleWithFixedDelay(Runnable task, long initialDelay, long recurringDelay,
                                      TaskPriority priority) {
@@ -345,7 +579,8 @@ public class NoThreadScheduler extends AbstractPriorityScheduler {
   
   private static boolean hasTaskReadyToRun(QueueSet queueSet) {
     if (queueSet.executeQueue.isEmpty()) {
-      TaskWrapper headTask = queueSet.scheduleQueue.peekFirst();
+      // use getNextTask so that tasks held outside the schedule queue are also considered
+      TaskWrapper headTask = queueSet.getNextTask();
       return headTask != null && headTask.getScheduleDelay() <= 0;
     } else {
       return true;
@@ -1,14 +1,24 @@
 package org.threadly.concurrent;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
 
+import org.threadly.concurrent.future.ListenableFuture;
 import org.threadly.util.AbstractService;
 import org.threadly.util.ArgumentVerifier;
 import org.threadly.util.Clock;
@@ -42,6 +52,7 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
   
   protected final WorkerPool workerPool;
   protected final QueueManager taskQueueManager;
+  private volatile long defaultScheduleSlackMillis = 0;
 
   /**
    * Constructs a new thread pool, though threads will be lazily started as it has tasks ready to 
@@ -113,10 +124,30 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
     this(new WorkerPool(threadFactory, poolSize), 
          defaultPriority, maxWaitForLowPriorityInMs);
   }
+
+  /**
+   * Constructs a new thread pool, though threads will be lazily started as it has tasks ready to 
+   * run.  The provided {@link Options} allow tuning how tasks are queued within the pool (for 
+   * example holding delayed tasks in a timing wheel, or enabling work stealing).  The options 
+   * are read at construction, changes to them after this point will not impact the pool.
+   * 
+   * @since 5.37
+   * @param poolSize Thread pool size that should be maintained
+   * @param defaultPriority Default priority for tasks which are submitted without any specified priority
+   * @param maxWaitForLowPriorityInMs time low priority tasks to wait if there are high priority tasks ready to run
+   * @param threadFactory thread factory for producing new threads within executor
+   * @param options Queue options for the pool, or {@code null} to use the defaults
+   */
+  public PriorityScheduler(int poolSize, TaskPriority defaultPriority, 
+                           long maxWaitForLowPriorityInMs, ThreadFactory threadFactory, 
+                           Options options) {
+    this(new WorkerPool(threadFactory, poolSize, options != null && options.workStealing), 
+         defaultPriority, maxWaitForLowPriorityInMs, options);
+  }
   
   /**
    * This constructor is designed for extending classes to be able to provide their own 
-   * implementation of {@link WorkerPool}.  Ultimately all constructors will defer to this one.
+   * implementation of {@link WorkerPool}.
    * 
    * @param workerPool WorkerPool to handle accepting tasks and providing them to a worker for execution
    * @param defaultPriority Default priority to store in case no priority is provided for tasks
@@ -124,10 +155,46 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
    */
   protected PriorityScheduler(WorkerPool workerPool, TaskPriority defaultPriority, 
                               long maxWaitForLowPriorityInMs) {
+    this(workerPool, defaultPriority, maxWaitForLowPriorityInMs, null);
+  }
+  
+  /**
+   * This constructor is designed for extending classes to be able to provide their own 
+   * implementation of {@link WorkerPool}.  The work stealing option is ignored here, it must 
+   * instead be provided when constructing the {@link WorkerPool}.
+   * 
+   * @since 5.37
+   * @param workerPool WorkerPool to handle accepting tasks and providing them to a worker for execution
+   * @param defaultPriority Default priority to store in case no priority is provided for tasks
+   * @param maxWaitForLowPriorityInMs time low priority tasks to wait if there are high priority tasks ready to run
+   * @param options Queue options for the pool, or {@code null} to use the defaults
+   */
+  protected PriorityScheduler(WorkerPool workerPool, TaskPriority defaultPriority, 
+                              long maxWaitForLowPriorityInMs, Options options) {
+    this(workerPool, defaultPriority, 
+         options == null ? 
+           new QueueManager(workerPool, maxWaitForLowPriorityInMs) : 
+           new QueueManager(workerPool, maxWaitForLowPriorityInMs, options.scheduleTickMillis, 
+                            options.indexTaskRemoval, options.executeRingCapacity));
+  }
+  
+  /**
+   * This constructor is designed for extending classes to be able to provide their own 
+   * implementation of {@link WorkerPool} and {@link QueueManager}.  Ultimately all constructors 
+   * will defer to this one.  The provided {@link QueueManager} must have been constructed with 
+   * the provided {@link WorkerPool} as its {@link QueueSetListener}.
+   * 
+   * @since 5.37
+   * @param workerPool WorkerPool to handle accepting tasks and providing them to a worker for execution
+   * @param defaultPriority Default priority to store in case no priority is provided for tasks
+   * @param queueManager QueueManager to source tasks for execution from
+   */
+  protected PriorityScheduler(WorkerPool workerPool, TaskPriority defaultPriority, 
+                              QueueManager queueManager) {
     super(defaultPriority);
     
     this.workerPool = workerPool;
-    taskQueueManager = new QueueManager(workerPool, maxWaitForLowPriorityInMs);
+    taskQueueManager = queueManager;
     
     workerPool.start(taskQueueManager);
   }
@@ -180,6 +247,106 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
     workerPool.adjustPoolSize(delta);
   }
   
+  /**
+   * Getter for the number of threads which will be kept alive even if they are idle longer than 
+   * the keep alive time.  By default this is the same as the pool size provided at construction.
+   * 
+   * @since 5.37
+   * @return current core pool size
+   */
+  public int getCorePoolSize() {
+    return workerPool.getCorePoolSize();
+  }
+  
+  /**
+   * Sets the number of threads which will be kept alive even if they have been idle longer than 
+   * the keep alive time.  This has no impact unless a keep alive time has also been set with 
+   * {@link #setKeepAliveTime(long)}.  Changing the core pool size does not change the max pool 
+   * size, so threads will still be lazily started up to {@link #getMaxPoolSize()}.
+   * 
+   * @since 5.37
+   * @param corePoolSize New core pool size, must be at least one
+   */
+  public void setCorePoolSize(int corePoolSize) {
+    workerPool.setCorePoolSize(corePoolSize);
+  }
+  
+  /**
+   * Getter for the time a thread may be idle before it will be retired.  If threads are never 
+   * retired this will return {@link Long#MAX_VALUE}.
+   * 
+   * @since 5.37
+   * @return Idle time in milliseconds before a thread beyond the core pool size is retired
+   */
+  public long getKeepAliveTime() {
+    return workerPool.getKeepAliveTime();
+  }
+  
+  /**
+   * Sets the time a thread may be idle before it is retired.  Similar to 
+   * {@link java.util.concurrent.ThreadPoolExecutor}, threads will only retire while the current 
+   * pool size is above the core pool size (see {@link #setCorePoolSize(int)}).  Retired threads 
+   * are replaced lazily as tasks are submitted, the same as threads are originally started.  This 
+   * allows the thread count to follow the actual load after a burst of tasks.  By default idle 
+   * threads are never retired, which can be restored by providing {@link Long#MAX_VALUE}.
+   * 
+   * @since 5.37
+   * @param keepAliveTimeMillis Idle time in milliseconds before a thread is retired
+   */
+  public void setKeepAliveTime(long keepAliveTimeMillis) {
+    workerPool.setKeepAliveTime(keepAliveTimeMillis);
+  }
+  
+  /**
+   * Getter for the scheduling slack applied to delayed one time tasks which are scheduled 
+   * without an explicit slack.  See {@link #setDefaultScheduleSlack(long)}.
+   * 
+   * @since 5.37
+   * @return Default slack in milliseconds, {@code 0} if delayed tasks are not coalesced
+   */
+  public long getDefaultScheduleSlack() {
+    return defaultScheduleSlackMillis;
+  }
+  
+  /**
+   * Sets the scheduling slack applied to delayed one time tasks which are scheduled without an 
+   * explicit slack (through {@code schedule} or {@code submitScheduled}).  Recurring tasks are 
+   * not impacted.  See {@link #schedule(Runnable, long, long, TaskPriority)} for how slack is used to 
+   * coalesce wake ups.  By default there is no slack, and delayed tasks run as close to their 
+   * requested time as possible.
+   * 
+   * @since 5.37
+   * @param slackMillis Maximum milliseconds a delayed task may run late, {@code 0} to disable
+   */
+  public void setDefaultScheduleSlack(long slackMillis) {
+    ArgumentVerifier.assertNotNegative(slackMillis, "slackMillis");
+    
+    this.defaultScheduleSlackMillis = slackMillis;
+  }
+  
+  /**
+   * Getter for the strategy idle threads use while waiting for tasks.
+   * 
+   * @since 5.37
+   * @return Current idle strategy
+   */
+  public IdleStrategy getIdleStrategy() {
+    return workerPool.getIdleStrategy();
+  }
+  
+  /**
+   * Sets the strategy idle threads will use while waiting for tasks.  By default threads will 
+   * park ({@link IdleStrategy.ParkIdleStrategy}).  Strategies which spin or yield can reduce the 
+   * latency for an idle thread to start executing a newly submitted task, at the cost of 
+   * consuming CPU while idle.
+   * 
+   * @since 5.37
+   * @param idleStrategy Strategy for idle threads to wait with
+   */
+  public void setIdleStrategy(IdleStrategy idleStrategy) {
+    workerPool.setIdleStrategy(idleStrategy);
+  }
+  
   /**
    * Call to check how many tasks are currently being executed in this thread pool.  Unlike 
    * {@link #getCurrentPoolSize()}, this count will NOT include idle threads waiting to execute 
@@ -235,6 +402,7 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
   public List<Runnable> shutdownNow() {
     workerPool.startShutdown();
     List<Runnable> awaitingTasks = taskQueueManager.clearQueue();
+    workerPool.drainLocalQueuesInto(awaitingTasks);
     workerPool.finishShutdown();
     
     return awaitingTasks;
@@ -263,22 +431,192 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
     return workerPool.awaitTermination(timeoutMillis);
   }
   
+  @Override
+  public boolean remove(Runnable task) {
+    return super.remove(task) || workerPool.removeLocalTask(task);
+  }
+  
+  @Override
+  public boolean remove(Callable<?> task) {
+    return super.remove(task) || workerPool.removeLocalTask(task);
+  }
+  
   @Override
   public int getQueuedTaskCount() {
     // subtract one for hack task for spin issue
-    return super.getQueuedTaskCount() - 1;
+    return super.getQueuedTaskCount() - 1 + workerPool.getLocalTaskCount();
   }
   
   @Override
   public int getQueuedTaskCount(TaskPriority priority) {
+    if (priority == null) {
+      return getQueuedTaskCount();
+    }
     // subtract one from starvable count for hack task for spin issue
-    return super.getQueuedTaskCount(priority) - (priority == TaskPriority.Starvable ? 1 : 0);
+    return super.getQueuedTaskCount(priority) - (priority == TaskPriority.Starvable ? 1 : 0) + 
+             (priority == TaskPriority.High ? workerPool.getLocalTaskCount() : 0);
+  }
+  
+  @Override
+  public int getWaitingForExecutionTaskCount(TaskPriority priority) {
+    if (priority == null) {
+      return getWaitingForExecutionTaskCount();
+    }
+    // local tasks are always ready to execute
+    return super.getWaitingForExecutionTaskCount(priority) + 
+             (priority == TaskPriority.High ? workerPool.getLocalTaskCount() : 0);
   }
 
   @Override
-  protected OneTimeTaskWrapper doSchedule(Runnable task, long delayInMillis, TaskPriority priority) {
+  protected void doExecute(Runnable task) {
+    doExecute(task, defaultPriority);
+  }
+
+  @Override
+  public void execute(Runnable task, TaskPriority priority) {
+    ArgumentVerifier.assertNotNull(task, "task");
+    
+    doExecute(task, priority == null ? defaultPriority : priority);
+  }
+  
+  /**
+   * Executes the task with the provided priority.  If the {@link QueueSet} for the priority has 
+   * an execute ring buffer with free slots the task will be provided without allocation, 
+   * otherwise this will defer to {@link #doSchedule(Runnable, long, TaskPriority)}.  Ring tasks 
+   * are given the same run time an {@link ImmediateTaskWrapper} would be.  Tasks provided to 
+   * {@code submit} already allocate a future, and so are always queued through 
+   * {@link #doSchedule(Runnable, long, TaskPriority)}.
+   * 
+   * @param task Task to execute, already verified to not be {@code null}
+   * @param priority Priority for the task, will not be {@code null}
+   */
+  private void doExecute(Runnable task, TaskPriority priority) {
     QueueSet queueSet = taskQueueManager.getQueueSet(priority);
+    if (queueSet.executeRing != null) {
+      if (workerPool.isShutdownStarted()) {
+        throw new RejectedExecutionException("Thread pool shutdown");
+      } else if (queueSet.offerExecute(task, Clock.lastKnownForwardProgressingMillis())) {
+        return;
+      }
+    }
+    doSchedule(task, 0, priority);
+  }
+
+  /**
+   * Schedule a one time task with a given delay, allowing it to run up to {@code slackInMs} later 
+   * than requested.  This is provided with the default priority.  See 
+   * {@link #schedule(Runnable, long, long, TaskPriority)}.
+   * 
+   * @since 5.37
+   * @param task The runnable task to be executed
+   * @param delayInMs The minimum time in milliseconds to wait to execute the task
+   * @param slackInMs Maximum additional milliseconds the task may be delayed
+   */
+  public void schedule(Runnable task, long delayInMs, long slackInMs) {
+    schedule(task, delayInMs, slackInMs, null);
+  }
+  
+  /**
+   * Schedule a one time task with a given delay, allowing it to run up to {@code slackInMs} later 
+   * than requested.  Rather than each delayed task waking a thread at its own distinct time, the 
+   * run time is moved within the allowed window onto a boundary which is shared with other tasks 
+   * of a similar slack.  Tasks with overlapping windows will then be due at the same time, so a 
+   * single thread wake up is able to start them all.  For workloads with many short timers 
+   * (heartbeats, timeouts, etc) this can significantly reduce context switches.
+   * <p>
+   * The provided slack replaces any default slack set with {@link #setDefaultScheduleSlack(long)}, 
+   * so a slack of zero will run the task as close to the requested time as possible.  The task is 
+   * queued through {@link #doSchedule(Runnable, long, TaskPriority)} with a delay adjusted to 
+   * the coalesced run time.
+   * 
+   * @since 5.37
+   * @param task The runnable task to be executed
+   * @param delayInMs The minimum time in milliseconds to wait to execute the task
+   * @param slackInMs Maximum additional milliseconds the task may be delayed
+   * @param priority Priority to give task for execution
+   */
+  public void schedule(Runnable task, long delayInMs, long slackInMs, TaskPriority priority) {
+    ArgumentVerifier.assertNotNull(task, "task");
+    ArgumentVerifier.assertNotNegative(delayInMs, "delayInMs");
+    ArgumentVerifier.assertNotNegative(slackInMs, "slackInMs");
+    if (priority == null) {
+      priority = defaultPriority;
+    }
+    
+    doSchedule(task, coalesceDelay(delayInMs, slackInMs), priority);
+  }
+  
+  @Override
+  public void schedule(Runnable task, long delayInMs) {
+    schedule(task, delayInMs, defaultScheduleSlackMillis, null);
+  }
+  
+  @Override
+  public void schedule(Runnable task, long delayInMs, TaskPriority priority) {
+    schedule(task, delayInMs, defaultScheduleSlackMillis, priority);
+  }
+  
+  @Override
+  public <T> ListenableFuture<T> submitScheduled(Callable<T> task, long delayInMs, 
+                                                 TaskPriority priority) {
+    return super.submitScheduled(task, coalesceDelay(delayInMs, defaultScheduleSlackMillis), 
+                                 priority);
+  }
+  
+  /**
+   * Adjusts a delay so that the task will run at the time provided from 
+   * {@link #coalesceRunTime(long, long)}.  The adjusted delay is then provided to 
+   * {@link #doSchedule(Runnable, long, TaskPriority)} like any other delay, so extending classes 
+   * do not need to be aware of slack.  Tasks without a delay are never delayed by slack.
+   * 
+   * @param delayInMs The minimum time in milliseconds to wait to execute the task
+   * @param slackInMs Maximum additional milliseconds the task may be delayed
+   * @return Delay in milliseconds till the coalesced run time
+   */
+  private static long coalesceDelay(long delayInMs, long slackInMs) {
+    if (delayInMs <= 0 || slackInMs <= 0) {
+      return delayInMs;
+    }
+    long now = Clock.accurateForwardProgressingMillis();
+    return coalesceRunTime(now + delayInMs, slackInMs) - now;
+  }
+  
+  /**
+   * Calculates the run time for a task given the earliest time it may run and how much later it 
+   * is allowed to run.  The result is the latest point within that window which is a multiple of 
+   * the largest power of two not exceeding the slack.  Because larger alignments are always a 
+   * multiple of smaller ones, tasks with different slack still tend to share run times.
+   * 
+   * @since 5.37
+   * @param runTime Earliest absolute time in milliseconds the task may run
+   * @param slackInMs Maximum additional milliseconds the task may be delayed
+   * @return Coalesced absolute run time, between {@code runTime} and {@code runTime + slackInMs}
+   */
+  protected static long coalesceRunTime(long runTime, long slackInMs) {
+    if (slackInMs <= 0) {
+      return runTime;
+    }
+    long latestRunTime = runTime + slackInMs;
+    if (latestRunTime < runTime) {
+      // overflow, no need to coalesce a time this far out
+      return runTime;
+    }
+    return latestRunTime - Math.floorMod(latestRunTime, Long.highestOneBit(slackInMs));
+  }
+
+  @Override
+  protected OneTimeTaskWrapper doSchedule(Runnable task, long delayInMillis, TaskPriority priority) {
     OneTimeTaskWrapper result;
+    if (delayInMillis == 0 && priority == TaskPriority.High && workerPool.workStealing) {
+      if (workerPool.isShutdownStarted()) {
+        throw new RejectedExecutionException("Thread pool shutdown");
+      }
+      // will only be accepted if submitted from one of the pools workers
+      if ((result = workerPool.addLocalTask(task)) != null) {
+        return result;
+      }
+    }
+    QueueSet queueSet = taskQueueManager.getQueueSet(priority);
     if (delayInMillis == 0) {
       addToExecuteQueue(queueSet, 
                         (result = new ImmediateTaskWrapper(task, queueSet.executeQueue)));
@@ -291,6 +629,20 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
     return result;
   }
 
+  @Override
+  protected void doExecuteAll(Collection<? extends Runnable> tasks, TaskPriority priority) {
+    QueueSet queueSet = taskQueueManager.getQueueSet(priority);
+    List<OneTimeTaskWrapper> wrappers = new ArrayList<>(tasks.size());
+    for (Runnable r : tasks) {
+      wrappers.add(new ImmediateTaskWrapper(r, queueSet.executeQueue));
+    }
+    if (workerPool.isShutdownStarted()) {
+      throw new RejectedExecutionException("Thread pool shutdown");
+    }
+    
+    queueSet.addExecuteAll(wrappers);
+  }
+
   @Override
   public void scheduleWithFixedDelay(Runnable task, long initialDelay, 
                                      long recurringDelay, TaskPriority priority) {
@@ -377,7 +729,18 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
    * @since 3.5.0
    */
   protected static class WorkerPool implements QueueSetListener {
+    // only set for workers of pools which have work stealing enabled
+    protected static final ThreadLocal<Worker> CURRENT_WORKER = new ThreadLocal<>();
+    /* Maximum local tasks a worker will run back to back without returning to the shared queues.  
+     * Until this is reached local tasks are taken without touching the shared queues or idle 
+     * worker chain, once reached the next task is arbitrated against the shared queues so that 
+     * they (and the low priority max wait) are still respected.
+     */
+    protected static final int MAX_LOCAL_TASK_STREAK = 16;
+    
     protected final ThreadFactory threadFactory;
+    protected final boolean workStealing;
+    protected final Object stealableWorkersLock;
     protected final Object poolSizeChangeLock;
     protected final Object idleWorkerDequeLock;
     protected final LongAdder idleWorkerCount;
@@ -387,10 +750,27 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
     private final AtomicBoolean shutdownStarted;
     private volatile boolean shutdownFinishing; // once true, never goes to false
     private volatile int maxPoolSize;  // can only be changed when poolSizeChangeLock locked
+    private volatile int corePoolSize;
+    private volatile long keepAliveTimeMillis; // Long.MAX_VALUE if idle workers are never retired
+    private volatile IdleStrategy idleStrategy;
     private volatile long workerTimedParkRunTime;
+    private volatile Worker[] stealableWorkers; // can only be changed when stealableWorkersLock locked
     private QueueManager queueManager;  // set before any threads started
     
     protected WorkerPool(ThreadFactory threadFactory, int poolSize) {
+      this(threadFactory, poolSize, false);
+    }
+    
+    /**
+     * Constructs a new {@link WorkerPool}.  If work stealing is enabled each worker will have a 
+     * local queue which is used for tasks submitted from that worker's thread.
+     * 
+     * @since 5.37
+     * @param threadFactory Factory to construct worker threads from
+     * @param poolSize Maximum number of workers to run
+     * @param workStealing {@code true} to have workers use local queues with work stealing
+     */
+    protected WorkerPool(ThreadFactory threadFactory, int poolSize, boolean workStealing) {
       ArgumentVerifier.assertGreaterThanZero(poolSize, "poolSize");
       if (threadFactory == null) {
         threadFactory = new ConfigurableThreadFactory(PriorityScheduler.class.getSimpleName() + "-", true);
@@ -404,7 +784,13 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
       workerStopNotifyLock = new Object();
       
       this.threadFactory = threadFactory;
+      this.workStealing = workStealing;
+      this.stealableWorkersLock = new Object();
+      this.stealableWorkers = new Worker[0];
       this.maxPoolSize = poolSize;
+      this.corePoolSize = poolSize;
+      this.keepAliveTimeMillis = Long.MAX_VALUE;
+      this.idleStrategy = IdleStrategy.ParkIdleStrategy.instance();
       this.workerTimedParkRunTime = Long.MAX_VALUE;
       shutdownStarted = new AtomicBoolean(false);
       shutdownFinishing = false;
@@ -427,7 +813,7 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
       // spin would be only if there is only one recurring task, and WHILE that recurring task is 
       // running.  We solve this by adding this recurring task which wont run very long, and is 
       // scheduled to run very infrequently (Using Integer.MAX_VALUE that's every 24 days).
-      // we add this directly into the scheduledQueue structure to avoid having handleQueueUpdated 
+      // we add this directly into the recurring queue structure to avoid having handleQueueUpdated 
       // invoked, and thus avoid starting any threads at this point.
       InternalRunnable doNothingRunnable = new InternalRunnable() {
         @Override
@@ -436,12 +822,13 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
           // must be InternalRunnable, and not DoNothingRunnable so it's hidden from the task queue
         }
       };
-      queueManager.starvablePriorityQueueSet
-                  .scheduleQueue.add(new RecurringRateTaskWrapper(doNothingRunnable, 
-                                                                  queueManager.starvablePriorityQueueSet, 
-                                                                  Clock.lastKnownForwardProgressingMillis() + 
-                                                                    Integer.MAX_VALUE, 
-                                                                  Integer.MAX_VALUE));
+      QueueSet starvableQueueSet = queueManager.starvablePriorityQueueSet;
+      RecurringRateTaskWrapper spinPreventionTask = 
+          new RecurringRateTaskWrapper(doNothingRunnable, starvableQueueSet, 
+                                       Clock.lastKnownForwardProgressingMillis() + Integer.MAX_VALUE, 
+                                       Integer.MAX_VALUE);
+      starvableQueueSet.recurringTasks.add(spinPreventionTask);
+      starvableQueueSet.queueRecurring(spinPreventionTask);
     }
 
     /**
@@ -589,6 +976,143 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
       handleMaxPoolSizeChange(delta > 0);
     }
     
+    /**
+     * Getter for the number of workers which will be kept alive even if they are idle longer 
+     * than the keep alive time.
+     * 
+     * @since 5.37
+     * @return current core pool size
+     */
+    public int getCorePoolSize() {
+      return corePoolSize;
+    }
+    
+    /**
+     * Sets the number of workers which will be kept alive even if they have been idle longer 
+     * than the keep alive time.  This has no impact unless a keep alive time has been set with 
+     * {@link #setKeepAliveTime(long)}.  Values larger than the max pool size effectively keep 
+     * all workers alive.
+     * 
+     * @since 5.37
+     * @param corePoolSize New core pool size, must be at least one
+     */
+    public void setCorePoolSize(int corePoolSize) {
+      ArgumentVerifier.assertGreaterThanZero(corePoolSize, "corePoolSize");
+      
+      int previousCorePoolSize = this.corePoolSize;
+      this.corePoolSize = corePoolSize;
+      if (corePoolSize < previousCorePoolSize) {
+        wakeIdleWorkers();
+      }
+    }
+    
+    /**
+     * Getter for the time a worker may be idle before it will be retired.  If workers are never 
+     * retired this will return {@link Long#MAX_VALUE}.
+     * 
+     * @since 5.37
+     * @return Idle time in milliseconds before a worker beyond the core pool size is retired
+     */
+    public long getKeepAliveTime() {
+      return keepAliveTimeMillis;
+    }
+    
+    /**
+     * Sets the time a worker may be idle before it retires itself.  Workers will only retire 
+     * while the current pool size is above the core pool size.  Retired workers will be replaced 
+     * lazily as tasks are queued, the same as workers are started originally.  Provide 
+     * {@link Long#MAX_VALUE} to never retire idle workers (the default).
+     * 
+     * @since 5.37
+     * @param keepAliveTimeMillis Idle time in milliseconds before a worker is retired
+     */
+    public void setKeepAliveTime(long keepAliveTimeMillis) {
+      ArgumentVerifier.assertGreaterThanZero(keepAliveTimeMillis, "keepAliveTimeMillis");
+      
+      long previousKeepAliveTime = this.keepAliveTimeMillis;
+      this.keepAliveTimeMillis = keepAliveTimeMillis;
+      if (keepAliveTimeMillis < previousKeepAliveTime) {
+        // idle workers may be parked without a timeout, wake them so they can reschedule their park
+        wakeIdleWorkers();
+      }
+    }
+    
+    /**
+     * Getter for the strategy idle workers use to wait for tasks.
+     * 
+     * @since 5.37
+     * @return Current idle strategy
+     */
+    public IdleStrategy getIdleStrategy() {
+      return idleStrategy;
+    }
+    
+    /**
+     * Sets the strategy idle workers will use to wait for tasks.  Workers which are currently 
+     * idle will start using the new strategy once they next check for tasks.
+     * 
+     * @since 5.37
+     * @param idleStrategy Strategy for idle workers to wait with
+     */
+    public void setIdleStrategy(IdleStrategy idleStrategy) {
+      ArgumentVerifier.assertNotNull(idleStrategy, "idleStrategy");
+      
+      this.idleStrategy = idleStrategy;
+      wakeIdleWorkers();
+    }
+    
+    /**
+     * Unparks all currently idle workers so that they will re-check the pool state.
+     */
+    private void wakeIdleWorkers() {
+      Worker nextIdleWorker = idleWorker.get();
+      while (nextIdleWorker != null) {
+        LockSupport.unpark(nextIdleWorker.thread);
+        nextIdleWorker = nextIdleWorker.nextIdleWorker;
+      }
+    }
+    
+    /**
+     * Checks if a worker has been idle long enough that it should retire.  If it should the 
+     * current pool size will be reduced and {@code true} will be returned, in which case the 
+     * worker MUST stop.  No workers will retire once the pool size has reached the core pool size.
+     * 
+     * @param idleStartTime Time in milliseconds the worker became idle
+     * @return {@code true} if the worker should stop
+     */
+    private boolean retireIfIdleExpired(long idleStartTime) {
+      long keepAliveTime = keepAliveTimeMillis;
+      if (keepAliveTime == Long.MAX_VALUE || 
+          Clock.accurateForwardProgressingMillis() - idleStartTime < keepAliveTime) {
+        return false;
+      }
+      int casPoolSize;
+      while ((casPoolSize = currentPoolSize.get()) > corePoolSize) {
+        if (currentPoolSize.compareAndSet(casPoolSize, casPoolSize - 1)) {
+          return true;
+        }
+      }
+      return false;
+    }
+    
+    /**
+     * Idles a worker using the {@link IdleStrategy} until it is unparked, or until its keep alive 
+     * time has been reached.
+     * 
+     * @param idleStartTime Time in milliseconds the worker became idle
+     * @param idleCount Number of times the worker has idled without finding a task
+     */
+    private void idleWorker(long idleStartTime, int idleCount) {
+      long keepAliveTime = keepAliveTimeMillis;
+      if (keepAliveTime == Long.MAX_VALUE) {
+        idleStrategy.idle(idleCount, Long.MAX_VALUE);
+      } else {
+        long remainingMillis = 
+            keepAliveTime - (Clock.lastKnownForwardProgressingMillis() - idleStartTime);
+        idleStrategy.idle(idleCount, Clock.NANOS_IN_MILLISECOND * Math.max(1, remainingMillis));
+      }
+    }
+    
     protected void handleMaxPoolSizeChange(boolean poolSizeIncrease) {
       if (poolSizeIncrease) {
         // now that pool size increased, start a worker so workers we can for the waiting tasks
@@ -716,8 +1240,9 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
 
     /**
      * Invoked when a worker becomes idle.  This will provide another task for that worker, or 
-     * block until a task is either ready, or the worker should be shutdown (either because pool 
-     * was shut down, or max pool size changed).
+     * wait (using the set {@link IdleStrategy}) until a task is either ready, or the worker should 
+     * be shutdown (either because pool was shut down, max pool size changed, or the worker was 
+     * idle beyond the keep alive time).
      * 
      * @param worker Worker which is now idle and ready for a task
      * @return Task that is ready for immediate execution
@@ -745,34 +1270,31 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
       }
       
       boolean queued = false;
+      boolean retired = false;
+      long idleStartTime = 0;
+      int idleCount = 0;
       try {
         while (true) {
-          TaskWrapper nextTask = queueManager.getNextTask();
+          TaskWrapper nextTask = getNextTask(worker);
           if (nextTask == null) {
             if (queued) { // we can only park after we have queued, then checked again for a result
+              if (retireIfIdleExpired(idleStartTime)) {
+                retired = true;
+                worker.stopIfRunning();
+                return null;
+              }
               Thread.interrupted(); // reset interrupted status before we block
-              LockSupport.park();
+              idleWorker(idleStartTime, idleCount++);
               worker.waitingForUnpark = false;
               continue;
             } else {
               addWorkerToIdleChain(worker);
               queued = true;
+              // recorded even without a keep alive, it may be reduced while this worker is idle
+              idleStartTime = Clock.accurateForwardProgressingMillis();
             }
           } else {
-            /* TODO - right now this has a a deficiency where a recurring period task can cut in 
-             * the queue line.  The condition would be as follows:
-             * 
-             * * Thread 1 gets task to run...task is behind execution schedule, likely due to large queue
-             * * Thread 2 gets same task
-             * * Thread 1 gets reference, executes, task execution completes
-             * * Thread 2 now gets the reference, and execution check and time check pass fine
-             * * End result is that task has executed twice (on expected schedule), the second 
-             *     execution was unfair since it was done without respects to queue order and 
-             *     other tasks which are also likely behind execution schedule in this example
-             *     
-             * This should be very rare, but is possible.  The only way I see to solve this right 
-             * now is to introduce locking.
-             */
+            // a stale reference will fail the CAS claim in RecurringTaskWrapper.canExecute
             // must get executeReference before time is checked
             short executeReference = nextTask.getExecuteReference();
             long taskDelay = nextTask.getScheduleDelay();
@@ -784,25 +1306,41 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
                 continue;
               }
               if (queued) {
+                if (retireIfIdleExpired(idleStartTime)) {
+                  retired = true;
+                  worker.stopIfRunning();
+                  return null;
+                }
                 Thread.interrupted(); // reset interrupted status before we block
                 if (nextTask.getPureRunTime() < workerTimedParkRunTime) {
                   // we can only park after we have queued, then checked again for a result
                   workerTimedParkRunTime = nextTask.getPureRunTime();
-                  LockSupport.parkNanos(Clock.NANOS_IN_MILLISECOND * taskDelay);
+                  long keepAliveTime = keepAliveTimeMillis;
+                  if (keepAliveTime < taskDelay) {
+                    // wake to check keep alive, if we retire the next idle worker will take over
+                    taskDelay = Math.max(1, keepAliveTime - 
+                                              (Clock.lastKnownForwardProgressingMillis() - idleStartTime));
+                  }
+                  idleStrategy.idle(idleCount++, Clock.NANOS_IN_MILLISECOND * taskDelay);
                   worker.waitingForUnpark = false;
                   workerTimedParkRunTime = Long.MAX_VALUE;
                   continue;
                 } else {
                   // there is another worker already doing a timed park, so we can wait till woken up
-                  LockSupport.park();
+                  idleWorker(idleStartTime, idleCount++);
                   worker.waitingForUnpark = false;
                   continue;
                 }
               } else {
                 addWorkerToIdleChain(worker);
                 queued = true;
+                idleStartTime = Clock.accurateForwardProgressingMillis();
               }
             } else if (nextTask.canExecute(executeReference)) {
+              if (idleCount > 0) {
+                idleStrategy.idleEnded(idleCount);
+              }
+              queueManager.taskClaimed(nextTask);
               return nextTask;
             } else {
               // threading conflict when trying to consume tasks, back thread off with a yield
@@ -817,13 +1355,273 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
           removeWorkerFromIdleChain(worker);
         }
         
-        // wake up next worker so it can check if tasks are ready to consume
-        handleQueueUpdate();
+        if (retired) {
+          // wake up next idle worker so it can take over any timed park, but don't start new workers
+          Worker nextIdleWorker = idleWorker.get();
+          if (nextIdleWorker != null) {
+            if (! nextIdleWorker.waitingForUnpark) {
+              nextIdleWorker.waitingForUnpark = true;
+              LockSupport.unpark(nextIdleWorker.thread);
+            }
+          } else {
+            // a task may have been queued after we checked, and our unpark consumed for it
+            TaskWrapper nextTask = queueManager.getNextTask();
+            if (nextTask != null && nextTask.getScheduleDelay() <= 0) {
+              handleQueueUpdate();
+            }
+          }
+        } else {
+          // wake up next worker so it can check if tasks are ready to consume
+          handleQueueUpdate();
+        }
         
         Thread.interrupted();  // reset interrupted status if set
       }
     }
 
+    /**
+     * Attempts to claim the head of the worker's own local queue, without consulting the shared 
+     * queues.  This will return {@code null} if the local queue is empty, the pool is shutting 
+     * down, or the worker has already run {@link #MAX_LOCAL_TASK_STREAK} local tasks in a row.  
+     * In those cases {@link #workerIdle(Worker)} should be used to get the next task.
+     * 
+     * @param worker Worker which is looking for a task to execute, must have a local queue
+     * @return Claimed task ready for execution, or {@code null} if none could be claimed
+     */
+    protected TaskWrapper pollLocalTask(Worker worker) {
+      if (worker.localTaskStreak < MAX_LOCAL_TASK_STREAK && ! shutdownFinishing) {
+        TaskWrapper tw = worker.localQueue.peek();
+        if (tw != null && tw.canExecute(tw.getExecuteReference())) {
+          worker.localTaskStreak++;
+          queueManager.taskClaimed(tw);
+          return tw;
+        }
+      }
+      worker.localTaskStreak = 0;
+      return null;
+    }
+
+    /**
+     * Gets the next task the provided worker should consider for execution.  If work stealing is 
+     * not enabled this is simply the next task from the {@link QueueManager}.  Otherwise the head 
+     * of the worker's local queue (or if empty, a task which can be stolen from another worker) 
+     * is considered as the next high priority task, so that it is still arbitrated against the 
+     * low and starvable priority queues.
+     * 
+     * @param worker Worker which is looking for a task to execute
+     * @return Task to be executed next, or {@code null} if no tasks at all are queued
+     */
+    protected TaskWrapper getNextTask(Worker worker) {
+      if (worker.localQueue == null) {
+        return queueManager.getNextTask();
+      }
+      
+      TaskWrapper localTask = worker.localQueue.peek();
+      if (localTask == null && (localTask = findStealableTask(worker)) == null) {
+        return queueManager.getNextTask();
+      }
+      TaskWrapper nextHighPriorityTask = queueManager.highPriorityQueueSet.getNextTask();
+      if (nextHighPriorityTask == null || 
+          localTask.getRunTime() <= nextHighPriorityTask.getRunTime()) {
+        nextHighPriorityTask = localTask;
+      }
+      return queueManager.getNextTask(nextHighPriorityTask);
+    }
+    
+    /**
+     * Searches the local queues of other workers for a task which can be stolen.  The search 
+     * starts at a random worker to avoid all idle workers contending on the same victim.  The 
+     * task is not removed here, it will be removed once {@link TaskWrapper#canExecute(short)} is 
+     * invoked by the stealing worker.
+     * 
+     * @param worker Worker which is looking for a task to steal
+     * @return A task from another worker's local queue or {@code null} if none are available
+     */
+    private TaskWrapper findStealableTask(Worker worker) {
+      Worker[] victims = stealableWorkers;
+      if (victims.length > 1) {
+        int start = ThreadLocalRandom.current().nextInt(victims.length);
+        for (int i = 0; i < victims.length; i++) {
+          Worker victim = victims[(start + i) % victims.length];
+          if (victim != worker) {
+            TaskWrapper result = victim.localQueue.peek();
+            if (result != null) {
+              return result;
+            }
+          }
+        }
+      }
+      return null;
+    }
+    
+    /**
+     * Attempts to add a task to the local queue of the current thread.  This will only succeed if 
+     * work stealing is enabled and the current thread is a worker of this pool.  Other workers 
+     * will be notified so that they may steal the task if the current worker remains busy.
+     * 
+     * @since 5.37
+     * @param task Task to be executed
+     * @return The wrapper for the queued task, or {@code null} if it could not be queued locally
+     */
+    public OneTimeTaskWrapper addLocalTask(Runnable task) {
+      if (! workStealing) {
+        return null;
+      }
+      Worker worker = CURRENT_WORKER.get();
+      if (worker == null || worker.workerPool != this) {
+        return null;
+      }
+      
+      LocalTaskWrapper result = new LocalTaskWrapper(task, worker.localQueue);
+      boolean wasEmpty = worker.localQueue.isEmpty();
+      worker.localQueue.add(result);
+      if (wasEmpty) {
+        // once a stealing worker claims a task it will wake the next idle worker if needed
+        handleQueueUpdate();
+      }
+      return result;
+    }
+    
+    /**
+     * Removes a task from the worker local queues.  This will never find a task if work stealing 
+     * is not enabled.
+     * 
+     * @since 5.37
+     * @param task The original task provided to the executor
+     * @return {@code true} if the task was found and removed
+     */
+    public boolean removeLocalTask(Runnable task) {
+      return removeLocalTask((r) -> ContainerHelper.isContained(r, task));
+    }
+    
+    /**
+     * Removes a task from the worker local queues.  This will never find a task if work stealing 
+     * is not enabled.
+     * 
+     * @since 5.37
+     * @param task The original task provided to the executor
+     * @return {@code true} if the task was found and removed
+     */
+    public boolean removeLocalTask(Callable<?> task) {
+      return removeLocalTask((r) -> ContainerHelper.isContained(r, task));
+    }
+    
+    private boolean removeLocalTask(Predicate<Runnable> filter) {
+      for (Worker w : stealableWorkers) {
+        for (LocalTaskWrapper tw : w.localQueue) {
+          if (filter.test(tw.task) && w.localQueue.remove(tw)) {
+            tw.invalidate();
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+    
+    /**
+     * Check how many tasks are currently queued in the worker local queues.  This will always be 
+     * zero if work stealing is not enabled.
+     * 
+     * @since 5.37
+     * @return Number of tasks queued in worker local queues
+     */
+    public int getLocalTaskCount() {
+      int result = 0;
+      for (Worker w : stealableWorkers) {
+        result += w.localQueue.size();
+      }
+      return result;
+    }
+    
+    /**
+     * Removes all tasks from the worker local queues, adding the tasks which have not been 
+     * canceled into the provided list.
+     * 
+     * @since 5.37
+     * @param resultList List to add removed tasks into
+     */
+    public void drainLocalQueuesInto(List<Runnable> resultList) {
+      for (Worker w : stealableWorkers) {
+        LocalTaskWrapper tw;
+        while ((tw = w.localQueue.poll()) != null) {
+          // no need to cancel and return tasks which are already canceled
+          if (! (tw.task instanceof Future) || ! ((Future<?>)tw.task).isCancelled()) {
+            tw.invalidate();
+            resultList.add(tw.getContainedRunnable());
+          }
+        }
+      }
+    }
+    
+    /**
+     * Invoked by a worker of a work stealing pool once it has started on its thread.  This makes 
+     * its local queue available for other workers to steal from.
+     * 
+     * @param worker Worker which has started
+     */
+    protected void workerStarted(Worker worker) {
+      CURRENT_WORKER.set(worker);
+      synchronized (stealableWorkersLock) {
+        Worker[] newWorkers = Arrays.copyOf(stealableWorkers, stealableWorkers.length + 1);
+        newWorkers[newWorkers.length - 1] = worker;
+        stealableWorkers = newWorkers;
+      }
+    }
+    
+    /**
+     * Invoked by a worker of a work stealing pool as it is about to stop.  Any tasks which remain 
+     * in its local queue will be moved into the shared high priority queue so they can be 
+     * executed by other workers.
+     * 
+     * @param worker Worker which is stopping
+     */
+    protected void workerStopping(Worker worker) {
+      CURRENT_WORKER.remove();
+      synchronized (stealableWorkersLock) {
+        Worker[] newWorkers = new Worker[stealableWorkers.length - 1];
+        int i = 0;
+        for (Worker w : stealableWorkers) {
+          if (w != worker) {
+            newWorkers[i++] = w;
+          }
+        }
+        stealableWorkers = newWorkers;
+      }
+      
+      QueueSet queueSet = queueManager.highPriorityQueueSet;
+      LocalTaskWrapper tw;
+      // a successful poll guards against the task being concurrently stolen
+      while ((tw = worker.localQueue.poll()) != null) {
+        if (! tw.invalidated) {
+          tw.moveToExecuteQueue(queueSet);
+        }
+      }
+    }
+
+    @Override
+    public void handleQueueUpdate(int taskCount) {
+      // wake as many idle workers as we can provide tasks for
+      Worker nextIdleWorker = idleWorker.get();
+      while (nextIdleWorker != null && taskCount > 0) {
+        if (! nextIdleWorker.waitingForUnpark) {
+          nextIdleWorker.waitingForUnpark = true;
+          LockSupport.unpark(nextIdleWorker.thread);
+          taskCount--;
+        }
+        nextIdleWorker = nextIdleWorker.nextIdleWorker;
+      }
+      // start new workers for any remaining tasks, as long as the pool can grow
+      while (taskCount > 0 && ! shutdownFinishing) {
+        int casSize = currentPoolSize.get();
+        if (casSize >= maxPoolSize) {
+          break;
+        } else if (currentPoolSize.compareAndSet(casSize, casSize + 1)) {
+          makeNewWorker();
+          taskCount--;
+        }
+      }
+    }
+
     @Override
     public void handleQueueUpdate() {
       while (true) {
@@ -859,15 +1657,19 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
   protected static class Worker extends AbstractService implements Runnable {
     protected final WorkerPool workerPool;
     protected final Thread thread;
+    protected final ConcurrentLinkedDeque<LocalTaskWrapper> localQueue; // null if not work stealing
+    protected int localTaskStreak; // only accessed from the worker thread
     protected volatile Worker nextIdleWorker;
     protected volatile boolean waitingForUnpark;
     
     protected Worker(WorkerPool workerPool, ThreadFactory threadFactory) {
       this.workerPool = workerPool;
+      this.localQueue = workerPool.workStealing ? new ConcurrentLinkedDeque<>() : null;
       thread = threadFactory.newThread(this);
       if (thread.isAlive()) {
         throw new IllegalThreadStateException();
       }
+      localTaskStreak = 0;
       nextIdleWorker = null;
       waitingForUnpark = false;
     }
@@ -884,7 +1686,10 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
     
     protected void executeTasksWhileRunning() {
       while (isRunning()) {
-        TaskWrapper nextTask = workerPool.workerIdle(this);
+        TaskWrapper nextTask = null;
+        if (localQueue == null || (nextTask = workerPool.pollLocalTask(this)) == null) {
+          nextTask = workerPool.workerIdle(this);
+        }
         if (nextTask != null) {  // may be null if we are shutting down
           nextTask.runTask();
         }
@@ -893,7 +1698,16 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
     
     @Override
     public void run() {
-      executeTasksWhileRunning();
+      if (localQueue == null) {
+        executeTasksWhileRunning();
+      } else {
+        workerPool.workerStarted(this);
+        try {
+          executeTasksWhileRunning();
+        } finally {
+          workerPool.workerStopping(this);
+        }
+      }
       
       synchronized (workerPool.workerStopNotifyLock) {
         workerPool.workerStopNotifyLock.notifyAll();
@@ -901,6 +1715,127 @@ public class PriorityScheduler extends AbstractPriorityScheduler {
     }
   }
   
+  /**
+   * Wrapper for tasks held in a worker's local queue.  Unlike {@link ImmediateTaskWrapper} the 
+   * queue the task is held in can change, so a stopping worker can move its remaining tasks into 
+   * the shared high priority queue without wrapping them again.  The task is only ever held in 
+   * one queue at a time, so only one consumer can succeed in removing it for execution.
+   * 
+   * @since 5.37
+   */
+  protected static class LocalTaskWrapper extends ImmediateTaskWrapper {
+    protected volatile Queue<? extends TaskWrapper> currentQueue;
+    
+    protected LocalTaskWrapper(Runnable task, Queue<? extends TaskWrapper> localQueue) {
+      super(task, localQueue);
+      
+      this.currentQueue = localQueue;
+    }
+    
+    /**
+     * Moves this task into the execute queue of the provided {@link QueueSet}.  This must only be 
+     * invoked once the caller has removed the task from its current queue.
+     * 
+     * @param queueSet Queue set to add the task into
+     */
+    protected void moveToExecuteQueue(QueueSet queueSet) {
+      currentQueue = queueSet.executeQueue;
+      queueSet.addExecute(this);
+    }
+    
+    @Override
+    public boolean canExecute(short ignoredExecuteReference) {
+      // task may have been removed (ie canceled) while still left in the queue
+      return currentQueue.remove(this) && 
+               (owningQueueSet == null || owningQueueSet.claimForExecution(this));
+    }
+  }
+  
+  /**
+   * Options for how tasks are queued within a {@link PriorityScheduler}.  By default none of these 
+   * are enabled, and the pool will queue tasks the same as if constructed without options.  
+   * Setters return the options instance so they can be chained.
+   * 
+   * @since 5.37
+   */
+  public static class Options {
+    protected long scheduleTickMillis = 0;
+    protected boolean workStealing = false;
+    protected boolean indexTaskRemoval = false;
+    protected int executeRingCapacity = 0;
+    
+    /**
+     * If set to a value greater than zero, delayed tasks will be held in a timing wheel with that 
+     * tick resolution until they are close to execution.  This makes scheduling large numbers of 
+     * delayed tasks (for example timeouts which rarely execute) cheaper, at the cost of those 
+     * tasks possibly executing up to one tick later than requested.
+     * 
+     * @param scheduleTickMillis Tick resolution of timing wheel, or {@code 0} to use a sorted schedule queue
+     * @return This options instance
+     */
+    public Options setScheduleTickMillis(long scheduleTickMillis) {
+      ArgumentVerifier.assertNotNegative(scheduleTickMillis, "scheduleTickMillis");
+      
+      this.scheduleTickMillis = scheduleTickMillis;
+      return this;
+    }
+    
+    /**
+     * When work stealing is enabled each worker thread holds its own local queue.  High priority 
+     * tasks submitted for immediate execution from one of the pool's threads (for example a task 
+     * which forks additional work) are added to that thread's local queue rather than the shared 
+     * queue.  Idle workers will steal tasks from other workers local queues before parking.  A 
+     * worker periodically arbitrates its local tasks against the shared queues, so low priority 
+     * tasks will still only wait around their max wait time.  This reduces contention on the 
+     * shared queue for pools with many threads where tasks are frequently submitted from pool 
+     * threads.
+     * 
+     * @param workStealing {@code true} to have worker threads use local queues with work stealing
+     * @return This options instance
+     */
+    public Options setWorkStealing(boolean workStealing) {
+      this.workStealing = workStealing;
+      return this;
+    }
+    
+    /**
+     * When the task removal index is enabled the queues maintain a map from each submitted task 
+     * (as well as the runnable or callable it wraps) to its queued wrapper.  This allows 
+     * {@link #remove(Runnable)} and {@link #remove(Callable)} to complete in constant time rather 
+     * than searching the queues while holding the schedule queue lock.  Futures returned from 
+     * {@code submit} or {@code submitScheduled} are also removed from the queue as soon as they 
+     * are canceled.  This is useful when a large number of scheduled tasks (for example timeouts) 
+     * are expected to be removed before they execute, at the cost of additional work as tasks are 
+     * added and executed.
+     * 
+     * @param indexTaskRemoval {@code true} to maintain an index for constant time task removal
+     * @return This options instance
+     */
+    public Options setIndexTaskRemoval(boolean indexTaskRemoval) {
+      this.indexTaskRemoval = indexTaskRemoval;
+      return this;
+    }
+    
+    /**
+     * When greater than zero, each priority preallocates a ring of reusable task slots (rounded 
+     * up to a power of two).  Tasks provided to {@code execute} are placed into a free slot, 
+     * avoiding the allocation of a task wrapper and queue node.  Once the pool has warmed up, 
+     * fire and forget executions do not allocate as long as the ring has free slots, which keeps 
+     * young GC pressure down for pools executing millions of tasks per second.  If the ring is 
+     * full tasks are queued as normal.  Tasks in the ring are not included in the task removal 
+     * index, and are instead found by searching the ring.
+     * 
+     * @param executeRingCapacity Task slots to preallocate per priority, or {@code 0} to disable
+     * @return This options instance
+     */
+    public Options setExecuteRingCapacity(int executeRingCapacity) {
+      ArgumentVerifier.assertNotNegative(executeRingCapacity, "executeRingCapacity");
+      
+      this.executeRingCapacity = executeRingCapacity;
+      return this;
+    }
+  }
+  
   /**
    * Runnable to be run after tasks already ready to execute.  That way this can be submitted with 
    * a {@link #execute(Runnable)} to ensure that the shutdown is fair for tasks that were already 
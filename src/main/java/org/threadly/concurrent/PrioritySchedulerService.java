@@ -1,5 +1,8 @@
 package org.threadly.concurrent;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 import org.threadly.concurrent.future.ListenableFuture;
@@ -19,6 +22,48 @@ public interface PrioritySchedulerService extends SchedulerService {
    */
   public void execute(Runnable task, TaskPriority priority);
   
+  /**
+   * Executes all the provided tasks as soon as possible for the given priority.  Implementations 
+   * may queue the whole collection as a single operation, making this cheaper than invoking 
+   * {@link #execute(Runnable, TaskPriority)} for each task.  In addition implementations may 
+   * only wake as many threads as can be used to execute the provided tasks.
+   * <p>
+   * The default implementation simply invokes {@link #execute(Runnable, TaskPriority)} for each 
+   * task in the collection.
+   * 
+   * @since 5.37
+   * @param tasks runnables to execute
+   * @param priority priority for tasks to get available thread to run on
+   */
+  default void executeAll(Collection<? extends Runnable> tasks, TaskPriority priority) {
+    for (Runnable r : tasks) {
+      execute(r, priority);
+    }
+  }
+  
+  /**
+   * Submit all the provided {@link Callable}'s to run as soon as possible for the given priority.  
+   * Like {@link #executeAll(Collection, TaskPriority)} implementations may queue the whole 
+   * collection as a single operation.
+   * <p>
+   * The default implementation simply invokes {@link #submit(Callable, TaskPriority)} for each 
+   * task in the collection.
+   * 
+   * @since 5.37
+   * @param <T> type of result returned from the futures
+   * @param tasks callables to be executed
+   * @param priority priority for tasks to get available thread to run on
+   * @return List of futures in the same order as the provided tasks were iterated
+   */
+  default <T> List<ListenableFuture<T>> submitAll(Collection<? extends Callable<T>> tasks, 
+                                                  TaskPriority priority) {
+    List<ListenableFuture<T>> result = new ArrayList<>(tasks.size());
+    for (Callable<T> c : tasks) {
+      result.add(submit(c, priority));
+    }
+    return result;
+  }
+  
   /**
    * Submit a task to run as soon as possible for the given priority.  There is a slight increase 
    * in load when using submit over execute.  So this should only be used when the future is 
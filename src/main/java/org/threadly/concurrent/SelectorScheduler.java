@@ -0,0 +1,167 @@
+package org.threadly.concurrent;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.threadly.util.ArgumentVerifier;
+import org.threadly.util.ExceptionHandler;
+import org.threadly.util.ExceptionUtils;
+
+/**
+ * A {@link NoThreadScheduler} which waits for tasks using a {@link Selector}.  This allows a
+ * single thread to run both an NIO event loop and scheduled tasks, without needing to hand off
+ * channel events to another thread (or tasks to the selecting thread).
+ * <p>
+ * The thread should repeatedly invoke {@link #selectTick(ExceptionHandler, Consumer)}.  If no
+ * tasks are ready to run, that call will block in {@link Selector#select(long)} until either a
+ * channel is ready, or the next scheduled task is ready to run.  If tasks are submitted while the
+ * thread is selecting, the selector will be woken up with {@link Selector#wakeup()}.  Only the
+ * first submission after the thread starts to select will wake up the selector, so a burst of
+ * submissions does not result in a burst of wake ups.
+ * <p>
+ * This scheduler does not close the {@link Selector}, once the event loop is done it should be
+ * closed through {@link #getSelector()}.
+ *
+ * @since 5.37
+ */
+public class SelectorScheduler extends NoThreadScheduler {
+  protected final Selector selector;
+  // true unless the thread is about to, or currently is, blocked in select
+  protected final AtomicBoolean selectorAwake;
+
+  /**
+   * Constructs a new {@link SelectorScheduler} with a newly opened {@link Selector}.
+   *
+   * @throws IOException Thrown if the selector could not be opened
+   */
+  public SelectorScheduler() throws IOException {
+    this(Selector.open());
+  }
+
+  /**
+   * Constructs a new {@link SelectorScheduler} which will wait for tasks using the provided
+   * selector.
+   *
+   * @param selector Selector to block on while waiting for tasks
+   */
+  public SelectorScheduler(Selector selector) {
+    this(selector, null, DEFAULT_LOW_PRIORITY_MAX_WAIT_IN_MS);
+  }
+
+  /**
+   * Constructs a new {@link SelectorScheduler} which will wait for tasks using the provided
+   * selector, with specified default priority behavior.
+   *
+   * @param selector Selector to block on while waiting for tasks
+   * @param defaultPriority Default priority for tasks which are submitted without any specified priority
+   * @param maxWaitForLowPriorityInMs time low priority tasks to wait if there are high priority tasks ready to run
+   */
+  public SelectorScheduler(Selector selector,
+                           TaskPriority defaultPriority, long maxWaitForLowPriorityInMs) {
+    super(defaultPriority, maxWaitForLowPriorityInMs);
+
+    ArgumentVerifier.assertNotNull(selector, "selector");
+
+    this.selector = selector;
+    this.selectorAwake = new AtomicBoolean(true);
+  }
+
+  /**
+   * Returns the {@link Selector} this scheduler blocks on.  Channels should be registered with
+   * this selector in order for their readiness to be handled by
+   * {@link #selectTick(ExceptionHandler, Consumer)}.
+   *
+   * @return The selector used by this scheduler
+   */
+  public Selector getSelector() {
+    return selector;
+  }
+
+  @Override
+  protected void wakeUpBlockingThread() {
+    super.wakeUpBlockingThread();
+
+    // check before CAS so a burst of submissions does not contend once the selector is awake
+    if (! selectorAwake.get() && selectorAwake.compareAndSet(false, true)) {
+      selector.wakeup();
+    }
+  }
+
+  /**
+   * Select for ready channels, and run any tasks which are ready.  If there are no tasks ready to
+   * run, this will block until either a channel registered with {@link #getSelector()} is ready,
+   * a task is submitted, or the next scheduled task is ready to run.  If tasks are already ready,
+   * ready channels will still be checked without blocking, so that channel events are not starved
+   * by a steady flow of tasks.
+   * <p>
+   * Selected keys are removed from the selected key set and provided to the
+   * {@code selectedKeyHandler} before ready tasks are run.  If {@code null} is provided for the
+   * handler, the selected keys will be left in {@link Selector#selectedKeys()} to be handled by
+   * the caller.
+   * <p>
+   * The same threading restrictions as {@link #blockingTick(ExceptionHandler)} apply.  If the
+   * exception handler is {@code null}, exceptions from either the tasks or the key handler will
+   * throw out of this invocation.
+   *
+   * @param exceptionHandler Exception handler implementation to call if any tasks throw an
+   *                           exception, or null to have exceptions thrown out of this call
+   * @param selectedKeyHandler Handler to be invoked with each selected key, or {@code null}
+   * @return Quantity of tasks run and selected keys handled
+   * @throws IOException Thrown if the selector throws while selecting
+   * @throws InterruptedException Thrown if thread is interrupted waiting for tasks or channels
+   */
+  public int selectTick(ExceptionHandler exceptionHandler,
+                        Consumer<SelectionKey> selectedKeyHandler) throws IOException,
+                                                                          InterruptedException {
+    if (Thread.currentThread().isInterrupted()) {
+      throw new InterruptedException();
+    }
+
+    if (hasTaskReadyToRun()) {
+      selector.selectNow();
+    } else {
+      // must be reset before checking tasks, any task added after will then wake the selector
+      selectorAwake.set(false);
+      try {
+        long delay = getDelayTillNextTask();
+        if (delay <= 0 || tickCanceled) {
+          selector.selectNow();
+        } else if (delay == Long.MAX_VALUE) {
+          selector.select();
+        } else {
+          selector.select(delay);
+        }
+      } finally {
+        selectorAwake.lazySet(true);
+      }
+      if (Thread.currentThread().isInterrupted()) {
+        throw new InterruptedException();
+      }
+    }
+
+    int handled = 0;
+    if (selectedKeyHandler != null) {
+      Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+      while (it.hasNext()) {
+        SelectionKey key = it.next();
+        it.remove();
+        try {
+          selectedKeyHandler.accept(key);
+        } catch (Throwable t) {
+          if (exceptionHandler != null) {
+            exceptionHandler.handleException(t);
+          } else {
+            throw ExceptionUtils.makeRuntime(t);
+          }
+        }
+        handled++;
+      }
+    }
+
+    return handled + tick(exceptionHandler);
+  }
+}
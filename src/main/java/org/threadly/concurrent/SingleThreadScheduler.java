@@ -1,5 +1,6 @@
 package org.threadly.concurrent;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.RejectedExecutionException;
@@ -13,10 +14,18 @@ import org.threadly.util.ExceptionUtils;
  * A simple and light weight implementation of the {@link SchedulerService}.  This is designed to 
  * be a lighter weight option to the {@link PriorityScheduler}, for when multiple threads are 
  * either not needed, or not desired.
+ * <p>
+ * Tasks which the scheduler thread executes on itself (for example a task which submits follow 
+ * up work) are added to a queue which is only accessed by the scheduler thread, avoiding any CAS 
+ * operations or attempts to wake the thread.  Tasks executed from other threads are placed into 
+ * a preallocated ring buffer when space is available, and will only unpark the scheduler thread 
+ * if it is idle.
  * 
  * @since 2.0.0
  */
 public class SingleThreadScheduler extends AbstractPriorityScheduler {
+  protected static final int EXECUTE_RING_CAPACITY = 64;
+  
   protected final SchedulerManager sManager;
   
   /**
@@ -87,6 +96,27 @@ public class SingleThreadScheduler extends AbstractPriorityScheduler {
          new SchedulerManager(defaultPriority, maxWaitForLowPriorityInMs, threadFactory));
   }
   
+  /**
+   * Constructs a new {@link SingleThreadScheduler}.  No threads will start until the first task 
+   * is provided.  If {@code scheduleTickMillis} is greater than zero, delayed tasks will be held 
+   * in a timing wheel with that tick resolution until they are close to execution.  This makes 
+   * scheduling large numbers of delayed tasks (for example timeouts which rarely execute) cheaper, 
+   * at the cost of those tasks possibly executing up to one tick later than requested.
+   * 
+   * @since 5.37
+   * @param defaultPriority Default priority for tasks which are submitted without any specified priority
+   * @param maxWaitForLowPriorityInMs time low priority tasks to wait if there are high priority tasks ready to run
+   * @param threadFactory factory to make thread for scheduler
+   * @param scheduleTickMillis Tick resolution of timing wheel, or {@code 0} to use a sorted schedule queue
+   */
+  public SingleThreadScheduler(TaskPriority defaultPriority, long maxWaitForLowPriorityInMs, 
+                               ThreadFactory threadFactory, long scheduleTickMillis) {
+    this(defaultPriority, 
+         new SchedulerManager(new NoThreadScheduler(defaultPriority, maxWaitForLowPriorityInMs, 
+                                                    scheduleTickMillis, EXECUTE_RING_CAPACITY), 
+                              threadFactory));
+  }
+  
   /**
    * Constructs a new {@link SingleThreadScheduler}.  This is for internal usage where different 
    * implementations of {@link SchedulerManager} need to be provided.
@@ -221,16 +251,56 @@ public class SingleThreadScheduler extends AbstractPriorityScheduler {
     }
   }
 
+  /**
+   * Getter for the strategy the scheduler thread uses while waiting for tasks.
+   * 
+   * @since 5.37
+   * @return Current idle strategy
+   */
+  public IdleStrategy getIdleStrategy() {
+    return sManager.scheduler.getIdleStrategy();
+  }
+  
+  /**
+   * Sets the strategy the scheduler thread will use while waiting for tasks.  By default the 
+   * thread will park ({@link IdleStrategy.ParkIdleStrategy}).  Strategies which spin or yield 
+   * can reduce the latency for the thread to start executing a newly submitted task, at the cost 
+   * of consuming CPU while idle.
+   * 
+   * @since 5.37
+   * @param idleStrategy Strategy for the scheduler thread to wait with
+   */
+  public void setIdleStrategy(IdleStrategy idleStrategy) {
+    sManager.scheduler.setIdleStrategy(idleStrategy);
+  }
+
   @Override
   protected QueueManager getQueueManager() {
     return sManager.scheduler.queueManager;
   }
 
+  @Override
+  protected void doExecute(Runnable task) {
+    getRunningScheduler().execute(task, defaultPriority);
+  }
+
+  @Override
+  public void execute(Runnable task, TaskPriority priority) {
+    ArgumentVerifier.assertNotNull(task, "task");
+    
+    getRunningScheduler().execute(task, priority);
+  }
+
   @Override
   protected OneTimeTaskWrapper doSchedule(Runnable task, long delayInMillis, TaskPriority priority) {
     return getRunningScheduler().doSchedule(task, delayInMillis, priority);
   }
 
+  @Override
+  protected void doExecuteAll(Collection<? extends Runnable> tasks, TaskPriority priority) {
+    getRunningScheduler().doExecuteAll(tasks, priority);
+  }
+
   @Override
   public void scheduleWithFixedDelay(Runnable task, long initialDelay, long recurringDelay,
                                      TaskPriority priority) {
@@ -268,7 +338,8 @@ public class SingleThreadScheduler extends AbstractPriorityScheduler {
     
     public SchedulerManager(TaskPriority defaultPriority, 
                             long maxWaitForLowPriorityInMs, ThreadFactory threadFactory) {
-      this(new NoThreadScheduler(defaultPriority, maxWaitForLowPriorityInMs), threadFactory);
+      this(new NoThreadScheduler(defaultPriority, maxWaitForLowPriorityInMs, 
+                                 0, EXECUTE_RING_CAPACITY), threadFactory);
     }
     
     public SchedulerManager(NoThreadScheduler scheduler, ThreadFactory threadFactory) {
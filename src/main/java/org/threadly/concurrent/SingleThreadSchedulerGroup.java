@@ -0,0 +1,508 @@
+package org.threadly.concurrent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.threadly.concurrent.future.ListenableFuture;
+import org.threadly.concurrent.future.ListenableFutureTask;
+import org.threadly.util.ArgumentVerifier;
+import org.threadly.util.Clock;
+
+/**
+ * A group of {@link SingleThreadScheduler}'s, similar to an event loop group.  Each scheduler
+ * in the group runs on its own thread, so work can be partitioned across the group while the work
+ * for any one partition remains single threaded.
+ * <p>
+ * Tasks provided with a key (for example through {@link #execute(Object, Runnable)}) will always
+ * execute on the same scheduler as other tasks for an equal key, in the order they were
+ * provided.  Keys are hashed into a fixed table of buckets which are assigned to schedulers, so
+ * unlike {@link org.threadly.concurrent.wrapper.KeyDistributedExecutor} no state is maintained
+ * per key, and submitting a keyed task only requires reading the assignment for its bucket.
+ * <p>
+ * If constructed to track key load, the number of tasks which are queued or running for each
+ * bucket is also maintained.  This allows {@link #rebalance()} to move buckets which are idle off
+ * of the most loaded scheduler, without violating the ordering of any tasks.
+ * <p>
+ * For work which does not need any affinity, {@link #next()} will select a scheduler either in a
+ * round robin order, or based off the current load of the schedulers.
+ *
+ * @since 5.37
+ */
+public class SingleThreadSchedulerGroup {
+  protected static final int KEY_BUCKETS_PER_SCHEDULER = 16;
+  protected static final int BUCKET_MOVING = -1;
+
+  /**
+   * Strategy for how {@link #next()} will select a scheduler from the group.
+   *
+   * @since 5.37
+   */
+  public enum SelectionStrategy {
+    /**
+     * Schedulers are returned in turn, this is the cheapest selection.
+     */
+    RoundRobin,
+    /**
+     * The scheduler with the fewest queued and running tasks is returned.  Ties are broken in a
+     * round robin order.
+     */
+    LeastLoaded
+  }
+
+  protected final SingleThreadScheduler[] schedulers;
+  protected final SelectionStrategy selectionStrategy;
+  protected final AtomicIntegerArray keyBucketSchedulers;
+  // only used if tracking key load, tasks queued or running for each bucket
+  protected final AtomicIntegerArray keyBucketLoad;
+  private final AtomicInteger nextIndex;
+
+  /**
+   * Constructs a new {@link SingleThreadSchedulerGroup}.  This defaults to daemon threads, round
+   * robin selection from {@link #next()}, and no key load tracking.
+   *
+   * @param schedulerCount Number of schedulers (and thus threads) in the group
+   */
+  public SingleThreadSchedulerGroup(int schedulerCount) {
+    this(schedulerCount, true);
+  }
+
+  /**
+   * Constructs a new {@link SingleThreadSchedulerGroup}.  This defaults to round robin selection
+   * from {@link #next()}, and no key load tracking.
+   *
+   * @param schedulerCount Number of schedulers (and thus threads) in the group
+   * @param daemonThreads {@code true} if scheduler threads should be daemon threads
+   */
+  public SingleThreadSchedulerGroup(int schedulerCount, boolean daemonThreads) {
+    this(schedulerCount,
+         new ConfigurableThreadFactory(SingleThreadSchedulerGroup.class.getSimpleName() + "-",
+                                       true, daemonThreads, Thread.NORM_PRIORITY, null, null));
+  }
+
+  /**
+   * Constructs a new {@link SingleThreadSchedulerGroup}.  This defaults to round robin selection
+   * from {@link #next()}, and no key load tracking.
+   *
+   * @param schedulerCount Number of schedulers (and thus threads) in the group
+   * @param threadFactory Factory to make the thread for each scheduler
+   */
+  public SingleThreadSchedulerGroup(int schedulerCount, ThreadFactory threadFactory) {
+    this(schedulerCount, threadFactory, SelectionStrategy.RoundRobin, false);
+  }
+
+  /**
+   * Constructs a new {@link SingleThreadSchedulerGroup}.  Tracking key load allows
+   * {@link #rebalance()} to move idle keys between schedulers, but adds the cost of maintaining
+   * a counter for each keyed task.
+   *
+   * @param schedulerCount Number of schedulers (and thus threads) in the group
+   * @param threadFactory Factory to make the thread for each scheduler
+   * @param selectionStrategy Strategy for how {@link #next()} selects a scheduler
+   * @param trackKeyLoad {@code true} to track tasks per key bucket so keys can be rebalanced
+   */
+  public SingleThreadSchedulerGroup(int schedulerCount, ThreadFactory threadFactory,
+                                    SelectionStrategy selectionStrategy, boolean trackKeyLoad) {
+    ArgumentVerifier.assertGreaterThanZero(schedulerCount, "schedulerCount");
+    ArgumentVerifier.assertNotNull(threadFactory, "threadFactory");
+    ArgumentVerifier.assertNotNull(selectionStrategy, "selectionStrategy");
+
+    this.schedulers = new SingleThreadScheduler[schedulerCount];
+    for (int i = 0; i < schedulerCount; i++) {
+      schedulers[i] = new SingleThreadScheduler(threadFactory);
+    }
+    this.selectionStrategy = selectionStrategy;
+    this.keyBucketSchedulers =
+        new AtomicIntegerArray(schedulerCount * KEY_BUCKETS_PER_SCHEDULER);
+    for (int i = 0; i < keyBucketSchedulers.length(); i++) {
+      keyBucketSchedulers.set(i, i % schedulerCount);
+    }
+    this.keyBucketLoad = trackKeyLoad ? new AtomicIntegerArray(keyBucketSchedulers.length()) : null;
+    this.nextIndex = new AtomicInteger();
+  }
+
+  /**
+   * Returns the number of schedulers within this group.
+   *
+   * @return Number of schedulers
+   */
+  public int getSchedulerCount() {
+    return schedulers.length;
+  }
+
+  /**
+   * Returns the schedulers within this group.
+   *
+   * @return Unmodifiable list of schedulers
+   */
+  public List<SingleThreadScheduler> getSchedulers() {
+    return Collections.unmodifiableList(Arrays.asList(schedulers));
+  }
+
+  /**
+   * Selects a scheduler from the group based off the {@link SelectionStrategy} this group was
+   * constructed with.
+   *
+   * @return Scheduler to submit work to
+   */
+  public SingleThreadScheduler next() {
+    int start = Math.floorMod(nextIndex.getAndIncrement(), schedulers.length);
+    if (selectionStrategy == SelectionStrategy.RoundRobin) {
+      return schedulers[start];
+    }
+    SingleThreadScheduler result = null;
+    int resultLoad = Integer.MAX_VALUE;
+    for (int i = 0; i < schedulers.length; i++) {
+      SingleThreadScheduler sts = schedulers[(start + i) % schedulers.length];
+      int load = getLoad(sts);
+      if (load < resultLoad) {
+        if (load == 0) {
+          return sts;
+        }
+        result = sts;
+        resultLoad = load;
+      }
+    }
+    return result;
+  }
+
+  private static int getLoad(SingleThreadScheduler sts) {
+    return sts.getQueuedTaskCount() + sts.getActiveTaskCount();
+  }
+
+  private int getKeyBucket(Object key) {
+    ArgumentVerifier.assertNotNull(key, "key");
+
+    int h = key.hashCode();
+    return Math.floorMod(h ^ (h >>> 16), keyBucketSchedulers.length());
+  }
+
+  /**
+   * Returns the scheduler which tasks for the provided key are currently assigned to.  Tasks
+   * submitted directly to the returned scheduler are not tracked by this group.  If this group
+   * tracks key load then the key may be moved by {@link #rebalance()}, so in that case tasks
+   * should be provided through the keyed functions of this group instead.
+   *
+   * @param key Key to get the scheduler for
+   * @return Scheduler the key is assigned to
+   */
+  public SingleThreadScheduler getSchedulerForKey(Object key) {
+    int index = keyBucketSchedulers.get(getKeyBucket(key));
+    while (index == BUCKET_MOVING) {
+      Thread.yield();
+      index = keyBucketSchedulers.get(getKeyBucket(key));
+    }
+    return schedulers[index];
+  }
+
+  /**
+   * Provide a task to be run on the scheduler assigned to the provided key.  Tasks for equal keys
+   * will be run in the order they are provided, and never in parallel.
+   *
+   * @param key Key to determine which scheduler runs the task
+   * @param task Task to be executed
+   */
+  public void execute(Object key, Runnable task) {
+    ArgumentVerifier.assertNotNull(task, "task");
+
+    if (keyBucketLoad == null) {
+      getSchedulerForKey(key).execute(task);
+      return;
+    }
+    int bucket = getKeyBucket(key);
+    SingleThreadScheduler sts = acquireBucketScheduler(bucket);
+    try {
+      sts.execute(new KeyLoadTrackingRunnable(bucket, task));
+    } catch (RejectedExecutionException e) {
+      keyBucketLoad.decrementAndGet(bucket);
+      throw e;
+    }
+  }
+
+  /**
+   * Counts a task against the provided bucket, and returns the scheduler it should be provided
+   * to.  If the bucket is currently being moved this will wait for the move to complete.
+   *
+   * @param bucket Bucket the task is being submitted for
+   * @return Scheduler the task must be provided to
+   */
+  private SingleThreadScheduler acquireBucketScheduler(int bucket) {
+    while (true) {
+      int index = keyBucketSchedulers.get(bucket);
+      if (index == BUCKET_MOVING) {
+        Thread.yield();
+        continue;
+      }
+      keyBucketLoad.incrementAndGet(bucket);
+      // once counted a move can not happen, but it may have started before we counted
+      if (keyBucketSchedulers.get(bucket) == index) {
+        return schedulers[index];
+      }
+      keyBucketLoad.decrementAndGet(bucket);
+    }
+  }
+
+  /**
+   * Submit a task to be run on the scheduler assigned to the provided key.  See
+   * {@link #execute(Object, Runnable)} for ordering guarantees.
+   *
+   * @param key Key to determine which scheduler runs the task
+   * @param task Task to be executed
+   * @return Future to represent when the execution has occurred
+   */
+  public ListenableFuture<?> submit(Object key, Runnable task) {
+    return submit(key, task, null);
+  }
+
+  /**
+   * Submit a task to be run on the scheduler assigned to the provided key.  See
+   * {@link #execute(Object, Runnable)} for ordering guarantees.
+   *
+   * @param <T> type of result returned from the future
+   * @param key Key to determine which scheduler runs the task
+   * @param task Task to be executed
+   * @param result Result to be returned from future when task completes
+   * @return Future to represent when the execution has occurred and provide the given result
+   */
+  public <T> ListenableFuture<T> submit(Object key, Runnable task, T result) {
+    return submit(key, RunnableCallableAdapter.adapt(task, result));
+  }
+
+  /**
+   * Submit a callable to be run on the scheduler assigned to the provided key.  See
+   * {@link #execute(Object, Runnable)} for ordering guarantees.
+   *
+   * @param <T> type of result returned from the future
+   * @param key Key to determine which scheduler runs the task
+   * @param task Callable to be executed
+   * @return Future to represent when the execution has occurred and provide the result
+   */
+  public <T> ListenableFuture<T> submit(Object key, Callable<T> task) {
+    ArgumentVerifier.assertNotNull(task, "task");
+
+    ListenableFutureTask<T> lft = new ListenableFutureTask<>(false, task);
+    execute(key, lft);
+    return lft;
+  }
+
+  /**
+   * Moves idle keys off of the most loaded scheduler and onto the least loaded one.  Load is the
+   * number of queued and running tasks on each scheduler.  Keys are moved in buckets, and a
+   * bucket is only moved if no tasks submitted through this group for it are queued or running,
+   * so ordering for a key is always maintained.  Half of the idle buckets on the most loaded
+   * scheduler are moved.
+   * <p>
+   * This has no effect unless this group was constructed to track key load.  It may be invoked
+   * periodically, for example as a recurring task on a separate scheduler.
+   *
+   * @return Number of key buckets which were moved
+   */
+  public int rebalance() {
+    if (keyBucketLoad == null) {
+      return 0;
+    }
+    int maxIndex = 0;
+    int maxLoad = -1;
+    int minIndex = 0;
+    int minLoad = Integer.MAX_VALUE;
+    for (int i = 0; i < schedulers.length; i++) {
+      int load = getLoad(schedulers[i]);
+      if (load > maxLoad) {
+        maxIndex = i;
+        maxLoad = load;
+      }
+      if (load < minLoad) {
+        minIndex = i;
+        minLoad = load;
+      }
+    }
+    if (maxLoad - minLoad <= 1) {
+      return 0;
+    }
+
+    int idleBuckets = 0;
+    for (int i = 0; i < keyBucketSchedulers.length(); i++) {
+      if (keyBucketSchedulers.get(i) == maxIndex && keyBucketLoad.get(i) == 0) {
+        idleBuckets++;
+      }
+    }
+    int toMove = (idleBuckets + 1) / 2;
+    int moved = 0;
+    for (int i = 0; i < keyBucketSchedulers.length() && moved < toMove; i++) {
+      if (keyBucketLoad.get(i) == 0 &&
+          keyBucketSchedulers.compareAndSet(i, maxIndex, BUCKET_MOVING)) {
+        // submitters which counted before the move started will be visible now
+        if (keyBucketLoad.get(i) == 0) {
+          keyBucketSchedulers.set(i, minIndex);
+          moved++;
+        } else {
+          keyBucketSchedulers.set(i, maxIndex);
+        }
+      }
+    }
+    return moved;
+  }
+
+  /**
+   * Returns how many tasks are currently running across all schedulers in the group.
+   *
+   * @return Quantity of tasks currently running
+   */
+  public int getActiveTaskCount() {
+    int result = 0;
+    for (SingleThreadScheduler sts : schedulers) {
+      result += sts.getActiveTaskCount();
+    }
+    return result;
+  }
+
+  /**
+   * Returns how many tasks are queued across all schedulers in the group, including tasks
+   * scheduled with a delay.
+   *
+   * @return Quantity of tasks queued
+   */
+  public int getQueuedTaskCount() {
+    int result = 0;
+    for (SingleThreadScheduler sts : schedulers) {
+      result += sts.getQueuedTaskCount();
+    }
+    return result;
+  }
+
+  /**
+   * Returns how many tasks are ready to run but are waiting for their scheduler, across all
+   * schedulers in the group.
+   *
+   * @return Quantity of tasks waiting for execution
+   */
+  public int getWaitingForExecutionTaskCount() {
+    int result = 0;
+    for (SingleThreadScheduler sts : schedulers) {
+      result += sts.getWaitingForExecutionTaskCount();
+    }
+    return result;
+  }
+
+  /**
+   * Checks if the group has been shutdown.
+   *
+   * @return {@code true} if a shutdown has been requested
+   */
+  public boolean isShutdown() {
+    return schedulers[0].isShutdown();
+  }
+
+  /**
+   * Checks if the group has been shutdown, and all scheduler threads have completed.
+   *
+   * @return {@code true} if all schedulers have terminated
+   */
+  public boolean isTerminated() {
+    for (SingleThreadScheduler sts : schedulers) {
+      if (! sts.isTerminated()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Invokes {@link SingleThreadScheduler#shutdown()} on every scheduler in the group.  Tasks
+   * already submitted will be allowed to run, but no new tasks will be accepted.
+   */
+  public void shutdown() {
+    for (SingleThreadScheduler sts : schedulers) {
+      sts.shutdown();
+    }
+  }
+
+  /**
+   * Invokes {@link SingleThreadScheduler#shutdownNow()} on every scheduler in the group.
+   *
+   * @return Runnables which were waiting to run in any of the schedulers
+   */
+  public List<Runnable> shutdownNow() {
+    List<Runnable> result = new ArrayList<>();
+    for (SingleThreadScheduler sts : schedulers) {
+      for (Runnable r : sts.shutdownNow()) {
+        if (r instanceof KeyLoadTrackingRunnable) {
+          KeyLoadTrackingRunnable klr = (KeyLoadTrackingRunnable)r;
+          // task will never run, so release its load here
+          keyBucketLoad.decrementAndGet(klr.bucket);
+          result.add(klr.getContainedRunnable());
+        } else {
+          result.add(r);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Block until every scheduler in the group has shutdown and its thread has stopped.  If neither
+   * {@link #shutdown()} or {@link #shutdownNow()} is invoked, then this will block forever.
+   *
+   * @throws InterruptedException Thrown if blocking thread is interrupted waiting for shutdown
+   */
+  public void awaitTermination() throws InterruptedException {
+    for (SingleThreadScheduler sts : schedulers) {
+      sts.awaitTermination();
+    }
+  }
+
+  /**
+   * Block until every scheduler in the group has shutdown and its thread has stopped, or until
+   * the timeout is reached.
+   *
+   * @param timeoutMillis time to block and wait for the group to shutdown
+   * @return {@code true} if the group has shutdown, false if timeout was reached
+   * @throws InterruptedException Thrown if blocking thread is interrupted waiting for shutdown
+   */
+  public boolean awaitTermination(long timeoutMillis) throws InterruptedException {
+    long startTime = Clock.accurateForwardProgressingMillis();
+    for (SingleThreadScheduler sts : schedulers) {
+      long remainingWait = timeoutMillis - (Clock.accurateForwardProgressingMillis() - startTime);
+      if (remainingWait <= 0 || ! sts.awaitTermination(remainingWait)) {
+        return sts.isTerminated() && isTerminated();
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Wrapper for keyed tasks which releases the load counted against its key bucket once run.  If
+   * the task never runs (for example it is removed) the bucket will never be seen as idle.
+   *
+   * @since 5.37
+   */
+  protected class KeyLoadTrackingRunnable implements Runnable, RunnableContainer {
+    private final int bucket;
+    private final Runnable task;
+
+    protected KeyLoadTrackingRunnable(int bucket, Runnable task) {
+      this.bucket = bucket;
+      this.task = task;
+    }
+
+    @Override
+    public void run() {
+      try {
+        task.run();
+      } finally {
+        keyBucketLoad.decrementAndGet(bucket);
+      }
+    }
+
+    @Override
+    public Runnable getContainedRunnable() {
+      return task;
+    }
+  }
+}
@@ -0,0 +1,435 @@
+package org.threadly.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.threadly.concurrent.wrapper.limiter.SchedulerServiceLimiter;
+import org.threadly.util.ArgumentVerifier;
+import org.threadly.util.Clock;
+import org.threadly.util.ExceptionUtils;
+
+/**
+ * A {@link SchedulerService} which runs each task on a newly constructed thread.  This is
+ * primarily designed to be used with a {@link VirtualThreadFactory} (the default), where a large
+ * number of tasks may be blocked concurrently without each requiring an OS thread.  On JVMs
+ * without virtual thread support each task will instead run on a new platform thread, so this
+ * should only be used with a small number of concurrent tasks in that case.
+ * <p>
+ * There is no limit to the number of concurrently running tasks.  If a limit is desired this can
+ * be wrapped in a {@link SchedulerServiceLimiter} (or other limiter), for example to bound the
+ * number of concurrent requests to a downstream service.
+ * <p>
+ * Delayed and recurring tasks are tracked on a single internal {@link SingleThreadScheduler},
+ * which starts a new thread for the task once its delay has elapsed.  A recurring task is
+ * rescheduled once each execution has completed, so recurring tasks will never run concurrently
+ * with themselves.
+ * <p>
+ * On {@link #shutdown()} delayed tasks will still be started once their delay elapses, while
+ * recurring tasks will stop being rescheduled.  {@link #shutdownNow()} will instead drop (and
+ * return) any delayed tasks which have not started.
+ *
+ * @since 5.37
+ */
+public class ThreadPerTaskScheduler extends AbstractSubmitterScheduler implements SchedulerService {
+  protected static final String DELAY_THREAD_NAME_PREFIX =
+      ThreadPerTaskScheduler.class.getSimpleName() + "-delay-";
+
+  protected final ThreadFactory threadFactory;
+  protected final SingleThreadScheduler delayScheduler;
+  protected final Set<RecurringTaskLauncher> recurringTasks;
+  private final AtomicInteger startingCount;
+  private final AtomicInteger runningCount;
+  // one time tasks held in the delay scheduler, which must be started before it can shutdown
+  private final AtomicInteger pendingDelayedCount;
+  private final Object terminationLock;
+  private volatile boolean shutdown;
+
+  /**
+   * Constructs a new {@link ThreadPerTaskScheduler} which will run tasks on threads produced by a
+   * new {@link VirtualThreadFactory}.
+   */
+  public ThreadPerTaskScheduler() {
+    this(new VirtualThreadFactory(ThreadPerTaskScheduler.class.getSimpleName() + "-"));
+  }
+
+  /**
+   * Constructs a new {@link ThreadPerTaskScheduler} which will run each task on a thread
+   * produced by the provided factory.
+   *
+   * @param threadFactory Factory to produce a thread for each task
+   */
+  public ThreadPerTaskScheduler(ThreadFactory threadFactory) {
+    ArgumentVerifier.assertNotNull(threadFactory, "threadFactory");
+
+    this.threadFactory = threadFactory;
+    this.delayScheduler =
+        new SingleThreadScheduler(new ConfigurableThreadFactory(DELAY_THREAD_NAME_PREFIX, true, true,
+                                                                Thread.NORM_PRIORITY, null, null));
+    this.recurringTasks = ConcurrentHashMap.newKeySet();
+    this.startingCount = new AtomicInteger(0);
+    this.runningCount = new AtomicInteger(0);
+    this.pendingDelayedCount = new AtomicInteger(0);
+    this.terminationLock = new Object();
+    this.shutdown = false;
+  }
+
+  /**
+   * Starts a new thread to run the provided task.
+   *
+   * @param task Task to run on the new thread
+   */
+  protected void startTaskThread(Runnable task) {
+    // counted as waiting until the thread starts
+    startingCount.incrementAndGet();
+    try {
+      threadFactory.newThread(new TaskRunner(task)).start();
+    } catch (RuntimeException | Error e) {
+      startingCount.decrementAndGet();
+      signalIfTerminated();
+      throw e;
+    }
+  }
+
+  /**
+   * Wakes any threads blocked in {@link #awaitTermination(long)} if the scheduler has now
+   * terminated.
+   */
+  private void signalIfTerminated() {
+    if (isTerminated()) {
+      synchronized (terminationLock) {
+        terminationLock.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Invoked once a delayed one time task is no longer held in the delay scheduler.  If this was
+   * the last one and {@link #shutdown()} has been invoked the delay scheduler is shutdown.
+   */
+  private void delayedTaskReleased() {
+    if (pendingDelayedCount.decrementAndGet() == 0 && shutdown) {
+      delayScheduler.shutdown();
+      signalIfTerminated();
+    }
+  }
+
+  @Override
+  protected void doSchedule(Runnable task, long delayInMillis) {
+    if (shutdown) {
+      throw new RejectedExecutionException("Pool is shutdown");
+    } else if (delayInMillis == 0) {
+      startTaskThread(task);
+    } else {
+      pendingDelayedCount.incrementAndGet();
+      try {
+        delayScheduler.schedule(new DelayedTaskLauncher(task), delayInMillis);
+      } catch (RejectedExecutionException e) {
+        delayedTaskReleased();
+        throw e;
+      }
+    }
+  }
+
+  @Override
+  public void scheduleWithFixedDelay(Runnable task, long initialDelay, long recurringDelay) {
+    ArgumentVerifier.assertNotNull(task, "task");
+    ArgumentVerifier.assertNotNegative(initialDelay, "initialDelay");
+    ArgumentVerifier.assertNotNegative(recurringDelay, "recurringDelay");
+
+    scheduleRecurring(new RecurringTaskLauncher(task, recurringDelay, false), initialDelay);
+  }
+
+  @Override
+  public void scheduleAtFixedRate(Runnable task, long initialDelay, long period) {
+    ArgumentVerifier.assertNotNull(task, "task");
+    ArgumentVerifier.assertNotNegative(initialDelay, "initialDelay");
+    ArgumentVerifier.assertGreaterThanZero(period, "period");
+
+    scheduleRecurring(new RecurringTaskLauncher(task, period, true), initialDelay);
+  }
+
+  private void scheduleRecurring(RecurringTaskLauncher launcher, long initialDelay) {
+    if (shutdown) {
+      throw new RejectedExecutionException("Pool is shutdown");
+    }
+
+    launcher.nextRunTime = Clock.accurateForwardProgressingMillis() + initialDelay;
+    recurringTasks.add(launcher);
+    try {
+      delayScheduler.schedule(launcher, initialDelay);
+    } catch (RejectedExecutionException e) {
+      recurringTasks.remove(launcher);
+      throw e;
+    }
+  }
+
+  @Override
+  public boolean remove(Runnable task) {
+    if (task == null) {
+      return false;
+    }
+    for (RecurringTaskLauncher launcher : recurringTasks) {
+      if (ContainerHelper.isContained(launcher, task) && recurringTasks.remove(launcher)) {
+        delayScheduler.remove(launcher);
+        return true;
+      }
+    }
+    if (delayScheduler.remove(task)) {
+      delayedTaskReleased();
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public boolean remove(Callable<?> task) {
+    if (task == null) {
+      return false;
+    }
+    for (RecurringTaskLauncher launcher : recurringTasks) {
+      if (ContainerHelper.isContained(launcher, task) && recurringTasks.remove(launcher)) {
+        delayScheduler.remove(launcher);
+        return true;
+      }
+    }
+    if (delayScheduler.remove(task)) {
+      delayedTaskReleased();
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public int getActiveTaskCount() {
+    return runningCount.get();
+  }
+
+  @Override
+  public int getQueuedTaskCount() {
+    return delayScheduler.getQueuedTaskCount() + startingCount.get();
+  }
+
+  @Override
+  public int getWaitingForExecutionTaskCount() {
+    return delayScheduler.getWaitingForExecutionTaskCount() + startingCount.get();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  /**
+   * Check if the scheduler has been shutdown, and all tasks have finished running.
+   *
+   * @return {@code true} if shutdown and no tasks are running
+   */
+  public boolean isTerminated() {
+    return shutdown && delayScheduler.isShutdown() &&
+             startingCount.get() == 0 && runningCount.get() == 0;
+  }
+
+  /**
+   * Stops any new tasks from being submitted.  Tasks which have already started will be allowed
+   * to finish, and delayed tasks will still be started once their delay elapses.  Recurring tasks
+   * will be unable to reschedule.  This call will not block waiting for tasks to complete.
+   * <p>
+   * If you wish to not run any delayed tasks you should use {@link #shutdownNow()}.
+   */
+  public void shutdown() {
+    shutdown = true;
+    for (RecurringTaskLauncher launcher : recurringTasks) {
+      if (recurringTasks.remove(launcher)) {
+        delayScheduler.remove(launcher);
+      }
+    }
+    if (pendingDelayedCount.get() == 0) {
+      delayScheduler.shutdown();
+    }
+    signalIfTerminated();
+  }
+
+  /**
+   * Stops any new tasks from being submitted.  Delayed tasks which have not yet started will be
+   * prevented from running, and returned.  Tasks which have already started will be allowed to
+   * finish (though this call will not block waiting for them to finish).
+   *
+   * @return List of delayed tasks which were waiting to run at time of shutdown
+   */
+  public List<Runnable> shutdownNow() {
+    shutdown = true;
+    recurringTasks.clear();
+
+    List<Runnable> waitingTasks = delayScheduler.shutdownNow();
+    List<Runnable> result = new ArrayList<>(waitingTasks.size());
+    for (Runnable r : waitingTasks) {
+      if (r instanceof RunnableContainer) {
+        result.add(((RunnableContainer)r).getContainedRunnable());
+      } else {
+        result.add(r);
+      }
+    }
+    signalIfTerminated();
+    return result;
+  }
+
+  /**
+   * Block until the scheduler has shutdown and all tasks have finished running.  If neither
+   * {@link #shutdown()} or {@link #shutdownNow()} is invoked, then this will block forever.
+   *
+   * @throws InterruptedException Thrown if blocking thread is interrupted waiting for shutdown
+   */
+  public void awaitTermination() throws InterruptedException {
+    awaitTermination(Long.MAX_VALUE);
+  }
+
+  /**
+   * Block until the scheduler has shutdown and all tasks have finished running, or until the
+   * timeout is reached.  After {@link #shutdown()} this includes waiting for delayed tasks to
+   * start and complete.
+   *
+   * @param timeoutMillis time to block and wait for the scheduler to terminate
+   * @return {@code true} if the scheduler has terminated, false if timeout was reached
+   * @throws InterruptedException Thrown if blocking thread is interrupted waiting for shutdown
+   */
+  public boolean awaitTermination(long timeoutMillis) throws InterruptedException {
+    long startTime = Clock.accurateForwardProgressingMillis();
+    synchronized (terminationLock) {
+      while (! isTerminated()) {
+        long remainingWait = timeoutMillis - (Clock.accurateForwardProgressingMillis() - startTime);
+        if (remainingWait <= 0) {
+          return false;
+        }
+        terminationLock.wait(remainingWait);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Runs a task on its own thread, tracking that it is running and handling any thrown errors.
+   *
+   * @since 5.37
+   */
+  protected class TaskRunner implements Runnable, RunnableContainer {
+    protected final Runnable task;
+
+    protected TaskRunner(Runnable task) {
+      this.task = task;
+    }
+
+    @Override
+    public void run() {
+      runningCount.incrementAndGet();
+      startingCount.decrementAndGet();
+      try {
+        task.run();
+      } catch (Throwable t) {
+        ExceptionUtils.handleException(t);
+      } finally {
+        runningCount.decrementAndGet();
+        signalIfTerminated();
+      }
+    }
+
+    @Override
+    public Runnable getContainedRunnable() {
+      return task;
+    }
+  }
+
+  /**
+   * Runs on the delay scheduler once a task's delay has elapsed, starting the thread to run it.
+   *
+   * @since 5.37
+   */
+  protected class DelayedTaskLauncher implements Runnable, RunnableContainer {
+    protected final Runnable task;
+
+    protected DelayedTaskLauncher(Runnable task) {
+      this.task = task;
+    }
+
+    @Override
+    public void run() {
+      try {
+        startTaskThread(task);
+      } finally {
+        delayedTaskReleased();
+      }
+    }
+
+    @Override
+    public Runnable getContainedRunnable() {
+      return task;
+    }
+  }
+
+  /**
+   * Runs on the delay scheduler each time a recurring task is ready, starting the thread to run
+   * it.  Once the execution completes the launcher will be scheduled again, unless removed or the
+   * scheduler has been shutdown.
+   *
+   * @since 5.37
+   */
+  protected class RecurringTaskLauncher implements Runnable, RunnableContainer {
+    protected final Runnable task;
+    protected final long recurringDelay;
+    protected final boolean fixedRate;
+    private final Runnable runAndReschedule;
+    // only modified while task is running or waiting, never concurrently
+    protected volatile long nextRunTime;
+
+    protected RecurringTaskLauncher(Runnable task, long recurringDelay, boolean fixedRate) {
+      this.task = task;
+      this.recurringDelay = recurringDelay;
+      this.fixedRate = fixedRate;
+      this.runAndReschedule = () -> {
+        try {
+          task.run();
+        } finally {
+          reschedule();
+        }
+      };
+      this.nextRunTime = -1;
+    }
+
+    @Override
+    public void run() {
+      if (! shutdown && recurringTasks.contains(this)) {
+        startTaskThread(runAndReschedule);
+      }
+    }
+
+    private void reschedule() {
+      if (shutdown || ! recurringTasks.contains(this)) {
+        return;
+      }
+      long delay;
+      if (fixedRate) {
+        nextRunTime += recurringDelay;
+        delay = Math.max(0, nextRunTime - Clock.accurateForwardProgressingMillis());
+      } else {
+        delay = recurringDelay;
+      }
+      try {
+        delayScheduler.schedule(this, delay);
+      } catch (RejectedExecutionException e) {
+        // shutdown concurrently, ignore
+      }
+    }
+
+    @Override
+    public Runnable getContainedRunnable() {
+      return task;
+    }
+  }
+}
@@ -1,14 +1,22 @@
 package org.threadly.concurrent;
 
+import java.util.AbstractQueue;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.LockSupport;
 
 import org.threadly.util.AbstractService;
@@ -34,7 +42,22 @@ import org.threadly.util.ExceptionUtils;
  * numbers for a more even hash distribution.  It is also important to recognize that it is 
  * generally a bad idea to block any of these threads waiting for results from processing that is 
  * expected to happen on the same executor.
- * 
+ * <p>
+ * By default an idle thread will only check a single neighbor thread for tasks before going 
+ * idle.  If tasks may be unevenly distributed (for example a skewed {@link TaskStripeGenerator}), 
+ * work stealing can be enabled with 
+ * {@link #UnfairExecutor(int, ThreadFactory, TaskStripeGenerator, boolean)}.  Idle threads will 
+ * then probe several randomly selected threads, and take half of the longest queue found.  Threads 
+ * whose queue grows past a threshold will also wake an idle thread to assist.
+ * <p>
+ * For high submission rates, tasks can be provided in batches with {@link #executeAll(Collection)}
+ * so that each thread is only woken once per batch.  Each thread can also be given a bounded ring
+ * buffer queue with {@link #UnfairExecutor(int, ThreadFactory, TaskStripeGenerator, boolean, int)},
+ * which avoids allocating a queue node per task (only overflowing to a linked queue if full).
+ * <p>
+ * For workloads where tasks submit follow up tasks, {@link SubmitterAffinityStripeGenerator} will
+ * keep those tasks on the submitting thread so they run with a warm CPU cache.
+ *
  * @since 4.5.0
  */
 public class UnfairExecutor extends AbstractSubmitterExecutor {
@@ -125,6 +148,80 @@ public class UnfairExecutor extends AbstractSubmitterExecutor {
     }
   }
   
+  /**
+   * Stripe generator which distributes tasks based off the thread submitting them.  Tasks
+   * submitted from one of the executors own threads will be executed on that same thread (unless
+   * assisted by an idle thread), so that continuations can execute with the data they operate on
+   * still in the CPU cache.  Tasks submitted from other threads are given a stripe on the first
+   * submission, which is then kept for all future submissions from that thread.  Unlike
+   * {@link AtomicStripeGenerator} this means submitting threads do not contend on a shared
+   * counter.
+   * <p>
+   * Since tasks may be concentrated on a subset of threads, this is best combined with work
+   * stealing {@link UnfairExecutor#UnfairExecutor(int, ThreadFactory, TaskStripeGenerator, boolean)}
+   * so that overloaded threads can be assisted.
+   * <p>
+   * This class should not be constructed, instead it should be provided via the static function
+   * {@link SubmitterAffinityStripeGenerator#instance()}.  A new instance should be provided to
+   * each executor.
+   *
+   * @since 5.37
+   */
+  public static class SubmitterAffinityStripeGenerator implements TaskStripeGenerator {
+    /**
+     * Provides an instance which can be provided into the constructor of {@link UnfairExecutor}.
+     *
+     * @return A new SubmitterAffinityStripeGenerator instance
+     */
+    public static SubmitterAffinityStripeGenerator instance() {
+      return new SubmitterAffinityStripeGenerator();
+    }
+
+    private final AtomicLong externalStripe;
+    private final ThreadLocal<Long> threadStripe;
+
+    private SubmitterAffinityStripeGenerator() {
+      // don't allow external construction
+      externalStripe = new AtomicLong();
+      threadStripe = new ThreadLocal<>();
+    }
+
+    /**
+     * Sets the stripe for the invoking thread.  Invoked by worker threads as they start so that
+     * tasks they submit are distributed back to themselves.
+     *
+     * @param stripe Stripe for tasks submitted by the current thread
+     */
+    protected void setCurrentThreadStripe(long stripe) {
+      threadStripe.set(stripe);
+    }
+
+    @Override
+    public long getStripe(Runnable task) {
+      Long stripe = threadStripe.get();
+      if (stripe == null) {
+        stripe = externalStripe.getAndIncrement();
+        threadStripe.set(stripe);
+      }
+      return stripe;
+    }
+  }
+
+  /**
+   * Number of queued tasks on a worker before a submission will wake a random idle worker to 
+   * steal tasks.  Below this only the neighbor worker is woken (the same as when work stealing is 
+   * disabled).  Only used when work stealing is enabled.
+   */
+  protected static final int WORK_STEALING_WAKE_THRESHOLD = 4;
+  /**
+   * Number of workers with queued tasks to consider when selecting a victim to steal from.
+   */
+  protected static final int WORK_STEALING_VICTIM_PROBES = 4;
+  /**
+   * Maximum number of tasks to take from a victim in a single steal.
+   */
+  protected static final int WORK_STEALING_MAX_BATCH = 64;
+  
   protected final Worker[] schedulers;
   private final AtomicBoolean shutdownStarted;
   private final TaskStripeGenerator stripeGenerator;
@@ -205,44 +302,194 @@ public class UnfairExecutor extends AbstractSubmitterExecutor {
    */
   public UnfairExecutor(int threadCount, ThreadFactory threadFactory, 
                         TaskStripeGenerator stripeGenerator) {
+    this(threadCount, threadFactory, stripeGenerator, false);
+  }
+
+  /**
+   * Constructs a new {@link UnfairExecutor} with a provided thread count and factory.  
+   * <p>
+   * If {@code workStealing} is {@code true}, idle threads will probe randomly selected threads 
+   * and steal half of the longest queue found (in batches), rather than only checking a single 
+   * neighbor.  This has a small cost on each submission to track queue sizes, but allows 
+   * throughput to remain high when the {@link TaskStripeGenerator} distributes tasks unevenly.
+   * <p>
+   * Possible built in stripe generators for use would be {@link AtomicStripeGenerator} or 
+   * {@link TaskHashXorTimeStripeGenerator}.
+   * 
+   * @since 5.37
+   * @param threadCount Number of threads, recommended to be a prime number
+   * @param threadFactory thread factory for producing new threads within executor
+   * @param stripeGenerator Generator for figuring out how a task is assigned to a thread
+   * @param workStealing {@code true} to have idle threads steal tasks from any other thread
+   */
+  public UnfairExecutor(int threadCount, ThreadFactory threadFactory,
+                        TaskStripeGenerator stripeGenerator, boolean workStealing) {
+    this(threadCount, threadFactory, stripeGenerator, workStealing, 0);
+  }
+
+  /**
+   * Constructs a new {@link UnfairExecutor} with a provided thread count and factory.
+   * <p>
+   * If {@code queueRingCapacity} is greater than zero, each thread will queue tasks into a
+   * preallocated ring buffer of (at least) that capacity, rather than a
+   * {@link ConcurrentLinkedQueue}.  This avoids allocating a queue node for each task.  If a
+   * ring is full tasks will overflow into a linked queue until the ring has been drained.  Since
+   * each thread preallocates its ring, the capacity should be sized to the expected burst of
+   * tasks per thread.
+   * <p>
+   * See {@link #UnfairExecutor(int, ThreadFactory, TaskStripeGenerator, boolean)} for details
+   * about work stealing.
+   *
+   * @since 5.37
+   * @param threadCount Number of threads, recommended to be a prime number
+   * @param threadFactory thread factory for producing new threads within executor
+   * @param stripeGenerator Generator for figuring out how a task is assigned to a thread
+   * @param workStealing {@code true} to have idle threads steal tasks from any other thread
+   * @param queueRingCapacity Capacity of each threads ring buffer, or {@code 0} to use a linked queue
+   */
+  public UnfairExecutor(int threadCount, ThreadFactory threadFactory,
+                        TaskStripeGenerator stripeGenerator, boolean workStealing,
+                        int queueRingCapacity) {
     ArgumentVerifier.assertGreaterThanZero(threadCount, "threadCount");
+    ArgumentVerifier.assertNotNull(threadFactory, "threadFactory");
     ArgumentVerifier.assertNotNull(stripeGenerator, "stripeGenerator");
-    
+    ArgumentVerifier.assertNotNegative(queueRingCapacity, "queueRingCapacity");
+
     this.schedulers = new Worker[threadCount];
     this.shutdownStarted = new AtomicBoolean(false);
     this.stripeGenerator = stripeGenerator;
-    
+
     for (int i = 0; i < threadCount; i++) {
-      schedulers[i] = new Worker(threadFactory);
+      schedulers[i] = makeWorker(threadFactory, queueRingCapacity);
       if (i > 0) {
         schedulers[i].setNeighborWorker(schedulers[i - 1]);
       }
     }
     schedulers[0].setNeighborWorker(schedulers[schedulers.length - 1]);
+    if (workStealing) {
+      for (Worker w : schedulers) {
+        w.enableWorkStealing(schedulers);
+      }
+    }
+    if (stripeGenerator instanceof SubmitterAffinityStripeGenerator) {
+      for (int i = 0; i < threadCount; i++) {
+        schedulers[i].enableSubmitterAffinity((SubmitterAffinityStripeGenerator)stripeGenerator, i);
+      }
+    }
     // can only start once full neighbor chain is established
     final Worker firstWorker = schedulers[0];
     // let first worker start all the other threads as soon as possible
-    firstWorker.addTask(new Runnable() {
-      @Override
-      public void run() {
-        for (Worker w : schedulers) {
-          if (w != firstWorker) {
-            w.start();
-          }
-        }
-      }
-    });
+    firstWorker.addTask(new StartupTask(schedulers));
     firstWorker.start();
   }
   
+  /**
+   * Constructs a worker for the pool.  This is invoked during construction, so implementations 
+   * must not depend on any state of an extending class.
+   * 
+   * @since 5.37
+   * @param threadFactory thread factory for producing the workers thread
+   * @param queueRingCapacity Capacity of a {@link RingTaskQueue}, or {@code 0} to use a linked queue
+   * @return A new worker which has not been started
+   */
+  protected Worker makeWorker(ThreadFactory threadFactory, int queueRingCapacity) {
+    return new Worker(threadFactory, queueRingCapacity);
+  }
+  
+  /**
+   * Selects the worker a task should be distributed on to.  If the pool has been shutdown a 
+   * {@link RejectedExecutionException} will be thrown.
+   * 
+   * @since 5.37
+   * @param task Task which is being submitted
+   * @return Worker to provide the task to
+   */
+  protected Worker getWorker(Runnable task) {
+    if (shutdownStarted.get()) {
+      throw new RejectedExecutionException("Pool is shutdown");
+    }
+    
+    // Cast schedulers.length to (long) to ensure 1.8 API is used as a Math.floorMod overload was added for Java 1.9 with (int) second parameter
+    return schedulers[(int)Math.floorMod(stripeGenerator.getStripe(task), (long)schedulers.length)];
+  }
+  
   @Override
   protected void doExecute(Runnable task) {
+    getWorker(task).addTask(task);
+  }
+
+  /**
+   * Execute a batch of tasks.  Tasks are distributed to threads by the {@link TaskStripeGenerator}
+   * just as if they were provided individually to {@link #execute(Runnable)}.  But tasks for the
+   * same thread are queued together, so that each thread is woken (if idle) at most once for the
+   * batch.  Like {@link #execute(Runnable)} there are no guarantees about the order the tasks
+   * will execute in.
+   *
+   * @since 5.37
+   * @param tasks Tasks to execute, can not contain {@code null}
+   */
+  public void executeAll(Collection<? extends Runnable> tasks) {
+    ArgumentVerifier.assertNotNull(tasks, "tasks");
+    if (tasks.isEmpty()) {
+      return;
+    }
+    Runnable[] taskArray = tasks.toArray(new Runnable[tasks.size()]);
+    for (Runnable r : taskArray) {
+      ArgumentVerifier.assertNotNull(r, "task");
+    }
     if (shutdownStarted.get()) {
       throw new RejectedExecutionException("Pool is shutdown");
     }
+
+    // counting sort tasks by worker, offsets are shifted by one so they become start indexes
+    int[] workerIndexes = new int[taskArray.length];
+    int[] workerOffsets = new int[schedulers.length + 1];
+    for (int i = 0; i < taskArray.length; i++) {
+      workerIndexes[i] =
+          (int)Math.floorMod(stripeGenerator.getStripe(taskArray[i]), (long)schedulers.length);
+      workerOffsets[workerIndexes[i] + 1]++;
+    }
+    for (int i = 1; i < workerOffsets.length; i++) {
+      workerOffsets[i] += workerOffsets[i - 1];
+    }
+    Runnable[] sortedTasks = new Runnable[taskArray.length];
+    int[] insertIndexes = Arrays.copyOf(workerOffsets, schedulers.length);
+    for (int i = 0; i < taskArray.length; i++) {
+      sortedTasks[insertIndexes[workerIndexes[i]]++] = taskArray[i];
+    }
+    for (int i = 0; i < schedulers.length; i++) {
+      if (workerOffsets[i] < workerOffsets[i + 1]) {
+        schedulers[i].addTasks(sortedTasks, workerOffsets[i], workerOffsets[i + 1]);
+      }
+    }
+  }
+
+  /**
+   * Sets the strategy idle threads will use while waiting for tasks.  By default threads will 
+   * park ({@link IdleStrategy.ParkIdleStrategy}).  Strategies which spin or yield can reduce the 
+   * latency for an idle thread to start executing a newly submitted task, at the cost of 
+   * consuming CPU while idle.
+   * 
+   * @since 5.37
+   * @param idleStrategy Strategy for idle threads to wait with
+   */
+  public void setIdleStrategy(IdleStrategy idleStrategy) {
+    ArgumentVerifier.assertNotNull(idleStrategy, "idleStrategy");
     
-    // Cast schedulers.length to (long) to ensure 1.8 API is used as a Math.floorMod overload was added for Java 1.9 with (int) second parameter
-    schedulers[(int)Math.floorMod(stripeGenerator.getStripe(task), (long)schedulers.length)].addTask(task);
+    for (Worker w : schedulers) {
+      w.idleStrategy = idleStrategy;
+      LockSupport.unpark(w.thread);
+    }
+  }
+  
+  /**
+   * Getter for the strategy idle threads use while waiting for tasks.
+   * 
+   * @since 5.37
+   * @return Current idle strategy
+   */
+  public IdleStrategy getIdleStrategy() {
+    return schedulers[0].idleStrategy;
   }
 
   /**
@@ -284,14 +531,7 @@ public class UnfairExecutor extends AbstractSubmitterExecutor {
     List<Runnable> result = new ArrayList<>();
     for (Worker w : schedulers) {
       w.stopIfRunning();
-      Iterator<Runnable> it = w.taskQueue.iterator();
-      while (it.hasNext()) {
-        Runnable task = it.next();
-        it.remove();
-        if (! (task instanceof ShutdownTask)) {
-          result.add(task);
-        }
-      }
+      w.drainTasks(result);
     }
     return result;
   }
@@ -348,16 +588,40 @@ public class UnfairExecutor extends AbstractSubmitterExecutor {
     protected final Thread thread;
     protected final Queue<Runnable> taskQueue;
     private volatile boolean parked;
+    private volatile IdleStrategy idleStrategy;
     private Worker checkNeighborWorker;
     private Worker wakupNeighborWorker;
+    // below fields are only set if work stealing is enabled
+    private Worker[] stealPeers;
+    private AtomicInteger queuedCount;
+    protected Queue<Runnable> stolenTasks;
+    // below fields are only set if submitter affinity is enabled
+    private SubmitterAffinityStripeGenerator affinityStripeGenerator;
+    private int affinityStripe;
     
     public Worker(ThreadFactory threadFactory) {
+      this(threadFactory, 0);
+    }
+
+    /**
+     * Constructs a new worker.
+     *
+     * @since 5.37
+     * @param threadFactory Factory to construct the thread for this worker
+     * @param queueRingCapacity Capacity of a {@link RingTaskQueue}, or {@code 0} to use a linked queue
+     */
+    public Worker(ThreadFactory threadFactory, int queueRingCapacity) {
       thread = threadFactory.newThread(this);
       if (thread.isAlive()) {
         throw new IllegalThreadStateException();
       }
-      taskQueue = new ConcurrentLinkedQueue<>();
+      if (queueRingCapacity > 0) {
+        taskQueue = new RingTaskQueue(queueRingCapacity);
+      } else {
+        taskQueue = new ConcurrentLinkedQueue<>();
+      }
       parked = false;
+      idleStrategy = IdleStrategy.ParkIdleStrategy.instance();
     }
     
     /**
@@ -369,6 +633,37 @@ public class UnfairExecutor extends AbstractSubmitterExecutor {
       checkNeighborWorker = w;
       w.wakupNeighborWorker = this;
     }
+    
+    /**
+     * Enables work stealing between this worker and the other provided workers.  Must be invoked 
+     * before starting, and before any tasks are added.
+     * 
+     * @param workers All workers in the pool, may include this worker
+     */
+    protected void enableWorkStealing(Worker[] workers) {
+      List<Worker> peers = new ArrayList<>(workers.length);
+      for (Worker w : workers) {
+        if (w != this) {
+          peers.add(w);
+        }
+      }
+      stealPeers = peers.toArray(new Worker[peers.size()]);
+      queuedCount = new AtomicInteger();
+      stolenTasks = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Enables this workers thread to set its stripe on the provided generator once started.  Must
+     * be invoked before starting.
+     *
+     * @param stripeGenerator Generator the executor distributes tasks with
+     * @param stripe Stripe which will distribute tasks to this worker
+     */
+    protected void enableSubmitterAffinity(SubmitterAffinityStripeGenerator stripeGenerator,
+                                           int stripe) {
+      affinityStripeGenerator = stripeGenerator;
+      affinityStripe = stripe;
+    }
 
     @Override
     protected void startupService() {
@@ -383,57 +678,471 @@ public class UnfairExecutor extends AbstractSubmitterExecutor {
       LockSupport.unpark(thread);
     }
     
-    public void addTask(Runnable task) {
-      taskQueue.add(task);
+    /**
+     * Wakes this worker if it is currently idle.
+     * 
+     * @since 5.37
+     */
+    protected void wakeIfIdle() {
       if (parked) {
         parked = false;
         LockSupport.unpark(thread);
-      } else if (wakupNeighborWorker.parked) {
-        wakupNeighborWorker.parked = false;
-        LockSupport.unpark(wakupNeighborWorker.thread);
+      }
+    }
+    
+    public void addTask(Runnable task) {
+      if (queuedCount != null) {
+        // increment first so the count is never below the number of stealable tasks
+        queuedCount.incrementAndGet();
+      }
+      taskQueue.add(task);
+      signalTasksAdded();
+    }
+
+    /**
+     * Adds a range of tasks from the provided array.  Any idle threads will be woken only once,
+     * after all the tasks have been queued.
+     *
+     * @since 5.37
+     * @param tasks Array containing tasks to add
+     * @param start Index of the first task to add (inclusive)
+     * @param end Index of the last task to add (exclusive)
+     */
+    public void addTasks(Runnable[] tasks, int start, int end) {
+      if (queuedCount != null) {
+        queuedCount.addAndGet(end - start);
+      }
+      for (int i = start; i < end; i++) {
+        taskQueue.add(tasks[i]);
+      }
+      signalTasksAdded();
+    }
+
+    /**
+     * Wakes this worker if idle, or otherwise a worker which may be able to assist.  Invoked after
+     * tasks have been added to the queue.
+     */
+    private void signalTasksAdded() {
+      if (parked) {
+        wakeIfIdle();
+      } else if (stealPeers == null || queuedCount.get() <= WORK_STEALING_WAKE_THRESHOLD || 
+                 ! wakeIdlePeer()) {
+        // even when stealing our neighbor must be woken, or tasks queued behind a long running 
+        // task could wait after every other worker has gone idle
+        if (wakupNeighborWorker.parked) {
+          wakupNeighborWorker.parked = false;
+          LockSupport.unpark(wakupNeighborWorker.thread);
+        }
+      }
+    }
+    
+    /**
+     * Wakes up an idle worker (if any can be found in a limited number of probes) so that it can 
+     * steal tasks from this worker.
+     * 
+     * @return {@code true} if an idle worker was woken
+     */
+    private boolean wakeIdlePeer() {
+      if (stealPeers.length == 0) {
+        return false;
+      }
+      int start = ThreadLocalRandom.current().nextInt(stealPeers.length);
+      int probes = Math.min(WORK_STEALING_VICTIM_PROBES, stealPeers.length);
+      for (int i = 0; i < probes; i++) {
+        Worker w = stealPeers[(start + i) % stealPeers.length];
+        if (w.parked) {
+          w.parked = false;
+          LockSupport.unpark(w.thread);
+          return true;
+        }
+      }
+      return false;
+    }
+    
+    /**
+     * Attempts to steal tasks from another worker.  Workers are scanned from a random start, and 
+     * the worker with the longest queue from the first few found to have tasks is selected.  Half 
+     * of that queue (up to {@link UnfairExecutor#WORK_STEALING_MAX_BATCH}) is then taken.  The first stolen task 
+     * is returned, the remaining are placed into {@link #stolenTasks} to be run next.
+     * 
+     * @return A stolen task to run, or {@code null} if no tasks could be stolen
+     */
+    private Runnable stealTasks() {
+      Worker victim = null;
+      int victimQueueSize = 0;
+      if (stealPeers.length > 0) {
+        int start = ThreadLocalRandom.current().nextInt(stealPeers.length);
+        int probes = 0;
+        for (int i = 0; i < stealPeers.length && probes < WORK_STEALING_VICTIM_PROBES; i++) {
+          Worker w = stealPeers[(start + i) % stealPeers.length];
+          int queueSize = w.queuedCount.get();
+          if (queueSize > 0) {
+            probes++;
+            if (queueSize > victimQueueSize) {
+              victim = w;
+              victimQueueSize = queueSize;
+            }
+          }
+        }
+      }
+      if (victim == null) {
+        return null;
+      }
+      
+      int stealCount = Math.min(WORK_STEALING_MAX_BATCH, (victimQueueSize + 1) / 2);
+      Runnable result = null;
+      for (int i = 0; i < stealCount; i++) {
+        Runnable task = victim.taskQueue.poll();
+        if (task == null) {
+          break;
+        }
+        victim.queuedCount.decrementAndGet();
+        if (task instanceof ShutdownTask) {
+          // must be run by its own worker, tasks which were queued before it have been taken
+          victim.addTask(task);
+          break;
+        } else if (result == null) {
+          result = task;
+        } else {
+          stolenTasks.add(task);
+        }
+      }
+      return result;
+    }
+    
+    /**
+     * Checks if a task in the queue was added by the executor itself, rather than submitted.
+     * 
+     * @since 5.37
+     * @param task Task from the queue
+     * @return {@code true} if the task is internal and should not be reported as queued
+     */
+    protected static boolean isInternalTask(Runnable task) {
+      return task instanceof ShutdownTask || task instanceof StartupTask;
+    }
+    
+    /**
+     * Removes all tasks which are queued in this worker and adds them to the provided list.
+     * 
+     * @since 5.37
+     * @param result List to add queued tasks to
+     */
+    protected void drainTasks(List<Runnable> result) {
+      Runnable task;
+      while ((task = taskQueue.poll()) != null) {
+        if (! isInternalTask(task)) {
+          result.add(task);
+        }
+      }
+      if (stolenTasks != null) {
+        while ((task = stolenTasks.poll()) != null) {
+          result.add(task);
+        }
+      }
+    }
+    
+    /**
+     * Invoked by the worker thread once it has been stopped through {@link #shutdown()}.  Any 
+     * remaining tasks are dropped.
+     * 
+     * @since 5.37
+     */
+    protected void clearTasks() {
+      taskQueue.clear();
+      if (queuedCount != null) {
+        queuedCount.set(0);
+      }
+    }
+    
+    /**
+     * Invoked by the worker thread each time it checks its queue, before running a queued task 
+     * or going idle.  The default implementation has no delayed tasks.
+     * 
+     * @since 5.37
+     * @return {@code 0} if tasks were run, otherwise the maximum nanoseconds to remain idle
+     */
+    protected long runDelayedTasks() {
+      return Long.MAX_VALUE;
+    }
+    
+    /**
+     * Runs the provided task on the worker thread, handling any thrown failure.  If the task 
+     * left the thread interrupted the status is reset, so that it does not leak into the next 
+     * task.
+     * 
+     * @since 5.37
+     * @param task Task to run
+     */
+    protected void runTask(Runnable task) {
+      try {
+        task.run();
+      } catch (Throwable t) {
+        ExceptionUtils.handleException(t);
+      }
+      // only clear if set, checking is cheaper than clearing for every task
+      if (thread.isInterrupted()) {
+        Thread.interrupted();
       }
     }
     
     @Override
     public void run() {
+      if (affinityStripeGenerator != null) {
+        affinityStripeGenerator.setCurrentThreadStripe(affinityStripe);
+      }
+      if (stealPeers != null) {
+        runWorkStealing();
+        return;
+      }
+      int idleCount = 0;
       while (isRunning()) {
         Runnable task = taskQueue.poll();
-        // just reset status, we should only shutdown by having the service stopped
-        Thread.interrupted();
-        if (task != null) {
+        long maxIdleNanos = runDelayedTasks();
+        if (task != null || maxIdleNanos == 0) {
           if (parked) {
             parked = false;
           }
-          try {
-            task.run();
-          } catch (Throwable t) {
-            ExceptionUtils.handleException(t);
+          if (idleCount > 0) {
+            idleStrategy.idleEnded(idleCount);
+            idleCount = 0;
+          }
+          if (task != null) {
+            runTask(task);
           }
         } else if (! parked) {
           // check neighbor worker to see if they need help
           task = checkNeighborWorker.taskQueue.poll();
           if (task != null) {
-            try {
-              task.run();
-            } catch (Throwable t) {
-              ExceptionUtils.handleException(t);
-            }
+            runTask(task);
           } else {
             parked = true;
           }
         } else {
-          LockSupport.park();
+          // just reset status, we should only shutdown by having the service stopped
+          Thread.interrupted();
+          idleStrategy.idle(idleCount++, maxIdleNanos);
+        }
+      }
+    }
+    
+    /**
+     * Run loop used instead of {@link #run()} when work stealing is enabled.  Stolen tasks are 
+     * run first, then this workers own queue, and finally other workers are checked for tasks to 
+     * steal before going idle.
+     */
+    private void runWorkStealing() {
+      int idleCount = 0;
+      while (isRunning()) {
+        Runnable task = stolenTasks.poll();
+        if (task == null) {
+          task = taskQueue.poll();
+          if (task != null) {
+            queuedCount.decrementAndGet();
+          } else {
+            task = stealTasks();
+          }
+        }
+        long maxIdleNanos = runDelayedTasks();
+        if (task != null || maxIdleNanos == 0) {
+          if (parked) {
+            parked = false;
+          }
+          if (idleCount > 0) {
+            idleStrategy.idleEnded(idleCount);
+            idleCount = 0;
+          }
+          if (task != null) {
+            runTask(task);
+          }
+        } else if (! parked) {
+          // check for tasks once more after being marked as parked so no wake up is missed
+          parked = true;
+        } else {
+          // just reset status, we should only shutdown by having the service stopped
+          Thread.interrupted();
+          idleStrategy.idle(idleCount++, maxIdleNanos);
         }
       }
     }
   }
   
+  /**
+   * Bounded array backed task queue, used instead of {@link ConcurrentLinkedQueue} so that no
+   * allocation is necessary per task.  Though each thread only has a single owner consuming from
+   * its queue, neighboring threads may also poll to assist (or steal), so this is safe for many
+   * producers and many consumers.  Each slot has a sequence which producers and consumers use to
+   * claim the slot, so threads only contend on the head or tail position.
+   * <p>
+   * If the ring is full tasks will be added to an overflow {@link ConcurrentLinkedQueue}.  New
+   * tasks will continue to be added to the overflow queue until it is drained, and tasks in the
+   * ring are consumed before those in the overflow queue.
+   * <p>
+   * Iteration is weakly consistent, and does not support removal.
+   *
+   * @since 5.37
+   */
+  protected static class RingTaskQueue extends AbstractQueue<Runnable> {
+    protected final AtomicReferenceArray<Runnable> ring;
+    protected final AtomicLongArray sequences;
+    protected final int mask;
+    protected final AtomicLong head;  // next position to be consumed
+    protected final AtomicLong tail;  // next position to be produced
+    protected final Queue<Runnable> overflowQueue;
+
+    /**
+     * Constructs a new {@link RingTaskQueue}.  The capacity will be rounded up to the next power
+     * of two (and at least two).
+     *
+     * @param capacity Minimum capacity of the ring
+     */
+    public RingTaskQueue(int capacity) {
+      ArgumentVerifier.assertGreaterThanZero(capacity, "capacity");
+
+      int size = 2;
+      while (size < capacity) {
+        size <<= 1;
+      }
+      this.ring = new AtomicReferenceArray<>(size);
+      this.sequences = new AtomicLongArray(size);
+      for (int i = 0; i < size; i++) {
+        sequences.set(i, i);
+      }
+      this.mask = size - 1;
+      this.head = new AtomicLong(0);
+      this.tail = new AtomicLong(0);
+      this.overflowQueue = new ConcurrentLinkedQueue<>();
+    }
+
+    @Override
+    public boolean offer(Runnable task) {
+      ArgumentVerifier.assertNotNull(task, "task");
+
+      if (overflowQueue.isEmpty()) {
+        while (true) {
+          long pos = tail.get();
+          int index = (int)pos & mask;
+          long seq = sequences.get(index);
+          if (seq == pos) {
+            if (tail.compareAndSet(pos, pos + 1)) {
+              ring.lazySet(index, task);
+              sequences.set(index, pos + 1);  // publish to consumers
+              return true;
+            }
+          } else if (seq < pos) {
+            // slot from previous lap has not been consumed yet
+            break;
+          } // else another producer has advanced the tail, retry
+        }
+      }
+      return overflowQueue.add(task);
+    }
+
+    @Override
+    public Runnable poll() {
+      while (true) {
+        long pos = head.get();
+        int index = (int)pos & mask;
+        long seq = sequences.get(index);
+        if (seq == pos + 1) {
+          if (head.compareAndSet(pos, pos + 1)) {
+            Runnable result = ring.get(index);
+            ring.lazySet(index, null);
+            sequences.set(index, pos + mask + 1);  // release to producers for the next lap
+            return result;
+          }
+        } else if (seq <= pos) {
+          // ring is empty (or a producer has not yet published)
+          return overflowQueue.poll();
+        } // else another consumer has advanced the head, retry
+      }
+    }
+
+    @Override
+    public Runnable peek() {
+      long pos = head.get();
+      int index = (int)pos & mask;
+      Runnable result = sequences.get(index) == pos + 1 ? ring.get(index) : null;
+      if (result == null) {
+        result = overflowQueue.peek();
+      }
+      return result;
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return peek() == null;
+    }
+
+    @Override
+    public int size() {
+      long ringSize = tail.get() - head.get();
+      return (int)Math.max(0, Math.min(ringSize, mask + 1)) + overflowQueue.size();
+    }
+
+    @Override
+    public Iterator<Runnable> iterator() {
+      final long startPos = head.get();
+      final long endPos = tail.get();
+      final Iterator<Runnable> overflowIt = overflowQueue.iterator();
+      return new Iterator<Runnable>() {
+        private long pos = startPos;
+        private Runnable next = null;
+
+        @Override
+        public boolean hasNext() {
+          while (next == null && pos < endPos) {
+            int index = (int)pos & mask;
+            if (sequences.get(index) == pos + 1) {
+              next = ring.get(index);
+            }
+            pos++;
+          }
+          if (next == null && overflowIt.hasNext()) {
+            next = overflowIt.next();
+          }
+          return next != null;
+        }
+
+        @Override
+        public Runnable next() {
+          if (! hasNext()) {
+            throw new NoSuchElementException();
+          }
+          Runnable result = next;
+          next = null;
+          return result;
+        }
+      };
+    }
+  }
+
+  /**
+   * Task run by the first worker to start all the other workers.  This is done once the full 
+   * neighbor chain is established during construction.
+   * 
+   * @since 5.37
+   */
+  protected static class StartupTask implements Runnable {
+    private final Worker[] workers;
+    
+    public StartupTask(Worker[] workers) {
+      this.workers = workers;
+    }
+    
+    @Override
+    public void run() {
+      for (int i = 1; i < workers.length; i++) {
+        workers[i].start();
+      }
+    }
+  }
+
   /**
    * Task for shutting down worker thread.  Used in {@link #shutdown()}.
    * 
    * @since 4.5.0
    */
-  private static class ShutdownTask implements Runnable {
+  protected static class ShutdownTask implements Runnable {
     private final Worker w;
     
     public ShutdownTask(Worker w) {
@@ -443,7 +1152,7 @@ public class UnfairExecutor extends AbstractSubmitterExecutor {
     @Override
     public void run() {
       w.stopIfRunning();
-      w.taskQueue.clear();
+      w.clearTasks();
     }
   }
 }
@@ -0,0 +1,554 @@
+package org.threadly.concurrent;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Predicate;
+
+import org.threadly.concurrent.future.ListenableFuture;
+import org.threadly.concurrent.future.ListenableFutureTask;
+import org.threadly.util.ArgumentVerifier;
+import org.threadly.util.Clock;
+
+/**
+ * A {@link SchedulerService} extending {@link UnfairExecutor}, which can also run delayed and
+ * recurring tasks.  Each thread has its own execution queue, and tasks are distributed to threads
+ * by a {@link TaskStripeGenerator}.  There are no guarantees about the order tasks execute in,
+ * even if submitted with no delay.
+ * <p>
+ * Rather than one shared structure for delayed tasks, each thread maintains its own timer heap.
+ * The heap is only modified by its thread, which checks it for ready tasks between each task
+ * from its execution queue, and will wait no longer than the next delayed task when idle.  This
+ * allows large numbers of delayed tasks (for example timeouts) to be scheduled in parallel
+ * without contending on a shared scheduling lock.  Recurring tasks will always be rescheduled
+ * on the same thread.
+ * <p>
+ * On {@link #shutdown()} delayed tasks which have not yet reached their run time are dropped, and
+ * recurring tasks will not be rescheduled.
+ * <p>
+ * The same recommendations as {@link UnfairExecutor} apply.  Tasks should be similarly sized,
+ * since a long running task will delay any other tasks (including delayed tasks) distributed to
+ * its thread.
+ *
+ * @since 5.37
+ */
+public class UnfairScheduler extends UnfairExecutor implements SchedulerService {
+  /**
+   * Constructs a new {@link UnfairScheduler} with a provided thread count.  This defaults to
+   * using daemon threads.  This also defaults to using the {@link TaskHashXorTimeStripeGenerator}.
+   *
+   * @param threadCount Number of threads, recommended to be a prime number
+   */
+  public UnfairScheduler(int threadCount) {
+    this(threadCount, true);
+  }
+
+  /**
+   * Constructs a new {@link UnfairScheduler} with a provided thread count.  This also defaults
+   * to using the {@link TaskHashXorTimeStripeGenerator}.
+   *
+   * @param threadCount Number of threads, recommended to be a prime number
+   * @param useDaemonThreads {@code true} if created threads should be daemon
+   */
+  public UnfairScheduler(int threadCount, boolean useDaemonThreads) {
+    this(threadCount,
+         new ConfigurableThreadFactory(UnfairScheduler.class.getSimpleName() + "-", true,
+                                       useDaemonThreads, Thread.NORM_PRIORITY, null, null));
+  }
+
+  /**
+   * Constructs a new {@link UnfairScheduler} with a provided thread count and factory.  This
+   * also defaults to using the {@link TaskHashXorTimeStripeGenerator}.
+   *
+   * @param threadCount Number of threads, recommended to be a prime number
+   * @param threadFactory thread factory for producing new threads within scheduler
+   */
+  public UnfairScheduler(int threadCount, ThreadFactory threadFactory) {
+    this(threadCount, threadFactory, TaskHashXorTimeStripeGenerator.instance());
+  }
+
+  /**
+   * Constructs a new {@link UnfairScheduler} with a provided thread count and factory.
+   * <p>
+   * Possible built in stripe generators for use would be
+   * {@link UnfairExecutor.AtomicStripeGenerator} or {@link TaskHashXorTimeStripeGenerator}.
+   *
+   * @param threadCount Number of threads, recommended to be a prime number
+   * @param threadFactory thread factory for producing new threads within scheduler
+   * @param stripeGenerator Generator for figuring out how a task is assigned to a thread
+   */
+  public UnfairScheduler(int threadCount, ThreadFactory threadFactory,
+                         TaskStripeGenerator stripeGenerator) {
+    super(threadCount, threadFactory, stripeGenerator);
+  }
+
+  @Override
+  protected Worker makeWorker(ThreadFactory threadFactory, int queueRingCapacity) {
+    return new SchedulingWorker(threadFactory, queueRingCapacity);
+  }
+
+  /**
+   * Selects the worker a task should be distributed on to.  If the pool has been shutdown a
+   * {@link java.util.concurrent.RejectedExecutionException} will be thrown.
+   *
+   * @param task Task which is being submitted
+   * @return Worker to provide the task to
+   */
+  private SchedulingWorker getSchedulingWorker(Runnable task) {
+    return (SchedulingWorker)getWorker(task);
+  }
+
+  /**
+   * Schedules the task on the worker selected by its stripe.  Tasks with no delay are added
+   * directly to the workers execution queue.
+   *
+   * @param task Task to execute
+   * @param delayInMillis Delay before the task may run, or {@code 0} to run immediately
+   */
+  protected void doSchedule(Runnable task, long delayInMillis) {
+    SchedulingWorker w = getSchedulingWorker(task);
+    if (delayInMillis == 0) {
+      w.addTask(task);
+    } else {
+      w.addScheduledTask(new OneTimeScheduledTask(task,
+                                                  Clock.accurateForwardProgressingMillis() +
+                                                    delayInMillis));
+    }
+  }
+
+  @Override
+  public void schedule(Runnable task, long delayInMs) {
+    ArgumentVerifier.assertNotNull(task, "task");
+    ArgumentVerifier.assertNotNegative(delayInMs, "delayInMs");
+
+    doSchedule(task, delayInMs);
+  }
+
+  @Override
+  public <T> ListenableFuture<T> submitScheduled(Runnable task, T result, long delayInMs) {
+    return submitScheduled(RunnableCallableAdapter.adapt(task, result), delayInMs);
+  }
+
+  @Override
+  public <T> ListenableFuture<T> submitScheduled(Callable<T> task, long delayInMs) {
+    ArgumentVerifier.assertNotNull(task, "task");
+    ArgumentVerifier.assertNotNegative(delayInMs, "delayInMs");
+
+    ListenableFutureTask<T> lft = new ListenableFutureTask<>(false, task, this);
+
+    doSchedule(lft, delayInMs);
+
+    return lft;
+  }
+
+  @Override
+  public void scheduleWithFixedDelay(Runnable task, long initialDelay, long recurringDelay) {
+    ArgumentVerifier.assertNotNull(task, "task");
+    ArgumentVerifier.assertNotNegative(initialDelay, "initialDelay");
+    ArgumentVerifier.assertNotNegative(recurringDelay, "recurringDelay");
+
+    getSchedulingWorker(task)
+        .addScheduledTask(new RecurringScheduledTask(task,
+                                                     Clock.accurateForwardProgressingMillis() +
+                                                       initialDelay,
+                                                     recurringDelay, false));
+  }
+
+  @Override
+  public void scheduleAtFixedRate(Runnable task, long initialDelay, long period) {
+    ArgumentVerifier.assertNotNull(task, "task");
+    ArgumentVerifier.assertNotNegative(initialDelay, "initialDelay");
+    ArgumentVerifier.assertGreaterThanZero(period, "period");
+
+    getSchedulingWorker(task)
+        .addScheduledTask(new RecurringScheduledTask(task,
+                                                     Clock.accurateForwardProgressingMillis() +
+                                                       initialDelay,
+                                                     period, true));
+  }
+
+  @Override
+  public boolean remove(Runnable task) {
+    if (task == null) {
+      return false;
+    }
+    for (Worker w : schedulers) {
+      if (((SchedulingWorker)w).remove((r) -> ContainerHelper.isContained(r, task))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean remove(Callable<?> task) {
+    if (task == null) {
+      return false;
+    }
+    for (Worker w : schedulers) {
+      if (((SchedulingWorker)w).remove((r) -> ContainerHelper.isContained(r, task))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public int getActiveTaskCount() {
+    int result = 0;
+    for (Worker w : schedulers) {
+      if (((SchedulingWorker)w).runningTask) {
+        result++;
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public int getQueuedTaskCount() {
+    int result = 0;
+    for (Worker w : schedulers) {
+      result += ((SchedulingWorker)w).getQueuedTaskCount(Long.MAX_VALUE);
+    }
+    return result;
+  }
+
+  @Override
+  public int getWaitingForExecutionTaskCount() {
+    long now = Clock.accurateForwardProgressingMillis();
+    int result = 0;
+    for (Worker w : schedulers) {
+      result += ((SchedulingWorker)w).getQueuedTaskCount(now);
+    }
+    return result;
+  }
+
+  /**
+   * Worker which in addition to the execution queue maintains a timer heap of delayed tasks.
+   * Delayed tasks are provided through a separate queue, and then moved by the worker thread
+   * into its heap.  Only the worker thread modifies the heap, so the lock on the heap is only
+   * contended if another thread is inspecting it (for example to remove a task).
+   *
+   * @since 5.37
+   */
+  protected static class SchedulingWorker extends Worker {
+    protected final Queue<ScheduledTask> scheduleSubmissions;
+    // modifications must be done while synchronized on the heap, only done by the worker thread
+    protected final PriorityQueue<ScheduledTask> scheduleHeap;
+    private volatile boolean runningTask;
+    // only accessed by the worker thread
+    private long scheduleSequence;
+
+    public SchedulingWorker(ThreadFactory threadFactory, int queueRingCapacity) {
+      super(threadFactory, queueRingCapacity);
+
+      scheduleSubmissions = new ConcurrentLinkedQueue<>();
+      scheduleHeap = new PriorityQueue<>();
+      runningTask = false;
+      scheduleSequence = 0;
+    }
+
+    public void addScheduledTask(ScheduledTask task) {
+      scheduleSubmissions.add(task);
+      // wake so that the idle time can be reduced if necessary
+      wakeIfIdle();
+    }
+
+    /**
+     * Attempt to remove a task which matches the provided predicate.  Scheduled tasks are
+     * searched in the submission queue before the heap, and moved into the heap while holding
+     * the heap lock, so a task can not be missed while it is being moved.
+     *
+     * @param matcher Predicate to test queued tasks against
+     * @return {@code true} if a task was removed
+     */
+    protected boolean remove(Predicate<Runnable> matcher) {
+      Iterator<Runnable> it = taskQueue.iterator();
+      while (it.hasNext()) {
+        Runnable r = it.next();
+        // we use remove() instead of it.remove() so we know if we removed it before it ran
+        if (! isInternalTask(r) && matcher.test(r) && taskQueue.remove(r)) {
+          return true;
+        }
+      }
+      for (ScheduledTask st : scheduleSubmissions) {
+        if (matcher.test(st.task) && st.invalidate()) {
+          return true;
+        }
+      }
+      synchronized (scheduleHeap) {
+        for (ScheduledTask st : scheduleHeap) {
+          if (matcher.test(st.task) && st.invalidate()) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Counts the tasks waiting in this worker.
+     *
+     * @param readyTime Only count delayed tasks with a run time at or before this time
+     * @return Number of queued tasks
+     */
+    protected int getQueuedTaskCount(long readyTime) {
+      int result = 0;
+      for (Runnable r : taskQueue) {
+        if (! isInternalTask(r)) {
+          result++;
+        }
+      }
+      for (ScheduledTask st : scheduleSubmissions) {
+        if (st.isQueued() && st.runTime <= readyTime) {
+          result++;
+        }
+      }
+      synchronized (scheduleHeap) {
+        for (ScheduledTask st : scheduleHeap) {
+          if (st.isQueued() && st.runTime <= readyTime) {
+            result++;
+          }
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Invalidates all delayed tasks, adding the ones which were still queued to the provided
+     * list.  Tasks are left in the heap (which may only be modified by the worker thread), and
+     * will be dropped as they are reached.
+     *
+     * @param result List to add queued tasks to
+     */
+    private void invalidateScheduledTasks(List<Runnable> result) {
+      ScheduledTask st;
+      while ((st = scheduleSubmissions.poll()) != null) {
+        if (st.invalidate() && result != null) {
+          result.add(st.task);
+        }
+      }
+      synchronized (scheduleHeap) {
+        for (ScheduledTask heapTask : scheduleHeap) {
+          if (heapTask.invalidate() && result != null) {
+            result.add(heapTask.task);
+          }
+        }
+      }
+    }
+
+    @Override
+    protected void drainTasks(List<Runnable> result) {
+      super.drainTasks(result);
+      invalidateScheduledTasks(result);
+    }
+
+    @Override
+    protected void clearTasks() {
+      super.clearTasks();
+      invalidateScheduledTasks(null);
+    }
+
+    /**
+     * Moves any submitted delayed tasks into the heap, and then runs delayed tasks which are
+     * ready.  Tasks which become ready by being rescheduled during this invocation will not be
+     * run until the next invocation, so that the execution queue is not starved by recurring
+     * tasks.
+     *
+     * @return {@code 0} if tasks were run, otherwise the nanoseconds till the next delayed task,
+     *           or {@link Long#MAX_VALUE} if there are none
+     */
+    @Override
+    protected long runDelayedTasks() {
+      if (! scheduleSubmissions.isEmpty()) {
+        synchronized (scheduleHeap) {
+          ScheduledTask st;
+          while ((st = scheduleSubmissions.poll()) != null) {
+            if (st.isQueued()) {
+              st.sequence = scheduleSequence++;
+              scheduleHeap.add(st);
+            }
+          }
+        }
+      }
+
+      long passSequence = scheduleSequence;
+      boolean ranTask = false;
+      ScheduledTask st;
+      while ((st = scheduleHeap.peek()) != null) {
+        if (! st.isQueued()) {
+          synchronized (scheduleHeap) {
+            scheduleHeap.poll();
+          }
+          continue;
+        } else if (st.sequence >= passSequence) {
+          // rescheduled during this pass
+          return 0;
+        }
+        long delay = st.runTime - Clock.lastKnownForwardProgressingMillis();
+        if (delay > 0) {
+          delay = st.runTime - Clock.accurateForwardProgressingMillis();
+          if (delay > 0) {
+            return ranTask ? 0 : delay * Clock.NANOS_IN_MILLISECOND;
+          }
+        }
+
+        synchronized (scheduleHeap) {
+          scheduleHeap.poll();
+        }
+        if (st.run(this)) {
+          ranTask = true;
+          if (st.isQueued() && isRunning()) {
+            st.sequence = scheduleSequence++;
+            synchronized (scheduleHeap) {
+              scheduleHeap.add(st);
+            }
+          }
+        }
+      }
+      return ranTask ? 0 : Long.MAX_VALUE;
+    }
+
+    /**
+     * Runs the provided task, handling any failure and tracking that a task is active.
+     *
+     * @param task Task to run
+     */
+    @Override
+    protected void runTask(Runnable task) {
+      runningTask = true;
+      try {
+        super.runTask(task);
+      } finally {
+        runningTask = false;
+      }
+    }
+  }
+
+  /**
+   * Container for a delayed task.  Tasks are ordered by their run time, and then by the order
+   * they were added into the heap.  A task may be invalidated once, either to remove it or to
+   * claim it for execution.
+   *
+   * @since 5.37
+   */
+  protected abstract static class ScheduledTask implements RunnableContainer,
+                                                           Comparable<ScheduledTask> {
+    private static final AtomicIntegerFieldUpdater<ScheduledTask> INVALIDATED_UPDATER =
+        AtomicIntegerFieldUpdater.newUpdater(ScheduledTask.class, "invalidated");
+
+    protected final Runnable task;
+    protected volatile long runTime;
+    // only set and read by the worker thread
+    protected long sequence;
+    private volatile int invalidated;
+
+    protected ScheduledTask(Runnable task, long runTime) {
+      this.task = task;
+      this.runTime = runTime;
+      this.sequence = -1;
+      this.invalidated = 0;
+    }
+
+    /**
+     * Check if the task is still queued to run.
+     *
+     * @return {@code false} if the task has been removed or claimed for execution
+     */
+    public boolean isQueued() {
+      return invalidated == 0;
+    }
+
+    /**
+     * Invalidates the task so that it will not be run.
+     *
+     * @return {@code true} if this call invalidated the task
+     */
+    public boolean invalidate() {
+      return invalidated == 0 && INVALIDATED_UPDATER.compareAndSet(this, 0, 1);
+    }
+
+    /**
+     * Invoked by the worker thread to run the task once its run time has been reached.  If the
+     * task remains queued after this returns, it will be added back into the heap with the
+     * updated {@link #runTime}.
+     *
+     * @param worker Worker which is running the task
+     * @return {@code true} if the task was run
+     */
+    protected abstract boolean run(SchedulingWorker worker);
+
+    @Override
+    public Runnable getContainedRunnable() {
+      return task;
+    }
+
+    @Override
+    public int compareTo(ScheduledTask o) {
+      if (runTime == o.runTime) {
+        return Long.compare(sequence, o.sequence);
+      } else {
+        return Long.compare(runTime, o.runTime);
+      }
+    }
+  }
+
+  /**
+   * Delayed task which will only run once.
+   *
+   * @since 5.37
+   */
+  protected static class OneTimeScheduledTask extends ScheduledTask {
+    protected OneTimeScheduledTask(Runnable task, long runTime) {
+      super(task, runTime);
+    }
+
+    @Override
+    protected boolean run(SchedulingWorker worker) {
+      if (invalidate()) {
+        worker.runTask(task);
+        return true;
+      } else {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Delayed task which will be rescheduled after each execution, either at a fixed rate or with
+   * a fixed delay after the previous execution completes.
+   *
+   * @since 5.37
+   */
+  protected static class RecurringScheduledTask extends ScheduledTask {
+    protected final long recurringDelay;
+    protected final boolean fixedRate;
+
+    protected RecurringScheduledTask(Runnable task, long runTime,
+                                     long recurringDelay, boolean fixedRate) {
+      super(task, runTime);
+
+      this.recurringDelay = recurringDelay;
+      this.fixedRate = fixedRate;
+    }
+
+    @Override
+    protected boolean run(SchedulingWorker worker) {
+      if (! isQueued()) {
+        return false;
+      }
+      worker.runTask(task);
+      if (fixedRate) {
+        runTime += recurringDelay;
+      } else {
+        runTime = Clock.accurateForwardProgressingMillis() + recurringDelay;
+      }
+      return true;
+    }
+  }
+}
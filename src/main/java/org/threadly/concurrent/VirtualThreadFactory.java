@@ -0,0 +1,121 @@
+package org.threadly.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A {@link ThreadFactory} which produces virtual threads when run on a JVM which supports them
+ * (Java 21+).  Since threadly is built for Java 8, virtual threads are constructed through
+ * reflection of {@code Thread.ofVirtual()}.  If virtual threads are not available this will
+ * gracefully fall back to producing daemon platform threads through a
+ * {@link ConfigurableThreadFactory}.  {@link #isVirtualThreadSupported()} can be used to check
+ * which behavior will be provided.
+ * <p>
+ * Virtual threads are always daemon threads, and priority can not be changed.  This factory is
+ * best combined with {@link ThreadPerTaskScheduler}, so that each blocking task can run on its own
+ * thread without requiring an OS thread for each.
+ *
+ * @since 5.37
+ */
+public class VirtualThreadFactory implements ThreadFactory {
+  protected static final String DEFAULT_THREAD_NAME_PREFIX = "VirtualThread-";
+  private static final Method OF_VIRTUAL_METHOD;
+  private static final Method BUILDER_NAME_METHOD;
+  private static final Method BUILDER_FACTORY_METHOD;
+
+  static {
+    Method ofVirtual = null;
+    Method builderName = null;
+    Method builderFactory = null;
+    try {
+      ofVirtual = Thread.class.getMethod("ofVirtual");
+      // reflect from the public interface, the implementing classes are not accessible
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      builderName = builderClass.getMethod("name", String.class, long.class);
+      builderFactory = builderClass.getMethod("factory");
+      // verify construction works, it may fail on versions where virtual threads are a preview
+      makeVirtualThreadFactory(ofVirtual, builderName, builderFactory, DEFAULT_THREAD_NAME_PREFIX);
+    } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+      ofVirtual = null;
+      builderName = null;
+      builderFactory = null;
+    }
+    OF_VIRTUAL_METHOD = ofVirtual;
+    BUILDER_NAME_METHOD = builderName;
+    BUILDER_FACTORY_METHOD = builderFactory;
+  }
+
+  private static ThreadFactory makeVirtualThreadFactory(Method ofVirtual, Method builderName,
+                                                        Method builderFactory,
+                                                        String threadNamePrefix)
+      throws ReflectiveOperationException {
+    Object builder = ofVirtual.invoke(null);
+    builder = builderName.invoke(builder, threadNamePrefix, 1L);
+    return (ThreadFactory)builderFactory.invoke(builder);
+  }
+
+  /**
+   * Check if the running JVM supports virtual threads.  If {@code false} is returned, constructed
+   * factories will produce platform threads instead.
+   *
+   * @return {@code true} if virtual threads will be produced
+   */
+  public static boolean isVirtualThreadSupported() {
+    return OF_VIRTUAL_METHOD != null;
+  }
+
+  protected final ThreadFactory delegateFactory;
+  protected final boolean virtual;
+
+  /**
+   * Constructs a new {@link VirtualThreadFactory} with a default thread name prefix.
+   */
+  public VirtualThreadFactory() {
+    this(null);
+  }
+
+  /**
+   * Constructs a new {@link VirtualThreadFactory}.  Produced threads will be named with the
+   * provided prefix, followed by an incrementing number.
+   *
+   * @param threadNamePrefix prefix for all threads created, {@code null} to use the default
+   */
+  public VirtualThreadFactory(String threadNamePrefix) {
+    if (threadNamePrefix == null) {
+      threadNamePrefix = DEFAULT_THREAD_NAME_PREFIX;
+    }
+
+    ThreadFactory virtualFactory = null;
+    if (OF_VIRTUAL_METHOD != null) {
+      try {
+        virtualFactory = makeVirtualThreadFactory(OF_VIRTUAL_METHOD, BUILDER_NAME_METHOD,
+                                                  BUILDER_FACTORY_METHOD, threadNamePrefix);
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        // should not be possible since it was verified in the static init, but fall back if so
+      }
+    }
+    if (virtualFactory == null) {
+      this.delegateFactory = new ConfigurableThreadFactory(threadNamePrefix, false, true,
+                                                           Thread.NORM_PRIORITY, null, null);
+      this.virtual = false;
+    } else {
+      this.delegateFactory = virtualFactory;
+      this.virtual = true;
+    }
+  }
+
+  /**
+   * Check if this factory is producing virtual threads, or if it has fallen back to producing
+   * platform threads.
+   *
+   * @return {@code true} if produced threads are virtual threads
+   */
+  public boolean isProducingVirtualThreads() {
+    return virtual;
+  }
+
+  @Override
+  public Thread newThread(Runnable r) {
+    return delegateFactory.newThread(r);
+  }
+}
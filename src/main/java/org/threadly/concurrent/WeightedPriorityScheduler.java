@@ -0,0 +1,444 @@
+package org.threadly.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.threadly.util.ArgumentVerifier;
+import org.threadly.util.Clock;
+
+/**
+ * A {@link PriorityScheduler} which shares its threads between any number of weighted task
+ * classes, rather than the high / low / starvable priorities with a max wait for low priority
+ * tasks.  When threads are contended each class which has tasks ready to run will receive a share
+ * of executions proportional to its weight.  For example with weights {@code 8, 4, 2, 1} the first
+ * class will execute roughly eight tasks for every one task executed from the last class.  No
+ * class with a positive weight is ever starved.
+ * <p>
+ * Proportional shares are provided using stride scheduling.  Each class has a stride which is
+ * inversely proportional to its weight, and a pass value which is advanced by the stride each
+ * time a task from that class is executed.  Threads always pick the ready task from the class
+ * with the lowest pass.  A class which has been idle does not accumulate credit, as it resumes at
+ * the pass of the most recently executed class.  Because shares are counted in executions (not
+ * execution time), this works best when tasks in each class are of similar duration.
+ * <p>
+ * Tasks are submitted to a weight class through the scheduler returned from
+ * {@link #getWeightClassScheduler(int)}.  Tasks submitted through the {@link TaskPriority}
+ * functions are mapped so that {@link TaskPriority#High} is the first class (index zero),
+ * {@link TaskPriority#Low} is the last class, and {@link TaskPriority#Starvable} tasks are still
+ * only executed when no weighted class has a task ready to run.  The max wait for low priority
+ * tasks has no impact on this scheduler.
+ * <p>
+ * Since the returned class schedulers are a {@link SchedulerService}, statistics per class can be
+ * collected by wrapping them with
+ * {@link org.threadly.concurrent.wrapper.statistics.ExecutorStatisticWrapper}.
+ *
+ * @since 5.37
+ */
+public class WeightedPriorityScheduler extends PriorityScheduler {
+  protected final WeightedQueueManager weightedQueueManager;
+  private final WeightClassScheduler[] weightClassSchedulers;
+
+  /**
+   * Constructs a new thread pool, though threads will be lazily started as it has tasks ready to
+   * run.  The number of weight classes is determined by the number of weights provided.  This
+   * defaults to all newly created threads being daemon threads.
+   *
+   * @param poolSize Thread pool size that should be maintained
+   * @param weights Weight for each task class, each must be at least one
+   */
+  public WeightedPriorityScheduler(int poolSize, int ... weights) {
+    this(poolSize, null, weights);
+  }
+
+  /**
+   * Constructs a new thread pool, though threads will be lazily started as it has tasks ready to
+   * run.  The number of weight classes is determined by the number of weights provided.
+   *
+   * @param poolSize Thread pool size that should be maintained
+   * @param threadFactory thread factory for producing new threads within executor
+   * @param weights Weight for each task class, each must be at least one
+   */
+  public WeightedPriorityScheduler(int poolSize, ThreadFactory threadFactory, int ... weights) {
+    this(poolSize, threadFactory, 0, weights);
+  }
+
+  /**
+   * Constructs a new thread pool, though threads will be lazily started as it has tasks ready to
+   * run.  The number of weight classes is determined by the number of weights provided.  If
+   * {@code scheduleTickMillis} is greater than zero, delayed tasks will be held in a timing wheel
+   * with that tick resolution until they are close to execution.
+   *
+   * @param poolSize Thread pool size that should be maintained
+   * @param threadFactory thread factory for producing new threads within executor
+   * @param scheduleTickMillis Tick resolution of timing wheel, or {@code 0} to use a sorted schedule queue
+   * @param weights Weight for each task class, each must be at least one
+   */
+  public WeightedPriorityScheduler(int poolSize, ThreadFactory threadFactory,
+                                   long scheduleTickMillis, int ... weights) {
+    this(new WorkerPool(threadFactory, poolSize), scheduleTickMillis, weights);
+  }
+
+  /**
+   * This constructor is designed for extending classes to be able to provide their own
+   * implementation of {@link WorkerPool}.  Ultimately all constructors will defer to this one.
+   *
+   * @param workerPool WorkerPool to handle accepting tasks and providing them to a worker for execution
+   * @param scheduleTickMillis Tick resolution of timing wheel, or {@code 0} to use a sorted schedule queue
+   * @param weights Weight for each task class, each must be at least one
+   */
+  protected WeightedPriorityScheduler(WorkerPool workerPool, long scheduleTickMillis,
+                                      int ... weights) {
+    this(workerPool, new WeightedQueueManager(workerPool, scheduleTickMillis, weights));
+  }
+
+  private WeightedPriorityScheduler(WorkerPool workerPool, WeightedQueueManager queueManager) {
+    super(workerPool, TaskPriority.High, queueManager);
+
+    this.weightedQueueManager = queueManager;
+    this.weightClassSchedulers = new WeightClassScheduler[queueManager.weightedQueueSets.length];
+    for (int i = 0; i < weightClassSchedulers.length; i++) {
+      weightClassSchedulers[i] = new WeightClassScheduler(i);
+    }
+  }
+
+  /**
+   * Check how many weight classes this scheduler was constructed with.
+   *
+   * @return Number of weight classes
+   */
+  public int getWeightClassCount() {
+    return weightClassSchedulers.length;
+  }
+
+  /**
+   * Get the weight which was provided at construction for a given class.
+   *
+   * @param weightClass Index of the weight class
+   * @return Weight of the class
+   */
+  public int getWeight(int weightClass) {
+    return weightedQueueManager.weights[weightClass];
+  }
+
+  /**
+   * Returns a {@link SchedulerService} which will submit all tasks into the specified weight
+   * class.  The returned scheduler shares the threads of this pool, so it can not be shutdown
+   * independently.  Functions for checking the queued tasks will only report tasks from this
+   * class, while the active task count will be for the entire pool.
+   *
+   * @param weightClass Index of the weight class, from zero to {@link #getWeightClassCount()} - 1
+   * @return Scheduler for submitting tasks into the weight class
+   */
+  public SchedulerService getWeightClassScheduler(int weightClass) {
+    if (weightClass < 0 || weightClass >= weightClassSchedulers.length) {
+      throw new IllegalArgumentException("No weight class: " + weightClass);
+    }
+    return weightClassSchedulers[weightClass];
+  }
+
+  @Override
+  public void shutdown() {
+    if (workerPool.startShutdown()) {
+      ShutdownRunnable sr = new ShutdownRunnable(workerPool);
+      // added as starvable so that all ready tasks in every weighted class are executed first
+      QueueSet queueSet = taskQueueManager.starvablePriorityQueueSet;
+      queueSet.addExecute(new ImmediateTaskWrapper(sr, queueSet.executeQueue));
+    }
+  }
+
+  @Override
+  public int getQueuedTaskCount() {
+    int result = taskQueueManager.starvablePriorityQueueSet.queueSize() - 1; // one for hack task
+    for (QueueSet queueSet : weightedQueueManager.weightedQueueSets) {
+      result += queueSet.queueSize();
+    }
+    return result;
+  }
+
+  @Override
+  public int getWaitingForExecutionTaskCount() {
+    int result = getWaitingForExecutionTaskCount(TaskPriority.Starvable);
+    for (WeightClassScheduler scheduler : weightClassSchedulers) {
+      result += scheduler.getWaitingForExecutionTaskCount();
+    }
+    return result;
+  }
+
+  @Override
+  public int getDeadTaskCount() {
+    int result = taskQueueManager.starvablePriorityQueueSet.getDeadTaskCount();
+    for (QueueSet queueSet : weightedQueueManager.weightedQueueSets) {
+      result += queueSet.getDeadTaskCount();
+    }
+    return result;
+  }
+
+  /**
+   * {@link QueueManager} which arbitrates between any number of weighted {@link QueueSet}'s
+   * using stride scheduling.  The {@link QueueManager#highPriorityQueueSet} is used for the
+   * first weight class, and {@link QueueManager#lowPriorityQueueSet} for the last (when there is
+   * more than one class).
+   *
+   * @since 5.37
+   */
+  protected static class WeightedQueueManager extends QueueManager {
+    protected static final long STRIDE_NUMERATOR = 1L << 20;
+
+    protected final int[] weights;
+    protected final QueueSet[] weightedQueueSets;
+    protected final long[] strides;
+    protected final AtomicLongArray passes;
+    private volatile long virtualTime; // pass of the most recently executed class
+
+    /**
+     * Constructs a new {@link WeightedQueueManager}.
+     *
+     * @param queueSetListener Listener to be invoked when the head of a queue has been updated
+     * @param scheduleTickMillis Tick resolution of timing wheel, or {@code 0} to use a sorted schedule queue
+     * @param weights Weight for each task class, each must be at least one
+     */
+    public WeightedQueueManager(QueueSetListener queueSetListener, long scheduleTickMillis,
+                                int ... weights) {
+      super(queueSetListener, DEFAULT_LOW_PRIORITY_MAX_WAIT_IN_MS, scheduleTickMillis);
+
+      ArgumentVerifier.assertNotNull(weights, "weights");
+      if (weights.length == 0) {
+        throw new IllegalArgumentException("Must provide at least one weight");
+      }
+
+      this.weights = weights.clone();
+      this.weightedQueueSets = new QueueSet[weights.length];
+      this.strides = new long[weights.length];
+      this.passes = new AtomicLongArray(weights.length);
+      for (int i = 0; i < weights.length; i++) {
+        ArgumentVerifier.assertGreaterThanZero(weights[i], "weight");
+        strides[i] = STRIDE_NUMERATOR / weights[i];
+        if (i == 0) {
+          weightedQueueSets[i] = highPriorityQueueSet;
+        } else if (i == weights.length - 1) {
+          weightedQueueSets[i] = lowPriorityQueueSet;
+        } else if (scheduleTickMillis > 0) {
+          weightedQueueSets[i] = new TimingWheelQueueSet(queueSetListener, scheduleTickMillis, false);
+        } else {
+          weightedQueueSets[i] = new QueueSet(queueSetListener);
+        }
+      }
+      this.virtualTime = 0;
+    }
+
+    @Override
+    public QueueSet getQueueSet(TaskPriority priority) {
+      if (priority == TaskPriority.High) {
+        return weightedQueueSets[0];
+      } else if (priority == TaskPriority.Low) {
+        return weightedQueueSets[weightedQueueSets.length - 1];
+      } else {
+        return starvablePriorityQueueSet;
+      }
+    }
+
+    @Override
+    public List<Runnable> clearQueue() {
+      int size = starvablePriorityQueueSet.queueSize();
+      for (QueueSet queueSet : weightedQueueSets) {
+        size += queueSet.queueSize();
+      }
+      List<TaskWrapper> wrapperList = new ArrayList<>(size);
+      for (QueueSet queueSet : weightedQueueSets) {
+        queueSet.drainQueueInto(wrapperList);
+      }
+      starvablePriorityQueueSet.drainQueueInto(wrapperList);
+
+      return ContainerHelper.getContainedRunnables(wrapperList);
+    }
+
+    @Override
+    public TaskWrapper getNextTask() {
+      long currentVirtualTime = virtualTime;
+      TaskWrapper readyTask = null;
+      long readyTaskPass = Long.MAX_VALUE;
+      TaskWrapper earliestTask = null;
+      for (int i = 0; i < weightedQueueSets.length; i++) {
+        TaskWrapper task = weightedQueueSets[i].getNextTask();
+        if (task == null) {
+          continue;
+        } else if (task.getScheduleDelay() <= 0) {
+          long pass = Math.max(passes.get(i), currentVirtualTime);
+          if (pass < readyTaskPass) {
+            readyTask = task;
+            readyTaskPass = pass;
+          }
+        } else if (readyTask == null &&
+                   (earliestTask == null || task.getPureRunTime() < earliestTask.getPureRunTime())) {
+          earliestTask = task;
+        }
+      }
+      if (readyTask != null) {
+        return readyTask;
+      }
+
+      TaskWrapper starvableTask = starvablePriorityQueueSet.getNextTask();
+      if (starvableTask != null &&
+          (earliestTask == null || starvableTask.getPureRunTime() < earliestTask.getPureRunTime())) {
+        return starvableTask;
+      } else {
+        return earliestTask;
+      }
+    }
+
+    @Override
+    public TaskWrapper getNextTask(TaskWrapper nextHighPriorityTask) {
+      // worker local queues are not used for weighted scheduling
+      return getNextTask();
+    }
+
+    @Override
+    public void taskClaimed(TaskWrapper task) {
+      QueueSet queueSet = task.owningQueueSet;
+      for (int i = 0; i < weightedQueueSets.length; i++) {
+        if (weightedQueueSets[i] == queueSet) {
+          while (true) {
+            long pass = passes.get(i);
+            // classes which were idle resume at the current virtual time, rather than with credit
+            long startPass = Math.max(pass, virtualTime);
+            if (passes.compareAndSet(i, pass, startPass + strides[i])) {
+              // racy update is fine, virtual time only needs to approximately track progress
+              if (startPass > virtualTime) {
+                virtualTime = startPass;
+              }
+              return;
+            }
+          }
+        }
+      }
+    }
+
+    @Override
+    public boolean remove(Runnable task) {
+      for (QueueSet queueSet : weightedQueueSets) {
+        if (queueSet.remove(task)) {
+          return true;
+        }
+      }
+      return starvablePriorityQueueSet.remove(task);
+    }
+
+    @Override
+    public boolean remove(Callable<?> task) {
+      for (QueueSet queueSet : weightedQueueSets) {
+        if (queueSet.remove(task)) {
+          return true;
+        }
+      }
+      return starvablePriorityQueueSet.remove(task);
+    }
+  }
+
+  /**
+   * {@link SchedulerService} implementation which submits all tasks into a single weight class
+   * of the parent scheduler.
+   *
+   * @since 5.37
+   */
+  protected class WeightClassScheduler extends AbstractSubmitterScheduler
+                                       implements SchedulerService {
+    protected final int weightClass;
+    protected final QueueSet queueSet;
+
+    protected WeightClassScheduler(int weightClass) {
+      this.weightClass = weightClass;
+      this.queueSet = weightedQueueManager.weightedQueueSets[weightClass];
+    }
+
+    @Override
+    protected void doSchedule(Runnable task, long delayInMillis) {
+      if (delayInMillis == 0) {
+        addToExecuteQueue(queueSet, new ImmediateTaskWrapper(task, queueSet.executeQueue));
+      } else {
+        addToScheduleQueue(queueSet,
+                           new OneTimeTaskWrapper(task, queueSet.scheduleQueue,
+                                                  Clock.accurateForwardProgressingMillis() +
+                                                    delayInMillis));
+      }
+    }
+
+    @Override
+    public void scheduleWithFixedDelay(Runnable task, long initialDelay, long recurringDelay) {
+      ArgumentVerifier.assertNotNull(task, "task");
+      ArgumentVerifier.assertNotNegative(initialDelay, "initialDelay");
+      ArgumentVerifier.assertNotNegative(recurringDelay, "recurringDelay");
+
+      addToScheduleQueue(queueSet,
+                         new RecurringDelayTaskWrapper(task, queueSet,
+                                                       Clock.accurateForwardProgressingMillis() +
+                                                         initialDelay,
+                                                       recurringDelay));
+    }
+
+    @Override
+    public void scheduleAtFixedRate(Runnable task, long initialDelay, long period) {
+      ArgumentVerifier.assertNotNull(task, "task");
+      ArgumentVerifier.assertNotNegative(initialDelay, "initialDelay");
+      ArgumentVerifier.assertGreaterThanZero(period, "period");
+
+      addToScheduleQueue(queueSet,
+                         new RecurringRateTaskWrapper(task, queueSet,
+                                                      Clock.accurateForwardProgressingMillis() +
+                                                        initialDelay,
+                                                      period));
+    }
+
+    @Override
+    public boolean remove(Runnable task) {
+      return queueSet.remove(task);
+    }
+
+    @Override
+    public boolean remove(Callable<?> task) {
+      return queueSet.remove(task);
+    }
+
+    @Override
+    public int getActiveTaskCount() {
+      return WeightedPriorityScheduler.this.getActiveTaskCount();
+    }
+
+    @Override
+    public int getQueuedTaskCount() {
+      return queueSet.queueSize();
+    }
+
+    @Override
+    public int getWaitingForExecutionTaskCount() {
+      // allows any ready tasks held outside of the schedule queue to be moved into it
+      queueSet.getNextTask();
+      int result = 0;
+      for (TaskWrapper tw : queueSet.executeQueue) {
+        if (! tw.invalidated) {
+          result++;
+        }
+      }
+      for (int i = 0; i < queueSet.scheduleQueue.size(); i++) {
+        try {
+          TaskWrapper tw = queueSet.scheduleQueue.get(i);
+          if (tw.getScheduleDelay() > 0) {
+            break;
+          } else if (! tw.invalidated) {
+            result++;
+          }
+        } catch (IndexOutOfBoundsException e) {
+          break;
+        }
+      }
+      return result + queueSet.readyRecurringTaskCount();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return WeightedPriorityScheduler.this.isShutdown();
+    }
+  }
+}
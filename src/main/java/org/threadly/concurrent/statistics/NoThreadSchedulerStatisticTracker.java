@@ -1,5 +1,7 @@
 package org.threadly.concurrent.statistics;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -128,6 +130,15 @@ public class NoThreadSchedulerStatisticTracker extends NoThreadScheduler
                             delayInMillis, priority);
   }
 
+  @Override
+  protected void doExecuteAll(Collection<? extends Runnable> tasks, TaskPriority priority) {
+    List<Runnable> wrappedTasks = new ArrayList<>(tasks.size());
+    for (Runnable r : tasks) {
+      wrappedTasks.add(new TaskStatWrapper(statsManager, priority, r));
+    }
+    super.doExecuteAll(wrappedTasks, priority);
+  }
+
   @Override
   public void scheduleWithFixedDelay(Runnable task, long initialDelay,
                                      long recurringDelay, TaskPriority priority) {
@@ -7,6 +7,7 @@ import org.threadly.concurrent.statistics.StatisticWriter.TaskStatWrapper;
 import org.threadly.util.Clock;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.Future;
@@ -155,6 +156,15 @@ public class PrioritySchedulerStatisticWriter extends PriorityScheduler{
                             delayInMillis, priority);
   }
 
+  @Override
+  protected void doExecuteAll(Collection<? extends Runnable> tasks, TaskPriority priority) {
+    List<Runnable> wrappedTasks = new ArrayList<>(tasks.size());
+    for (Runnable r : tasks) {
+      wrappedTasks.add(new TaskStatWrapper(statsWriter, priority, r));
+    }
+    super.doExecuteAll(wrappedTasks, priority);
+  }
+
   @Override
   public void scheduleWithFixedDelay(Runnable task, long initialDelay,
                                      long recurringDelay, TaskPriority priority) {
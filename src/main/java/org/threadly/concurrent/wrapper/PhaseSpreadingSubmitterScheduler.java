@@ -0,0 +1,244 @@
+package org.threadly.concurrent.wrapper;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.threadly.concurrent.AbstractSubmitterScheduler;
+import org.threadly.concurrent.SchedulerService;
+import org.threadly.concurrent.SubmitterScheduler;
+import org.threadly.util.ArgumentVerifier;
+
+/**
+ * Wrapper for a {@link SubmitterScheduler} which spreads the execution phase of recurring tasks
+ * across their period.  When many recurring tasks are scheduled with the same period and initial
+ * delay (for example as a service starts), they would otherwise all run as one burst each period.
+ * This wrapper adds an offset within the period to the initial delay of each recurring task, so
+ * that the executions are spread evenly and the load on the pool stays flat.
+ * <p>
+ * Offsets are chosen from the base 2 van der Corput sequence for each distinct period.  The first
+ * task with a given period is not delayed, the second is offset by half the period, the next two
+ * by a quarter and three quarters, and so on.  As new recurring tasks arrive they are placed into
+ * the largest remaining gap, so tasks stay evenly spread without existing tasks needing to be
+ * moved.
+ * <p>
+ * If the parent scheduler is a {@link SchedulerService}, recurring tasks can be removed through
+ * {@link #remove(Runnable)}, which frees their position so that the next task with that period
+ * fills the gap.  Tasks removed directly from the parent scheduler (or when the parent does not
+ * support removal) keep their position reserved, so with many short lived recurring tasks the
+ * spread will degrade and one small entry per distinct period is retained.
+ * <p>
+ * One time tasks are provided to the parent scheduler without modification.
+ *
+ * @since 5.37
+ */
+public class PhaseSpreadingSubmitterScheduler extends AbstractSubmitterScheduler {
+  protected final SubmitterScheduler parentScheduler;
+  protected final ConcurrentHashMap<Long, PeriodPhases> periodPhases;
+  protected final ConcurrentHashMap<Runnable, ArrayDeque<TaskPhase>> taskPhases;
+
+  /**
+   * Constructs a new wrapper to spread the phase of recurring tasks submitted to the provided
+   * scheduler.
+   *
+   * @param parentScheduler Scheduler to submit tasks to
+   */
+  public PhaseSpreadingSubmitterScheduler(SubmitterScheduler parentScheduler) {
+    ArgumentVerifier.assertNotNull(parentScheduler, "parentScheduler");
+
+    this.parentScheduler = parentScheduler;
+    this.periodPhases = new ConcurrentHashMap<>();
+    if (parentScheduler instanceof SchedulerService) {
+      this.taskPhases = new ConcurrentHashMap<>();
+    } else {
+      // tasks can never be removed, so there is no need to remember their phase
+      this.taskPhases = null;
+    }
+  }
+
+  /**
+   * Returns the base 2 van der Corput value for the given index.  This is the index with its bits
+   * reflected about the binary point, producing a sequence in the range {@code [0, 1)} in which
+   * every prefix is spread as evenly as possible.
+   *
+   * @param index Position in the sequence, treated as unsigned
+   * @return Value in the range {@code [0, 1)}
+   */
+  protected static double vanDerCorput(int index) {
+    return (Integer.reverse(index) & 0xFFFFFFFFL) / 4294967296.0d;
+  }
+
+  /**
+   * Reserves the next position for a recurring task with the provided period, and produces the
+   * offset which should be added to its initial delay.  The position is the lowest one not
+   * currently held by another task with the same period.
+   *
+   * @param task Recurring task the position is reserved for
+   * @param period Period (or recurring delay) of the task in milliseconds
+   * @return Offset in milliseconds, in the range {@code [0, period)}
+   */
+  protected long nextPhaseOffset(Runnable task, long period) {
+    if (period <= 1) {
+      return 0;
+    }
+    int index;
+    while (true) {
+      PeriodPhases phases = periodPhases.computeIfAbsent(period, (p) -> new PeriodPhases());
+      synchronized (phases) {
+        if (! phases.retired) {
+          index = phases.reserved.nextClearBit(0);
+          phases.reserved.set(index);
+          break;
+        } // else, removed from the map once empty, retry with a new instance
+      }
+    }
+    if (taskPhases != null) {
+      TaskPhase taskPhase = new TaskPhase(period, index);
+      taskPhases.compute(task, (t, phaseQueue) -> {
+        if (phaseQueue == null) {
+          phaseQueue = new ArrayDeque<>(2);
+        }
+        phaseQueue.add(taskPhase);
+        return phaseQueue;
+      });
+    }
+    return (long)(vanDerCorput(index) * period);
+  }
+
+  /**
+   * Releases a position previously reserved from {@link #nextPhaseOffset(Runnable, long)}.  Once
+   * no positions are held for a period its state is removed.
+   *
+   * @param taskPhase Position to be released
+   */
+  protected void releasePhase(TaskPhase taskPhase) {
+    PeriodPhases phases = periodPhases.get(taskPhase.period);
+    if (phases == null) {
+      return;
+    }
+    synchronized (phases) {
+      phases.reserved.clear(taskPhase.index);
+      if (phases.reserved.isEmpty()) {
+        phases.retired = true;
+        periodPhases.remove(taskPhase.period, phases);
+      }
+    }
+  }
+
+  /**
+   * Releases the phase held by a task which was not accepted by, or has been removed from, the
+   * parent scheduler.
+   *
+   * @param task Recurring task to release a position for
+   */
+  private void releaseTaskPhase(Runnable task) {
+    if (taskPhases == null) {
+      return;
+    }
+    taskPhases.computeIfPresent(task, (t, phaseQueue) -> {
+      releasePhase(phaseQueue.removeLast());
+      return phaseQueue.isEmpty() ? null : phaseQueue;
+    });
+  }
+
+  /**
+   * Removes the task from the parent scheduler.  If the task is a recurring task its position
+   * within the period will be freed for the next recurring task with the same period.
+   * <p>
+   * If the parent scheduler is not a {@link SchedulerService} removal is not possible and this
+   * will always return {@code false}.
+   *
+   * @param task The original runnable provided to the executor
+   * @return {@code true} if the runnable was found and removed
+   */
+  public boolean remove(Runnable task) {
+    if (taskPhases == null) {
+      return false;
+    } else if (((SchedulerService)parentScheduler).remove(task)) {
+      releaseTaskPhase(task);
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  /**
+   * Removes the callable from the parent scheduler.  Callables are never recurring, so this is a
+   * simple delegation.
+   * <p>
+   * If the parent scheduler is not a {@link SchedulerService} removal is not possible and this
+   * will always return {@code false}.
+   *
+   * @param task The original callable provided to the executor
+   * @return {@code true} if the callable was found and removed
+   */
+  public boolean remove(Callable<?> task) {
+    return taskPhases != null && ((SchedulerService)parentScheduler).remove(task);
+  }
+
+  @Override
+  protected void doSchedule(Runnable task, long delayInMillis) {
+    parentScheduler.schedule(task, delayInMillis);
+  }
+
+  @Override
+  public void scheduleWithFixedDelay(Runnable task, long initialDelay, long recurringDelay) {
+    ArgumentVerifier.assertNotNull(task, "task");
+    ArgumentVerifier.assertNotNegative(initialDelay, "initialDelay");
+    ArgumentVerifier.assertNotNegative(recurringDelay, "recurringDelay");
+
+    long offset = nextPhaseOffset(task, recurringDelay);
+    try {
+      parentScheduler.scheduleWithFixedDelay(task, initialDelay + offset, recurringDelay);
+    } catch (RuntimeException e) {
+      if (recurringDelay > 1) {
+        releaseTaskPhase(task);
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public void scheduleAtFixedRate(Runnable task, long initialDelay, long period) {
+    ArgumentVerifier.assertNotNull(task, "task");
+    ArgumentVerifier.assertNotNegative(initialDelay, "initialDelay");
+    ArgumentVerifier.assertGreaterThanZero(period, "period");
+
+    long offset = nextPhaseOffset(task, period);
+    try {
+      parentScheduler.scheduleAtFixedRate(task, initialDelay + offset, period);
+    } catch (RuntimeException e) {
+      if (period > 1) {
+        releaseTaskPhase(task);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Positions within a single period which are currently held by scheduled recurring tasks.
+   * Access must be synchronized on the instance.
+   *
+   * @since 5.37
+   */
+  protected static class PeriodPhases {
+    protected final BitSet reserved = new BitSet();
+    protected boolean retired = false;
+  }
+
+  /**
+   * Position reserved for a recurring task, used to release it when the task is removed.
+   *
+   * @since 5.37
+   */
+  protected static class TaskPhase {
+    protected final long period;
+    protected final int index;
+
+    protected TaskPhase(long period, int index) {
+      this.period = period;
+      this.index = index;
+    }
+  }
+}
@@ -136,7 +136,20 @@ public class ExecutorLimiter implements SubmitterExecutor {
   public int getUnsubmittedTaskCount() {
     return waitingTasks.size();
   }
-  
+
+  /**
+   * Returns how many tasks have been submitted to the delegate executor and have not yet
+   * completed.  This includes tasks currently running, as well as tasks which may still be
+   * waiting in the delegate executor for a thread.  This will never exceed
+   * {@link #getMaxConcurrency()} (unless the max concurrency was reduced).
+   *
+   * @since 5.37
+   * @return Quantity of tasks submitted to the delegate executor which have not yet finished
+   */
+  public int getCurrentlyRunningCount() {
+    return currentlyRunning.get();
+  }
+
   /**
    * Thread safe verification that the pool has space remaining to accept additional tasks.
    * <p>
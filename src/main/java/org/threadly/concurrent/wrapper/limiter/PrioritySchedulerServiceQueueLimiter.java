@@ -0,0 +1,595 @@
+package org.threadly.concurrent.wrapper.limiter;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import org.threadly.concurrent.AbstractSubmitterScheduler;
+import org.threadly.concurrent.ContainerHelper;
+import org.threadly.concurrent.PrioritySchedulerService;
+import org.threadly.concurrent.RunnableCallableAdapter;
+import org.threadly.concurrent.RunnableContainer;
+import org.threadly.concurrent.TaskPriority;
+import org.threadly.concurrent.future.ListenableFuture;
+import org.threadly.concurrent.future.ListenableFutureTask;
+import org.threadly.util.ArgumentVerifier;
+import org.threadly.util.Clock;
+import org.threadly.util.ExceptionUtils;
+
+/**
+ * Bounds the number of tasks queued into a {@link PrioritySchedulerService}, with a separate
+ * limit for each {@link TaskPriority}.  Unlike {@link PrioritySchedulerServiceQueueLimitRejector}
+ * which can only reject tasks once the limit is reached, this allows selecting an
+ * {@link OverflowPolicy} so that producers can instead be throttled.  This way when the
+ * scheduler falls behind, submitting threads slow down rather than the queue growing without
+ * bound or tasks failing outright.
+ * <p>
+ * Like the other queue limiters, the queue is tracked independently of the parent scheduler's
+ * actual queue.  A task counts against the limit from the time it is submitted until it starts
+ * execution (or is removed).  Recurring tasks are not tracked.
+ *
+ * @since 5.37
+ */
+public class PrioritySchedulerServiceQueueLimiter extends AbstractSubmitterScheduler
+                                                  implements PrioritySchedulerService {
+  private static final AtomicIntegerFieldUpdater<LimitedRunnable> STATE_UPDATER =
+      AtomicIntegerFieldUpdater.newUpdater(LimitedRunnable.class, "state");
+  private static final int STARVABLE_PURGE_MIN_FINISHED = 64;
+
+  /**
+   * Policy for handling tasks once the queue limit for their priority has been reached.
+   *
+   * @since 5.37
+   */
+  public enum OverflowPolicy {
+    /**
+     * Block the submitting thread until the queue has room, or until the block timeout has
+     * elapsed.  If the timeout is reached (or the thread is interrupted) the task is provided to
+     * the {@link RejectedExecutionHandler}.
+     */
+    Block,
+    /**
+     * Run the task on the submitting thread.  Since the caller must finish the task before it
+     * can submit more, this naturally throttles producers.  Tasks which are scheduled with a
+     * delay can not be run early, and will instead be provided to the
+     * {@link RejectedExecutionHandler}.
+     */
+    CallerRuns,
+    /**
+     * Remove the oldest {@link TaskPriority#Starvable} task queued through this limiter, and
+     * accept the new task in its place.  The dropped task will not be run, and if it is a future
+     * it will be canceled.  The new task may exceed the limit for its priority, but the total
+     * queued tasks will not exceed the sum of all limits.  If there is no starvable task which can
+     * be dropped, the new task is provided to the {@link RejectedExecutionHandler}.
+     */
+    DropOldestStarvable,
+    /**
+     * Provide the task to the {@link RejectedExecutionHandler}, which by default will throw a
+     * {@link RejectedExecutionException}.
+     */
+    Reject
+  }
+
+  protected final PrioritySchedulerService parentScheduler;
+  protected final OverflowPolicy overflowPolicy;
+  protected final long blockTimeoutMillis;
+  protected final RejectedExecutionHandler rejectedExecutionHandler;
+  protected final PriorityLimit[] priorityLimits;
+  protected final Set<LimitedRunnable> queuedTasks;
+  // only used when overflow policy is DropOldestStarvable
+  protected final ConcurrentLinkedQueue<LimitedRunnable> starvableTasks;
+  // finished tasks still held in starvableTasks, purged once they are a large portion of it
+  private final AtomicInteger finishedStarvableCount;
+
+  /**
+   * Constructs a new {@link PrioritySchedulerServiceQueueLimiter} which uses the same limit for
+   * every priority.
+   *
+   * @param parentScheduler Scheduler to execute and schedule tasks on to
+   * @param queuedTaskLimit Maximum number of queued tasks for each priority
+   * @param overflowPolicy Policy to use once the limit has been reached
+   */
+  public PrioritySchedulerServiceQueueLimiter(PrioritySchedulerService parentScheduler,
+                                              int queuedTaskLimit, OverflowPolicy overflowPolicy) {
+    this(parentScheduler, queuedTaskLimit, overflowPolicy, Long.MAX_VALUE);
+  }
+
+  /**
+   * Constructs a new {@link PrioritySchedulerServiceQueueLimiter} which uses the same limit for
+   * every priority.
+   *
+   * @param parentScheduler Scheduler to execute and schedule tasks on to
+   * @param queuedTaskLimit Maximum number of queued tasks for each priority
+   * @param overflowPolicy Policy to use once the limit has been reached
+   * @param blockTimeoutMillis Maximum time to block with {@link OverflowPolicy#Block}
+   */
+  public PrioritySchedulerServiceQueueLimiter(PrioritySchedulerService parentScheduler,
+                                              int queuedTaskLimit, OverflowPolicy overflowPolicy,
+                                              long blockTimeoutMillis) {
+    this(parentScheduler, queuedTaskLimit, queuedTaskLimit, queuedTaskLimit,
+         overflowPolicy, blockTimeoutMillis, null);
+  }
+
+  /**
+   * Constructs a new {@link PrioritySchedulerServiceQueueLimiter} with a separate limit for
+   * each priority.
+   *
+   * @param parentScheduler Scheduler to execute and schedule tasks on to
+   * @param highPriorityLimit Maximum number of queued {@link TaskPriority#High} tasks
+   * @param lowPriorityLimit Maximum number of queued {@link TaskPriority#Low} tasks
+   * @param starvablePriorityLimit Maximum number of queued {@link TaskPriority#Starvable} tasks
+   * @param overflowPolicy Policy to use once the limit has been reached
+   * @param blockTimeoutMillis Maximum time to block with {@link OverflowPolicy#Block}
+   * @param rejectedExecutionHandler Handler to accept tasks which could not be executed due to queue size
+   */
+  public PrioritySchedulerServiceQueueLimiter(PrioritySchedulerService parentScheduler,
+                                              int highPriorityLimit, int lowPriorityLimit,
+                                              int starvablePriorityLimit,
+                                              OverflowPolicy overflowPolicy,
+                                              long blockTimeoutMillis,
+                                              RejectedExecutionHandler rejectedExecutionHandler) {
+    ArgumentVerifier.assertNotNull(parentScheduler, "parentScheduler");
+    ArgumentVerifier.assertNotNull(overflowPolicy, "overflowPolicy");
+    ArgumentVerifier.assertNotNegative(blockTimeoutMillis, "blockTimeoutMillis");
+
+    this.parentScheduler = parentScheduler;
+    this.overflowPolicy = overflowPolicy;
+    this.blockTimeoutMillis = blockTimeoutMillis;
+    if (rejectedExecutionHandler == null) {
+      rejectedExecutionHandler = RejectedExecutionHandler.THROW_REJECTED_EXECUTION_EXCEPTION;
+    }
+    this.rejectedExecutionHandler = rejectedExecutionHandler;
+    this.priorityLimits = new PriorityLimit[TaskPriority.values().length];
+    priorityLimits[TaskPriority.High.ordinal()] = new PriorityLimit(highPriorityLimit);
+    priorityLimits[TaskPriority.Low.ordinal()] = new PriorityLimit(lowPriorityLimit);
+    priorityLimits[TaskPriority.Starvable.ordinal()] = new PriorityLimit(starvablePriorityLimit);
+    this.queuedTasks = ConcurrentHashMap.newKeySet();
+    this.starvableTasks =
+        overflowPolicy == OverflowPolicy.DropOldestStarvable ? new ConcurrentLinkedQueue<>() : null;
+    this.finishedStarvableCount = new AtomicInteger();
+  }
+
+  /**
+   * Invoked to check the currently set queue limit for a given priority.
+   *
+   * @param priority Priority to check the limit of
+   * @return Maximum number of tasks allowed to queue for the priority
+   */
+  public int getQueueLimit(TaskPriority priority) {
+    return getPriorityLimit(priority).limit;
+  }
+
+  /**
+   * Invoked to change the limit for a given priority.  If set below the current queue size,
+   * those tasks will still remain queued for execution.  If the limit is increased any blocked
+   * submitters will be woken up.
+   *
+   * @param priority Priority to change the limit of
+   * @param newLimit New limit for queued tasks of the priority
+   */
+  public void setQueueLimit(TaskPriority priority, int newLimit) {
+    PriorityLimit pl = getPriorityLimit(priority);
+    synchronized (pl) {
+      pl.limit = newLimit;
+      pl.notifyAll();
+    }
+  }
+
+  private PriorityLimit getPriorityLimit(TaskPriority priority) {
+    if (priority == null) {
+      priority = parentScheduler.getDefaultPriority();
+    }
+    return priorityLimits[priority.ordinal()];
+  }
+
+  /**
+   * Invoked to check how many tasks are currently being tracked as queued by this limiter.
+   *
+   * @return Number of tracked tasks waiting for execution to start
+   */
+  @Override
+  public int getQueuedTaskCount() {
+    int result = 0;
+    for (PriorityLimit pl : priorityLimits) {
+      result += pl.queuedTaskCount.get();
+    }
+    return result;
+  }
+
+  /**
+   * Invoked to check how many tasks of a given priority are currently being tracked as queued by
+   * this limiter.
+   *
+   * @param priority Priority to check the queue of, or {@code null} for all priorities
+   * @return Number of tracked tasks waiting for execution to start
+   */
+  @Override
+  public int getQueuedTaskCount(TaskPriority priority) {
+    if (priority == null) {
+      return getQueuedTaskCount();
+    }
+    return priorityLimits[priority.ordinal()].queuedTaskCount.get();
+  }
+
+  @Override
+  protected void doSchedule(Runnable task, long delayInMillis) {
+    doSchedule(task, delayInMillis, parentScheduler.getDefaultPriority());
+  }
+
+  /**
+   * Checks the limit for the given priority, applying the {@link OverflowPolicy} if the limit
+   * has been reached.  If the task can be accepted it will be scheduled on the parent scheduler.
+   *
+   * @param task Task to be executed
+   * @param delayInMillis Delay before the task should be executed
+   * @param priority Priority for the task, or {@code null} for the parent's default priority
+   */
+  protected void doSchedule(Runnable task, long delayInMillis, TaskPriority priority) {
+    if (priority == null) {
+      priority = parentScheduler.getDefaultPriority();
+    }
+    PriorityLimit pl = priorityLimits[priority.ordinal()];
+    if (! pl.tryAcquire()) {
+      switch (overflowPolicy) {
+        case Block:
+          if (! pl.blockTillAcquired(blockTimeoutMillis)) {
+            rejectedExecutionHandler.handleRejectedTask(task);
+            return; // in case handler did not throw exception
+          }
+          break;
+        case CallerRuns:
+          if (delayInMillis == 0 && ! parentScheduler.isShutdown()) {
+            try {
+              task.run();
+            } catch (Throwable t) {
+              ExceptionUtils.handleException(t);
+            }
+          } else {
+            rejectedExecutionHandler.handleRejectedTask(task);
+          }
+          return;
+        case DropOldestStarvable:
+          if (! dropOldestStarvable()) {
+            rejectedExecutionHandler.handleRejectedTask(task);
+            return; // in case handler did not throw exception
+          }
+          // the dropped task has made room, even if it was at a different priority
+          pl.queuedTaskCount.incrementAndGet();
+          break;
+        default:
+          rejectedExecutionHandler.handleRejectedTask(task);
+          return; // in case handler did not throw exception
+      }
+    }
+
+    LimitedRunnable lr = new LimitedRunnable(task, pl);
+    queuedTasks.add(lr);
+    if (starvableTasks != null && priority == TaskPriority.Starvable) {
+      starvableTasks.add(lr);
+    }
+    try {
+      parentScheduler.schedule(lr, delayInMillis, priority);
+    } catch (RejectedExecutionException e) {
+      if (lr.claim(LimitedRunnable.STATE_REMOVED)) {
+        lr.finish();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Removes the oldest starvable task which is still queued.  The task is removed from the parent
+   * scheduler, and if it is a future it will be canceled.
+   *
+   * @return {@code true} if a task was dropped
+   */
+  protected boolean dropOldestStarvable() {
+    LimitedRunnable lr;
+    while ((lr = starvableTasks.poll()) != null) {
+      // either already counted as finished, or will be counted as it is finished below
+      finishedStarvableCount.decrementAndGet();
+      if (lr.claim(LimitedRunnable.STATE_REMOVED)) {
+        parentScheduler.remove(lr);
+        lr.finish();
+        if (lr.task instanceof Future) {
+          ((Future<?>)lr.task).cancel(false);
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Invoked when a starvable task has started or been removed.  To avoid a linear removal for
+   * every task the entry is left in {@link #starvableTasks}, where it will be skipped by
+   * {@link #dropOldestStarvable()}.  Once finished entries outnumber the queued starvable tasks
+   * they are purged in a single pass.
+   */
+  private void starvableTaskFinished() {
+    int finishedCount = finishedStarvableCount.incrementAndGet();
+    if (finishedCount > STARVABLE_PURGE_MIN_FINISHED && 
+        finishedCount > priorityLimits[TaskPriority.Starvable.ordinal()].queuedTaskCount.get() && 
+        finishedStarvableCount.compareAndSet(finishedCount, 0)) {
+      starvableTasks.removeIf((lr) -> lr.state != LimitedRunnable.STATE_QUEUED);
+    }
+  }
+
+  @Override
+  public void execute(Runnable task, TaskPriority priority) {
+    ArgumentVerifier.assertNotNull(task, "task");
+
+    doSchedule(task, 0, priority);
+  }
+
+  @Override
+  public <T> ListenableFuture<T> submit(Runnable task, T result, TaskPriority priority) {
+    return submit(RunnableCallableAdapter.adapt(task, result), priority);
+  }
+
+  @Override
+  public <T> ListenableFuture<T> submit(Callable<T> task, TaskPriority priority) {
+    ArgumentVerifier.assertNotNull(task, "task");
+
+    ListenableFutureTask<T> lft = new ListenableFutureTask<>(false, task, this);
+
+    doSchedule(lft, 0, priority);
+
+    return lft;
+  }
+
+  @Override
+  public void schedule(Runnable task, long delayInMs, TaskPriority priority) {
+    ArgumentVerifier.assertNotNull(task, "task");
+    ArgumentVerifier.assertNotNegative(delayInMs, "delayInMs");
+
+    doSchedule(task, delayInMs, priority);
+  }
+
+  @Override
+  public <T> ListenableFuture<T> submitScheduled(Runnable task, T result, long delayInMs,
+                                                 TaskPriority priority) {
+    return submitScheduled(RunnableCallableAdapter.adapt(task, result), delayInMs, priority);
+  }
+
+  @Override
+  public <T> ListenableFuture<T> submitScheduled(Callable<T> task, long delayInMs,
+                                                 TaskPriority priority) {
+    ArgumentVerifier.assertNotNull(task, "task");
+    ArgumentVerifier.assertNotNegative(delayInMs, "delayInMs");
+
+    ListenableFutureTask<T> lft = new ListenableFutureTask<>(false, task, this);
+
+    doSchedule(lft, delayInMs, priority);
+
+    return lft;
+  }
+
+  @Override
+  public void scheduleWithFixedDelay(Runnable task, long initialDelay, long recurringDelay) {
+    // we don't track recurring tasks
+    parentScheduler.scheduleWithFixedDelay(task, initialDelay, recurringDelay);
+  }
+
+  @Override
+  public void scheduleAtFixedRate(Runnable task, long initialDelay, long period) {
+    // we don't track recurring tasks
+    parentScheduler.scheduleAtFixedRate(task, initialDelay, period);
+  }
+
+  @Override
+  public void scheduleWithFixedDelay(Runnable task, long initialDelay, long recurringDelay,
+                                     TaskPriority priority) {
+    // we don't track recurring tasks
+    parentScheduler.scheduleWithFixedDelay(task, initialDelay, recurringDelay, priority);
+  }
+
+  @Override
+  public void scheduleAtFixedRate(Runnable task, long initialDelay, long period,
+                                  TaskPriority priority) {
+    // we don't track recurring tasks
+    parentScheduler.scheduleAtFixedRate(task, initialDelay, period, priority);
+  }
+
+  @Override
+  public boolean remove(Runnable task) {
+    Iterator<LimitedRunnable> it = queuedTasks.iterator();
+    while (it.hasNext()) {
+      LimitedRunnable lr = it.next();
+      if (ContainerHelper.isContained(lr.task, task) && removeQueuedTask(lr)) {
+        return true;
+      }
+    }
+    // may be a recurring task, which we don't track
+    return parentScheduler.remove(task);
+  }
+
+  @Override
+  public boolean remove(Callable<?> task) {
+    Iterator<LimitedRunnable> it = queuedTasks.iterator();
+    while (it.hasNext()) {
+      LimitedRunnable lr = it.next();
+      if (ContainerHelper.isContained(lr.task, task) && removeQueuedTask(lr)) {
+        return true;
+      }
+    }
+    // may be a recurring task, which we don't track
+    return parentScheduler.remove(task);
+  }
+
+  private boolean removeQueuedTask(LimitedRunnable lr) {
+    if (parentScheduler.remove(lr) && lr.claim(LimitedRunnable.STATE_REMOVED)) {
+      lr.finish();
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public TaskPriority getDefaultPriority() {
+    return parentScheduler.getDefaultPriority();
+  }
+
+  @Override
+  public long getMaxWaitForLowPriority() {
+    return parentScheduler.getMaxWaitForLowPriority();
+  }
+
+  @Override
+  public int getWaitingForExecutionTaskCount() {
+    return parentScheduler.getWaitingForExecutionTaskCount();
+  }
+
+  @Override
+  public int getWaitingForExecutionTaskCount(TaskPriority priority) {
+    return parentScheduler.getWaitingForExecutionTaskCount(priority);
+  }
+
+  @Override
+  public int getActiveTaskCount() {
+    return parentScheduler.getActiveTaskCount();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return parentScheduler.isShutdown();
+  }
+
+  /**
+   * Tracks the queued tasks and limit for a single priority.  The instance monitor is used to
+   * block and wake submitters waiting for the queue to have room.
+   *
+   * @since 5.37
+   */
+  protected static class PriorityLimit {
+    protected final AtomicInteger queuedTaskCount;
+    protected volatile int limit;
+    protected volatile int blockedCount; // only modified while holding the monitor
+
+    protected PriorityLimit(int limit) {
+      this.queuedTaskCount = new AtomicInteger();
+      this.limit = limit;
+      this.blockedCount = 0;
+    }
+
+    /**
+     * Attempts to reserve room in the queue for a task.
+     *
+     * @return {@code true} if the queued count was incremented
+     */
+    protected boolean tryAcquire() {
+      while (true) {
+        int casValue = queuedTaskCount.get();
+        if (casValue >= limit) {
+          return false;
+        } else if (queuedTaskCount.compareAndSet(casValue, casValue + 1)) {
+          return true;
+        }
+      }
+    }
+
+    /**
+     * Blocks until room in the queue can be reserved, or until the timeout is reached.  If the
+     * thread is interrupted this will return {@code false} with the interrupted status set.
+     *
+     * @param timeoutMillis Maximum time to wait for room in the queue
+     * @return {@code true} if the queued count was incremented
+     */
+    protected boolean blockTillAcquired(long timeoutMillis) {
+      long startTime = timeoutMillis == Long.MAX_VALUE ? 0 : Clock.accurateForwardProgressingMillis();
+      synchronized (this) {
+        blockedCount++;
+        try {
+          while (! tryAcquire()) {
+            long remainingMillis;
+            if (timeoutMillis == Long.MAX_VALUE) {
+              remainingMillis = 0;  // wait indefinitely
+            } else {
+              remainingMillis =
+                  timeoutMillis - (Clock.accurateForwardProgressingMillis() - startTime);
+              if (remainingMillis <= 0) {
+                return false;
+              }
+            }
+            this.wait(remainingMillis);
+          }
+          return true;
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return false;
+        } finally {
+          blockedCount--;
+        }
+      }
+    }
+
+    /**
+     * Releases a queued task reservation, waking a blocked submitter if there is one.
+     */
+    protected void release() {
+      queuedTaskCount.decrementAndGet();
+      if (blockedCount > 0) {
+        synchronized (this) {
+          this.notify();
+        }
+      }
+    }
+  }
+
+  /**
+   * Wrapper for tasks queued through this limiter.  The task is claimed so that it is either
+   * executed or removed (for example when dropped), but never both.
+   *
+   * @since 5.37
+   */
+  protected class LimitedRunnable implements Runnable, RunnableContainer {
+    protected static final int STATE_QUEUED = 0;
+    protected static final int STATE_STARTED = 1;
+    protected static final int STATE_REMOVED = 2;
+
+    protected final Runnable task;
+    protected final PriorityLimit priorityLimit;
+    protected volatile int state;
+
+    protected LimitedRunnable(Runnable task, PriorityLimit priorityLimit) {
+      this.task = task;
+      this.priorityLimit = priorityLimit;
+      this.state = STATE_QUEUED;
+    }
+
+    protected boolean claim(int newState) {
+      return STATE_UPDATER.compareAndSet(this, STATE_QUEUED, newState);
+    }
+
+    /**
+     * Invoked once the task has left the queue, releasing it from the limit and tracking.
+     */
+    protected void finish() {
+      queuedTasks.remove(this);
+      if (starvableTasks != null && priorityLimit == priorityLimits[TaskPriority.Starvable.ordinal()]) {
+        starvableTaskFinished();
+      }
+      priorityLimit.release();
+    }
+
+    @Override
+    public Runnable getContainedRunnable() {
+      return task;
+    }
+
+    @Override
+    public void run() {
+      if (claim(STATE_STARTED)) {
+        finish();
+        task.run();
+      }
+    }
+  }
+}
@@ -2,11 +2,17 @@ package org.threadly.concurrent;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Test;
 import org.threadly.concurrent.AbstractPriorityScheduler.OneTimeTaskWrapper;
+import org.threadly.concurrent.AbstractPriorityScheduler.QueueSet;
+import org.threadly.concurrent.future.ListenableFuture;
 import org.threadly.test.concurrent.TestRunnable;
 import org.threadly.test.concurrent.TestUtils;
 import org.threadly.util.Clock;
@@ -89,6 +95,90 @@ public abstract class AbstractPrioritySchedulerTest extends SchedulerServiceInte
     }
   }
 
+  @Test
+  public void executeAllTest() {
+    AbstractPrioritySchedulerFactory factory = getAbstractPrioritySchedulerFactory();
+    try {
+      AbstractPriorityScheduler scheduler = factory.makeAbstractPriorityScheduler(2);
+      List<TestRunnable> runnables = new ArrayList<>(TEST_QTY);
+      for (int i = 0; i < TEST_QTY; i++) {
+        runnables.add(new TestRunnable());
+      }
+      
+      scheduler.executeAll(runnables, TaskPriority.High);
+      scheduler.executeAll(Collections.emptyList(), TaskPriority.Low);
+      
+      for (TestRunnable tr : runnables) {
+        tr.blockTillFinished();
+        assertEquals(1, tr.getRunCount());
+      }
+    } finally {
+      factory.shutdown();
+    }
+  }
+  
+  @Test
+  public void submitAllTest() throws InterruptedException, ExecutionException {
+    AbstractPrioritySchedulerFactory factory = getAbstractPrioritySchedulerFactory();
+    try {
+      AbstractPriorityScheduler scheduler = factory.makeAbstractPriorityScheduler(2);
+      List<TestCallable> callables = new ArrayList<>(TEST_QTY);
+      for (int i = 0; i < TEST_QTY; i++) {
+        callables.add(new TestCallable());
+      }
+      
+      List<ListenableFuture<Object>> futures = scheduler.submitAll(callables, null);
+      assertEquals(TEST_QTY, futures.size());
+      
+      Iterator<TestCallable> it = callables.iterator();
+      for (ListenableFuture<Object> lf : futures) {
+        assertTrue(it.next().getReturnedResult() == lf.get());
+      }
+    } finally {
+      factory.shutdown();
+    }
+  }
+  
+  @Test (expected = IllegalArgumentException.class)
+  public void executeAllNullTaskFail() {
+    AbstractPrioritySchedulerFactory factory = getAbstractPrioritySchedulerFactory();
+    try {
+      AbstractPriorityScheduler scheduler = factory.makeAbstractPriorityScheduler(1);
+      scheduler.executeAll(Collections.singletonList(null), null);
+    } finally {
+      factory.shutdown();
+    }
+  }
+  
+  @Test
+  public void canceledScheduledTaskPurgedTest() {
+    AbstractPrioritySchedulerFactory factory = getAbstractPrioritySchedulerFactory();
+    try {
+      AbstractPriorityScheduler scheduler = factory.makeAbstractPriorityScheduler(1);
+      List<ListenableFuture<?>> futures = new ArrayList<>(QueueSet.PURGE_MIN_DEAD_TASKS);
+      for (int i = 0; i < QueueSet.PURGE_MIN_DEAD_TASKS; i++) {
+        futures.add(scheduler.submitScheduled(DoNothingRunnable.instance(), 1000 * 10, 
+                                              TaskPriority.High));
+      }
+      
+      assertTrue(futures.get(0).cancel(false));
+      assertEquals(1, scheduler.getDeadTaskCount());
+      assertEquals(futures.size() - 1, scheduler.getQueuedTaskCount(TaskPriority.High));
+      
+      for (ListenableFuture<?> lf : futures) {
+        lf.cancel(false);
+      }
+      
+      // should have been purged once enough tasks were canceled
+      assertEquals(0, scheduler.getDeadTaskCount());
+      assertEquals(0, scheduler.getQueuedTaskCount(TaskPriority.High));
+      assertTrue(scheduler.getQueueManager().getQueueSet(TaskPriority.High)
+                          .scheduleQueue.isEmpty());
+    } finally {
+      factory.shutdown();
+    }
+  }
+  
   @Test
   public void getPriorityQueuedTaskCountTest() {
     AbstractPrioritySchedulerFactory factory = getAbstractPrioritySchedulerFactory();
@@ -525,7 +615,7 @@ public abstract class AbstractPrioritySchedulerTest extends SchedulerServiceInte
         @Override
         public void run() {
           if (testRunning.get()) {
-            while (scheduler.getQueueManager().getQueueSet(TaskPriority.High).executeQueue.size() < 5) {
+            while (scheduler.getQueueManager().getQueueSet(TaskPriority.High).queueSize() < 5) {
               scheduler.execute(this, TaskPriority.High);
             }
           }
@@ -5,12 +5,17 @@ import static org.junit.Assert.*;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool.ManagedBlocker;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 import org.threadly.BlockingTestRunnable;
 import org.threadly.ThreadlyTester;
+import org.threadly.concurrent.CentralThreadlyPool.SubPoolStats;
 import org.threadly.test.concurrent.AsyncVerifier;
+import org.threadly.test.concurrent.TestCondition;
 import org.threadly.test.concurrent.TestRunnable;
 import org.threadly.test.concurrent.TestUtils;
 import org.threadly.util.StringUtils;
@@ -61,6 +66,122 @@ public class CentralThreadlyPoolTest extends ThreadlyTester {
                                      Runtime.getRuntime().availableProcessors());
   }
   
+  @Test
+  public void managedBlockCompensationTest() throws InterruptedException, TimeoutException {
+    int cpuCount = Runtime.getRuntime().availableProcessors();
+    CountDownLatch blockLatch = new CountDownLatch(1);
+    List<TestRunnable> blockingRunnables = new ArrayList<>(cpuCount);
+    try {
+      for (int i = 0; i < cpuCount; i++) {
+        TestRunnable tr = new TestRunnable() {
+          @Override
+          public void handleRunStart() throws InterruptedException {
+            CentralThreadlyPool.managedBlock(new ManagedBlocker() {
+              @Override
+              public boolean block() throws InterruptedException {
+                blockLatch.await();
+                return true;
+              }
+
+              @Override
+              public boolean isReleasable() {
+                return blockLatch.getCount() == 0;
+              }
+            });
+          }
+        };
+        blockingRunnables.add(tr);
+        CentralThreadlyPool.computationPool().execute(tr);
+      }
+      for (TestRunnable tr : blockingRunnables) {
+        tr.blockTillStarted();
+      }
+      new TestCondition(() -> CentralThreadlyPool.getManagedBlockingCount() >= cpuCount).blockTillTrue();
+
+      // computation pool must still be able to run tasks while all its tasks are blocked
+      AsyncVerifier av = new AsyncVerifier();
+      CentralThreadlyPool.computationPool().execute(av::signalComplete);
+      av.waitForTest();
+    } finally {
+      blockLatch.countDown();
+    }
+    for (TestRunnable tr : blockingRunnables) {
+      tr.blockTillFinished();
+    }
+    new TestCondition(() -> CentralThreadlyPool.getManagedBlockingCount() == 0).blockTillTrue();
+  }
+
+  @Test
+  public void managedBlockNonComputationTaskTest() {
+    int cpuCount = Runtime.getRuntime().availableProcessors();
+    AtomicInteger blockedMaxConcurrency = new AtomicInteger(-1);
+    AtomicInteger blockedCount = new AtomicInteger(-1);
+    TestRunnable tr = new TestRunnable() {
+      @Override
+      public void handleRunStart() throws InterruptedException {
+        CentralThreadlyPool.managedBlock(new ManagedBlocker() {
+          @Override
+          public boolean block() {
+            blockedMaxConcurrency.set(CentralThreadlyPool.COMPUTATION_POOL.getMaxConcurrency());
+            blockedCount.set(CentralThreadlyPool.getManagedBlockingCount());
+            return true;
+          }
+
+          @Override
+          public boolean isReleasable() {
+            return false;
+          }
+        });
+      }
+    };
+    CentralThreadlyPool.isolatedTaskPool().execute(tr);
+    tr.blockTillFinished();
+
+    // central pool is compensated, but the computation pool is not expanded
+    assertEquals(1, blockedCount.get());
+    assertEquals(cpuCount, blockedMaxConcurrency.get());
+  }
+
+  @Test
+  public void managedBlockExternalThreadTest() throws InterruptedException {
+    AtomicInteger blockCount = new AtomicInteger();
+    CentralThreadlyPool.managedBlock(new ManagedBlocker() {
+      @Override
+      public boolean block() {
+        // not a central pool thread, so should not be compensated
+        assertEquals(0, CentralThreadlyPool.getManagedBlockingCount());
+        return blockCount.incrementAndGet() == 2;
+      }
+
+      @Override
+      public boolean isReleasable() {
+        return false;
+      }
+    });
+    assertEquals(2, blockCount.get());
+  }
+
+  @Test
+  public void managedBlockReleasableTest() throws InterruptedException {
+    CentralThreadlyPool.managedBlock(new ManagedBlocker() {
+      @Override
+      public boolean block() {
+        fail("Should not block");
+        return true;
+      }
+
+      @Override
+      public boolean isReleasable() {
+        return true;
+      }
+    });
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void managedBlockFail() throws InterruptedException {
+    CentralThreadlyPool.managedBlock(null);
+  }
+
   @Test
   public void computationPoolThreadRenamedTest() throws InterruptedException, TimeoutException {
     final String threadName = StringUtils.makeRandomString(5);
@@ -206,4 +327,86 @@ public class CentralThreadlyPoolTest extends ThreadlyTester {
       }
     }
   }
+  
+  private static SubPoolStats getSubPoolStats(String threadName) {
+    for (SubPoolStats stats : CentralThreadlyPool.getSubPoolStats()) {
+      if (threadName.equals(stats.getThreadName())) {
+        return stats;
+      }
+    }
+    fail("Sub-pool not found: " + threadName);
+    return null;  // not reachable
+  }
+  
+  @Test
+  public void subPoolStatsThreadPoolTest() {
+    String threadName = StringUtils.makeRandomString(5);
+    SchedulerService pool = CentralThreadlyPool.threadPool(2, threadName);
+    List<BlockingTestRunnable> blockingRunnables = new ArrayList<>(2);
+    try {
+      for (int i = 0; i < 2; i++) {
+        BlockingTestRunnable btr = new BlockingTestRunnable();
+        blockingRunnables.add(btr);
+        pool.execute(btr);
+      }
+      for (BlockingTestRunnable btr : blockingRunnables) {
+        btr.blockTillStarted();
+      }
+      pool.execute(DoNothingRunnable.instance());
+      
+      SubPoolStats stats = getSubPoolStats(threadName);
+      assertEquals(CentralThreadlyPool.MasterSchedulerResizingLimiter.class.getSimpleName(), 
+                   stats.getPoolType());
+      assertEquals(2, stats.getGuaranteedThreads());
+      assertEquals(2, stats.getMaxThreads());
+      assertEquals(2, stats.getRunningTaskCount());
+      assertEquals(1, stats.getQueuedTaskCount());
+    } finally {
+      for (BlockingTestRunnable btr : blockingRunnables) {
+        btr.unblock();
+      }
+    }
+    new TestCondition(() -> getSubPoolStats(threadName).getRunningTaskCount() == 0).blockTillTrue();
+    assertEquals(0, getSubPoolStats(threadName).getQueuedTaskCount());
+    assertFalse(pool.isShutdown()); // hold reference till verified
+  }
+  
+  @Test
+  public void subPoolStatsSingleThreadPoolTest() {
+    String threadName = StringUtils.makeRandomString(5);
+    SchedulerService pool = CentralThreadlyPool.singleThreadPool(true, threadName);
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      pool.execute(btr);
+      btr.blockTillStarted();
+      pool.execute(DoNothingRunnable.instance());
+      
+      SubPoolStats stats = getSubPoolStats(threadName);
+      assertEquals(CentralThreadlyPool.SingleThreadSubPool.class.getSimpleName(), 
+                   stats.getPoolType());
+      assertEquals(1, stats.getGuaranteedThreads());
+      assertEquals(1, stats.getMaxThreads());
+      assertEquals(1, stats.getRunningTaskCount());
+      assertEquals(1, stats.getQueuedTaskCount());
+    } finally {
+      btr.unblock();
+    }
+    assertFalse(pool.isShutdown()); // hold reference till verified
+  }
+  
+  @Test
+  public void subPoolStatsUnboundedPoolTest() {
+    String threadName = StringUtils.makeRandomString(5);
+    SchedulerService pool = CentralThreadlyPool.rangedThreadPool(0, -1, threadName);
+    
+    SubPoolStats stats = getSubPoolStats(threadName);
+    assertEquals(CentralThreadlyPool.DynamicGenericThreadLimiter.class.getSimpleName(), 
+                 stats.getPoolType());
+    assertEquals(0, stats.getGuaranteedThreads());
+    assertEquals(-1, stats.getMaxThreads());
+    assertEquals(0, stats.getRunningTaskCount());
+    assertEquals(0, stats.getQueuedTaskCount());
+    assertTrue(stats.toString().contains(threadName));
+    assertFalse(pool.isShutdown()); // hold reference till verified
+  }
 }
@@ -0,0 +1,156 @@
+package org.threadly.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+import org.threadly.BlockingTestRunnable;
+import org.threadly.ThreadlyTester;
+import org.threadly.concurrent.AbstractPriorityScheduler.OneTimeTaskWrapper;
+import org.threadly.concurrent.DeadlineScheduler.DeadlineQueueManager;
+import org.threadly.concurrent.DeadlineScheduler.DeadlineTaskWrapper;
+import org.threadly.concurrent.future.ListenableFuture;
+import org.threadly.test.concurrent.TestRunnable;
+import org.threadly.test.concurrent.TestUtils;
+import org.threadly.util.Clock;
+
+@SuppressWarnings("javadoc")
+public class DeadlineSchedulerTest extends ThreadlyTester {
+  @Test
+  public void earliestDeadlineFirstTest() throws Exception {
+    DeadlineScheduler scheduler = new DeadlineScheduler(1);
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      scheduler.execute(btr);
+      btr.blockTillStarted();
+
+      long now = Clock.accurateForwardProgressingMillis();
+      List<Integer> executionOrder = Collections.synchronizedList(new ArrayList<>());
+      List<ListenableFuture<?>> futures = new ArrayList<>();
+      futures.add(scheduler.submit(() -> executionOrder.add(-1)));
+      for (int i = TEST_QTY; i > 0; i--) {
+        final int deadlineOffset = i;
+        futures.add(scheduler.submitWithDeadline(() -> executionOrder.add(deadlineOffset),
+                                                 now + (1000 * 60) + i));
+      }
+      assertEquals(TEST_QTY, scheduler.getDeadlineQueuedTaskCount());
+      assertEquals(TEST_QTY + 1, scheduler.getQueuedTaskCount());
+
+      btr.unblock();
+      for (ListenableFuture<?> f : futures) {
+        f.get();
+      }
+
+      for (int i = 0; i < TEST_QTY; i++) {
+        assertEquals(i + 1, (int)executionOrder.get(i));
+      }
+      // task without deadline is run last
+      assertEquals(-1, (int)executionOrder.get(TEST_QTY));
+      assertEquals(0, scheduler.getDeadlineMissCount());
+    } finally {
+      btr.unblock();
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void deadlineMissedTest() throws Exception {
+    DeadlineScheduler scheduler = new DeadlineScheduler(1);
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      scheduler.execute(btr);
+      btr.blockTillStarted();
+
+      TestRunnable expiredRunnable = new TestRunnable();
+      ListenableFuture<?> expiredFuture =
+          scheduler.submitWithDeadline(expiredRunnable, Clock.accurateForwardProgressingMillis());
+      TestRunnable expiredExecuteRunnable = new TestRunnable();
+      scheduler.executeWithDeadline(expiredExecuteRunnable, Clock.accurateForwardProgressingMillis());
+      TestRunnable tr = new TestRunnable();
+      ListenableFuture<?> future =
+          scheduler.submitWithDeadline(tr, Clock.accurateForwardProgressingMillis() + (1000 * 60));
+      TestUtils.blockTillClockAdvances();
+
+      btr.unblock();
+      future.get();
+
+      assertTrue(expiredFuture.isCancelled());
+      assertEquals(0, expiredRunnable.getRunCount());
+      assertEquals(0, expiredExecuteRunnable.getRunCount());
+      assertEquals(1, tr.getRunCount());
+      assertEquals(2, scheduler.getDeadlineMissCount());
+    } finally {
+      btr.unblock();
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void missedDeadlineDroppedOnSelectionTest() {
+    DeadlineQueueManager queueManager = new DeadlineQueueManager(() -> { /* ignored */ });
+    TestRunnable tr = new TestRunnable();
+    queueManager.deadlineQueueSet
+                .addScheduled(new DeadlineTaskWrapper(tr, queueManager.deadlineQueueSet,
+                                                      Clock.accurateForwardProgressingMillis() - 100,
+                                                      queueManager.deadlineMissCount));
+
+    assertNull(queueManager.getNextTask());
+    assertEquals(1, queueManager.deadlineMissCount.sum());
+    assertEquals(0, queueManager.deadlineQueueSet.queueSize());
+    assertEquals(0, tr.getRunCount());
+  }
+
+  @Test
+  public void lowPriorityMaxWaitTest() {
+    DeadlineQueueManager queueManager = new DeadlineQueueManager(() -> { /* ignored */ });
+    queueManager.setMaxWaitForLowPriority(0);
+    long now = Clock.accurateForwardProgressingMillis();
+    OneTimeTaskWrapper lowPriorityTask =
+        new OneTimeTaskWrapper(DoNothingRunnable.instance(),
+                               queueManager.lowPriorityQueueSet.scheduleQueue, now - 100);
+    queueManager.lowPriorityQueueSet.addScheduled(lowPriorityTask);
+    queueManager.deadlineQueueSet
+                .addScheduled(new DeadlineTaskWrapper(DoNothingRunnable.instance(),
+                                                      queueManager.deadlineQueueSet, now + 10_000,
+                                                      queueManager.deadlineMissCount));
+
+    assertTrue(queueManager.getNextTask() == lowPriorityTask);
+  }
+
+  @Test
+  public void removeAndShutdownNowTest() {
+    DeadlineScheduler scheduler = new DeadlineScheduler(1);
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      scheduler.execute(btr);
+      btr.blockTillStarted();
+
+      TestRunnable removed = new TestRunnable();
+      TestRunnable remaining = new TestRunnable();
+      long deadline = Clock.accurateForwardProgressingMillis() + (1000 * 60);
+      scheduler.executeWithDeadline(removed, deadline);
+      scheduler.executeWithDeadline(remaining, deadline);
+
+      assertTrue(scheduler.remove(removed));
+      assertFalse(scheduler.remove(removed));
+
+      List<Runnable> tasks = scheduler.shutdownNow();
+      assertEquals(1, tasks.size());
+      assertTrue(tasks.get(0) == remaining);
+    } finally {
+      btr.unblock();
+    }
+  }
+
+  @Test (expected = RejectedExecutionException.class)
+  public void executeWithDeadlineAfterShutdownFail() {
+    DeadlineScheduler scheduler = new DeadlineScheduler(1);
+    scheduler.shutdown();
+
+    scheduler.executeWithDeadline(DoNothingRunnable.instance(), Clock.lastKnownForwardProgressingMillis());
+  }
+}
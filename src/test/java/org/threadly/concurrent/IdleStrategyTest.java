@@ -0,0 +1,101 @@
+package org.threadly.concurrent;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.threadly.ThreadlyTester;
+import org.threadly.concurrent.IdleStrategy.AdaptiveSpinIdleStrategy;
+import org.threadly.concurrent.IdleStrategy.BusySpinIdleStrategy;
+import org.threadly.concurrent.IdleStrategy.ParkIdleStrategy;
+import org.threadly.concurrent.IdleStrategy.SpinYieldIdleStrategy;
+import org.threadly.util.Clock;
+
+@SuppressWarnings("javadoc")
+public class IdleStrategyTest extends ThreadlyTester {
+  @Test
+  public void parkTimeoutTest() {
+    long start = Clock.accurateForwardProgressingMillis();
+    ParkIdleStrategy.instance().idle(0, Clock.NANOS_IN_MILLISECOND * DELAY_TIME);
+    // spurious wake ups are allowed, so we can only verify we did not wait past the max
+    assertTrue(Clock.accurateForwardProgressingMillis() - start < DELAY_TIME * 10);
+  }
+
+  @Test
+  public void busySpinReturnsImmediatelyTest() {
+    long start = Clock.accurateForwardProgressingMillis();
+    for (int i = 0; i < TEST_QTY; i++) {
+      BusySpinIdleStrategy.instance().idle(i, Long.MAX_VALUE);
+    }
+    assertTrue(Clock.accurateForwardProgressingMillis() - start < DELAY_TIME);
+  }
+
+  @Test
+  @SuppressWarnings("unused")
+  public void spinYieldConstructorFail() {
+    try {
+      new SpinYieldIdleStrategy(-1, 1);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      new SpinYieldIdleStrategy(1, -1);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void spinYieldParksOnceExhaustedTest() {
+    SpinYieldIdleStrategy strategy = new SpinYieldIdleStrategy(2, 2);
+    long start = Clock.accurateForwardProgressingMillis();
+    for (int i = 0; i < 4; i++) {
+      strategy.idle(i, Long.MAX_VALUE); // would block forever if we parked
+    }
+    assertTrue(Clock.accurateForwardProgressingMillis() - start < DELAY_TIME);
+
+    start = Clock.accurateForwardProgressingMillis();
+    strategy.idle(4, Clock.NANOS_IN_MILLISECOND * DELAY_TIME);
+    assertTrue(Clock.accurateForwardProgressingMillis() - start < DELAY_TIME * 10);
+  }
+
+  @Test
+  @SuppressWarnings("unused")
+  public void adaptiveConstructorFail() {
+    try {
+      new AdaptiveSpinIdleStrategy(0, 10);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      new AdaptiveSpinIdleStrategy(10, 1);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void adaptiveSpinLimitTest() {
+    AdaptiveSpinIdleStrategy strategy = new AdaptiveSpinIdleStrategy(1, 8);
+    assertEquals(1, strategy.getSpinLimit());
+
+    // tasks found while spinning increase the spin limit
+    strategy.idleEnded(1);
+    assertEquals(2, strategy.getSpinLimit());
+    strategy.idleEnded(2);
+    strategy.idleEnded(4);
+    strategy.idleEnded(8);
+    assertEquals(8, strategy.getSpinLimit());
+
+    // tasks found after parking reduce the spin limit
+    strategy.idleEnded(9);
+    assertEquals(4, strategy.getSpinLimit());
+    strategy.idleEnded(Integer.MAX_VALUE);
+    strategy.idleEnded(Integer.MAX_VALUE);
+    strategy.idleEnded(Integer.MAX_VALUE);
+    assertEquals(1, strategy.getSpinLimit());
+  }
+}
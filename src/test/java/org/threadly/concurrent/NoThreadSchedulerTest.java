@@ -16,9 +16,11 @@ import org.junit.Before;
 import org.junit.Test;
 import org.threadly.ThreadlyTester;
 import org.threadly.concurrent.AbstractPriorityScheduler.OneTimeTaskWrapper;
+import org.threadly.concurrent.AbstractPriorityScheduler.QueueSet;
 import org.threadly.concurrent.future.ListenableFuture;
 import org.threadly.test.concurrent.AsyncVerifier;
 import org.threadly.test.concurrent.TestRunnable;
+import org.threadly.test.concurrent.TestUtils;
 import org.threadly.util.Clock;
 import org.threadly.util.ExceptionHandler;
 import org.threadly.util.SuppressedStackRuntimeException;
@@ -115,6 +117,39 @@ public class NoThreadSchedulerTest extends ThreadlyTester {
     }
   }
   
+  @Test
+  public void executeAllTest() {
+    List<TestRunnable> runnables = getRunnableList();
+    scheduler.executeAll(runnables, null);
+    
+    assertEquals(TEST_QTY, scheduler.getQueuedTaskCount());
+    // all should run now
+    assertEquals(TEST_QTY, scheduler.tick(null));
+    
+    Iterator<TestRunnable> it = runnables.iterator();
+    while (it.hasNext()) {
+      assertEquals(1, it.next().getRunCount());
+    }
+  }
+  
+  @Test
+  public void submitAllTest() throws InterruptedException, ExecutionException {
+    List<TestCallable> callables = getCallableList();
+    List<ListenableFuture<Object>> futures = scheduler.submitAll(callables, TaskPriority.Low);
+    assertEquals(TEST_QTY, futures.size());
+    
+    // all should run now
+    assertEquals(TEST_QTY, scheduler.tick(null));
+    
+    Iterator<TestCallable> it = callables.iterator();
+    Iterator<ListenableFuture<Object>> futureIt = futures.iterator();
+    while (futureIt.hasNext()) {
+      ListenableFuture<Object> future = futureIt.next();
+      assertTrue(future.isDone());
+      assertTrue(it.next().getReturnedResult() == future.get());
+    }
+  }
+  
   @Test
   public void executeInOrderTest() {
     TestRunnable lastRun = null;
@@ -643,4 +678,206 @@ public class NoThreadSchedulerTest extends ThreadlyTester {
     assertEquals(0, scheduler.queueManager.highPriorityQueueSet.queueSize());
     assertEquals(0, scheduler.queueManager.lowPriorityQueueSet.queueSize());
   }
+  
+  @Test
+  public void executeFromTickLocalQueueTest() {
+    QueueSet queueSet = scheduler.queueManager.getQueueSet(scheduler.getDefaultPriority());
+    List<Integer> runOrder = new ArrayList<>(TEST_QTY);
+    List<Runnable> runnables = new ArrayList<>(TEST_QTY);
+    for (int i = 0; i < TEST_QTY; i++) {
+      int index = i;
+      runnables.add(() -> runOrder.add(index));
+    }
+    scheduler.execute(() -> {
+      scheduler.execute(runnables.get(0));
+      scheduler.executeAll(runnables.subList(1, runnables.size()), null);
+      
+      assertEquals(TEST_QTY, queueSet.localExecuteQueue.size());
+      assertTrue(queueSet.executeQueue.isEmpty());
+      assertEquals(TEST_QTY, scheduler.getQueuedTaskCount());
+    });
+    
+    assertEquals(TEST_QTY + 1, scheduler.tick(null));
+    
+    assertEquals(TEST_QTY, runOrder.size());
+    for (int i = 0; i < TEST_QTY; i++) {
+      assertEquals(i, runOrder.get(i).intValue());
+    }
+    assertTrue(queueSet.localExecuteQueue.isEmpty());
+    // tasks executed outside of tick use the shared queue
+    scheduler.execute(DoNothingRunnable.instance());
+    assertEquals(1, queueSet.executeQueue.size());
+  }
+  
+  @Test
+  public void removeLocalTaskFromOtherThreadTest() throws InterruptedException {
+    TestRunnable localRunnable = new TestRunnable();
+    AtomicReference<Boolean> removed = new AtomicReference<>();
+    scheduler.execute(() -> {
+      scheduler.execute(localRunnable);
+      Thread t = new Thread(() -> removed.set(scheduler.remove(localRunnable)));
+      t.start();
+      try {
+        t.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    
+    assertEquals(1, scheduler.tick(null));
+    assertTrue(removed.get());
+    assertEquals(0, localRunnable.getRunCount());
+    assertEquals(0, scheduler.getQueuedTaskCount());
+    assertEquals(0, scheduler.queueManager.lowPriorityQueueSet.getDeadTaskCount());
+  }
+  
+  @Test
+  public void removeLocalTasksNotCountedForPurgeTest() {
+    QueueSet queueSet = scheduler.queueManager.getQueueSet(scheduler.getDefaultPriority());
+    int taskCount = QueueSet.PURGE_MIN_DEAD_TASKS * 2;
+    scheduler.execute(() -> {
+      for (int i = 0; i < taskCount; i++) {
+        TestRunnable tr = new TestRunnable();
+        scheduler.execute(tr);
+        assertTrue(scheduler.remove(tr));
+      }
+      
+      assertEquals(0, queueSet.deadTaskCount.intValue());
+      assertEquals(taskCount, queueSet.getDeadTaskCount());
+      assertFalse(queueSet.shouldPurgeDeadTasks());
+      assertEquals(0, scheduler.getQueuedTaskCount());
+    });
+    
+    assertEquals(1, scheduler.tick(null));
+    assertEquals(0, queueSet.getDeadTaskCount());
+    assertTrue(queueSet.localExecuteQueue.isEmpty());
+  }
+  
+  @Test
+  public void clearTasksWithLocalTasksTest() {
+    TestRunnable localRunnable = new TestRunnable();
+    AtomicReference<List<Runnable>> clearedTasks = new AtomicReference<>();
+    scheduler.execute(() -> {
+      scheduler.execute(localRunnable);
+      clearedTasks.set(scheduler.clearTasks());
+    });
+    
+    assertEquals(1, scheduler.tick(null));
+    assertEquals(1, clearedTasks.get().size());
+    assertTrue(ContainerHelper.isContained(clearedTasks.get().get(0), localRunnable));
+    assertEquals(0, localRunnable.getRunCount());
+    assertEquals(0, scheduler.getQueuedTaskCount());
+  }
+  
+  @Test
+  public void executeRingTest() {
+    scheduler = new NoThreadScheduler(null, AbstractPriorityScheduler.DEFAULT_LOW_PRIORITY_MAX_WAIT_IN_MS, 
+                                      0, 2);
+    QueueSet queueSet = scheduler.queueManager.getQueueSet(scheduler.getDefaultPriority());
+    RuntimeException failure = new SuppressedStackRuntimeException();
+    TestRunnable tr = new TestRunnable();
+    scheduler.execute(new TestRuntimeFailureRunnable(failure));
+    scheduler.execute(tr);
+    scheduler.execute(tr);  // ring full
+    
+    assertEquals(2, queueSet.executeRing.size());
+    assertEquals(1, queueSet.executeQueue.size());
+    assertEquals(3, scheduler.getQueuedTaskCount());
+    
+    AtomicReference<Throwable> handledException = new AtomicReference<>(null);
+    assertEquals(3, scheduler.tick((t) -> handledException.set(t)));
+    assertTrue(handledException.get() == failure);
+    assertEquals(2, tr.getRunCount());
+  }
+  
+  @Test
+  public void tickBudgetFail() {
+    try {
+      scheduler.tick(null, 0, Long.MAX_VALUE);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      scheduler.tick(null, 1, 0);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+  
+  @Test
+  public void tickMaxTasksTest() {
+    List<TestRunnable> runnables = getRunnableList();
+    for (TestRunnable tr : runnables) {
+      scheduler.execute(tr);
+    }
+    
+    int ran = 0;
+    while (scheduler.tick(null, 2, Long.MAX_VALUE)) {
+      ran += 2;
+      assertEquals(TEST_QTY - ran, scheduler.getQueuedTaskCount());
+    }
+    assertFalse(scheduler.hasTaskReadyToRun());
+    for (TestRunnable tr : runnables) {
+      assertEquals(1, tr.getRunCount());
+    }
+  }
+  
+  @Test
+  public void tickMaxNanosTest() {
+    TestRunnable slowRunnable = new TestRunnable(DELAY_TIME);
+    TestRunnable tr = new TestRunnable();
+    scheduler.execute(slowRunnable);
+    scheduler.execute(tr);
+    
+    // first task always runs, budget is exhausted by the time it finishes
+    assertTrue(scheduler.tick(null, Integer.MAX_VALUE, 1));
+    assertEquals(1, slowRunnable.getRunCount());
+    assertEquals(0, tr.getRunCount());
+    
+    assertFalse(scheduler.tick(null, Integer.MAX_VALUE, Long.MAX_VALUE));
+    assertEquals(1, tr.getRunCount());
+  }
+  
+  @Test
+  public void tickBudgetKeepsPriorityOrderTest() {
+    scheduler = new NoThreadScheduler(TaskPriority.High, 0);
+    TestRunnable lowPriorityRunnable = new TestRunnable();
+    scheduler.execute(lowPriorityRunnable, TaskPriority.Low);
+    TestUtils.blockTillClockAdvances();
+    List<TestRunnable> runnables = getRunnableList();
+    for (TestRunnable tr : runnables) {
+      scheduler.execute(tr);
+    }
+    
+    // low priority task has waited the longest, so the budget should not defer it
+    assertTrue(scheduler.tick(null, 1, Long.MAX_VALUE));
+    assertEquals(1, lowPriorityRunnable.getRunCount());
+    for (TestRunnable tr : runnables) {
+      assertEquals(0, tr.getRunCount());
+    }
+    
+    assertFalse(scheduler.tick(null, TEST_QTY, Long.MAX_VALUE));
+    for (TestRunnable tr : runnables) {
+      assertEquals(1, tr.getRunCount());
+    }
+  }
+  
+  @Test
+  public void blockingTickBudgetTest() throws InterruptedException {
+    List<TestRunnable> runnables = getRunnableList();
+    for (TestRunnable tr : runnables) {
+      scheduler.execute(tr);
+    }
+    
+    assertEquals(TEST_QTY > 1, scheduler.blockingTick(null, 1, Long.MAX_VALUE));
+    assertEquals(1, runnables.get(0).getRunCount());
+    assertEquals(TEST_QTY - 1, scheduler.getQueuedTaskCount());
+    
+    assertFalse(scheduler.blockingTick(null, TEST_QTY, Long.MAX_VALUE));
+    for (TestRunnable tr : runnables) {
+      assertEquals(1, tr.getRunCount());
+    }
+  }
 }
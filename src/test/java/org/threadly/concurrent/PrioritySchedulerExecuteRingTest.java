@@ -0,0 +1,195 @@
+package org.threadly.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+import org.threadly.BlockingTestRunnable;
+import org.threadly.concurrent.AbstractPriorityScheduler.QueueSet;
+import org.threadly.concurrent.future.ListenableFuture;
+import org.threadly.test.concurrent.TestRunnable;
+
+@SuppressWarnings("javadoc")
+public class PrioritySchedulerExecuteRingTest extends PrioritySchedulerTest {
+  private static final int RING_CAPACITY = 8;
+  
+  @Override
+  protected PrioritySchedulerServiceFactory getPrioritySchedulerFactory() {
+    return new ExecuteRingPrioritySchedulerFactory();
+  }
+
+  @Test
+  public void executeRingUsedTest() {
+    PrioritySchedulerServiceFactory factory = getPrioritySchedulerFactory();
+    PriorityScheduler scheduler = factory.makePriorityScheduler(1);
+    try {
+      for (TaskPriority p : TaskPriority.values()) {
+        assertEquals(RING_CAPACITY, 
+                     scheduler.taskQueueManager.getQueueSet(p).executeRing.slots.length);
+      }
+    } finally {
+      factory.shutdown();
+    }
+  }
+
+  @Test
+  public void executeRingProvidedRunTimeTest() {
+    QueueSet queueSet = new QueueSet(() -> { /* ignored */ }, false, RING_CAPACITY);
+    long runTime = 1234;
+    
+    assertTrue(queueSet.offerExecute(DoNothingRunnable.instance(), runTime));
+    assertEquals(runTime, queueSet.getNextTask().getRunTime());
+  }
+
+  @Test
+  public void executeRingOverflowTest() throws Exception {
+    PrioritySchedulerServiceFactory factory = getPrioritySchedulerFactory();
+    PriorityScheduler scheduler = factory.makePriorityScheduler(1);
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      scheduler.execute(btr);
+      btr.blockTillStarted();
+      
+      List<TestRunnable> runnables = new ArrayList<>(RING_CAPACITY * 2);
+      for (int i = 0; i < RING_CAPACITY * 2; i++) {
+        TestRunnable tr = new TestRunnable();
+        runnables.add(tr);
+        scheduler.execute(tr);
+      }
+      ListenableFuture<?> lastFuture = scheduler.submit(DoNothingRunnable.instance());
+      assertEquals(RING_CAPACITY * 2 + 1, scheduler.getQueuedTaskCount());
+      assertEquals(RING_CAPACITY * 2 + 1, scheduler.getWaitingForExecutionTaskCount());
+      
+      btr.unblock();
+      lastFuture.get();
+      for (TestRunnable tr : runnables) {
+        tr.blockTillFinished();
+        assertEquals(1, tr.getRunCount());
+      }
+    } finally {
+      btr.unblock();
+      factory.shutdown();
+    }
+  }
+
+  @Test
+  public void removeFromExecuteRingTest() {
+    PrioritySchedulerServiceFactory factory = getPrioritySchedulerFactory();
+    PriorityScheduler scheduler = factory.makePriorityScheduler(1);
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      scheduler.execute(btr);
+      btr.blockTillStarted();
+      
+      TestRunnable removed = new TestRunnable();
+      TestRunnable remaining = new TestRunnable();
+      scheduler.execute(removed, TaskPriority.Low);
+      scheduler.execute(remaining, TaskPriority.Low);
+      
+      assertTrue(scheduler.remove(removed));
+      assertFalse(scheduler.remove(removed));
+      
+      List<Runnable> tasks = scheduler.shutdownNow();
+      assertEquals(1, tasks.size());
+      assertTrue(tasks.get(0) == remaining);
+      assertEquals(0, removed.getRunCount());
+    } finally {
+      btr.unblock();
+      factory.shutdown();
+    }
+  }
+
+  @Test
+  public void executeRingDoesNotAllocateTest() {
+    java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    if (! (threadBean instanceof com.sun.management.ThreadMXBean) || 
+        ! ((com.sun.management.ThreadMXBean)threadBean).isThreadAllocatedMemoryEnabled()) {
+      return; // unable to verify on this JVM
+    }
+    com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean)threadBean;
+    int taskCount = 1024;
+    PriorityScheduler scheduler = 
+        new PriorityScheduler(1, TaskPriority.High, 
+                              PriorityScheduler.DEFAULT_LOW_PRIORITY_MAX_WAIT_IN_MS, null, 
+                              new PriorityScheduler.Options().setExecuteRingCapacity(taskCount));
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      scheduler.execute(btr);
+      btr.blockTillStarted();
+      Runnable task = DoNothingRunnable.instance();
+      
+      long threadId = Thread.currentThread().getId();
+      long startBytes = allocationBean.getThreadAllocatedBytes(threadId);
+      for (int i = 0; i < taskCount; i++) {
+        scheduler.execute(task);
+      }
+      long allocatedBytes = allocationBean.getThreadAllocatedBytes(threadId) - startBytes;
+      
+      // some bytes may be allocated from checking the allocation, but far less than one per task
+      assertTrue(allocatedBytes < taskCount);
+    } finally {
+      btr.unblock();
+      scheduler.shutdownNow();
+    }
+  }
+
+  private static class ExecuteRingPrioritySchedulerFactory implements PrioritySchedulerServiceFactory {
+    private final List<PriorityScheduler> executors;
+
+    public ExecuteRingPrioritySchedulerFactory() {
+      executors = new ArrayList<>(2);
+    }
+
+    @Override
+    public SchedulerService makeSchedulerService(int poolSize, boolean prestartIfAvailable) {
+      PriorityScheduler result = makePriorityScheduler(poolSize);
+      if (prestartIfAvailable) {
+        result.prestartAllThreads();
+      }
+
+      return result;
+    }
+
+    @Override
+    public AbstractPriorityScheduler makeAbstractPriorityScheduler(int poolSize,
+                                                                   TaskPriority defaultPriority,
+                                                                   long maxWaitForLowPriority) {
+      return makePriorityScheduler(poolSize, defaultPriority, maxWaitForLowPriority);
+    }
+
+    @Override
+    public AbstractPriorityScheduler makeAbstractPriorityScheduler(int poolSize) {
+      return makePriorityScheduler(poolSize);
+    }
+
+    @Override
+    public PriorityScheduler makePriorityScheduler(int poolSize, TaskPriority defaultPriority,
+                                                   long maxWaitForLowPriority) {
+      PriorityScheduler result = 
+          new PriorityScheduler(poolSize, defaultPriority, maxWaitForLowPriority, null, 
+                                new PriorityScheduler.Options().setExecuteRingCapacity(RING_CAPACITY));
+      executors.add(result);
+
+      return result;
+    }
+
+    @Override
+    public PriorityScheduler makePriorityScheduler(int poolSize) {
+      return makePriorityScheduler(poolSize, TaskPriority.High,
+                                   PriorityScheduler.DEFAULT_LOW_PRIORITY_MAX_WAIT_IN_MS);
+    }
+
+    @Override
+    public void shutdown() {
+      Iterator<PriorityScheduler> it = executors.iterator();
+      while (it.hasNext()) {
+        it.next().shutdownNow();
+        it.remove();
+      }
+    }
+  }
+}
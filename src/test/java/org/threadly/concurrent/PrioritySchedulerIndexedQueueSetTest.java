@@ -0,0 +1,177 @@
+package org.threadly.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.threadly.ThreadlyTester;
+import org.threadly.concurrent.AbstractPriorityScheduler.OneTimeTaskWrapper;
+import org.threadly.concurrent.AbstractPriorityScheduler.QueueSet;
+import org.threadly.concurrent.AbstractPriorityScheduler.QueueSetListener;
+import org.threadly.concurrent.AbstractPriorityScheduler.RecurringDelayTaskWrapper;
+import org.threadly.concurrent.AbstractPriorityScheduler.TaskWrapper;
+import org.threadly.concurrent.AbstractPriorityScheduler.TimingWheelQueueSet;
+import org.threadly.concurrent.future.ListenableFutureTask;
+import org.threadly.test.concurrent.TestRunnable;
+import org.threadly.test.concurrent.TestUtils;
+import org.threadly.util.Clock;
+
+@SuppressWarnings("javadoc")
+public class PrioritySchedulerIndexedQueueSetTest extends ThreadlyTester {
+  private QueueSet queueSet;
+
+  @Before
+  public void setup() {
+    queueSet = new QueueSet(new TestQueueSetListener(), true);
+  }
+
+  @After
+  public void cleanup() {
+    queueSet = null;
+  }
+
+  @Test
+  public void removeCallableTest() {
+    TestCallable callable = new TestCallable();
+    ListenableFutureTask<Object> future = new ListenableFutureTask<>(false, callable);
+    OneTimeTaskWrapper task = new OneTimeTaskWrapper(future, queueSet.scheduleQueue,
+                                                     Clock.lastKnownForwardProgressingMillis() + 10_000);
+
+    assertFalse(queueSet.remove(callable));
+
+    queueSet.addScheduled(task);
+    assertEquals(1, queueSet.queueSize());
+
+    assertTrue(queueSet.remove(callable));
+    assertFalse(queueSet.remove(callable));
+    assertFalse(queueSet.remove(future));
+    assertTrue(task.invalidated);
+    assertEquals(0, queueSet.queueSize());
+    assertTrue(queueSet.taskIndex.isEmpty());
+  }
+
+  @Test
+  public void removeRunnableTest() {
+    TestRunnable runnable = new TestRunnable();
+    OneTimeTaskWrapper task = new OneTimeTaskWrapper(runnable, queueSet.executeQueue,
+                                                     Clock.lastKnownForwardProgressingMillis());
+
+    assertFalse(queueSet.remove(runnable));
+
+    queueSet.addExecute(task);
+
+    assertTrue(queueSet.remove(runnable));
+    assertFalse(queueSet.remove(runnable));
+    assertEquals(0, queueSet.queueSize());
+    // removed task is left in the queue, but dropped when reached
+    assertFalse(task.canExecute(task.getExecuteReference()));
+    assertTrue(queueSet.executeQueue.isEmpty());
+    assertEquals(0, queueSet.queueSize());
+  }
+
+  @Test
+  public void removeRecurringTest() {
+    TestRunnable runnable = new TestRunnable();
+    TaskWrapper task = new RecurringDelayTaskWrapper(runnable, queueSet, 
+                                                     Clock.lastKnownForwardProgressingMillis() + 10_000, 
+                                                     10);
+
+    queueSet.addScheduled(task);
+
+    assertTrue(queueSet.remove(runnable));
+    assertFalse(queueSet.remove(runnable));
+    assertTrue(queueSet.scheduleQueue.isEmpty());
+    assertEquals(0, queueSet.queueSize());
+  }
+
+  @Test
+  public void executedTaskUnindexedTest() {
+    TestRunnable runnable = new TestRunnable();
+    OneTimeTaskWrapper task = new OneTimeTaskWrapper(runnable, queueSet.executeQueue,
+                                                     Clock.lastKnownForwardProgressingMillis());
+    queueSet.addExecute(task);
+
+    assertTrue(task.canExecute(task.getExecuteReference()));
+
+    assertTrue(queueSet.taskIndex.isEmpty());
+    assertFalse(queueSet.remove(runnable));
+  }
+
+  @Test
+  public void duplicateTaskRemoveTest() {
+    TestRunnable runnable = new TestRunnable();
+    List<OneTimeTaskWrapper> tasks = new ArrayList<>(TEST_QTY);
+    for (int i = 0; i < TEST_QTY; i++) {
+      OneTimeTaskWrapper task = new OneTimeTaskWrapper(runnable, queueSet.executeQueue,
+                                                       Clock.lastKnownForwardProgressingMillis());
+      tasks.add(task);
+      queueSet.addExecute(task);
+    }
+
+    for (int i = 0; i < TEST_QTY; i++) {
+      assertTrue(queueSet.remove(runnable));
+      assertEquals(TEST_QTY - i - 1, queueSet.queueSize());
+    }
+    assertFalse(queueSet.remove(runnable));
+
+    for (OneTimeTaskWrapper task : tasks) {
+      assertFalse(task.canExecute(task.getExecuteReference()));
+    }
+    assertTrue(queueSet.taskIndex.isEmpty());
+  }
+
+  @Test
+  public void drainQueueIntoTest() {
+    TestRunnable removedRunnable = new TestRunnable();
+    OneTimeTaskWrapper removedTask = new OneTimeTaskWrapper(removedRunnable, queueSet.executeQueue,
+                                                            Clock.lastKnownForwardProgressingMillis());
+    OneTimeTaskWrapper task = new OneTimeTaskWrapper(DoNothingRunnable.instance(),
+                                                     queueSet.scheduleQueue,
+                                                     Clock.lastKnownForwardProgressingMillis() + 10_000);
+    queueSet.addExecute(removedTask);
+    queueSet.addScheduled(task);
+    assertTrue(queueSet.remove(removedRunnable));
+
+    List<TaskWrapper> depositList = new ArrayList<>(2);
+    queueSet.drainQueueInto(depositList);
+
+    assertEquals(1, depositList.size());
+    assertTrue(depositList.contains(task));
+    assertEquals(0, queueSet.queueSize());
+    assertTrue(queueSet.taskIndex.isEmpty());
+  }
+
+  @Test
+  public void timingWheelRemoveTest() {
+    TimingWheelQueueSet wheelQueueSet = new TimingWheelQueueSet(new TestQueueSetListener(), 1, true);
+    TestRunnable runnable = new TestRunnable();
+    OneTimeTaskWrapper task = new OneTimeTaskWrapper(runnable, wheelQueueSet.scheduleQueue,
+                                                     Clock.lastKnownForwardProgressingMillis() + 2);
+    wheelQueueSet.addScheduled(task);
+    // force the task to be moved from the incoming queue into the wheel
+    wheelQueueSet.getNextTask();
+
+    assertTrue(wheelQueueSet.remove(runnable));
+    assertFalse(wheelQueueSet.remove(runnable));
+    assertEquals(0, wheelQueueSet.queueSize());
+
+    // once due the removed task should be dropped rather than executed
+    TestUtils.sleep(10);
+    Clock.accurateForwardProgressingMillis();
+    TaskWrapper nextTask = wheelQueueSet.getNextTask();
+    assertTrue(nextTask == null || ! nextTask.canExecute(nextTask.getExecuteReference()));
+    assertNull(wheelQueueSet.getNextTask());
+    assertEquals(0, wheelQueueSet.queueSize());
+  }
+
+  private static class TestQueueSetListener implements QueueSetListener {
+    @Override
+    public void handleQueueUpdate() {
+      // ignored
+    }
+  }
+}
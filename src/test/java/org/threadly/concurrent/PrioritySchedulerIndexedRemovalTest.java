@@ -0,0 +1,133 @@
+package org.threadly.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+import org.threadly.concurrent.future.ListenableFuture;
+import org.threadly.test.concurrent.TestRunnable;
+
+@SuppressWarnings("javadoc")
+public class PrioritySchedulerIndexedRemovalTest extends PrioritySchedulerTest {
+  @Override
+  protected PrioritySchedulerServiceFactory getPrioritySchedulerFactory() {
+    return new IndexedPrioritySchedulerFactory();
+  }
+
+  @Test
+  public void taskIndexUsedTest() {
+    PrioritySchedulerServiceFactory factory = getPrioritySchedulerFactory();
+    PriorityScheduler scheduler = factory.makePriorityScheduler(1);
+    try {
+      for (TaskPriority p : TaskPriority.values()) {
+        assertNotNull(scheduler.taskQueueManager.getQueueSet(p).taskIndex);
+      }
+    } finally {
+      factory.shutdown();
+    }
+  }
+
+  @Test
+  public void cancelRemovesScheduledTaskTest() {
+    PrioritySchedulerServiceFactory factory = getPrioritySchedulerFactory();
+    PriorityScheduler scheduler = factory.makePriorityScheduler(1);
+    try {
+      List<ListenableFuture<?>> futures = new ArrayList<>(TEST_QTY);
+      for (int i = 0; i < TEST_QTY; i++) {
+        futures.add(scheduler.submitScheduled(new TestRunnable(), 1000 * 10));
+      }
+      assertEquals(TEST_QTY, scheduler.getQueuedTaskCount());
+
+      for (ListenableFuture<?> lf : futures) {
+        assertTrue(lf.cancel(false));
+      }
+
+      assertEquals(0, scheduler.getQueuedTaskCount());
+      assertTrue(scheduler.taskQueueManager.highPriorityQueueSet.taskIndex.isEmpty());
+    } finally {
+      factory.shutdown();
+    }
+  }
+
+  @Test
+  public void removeScheduledTaskTest() {
+    PrioritySchedulerServiceFactory factory = getPrioritySchedulerFactory();
+    PriorityScheduler scheduler = factory.makePriorityScheduler(1);
+    try {
+      TestRunnable tr = new TestRunnable();
+      TestCallable tc = new TestCallable();
+      scheduler.schedule(tr, 1000 * 10, TaskPriority.Low);
+      scheduler.submitScheduled(tc, 1000 * 10, TaskPriority.Starvable);
+      assertEquals(2, scheduler.getQueuedTaskCount());
+
+      assertTrue(scheduler.remove(tr));
+      assertFalse(scheduler.remove(tr));
+      assertTrue(scheduler.remove(tc));
+      assertFalse(scheduler.remove(tc));
+
+      assertEquals(0, scheduler.getQueuedTaskCount());
+      assertEquals(0, tr.getRunCount());
+    } finally {
+      factory.shutdown();
+    }
+  }
+
+  private static class IndexedPrioritySchedulerFactory implements PrioritySchedulerServiceFactory {
+    private final List<PriorityScheduler> executors;
+
+    public IndexedPrioritySchedulerFactory() {
+      executors = new ArrayList<>(2);
+    }
+
+    @Override
+    public SchedulerService makeSchedulerService(int poolSize, boolean prestartIfAvailable) {
+      PriorityScheduler result = makePriorityScheduler(poolSize);
+      if (prestartIfAvailable) {
+        result.prestartAllThreads();
+      }
+
+      return result;
+    }
+
+    @Override
+    public AbstractPriorityScheduler makeAbstractPriorityScheduler(int poolSize,
+                                                                   TaskPriority defaultPriority,
+                                                                   long maxWaitForLowPriority) {
+      return makePriorityScheduler(poolSize, defaultPriority, maxWaitForLowPriority);
+    }
+
+    @Override
+    public AbstractPriorityScheduler makeAbstractPriorityScheduler(int poolSize) {
+      return makePriorityScheduler(poolSize);
+    }
+
+    @Override
+    public PriorityScheduler makePriorityScheduler(int poolSize, TaskPriority defaultPriority,
+                                                   long maxWaitForLowPriority) {
+      PriorityScheduler result = 
+          new PriorityScheduler(poolSize, defaultPriority, maxWaitForLowPriority, null, 
+                                new PriorityScheduler.Options().setIndexTaskRemoval(true));
+      executors.add(result);
+
+      return result;
+    }
+
+    @Override
+    public PriorityScheduler makePriorityScheduler(int poolSize) {
+      return makePriorityScheduler(poolSize, TaskPriority.High,
+                                   PriorityScheduler.DEFAULT_LOW_PRIORITY_MAX_WAIT_IN_MS);
+    }
+
+    @Override
+    public void shutdown() {
+      Iterator<PriorityScheduler> it = executors.iterator();
+      while (it.hasNext()) {
+        it.next().shutdownNow();
+        it.remove();
+      }
+    }
+  }
+}
@@ -14,6 +14,9 @@ import org.threadly.ThreadlyTester;
 import org.threadly.concurrent.AbstractPriorityScheduler.OneTimeTaskWrapper;
 import org.threadly.concurrent.AbstractPriorityScheduler.QueueSet;
 import org.threadly.concurrent.AbstractPriorityScheduler.QueueSetListener;
+import org.threadly.concurrent.AbstractPriorityScheduler.RecurringDelayTaskWrapper;
+import org.threadly.concurrent.AbstractPriorityScheduler.RecurringRateTaskWrapper;
+import org.threadly.concurrent.AbstractPriorityScheduler.RecurringTaskWrapper;
 import org.threadly.concurrent.AbstractPriorityScheduler.TaskWrapper;
 import org.threadly.concurrent.future.ListenableFutureTask;
 import org.threadly.test.concurrent.TestRunnable;
@@ -197,6 +200,84 @@ public class PrioritySchedulerQueueSetTest extends ThreadlyTester {
     assertTrue(queueSet.getNextTask() == scheduleTask);
   }
   
+  @Test
+  public void recurringClaimAndRescheduleTest() {
+    long now = Clock.accurateForwardProgressingMillis();
+    TestRunnable tr = new TestRunnable();
+    RecurringRateTaskWrapper recurringTask = 
+        new RecurringRateTaskWrapper(tr, queueSet, now, 1000 * 60);
+    OneTimeTaskWrapper scheduleTask = new OneTimeTaskWrapper(DoNothingRunnable.instance(), null, 
+                                                             now + 1000);
+    queueSet.addScheduled(recurringTask);
+    queueSet.addScheduled(scheduleTask);
+    
+    assertEquals(2, queueSet.queueSize());
+    assertEquals(1, queueSet.recurringQueue.size());
+    assertTrue(queueSet.getNextTask() == recurringTask);
+    
+    short executeReference = recurringTask.getExecuteReference();
+    assertTrue(recurringTask.canExecute(executeReference));
+    assertTrue(recurringTask.isExecuting());
+    // claimed tasks leave the recurring queue, but are still tracked
+    assertTrue(queueSet.recurringQueue.isEmpty());
+    assertEquals(2, queueSet.queueSize());
+    assertTrue(queueSet.getNextTask() == scheduleTask);
+    // can not be claimed twice
+    assertFalse(recurringTask.canExecute(executeReference));
+    
+    recurringTask.runTask();
+    
+    assertEquals(1, tr.getRunCount());
+    assertFalse(recurringTask.isExecuting());
+    assertEquals(1, queueSet.recurringQueue.size());
+    assertTrue(queueSet.getNextTask() == scheduleTask);
+    // reference from before the execution is now stale
+    assertFalse(recurringTask.canExecute(executeReference));
+  }
+  
+  @Test
+  public void recurringRemoveWhileExecutingTest() {
+    TestRunnable tr = new TestRunnable();
+    RecurringDelayTaskWrapper recurringTask = 
+        new RecurringDelayTaskWrapper(tr, queueSet, Clock.accurateForwardProgressingMillis(), 10);
+    queueSet.addScheduled(recurringTask);
+    
+    assertTrue(recurringTask.canExecute(recurringTask.getExecuteReference()));
+    assertTrue(queueSet.remove(tr));
+    recurringTask.runTask();
+    
+    assertEquals(0, tr.getRunCount());
+    assertEquals(0, queueSet.queueSize());
+    assertTrue(queueSet.recurringQueue.isEmpty());
+    assertNull(queueSet.getNextTask());
+  }
+  
+  @Test
+  public void recurringOrderTest() {
+    long now = Clock.accurateForwardProgressingMillis();
+    List<TaskWrapper> orderedList = new ArrayList<>(TEST_QTY);
+    for (int i = 0; i < TEST_QTY; i++) {
+      orderedList.add(new RecurringDelayTaskWrapper(DoNothingRunnable.instance(), queueSet, 
+                                                    now + (i / 2), 10));
+    }
+    List<TaskWrapper> randomList = new ArrayList<>(orderedList);
+    Collections.shuffle(randomList);
+    for (TaskWrapper tw : randomList) {
+      queueSet.addScheduled(tw);
+    }
+    
+    assertEquals(TEST_QTY, queueSet.recurringQueue.size());
+    Iterator<RecurringTaskWrapper> resultIt = queueSet.recurringQueue.iterator();
+    TaskWrapper previous = null;
+    while (resultIt.hasNext()) {
+      TaskWrapper tw = resultIt.next();
+      if (previous != null) {
+        assertTrue(previous.getRunTime() <= tw.getRunTime());
+      }
+      previous = tw;
+    }
+  }
+  
   private static class TestQueueSetListener implements QueueSetListener {
     @Override
     public void handleQueueUpdate() {
@@ -7,15 +7,18 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 import org.threadly.BlockingTestRunnable;
 import org.threadly.concurrent.AbstractPriorityScheduler.OneTimeTaskWrapper;
+import org.threadly.concurrent.AbstractPriorityScheduler.QueueSet;
 import org.threadly.concurrent.future.ListenableFuture;
 import org.threadly.concurrent.wrapper.priority.DefaultPriorityWrapper;
 import org.threadly.test.concurrent.AsyncVerifier;
 import org.threadly.test.concurrent.TestCondition;
 import org.threadly.test.concurrent.TestRunnable;
+import org.threadly.test.concurrent.TestUtils;
 import org.threadly.util.Clock;
 
 @SuppressWarnings("javadoc")
@@ -108,6 +111,189 @@ public class PrioritySchedulerTest extends AbstractPrioritySchedulerTest {
     }
   }
   
+  @Test
+  public void keepAliveRetiresIdleThreadsTest() {
+    PrioritySchedulerServiceFactory factory = getPrioritySchedulerFactory();
+    PriorityScheduler scheduler = factory.makePriorityScheduler(4);
+    try {
+      scheduler.setCorePoolSize(1);
+      scheduler.setKeepAliveTime(10);
+      assertEquals(1, scheduler.getCorePoolSize());
+      assertEquals(10, scheduler.getKeepAliveTime());
+      scheduler.prestartAllThreads();
+
+      new TestCondition(() -> scheduler.getCurrentPoolSize() == 1).blockTillTrue();
+
+      // threads should be started again as tasks are submitted
+      List<TestRunnable> executedRunnables = executeTestRunnables(scheduler, 0);
+      Iterator<TestRunnable> it = executedRunnables.iterator();
+      while (it.hasNext()) {
+        it.next().blockTillFinished();
+      }
+      new TestCondition(() -> scheduler.getCurrentPoolSize() == 1).blockTillTrue();
+    } finally {
+      factory.shutdown();
+    }
+  }
+
+  @Test
+  public void keepAliveReducedWhileIdleTest() {
+    final int keepAliveTime = 1000;
+    PrioritySchedulerServiceFactory factory = getPrioritySchedulerFactory();
+    PriorityScheduler scheduler = factory.makePriorityScheduler(4);
+    try {
+      long start = Clock.accurateForwardProgressingMillis();
+      scheduler.prestartAllThreads();
+      scheduler.setCorePoolSize(1);
+      scheduler.setKeepAliveTime(keepAliveTime);
+      
+      // idle time should be measured from when the workers went idle, not from before
+      TestUtils.sleep(DELAY_TIME);
+      assertEquals(4, scheduler.getCurrentPoolSize());
+      
+      new TestCondition(() -> scheduler.getCurrentPoolSize() == 1).blockTillTrue();
+      assertTrue(Clock.accurateForwardProgressingMillis() - start >= keepAliveTime);
+    } finally {
+      factory.shutdown();
+    }
+  }
+
+  @Test
+  public void keepAliveDisabledByDefaultTest() {
+    PrioritySchedulerServiceFactory factory = getPrioritySchedulerFactory();
+    PriorityScheduler scheduler = factory.makePriorityScheduler(2);
+    try {
+      assertEquals(2, scheduler.getCorePoolSize());
+      assertEquals(Long.MAX_VALUE, scheduler.getKeepAliveTime());
+    } finally {
+      factory.shutdown();
+    }
+  }
+
+  @Test
+  public void setKeepAliveFail() {
+    PrioritySchedulerServiceFactory factory = getPrioritySchedulerFactory();
+    PriorityScheduler scheduler = factory.makePriorityScheduler(1);
+    try {
+      try {
+        scheduler.setKeepAliveTime(0);
+        fail("Exception should have been thrown");
+      } catch (IllegalArgumentException expected) {
+        // ignored
+      }
+      try {
+        scheduler.setCorePoolSize(0);
+        fail("Exception should have been thrown");
+      } catch (IllegalArgumentException expected) {
+        // ignored
+      }
+    } finally {
+      factory.shutdown();
+    }
+  }
+
+  @Test
+  public void spinYieldIdleStrategyTest() {
+    PrioritySchedulerServiceFactory factory = getPrioritySchedulerFactory();
+    PriorityScheduler scheduler = factory.makePriorityScheduler(2);
+    try {
+      IdleStrategy idleStrategy = new IdleStrategy.SpinYieldIdleStrategy(100, 100);
+      scheduler.setIdleStrategy(idleStrategy);
+      assertTrue(idleStrategy == scheduler.getIdleStrategy());
+      
+      List<TestRunnable> executedRunnables = executeTestRunnables(scheduler, 0);
+      Iterator<TestRunnable> it = executedRunnables.iterator();
+      while (it.hasNext()) {
+        it.next().blockTillFinished();
+      }
+      TestRunnable scheduledRunnable = new TestRunnable();
+      scheduler.schedule(scheduledRunnable, DELAY_TIME);
+      assertTrue(scheduledRunnable.getDelayTillFirstRun() >= DELAY_TIME);
+    } finally {
+      factory.shutdown();
+    }
+  }
+  
+  @Test
+  public void coalesceRunTimeTest() {
+    assertEquals(100, PriorityScheduler.coalesceRunTime(100, 0));
+    assertEquals(104, PriorityScheduler.coalesceRunTime(100, 4));
+    assertEquals(104, PriorityScheduler.coalesceRunTime(101, 4));
+    assertEquals(104, PriorityScheduler.coalesceRunTime(103, 4));
+    assertEquals(104, PriorityScheduler.coalesceRunTime(100, 7));
+    assertEquals(128, PriorityScheduler.coalesceRunTime(100, 40));
+    assertEquals(Long.MAX_VALUE - 1, PriorityScheduler.coalesceRunTime(Long.MAX_VALUE - 1, 10));
+  }
+  
+  @Test
+  public void scheduleWithSlackTest() {
+    PriorityScheduler scheduler = new PriorityScheduler(1);
+    try {
+      long slack = 64;
+      scheduler.schedule(DoNothingRunnable.instance(), 1000 * 60, slack);
+      scheduler.schedule(DoNothingRunnable.instance(), 1000 * 60 + 1, slack, TaskPriority.High);
+      scheduler.setDefaultScheduleSlack(slack);
+      assertEquals(slack, scheduler.getDefaultScheduleSlack());
+      scheduler.submitScheduled(DoNothingRunnable.instance(), 1000 * 60 + 2);
+      
+      QueueSet queueSet = scheduler.taskQueueManager.getQueueSet(TaskPriority.High);
+      assertEquals(3, queueSet.scheduleQueue.size());
+      long firstRunTime = queueSet.scheduleQueue.get(0).getRunTime();
+      // may be one millisecond past the boundary if the clock advanced while being queued
+      assertTrue(firstRunTime % slack <= 1);
+      // the run time may fall on the next boundary only if the clock advanced past one
+      assertTrue(queueSet.scheduleQueue.get(2).getRunTime() - firstRunTime <= slack);
+      
+      TestRunnable tr = new TestRunnable();
+      scheduler.schedule(tr, DELAY_TIME, 2);
+      assertTrue(tr.getDelayTillFirstRun() >= DELAY_TIME);
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+  
+  @Test
+  public void scheduleWithSlackOverridableTest() {
+    final AtomicInteger scheduledCount = new AtomicInteger();
+    PriorityScheduler scheduler = new PriorityScheduler(1) {
+      @Override
+      protected OneTimeTaskWrapper doSchedule(Runnable task, long delayInMillis, 
+                                              TaskPriority priority) {
+        scheduledCount.incrementAndGet();
+        return super.doSchedule(task, delayInMillis, priority);
+      }
+    };
+    try {
+      scheduler.schedule(DoNothingRunnable.instance(), 1000 * 60, 64);
+      scheduler.schedule(DoNothingRunnable.instance(), 1000 * 60, 64, TaskPriority.Low);
+      
+      assertEquals(2, scheduledCount.get());
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+  
+  @Test
+  public void scheduleWithSlackFail() {
+    PriorityScheduler scheduler = new PriorityScheduler(1);
+    try {
+      try {
+        scheduler.setDefaultScheduleSlack(-1);
+        fail("Exception should have been thrown");
+      } catch (IllegalArgumentException expected) {
+        // ignored
+      }
+      try {
+        scheduler.schedule(DoNothingRunnable.instance(), 10, -1);
+        fail("Exception should have been thrown");
+      } catch (IllegalArgumentException expected) {
+        // ignored
+      }
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+  
   @Test
   public void increasePoolSizeWithWaitingTaskTest() {
     PrioritySchedulerServiceFactory factory = getPrioritySchedulerFactory();
@@ -0,0 +1,220 @@
+package org.threadly.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.threadly.ThreadlyTester;
+import org.threadly.concurrent.AbstractPriorityScheduler.OneTimeTaskWrapper;
+import org.threadly.concurrent.AbstractPriorityScheduler.QueueSetListener;
+import org.threadly.concurrent.AbstractPriorityScheduler.TaskWrapper;
+import org.threadly.concurrent.AbstractPriorityScheduler.TimingWheelQueueSet;
+import org.threadly.concurrent.future.ListenableFutureTask;
+import org.threadly.test.concurrent.TestRunnable;
+import org.threadly.util.Clock;
+
+@SuppressWarnings("javadoc")
+public class PrioritySchedulerTimingWheelQueueSetTest extends ThreadlyTester {
+  private TestQueueSetListener queueListener;
+  private TimingWheelQueueSet queueSet;
+
+  @Before
+  public void setup() {
+    queueListener = new TestQueueSetListener();
+    queueSet = new TimingWheelQueueSet(queueListener, 1);
+  }
+
+  @After
+  public void cleanup() {
+    queueListener = null;
+    queueSet = null;
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  @SuppressWarnings("unused")
+  public void constructorFail() {
+    new TimingWheelQueueSet(queueListener, 0);
+  }
+
+  @Test
+  public void addScheduledReadyTaskTest() {
+    TaskWrapper task = new OneTimeTaskWrapper(DoNothingRunnable.instance(), null,
+                                              Clock.lastKnownForwardProgressingMillis());
+
+    queueSet.addScheduled(task);
+
+    assertEquals(1, queueSet.scheduleQueue.size());
+    assertEquals(1, queueSet.queueSize());
+    assertTrue(queueSet.getNextTask() == task);
+  }
+
+  @Test
+  public void addScheduledDelayedTaskTest() {
+    long runTime = Clock.lastKnownForwardProgressingMillis() + 10_000;
+    TaskWrapper task = new OneTimeTaskWrapper(DoNothingRunnable.instance(), null, runTime);
+
+    queueSet.addScheduled(task);
+
+    assertEquals(0, queueSet.scheduleQueue.size());
+    assertEquals(1, queueSet.queueSize());
+    assertEquals(1, queueListener.updateCount);
+
+    TaskWrapper nextTask = queueSet.getNextTask();
+    assertNotNull(nextTask);
+    assertEquals(runTime, nextTask.getRunTime());
+    // place holder can not be executed
+    assertFalse(nextTask.canExecute(nextTask.getExecuteReference()));
+  }
+
+  @Test
+  public void addScheduledLaterTaskNoUpdateTest() {
+    queueSet.addScheduled(new OneTimeTaskWrapper(DoNothingRunnable.instance(), null,
+                                                 Clock.lastKnownForwardProgressingMillis() + 10_000));
+    queueSet.addScheduled(new OneTimeTaskWrapper(DoNothingRunnable.instance(), null,
+                                                 Clock.lastKnownForwardProgressingMillis() + 20_000));
+
+    assertEquals(1, queueListener.updateCount);
+    assertEquals(2, queueSet.queueSize());
+  }
+
+  @Test
+  public void removeCallableTest() {
+    TestCallable callable = new TestCallable();
+    OneTimeTaskWrapper task = new OneTimeTaskWrapper(new ListenableFutureTask<>(false, callable),
+                                                     null,
+                                                     Clock.lastKnownForwardProgressingMillis() + 10_000);
+
+    assertFalse(queueSet.remove(callable));
+
+    queueSet.addScheduled(task);
+
+    assertTrue(queueSet.remove(callable));
+    assertFalse(queueSet.remove(callable));
+    assertEquals(0, queueSet.queueSize());
+  }
+
+  @Test
+  public void removeRunnableTest() {
+    TestRunnable runnable = new TestRunnable();
+    OneTimeTaskWrapper task = new OneTimeTaskWrapper(runnable, null,
+                                                     Clock.lastKnownForwardProgressingMillis() + 10_000);
+
+    assertFalse(queueSet.remove(runnable));
+
+    queueSet.addScheduled(task);
+    // force the task to be moved from the incoming queue into the wheel
+    queueSet.getNextTask();
+
+    assertTrue(queueSet.remove(runnable));
+    assertFalse(queueSet.remove(runnable));
+    assertEquals(0, queueSet.queueSize());
+  }
+
+  @Test
+  public void removeFromSharedSlotTest() {
+    long runTime = Clock.lastKnownForwardProgressingMillis() + 10_000;
+    List<TestRunnable> runnables = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      TestRunnable tr = new TestRunnable();
+      runnables.add(tr);
+      queueSet.addScheduled(new OneTimeTaskWrapper(tr, null, runTime));
+    }
+    // force the tasks to be moved from the incoming queue into the wheel
+    queueSet.getNextTask();
+
+    assertTrue(queueSet.remove(runnables.get(1)));
+    assertTrue(queueSet.remove(runnables.get(3)));
+    assertFalse(queueSet.remove(runnables.get(1)));
+    assertEquals(2, queueSet.queueSize());
+
+    List<TaskWrapper> depositList = new ArrayList<>();
+    queueSet.drainQueueInto(depositList);
+    assertEquals(2, depositList.size());
+    assertTrue(depositList.get(0).task == runnables.get(0) || depositList.get(1).task == runnables.get(0));
+    assertTrue(depositList.get(0).task == runnables.get(2) || depositList.get(1).task == runnables.get(2));
+  }
+
+  @Test
+  public void getNextTaskReusesPlaceholderTest() {
+    queueSet.addScheduled(new OneTimeTaskWrapper(DoNothingRunnable.instance(), null,
+                                                 Clock.lastKnownForwardProgressingMillis() + 10_000));
+
+    assertTrue(queueSet.getNextTask() == queueSet.getNextTask());
+    assertEquals(0, queueSet.heldReadyTaskCount());
+  }
+
+  @Test
+  public void drainQueueIntoTest() {
+    long now = Clock.lastKnownForwardProgressingMillis();
+    List<TaskWrapper> tasks = new ArrayList<>();
+    // delays chosen to land in each level of the wheel, as well as the overflow
+    for (long delay : new long[] { 0, 100, 10_000, 1_000_000, 100_000_000, 10_000_000_000L }) {
+      TaskWrapper task = new OneTimeTaskWrapper(DoNothingRunnable.instance(), null, now + delay);
+      tasks.add(task);
+      queueSet.addScheduled(task);
+    }
+    assertEquals(tasks.size(), queueSet.queueSize());
+
+    List<TaskWrapper> depositList = new ArrayList<>(tasks.size());
+    queueSet.drainQueueInto(depositList);
+
+    assertEquals(tasks.size(), depositList.size());
+    assertTrue(depositList.containsAll(tasks));
+    assertEquals(0, queueSet.queueSize());
+    assertNull(queueSet.getNextTask());
+  }
+
+  @Test
+  public void getNextTaskEmptyTest() {
+    assertNull(queueSet.getNextTask());
+  }
+
+  @Test
+  public void getNextTaskOrderTest() {
+    long now = Clock.accurateForwardProgressingMillis();
+    List<TaskWrapper> orderedList = new ArrayList<>(TEST_QTY);
+    for (int i = 0; i < TEST_QTY; i++) {
+      orderedList.add(new OneTimeTaskWrapper(DoNothingRunnable.instance(),
+                                             queueSet.scheduleQueue, now + 2 + (i * 2)));
+    }
+    List<TaskWrapper> randomList = new ArrayList<>(orderedList);
+    Collections.shuffle(randomList);
+    for (TaskWrapper tw : randomList) {
+      queueSet.addScheduled(tw);
+    }
+
+    List<TaskWrapper> resultList = new ArrayList<>(TEST_QTY);
+    long startTime = Clock.accurateForwardProgressingMillis();
+    while (resultList.size() < TEST_QTY) {
+      assertTrue(Clock.accurateForwardProgressingMillis() - startTime < 10_000);
+
+      TaskWrapper nextTask = queueSet.getNextTask();
+      assertNotNull(nextTask);
+      if (nextTask.getScheduleDelay() <= 0) {
+        if (nextTask.canExecute(nextTask.getExecuteReference())) {
+          assertTrue(nextTask.getRunTime() <= Clock.accurateForwardProgressingMillis());
+          resultList.add(nextTask);
+        }
+      } else {
+        Thread.yield();
+      }
+    }
+
+    assertEquals(orderedList, resultList);
+    assertEquals(0, queueSet.queueSize());
+  }
+
+  private static class TestQueueSetListener implements QueueSetListener {
+    private int updateCount = 0;
+
+    @Override
+    public void handleQueueUpdate() {
+      updateCount++;
+    }
+  }
+}
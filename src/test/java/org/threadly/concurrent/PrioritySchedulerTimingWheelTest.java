@@ -0,0 +1,118 @@
+package org.threadly.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+import org.threadly.concurrent.AbstractPriorityScheduler.OneTimeTaskWrapper;
+import org.threadly.concurrent.AbstractPriorityScheduler.TimingWheelQueueSet;
+import org.threadly.test.concurrent.TestRunnable;
+import org.threadly.util.Clock;
+
+@SuppressWarnings("javadoc")
+public class PrioritySchedulerTimingWheelTest extends PrioritySchedulerTest {
+  @Override
+  protected PrioritySchedulerServiceFactory getPrioritySchedulerFactory() {
+    return new TimingWheelPrioritySchedulerFactory();
+  }
+  
+  @Test
+  public void timingWheelQueueSetUsedTest() {
+    PrioritySchedulerServiceFactory factory = getPrioritySchedulerFactory();
+    PriorityScheduler scheduler = factory.makePriorityScheduler(1);
+    try {
+      for (TaskPriority p : TaskPriority.values()) {
+        assertTrue(scheduler.taskQueueManager.getQueueSet(p) instanceof TimingWheelQueueSet);
+      }
+    } finally {
+      factory.shutdown();
+    }
+  }
+  
+  @Override
+  @Test
+  public void addToQueueTest() {
+    PrioritySchedulerServiceFactory factory = getPrioritySchedulerFactory();
+    long taskDelay = 1000 * 10; // make it long to prevent it from getting consumed from the queue
+    
+    PriorityScheduler scheduler = factory.makePriorityScheduler(1);
+    try {
+      scheduler.addToScheduleQueue(scheduler.taskQueueManager.highPriorityQueueSet, 
+                                   new OneTimeTaskWrapper(new TestRunnable(), null, 
+                                                          Clock.lastKnownForwardProgressingMillis() + taskDelay));
+
+      // task is held in the wheel rather than the schedule queue
+      assertEquals(1, scheduler.taskQueueManager.highPriorityQueueSet.queueSize());
+      assertEquals(0, scheduler.taskQueueManager.highPriorityQueueSet.scheduleQueue.size());
+      assertEquals(0, scheduler.taskQueueManager.lowPriorityQueueSet.queueSize());
+      
+      scheduler.addToScheduleQueue(scheduler.taskQueueManager.lowPriorityQueueSet, 
+                                   new OneTimeTaskWrapper(new TestRunnable(), null, 
+                                                          Clock.lastKnownForwardProgressingMillis() + taskDelay));
+
+      assertEquals(1, scheduler.taskQueueManager.highPriorityQueueSet.queueSize());
+      assertEquals(1, scheduler.taskQueueManager.lowPriorityQueueSet.queueSize());
+    } finally {
+      factory.shutdown();
+    }
+  }
+
+  private static class TimingWheelPrioritySchedulerFactory implements PrioritySchedulerServiceFactory {
+    private final List<PriorityScheduler> executors;
+    
+    public TimingWheelPrioritySchedulerFactory() {
+      executors = new ArrayList<>(2);
+    }
+
+    @Override
+    public SchedulerService makeSchedulerService(int poolSize, boolean prestartIfAvailable) {
+      PriorityScheduler result = makePriorityScheduler(poolSize);
+      if (prestartIfAvailable) {
+        result.prestartAllThreads();
+      }
+      
+      return result;
+    }
+
+    @Override
+    public AbstractPriorityScheduler makeAbstractPriorityScheduler(int poolSize,
+                                                                   TaskPriority defaultPriority,
+                                                                   long maxWaitForLowPriority) {
+      return makePriorityScheduler(poolSize, defaultPriority, maxWaitForLowPriority);
+    }
+
+    @Override
+    public AbstractPriorityScheduler makeAbstractPriorityScheduler(int poolSize) {
+      return makePriorityScheduler(poolSize);
+    }
+
+    @Override
+    public PriorityScheduler makePriorityScheduler(int poolSize, TaskPriority defaultPriority,
+                                                   long maxWaitForLowPriority) {
+      PriorityScheduler result = 
+          new PriorityScheduler(poolSize, defaultPriority, maxWaitForLowPriority, null, 
+                                new PriorityScheduler.Options().setScheduleTickMillis(1));
+      executors.add(result);
+      
+      return result;
+    }
+
+    @Override
+    public PriorityScheduler makePriorityScheduler(int poolSize) {
+      return makePriorityScheduler(poolSize, TaskPriority.High, 
+                                   PriorityScheduler.DEFAULT_LOW_PRIORITY_MAX_WAIT_IN_MS);
+    }
+
+    @Override
+    public void shutdown() {
+      Iterator<PriorityScheduler> it = executors.iterator();
+      while (it.hasNext()) {
+        it.next().shutdownNow();
+        it.remove();
+      }
+    }
+  }
+}
@@ -0,0 +1,235 @@
+package org.threadly.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.threadly.BlockingTestRunnable;
+import org.threadly.concurrent.AbstractPriorityScheduler.QueueSet;
+import org.threadly.concurrent.PriorityScheduler.LocalTaskWrapper;
+import org.threadly.concurrent.future.ListenableFuture;
+import org.threadly.test.concurrent.TestRunnable;
+
+@SuppressWarnings("javadoc")
+public class PrioritySchedulerWorkStealingTest extends PrioritySchedulerTest {
+  @Override
+  protected PrioritySchedulerServiceFactory getPrioritySchedulerFactory() {
+    return new WorkStealingPrioritySchedulerFactory();
+  }
+
+  @Override
+  @Test
+  public void lowPriorityFlowControlTest() {
+    PrioritySchedulerServiceFactory factory = getPrioritySchedulerFactory();
+    final AtomicBoolean testRunning = new AtomicBoolean(true);
+    try {
+      final PriorityScheduler scheduler = factory.makePriorityScheduler(1, TaskPriority.High, DELAY_TIME);
+
+      new Runnable() {
+        @Override
+        public void run() {
+          if (testRunning.get()) {
+            // tasks submitted from the pool thread are queued locally
+            while (scheduler.getQueuedTaskCount(TaskPriority.High) < 5) {
+              scheduler.execute(this, TaskPriority.High);
+            }
+          }
+        }
+      }.run();
+
+      TestRunnable lowPriorityRunnable = new TestRunnable();
+      scheduler.execute(lowPriorityRunnable, TaskPriority.Low);
+
+      assertTrue(lowPriorityRunnable.getDelayTillFirstRun() >= DELAY_TIME);
+    } finally {
+      testRunning.set(false);
+      factory.shutdown();
+    }
+  }
+
+  @Test
+  public void localTasksExecutedTest() {
+    PrioritySchedulerServiceFactory factory = getPrioritySchedulerFactory();
+    final PriorityScheduler scheduler = factory.makePriorityScheduler(4);
+    try {
+      final List<TestRunnable> runnables = new ArrayList<>(TEST_QTY);
+      for (int i = 0; i < TEST_QTY; i++) {
+        runnables.add(new TestRunnable());
+      }
+      scheduler.submit(() -> {
+        for (TestRunnable tr : runnables) {
+          scheduler.execute(tr);
+        }
+      }).get();
+
+      for (TestRunnable tr : runnables) {
+        tr.blockTillFinished();
+        assertEquals(1, tr.getRunCount());
+      }
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    } finally {
+      factory.shutdown();
+    }
+  }
+
+  @Test
+  public void localTaskStolenTest() throws Exception {
+    PrioritySchedulerServiceFactory factory = getPrioritySchedulerFactory();
+    final PriorityScheduler scheduler = factory.makePriorityScheduler(2);
+    try {
+      scheduler.prestartAllThreads();
+      final TestRunnable forkedTask = new TestRunnable();
+      // submitting worker will block until the forked task is run by another worker
+      ListenableFuture<?> lf = scheduler.submit(() -> {
+        try {
+          scheduler.submit(forkedTask).get();
+        } catch (Exception e) {
+          throw new RuntimeException(e);
+        }
+      });
+
+      lf.get();
+      assertEquals(1, forkedTask.getRunCount());
+    } finally {
+      factory.shutdown();
+    }
+  }
+
+  @Test
+  public void localTaskQueuedCountAndRemoveTest() throws InterruptedException {
+    PrioritySchedulerServiceFactory factory = getPrioritySchedulerFactory();
+    final PriorityScheduler scheduler = factory.makePriorityScheduler(1);
+    final BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      final TestRunnable localTask = new TestRunnable();
+      scheduler.execute(() -> {
+        scheduler.execute(localTask);
+        btr.run();
+      });
+      btr.blockTillStarted();
+
+      assertEquals(1, scheduler.workerPool.getLocalTaskCount());
+      assertEquals(1, scheduler.getQueuedTaskCount());
+      assertEquals(1, scheduler.getQueuedTaskCount(TaskPriority.High));
+      assertEquals(1, scheduler.getWaitingForExecutionTaskCount(TaskPriority.High));
+
+      assertTrue(scheduler.remove(localTask));
+      assertFalse(scheduler.remove(localTask));
+      assertEquals(0, scheduler.getQueuedTaskCount());
+
+      btr.unblock();
+      Thread.sleep(DELAY_TIME);
+      assertEquals(0, localTask.getRunCount());
+    } finally {
+      btr.unblock();
+      factory.shutdown();
+    }
+  }
+
+  @Test
+  public void shutdownNowReturnsLocalTasksTest() throws InterruptedException {
+    PrioritySchedulerServiceFactory factory = getPrioritySchedulerFactory();
+    final PriorityScheduler scheduler = factory.makePriorityScheduler(1);
+    final BlockingTestRunnable btr = new BlockingTestRunnable();
+    final AtomicReference<List<Runnable>> localTasks = new AtomicReference<>();
+    try {
+      scheduler.execute(() -> {
+        List<Runnable> tasks = new ArrayList<>(TEST_QTY);
+        for (int i = 0; i < TEST_QTY; i++) {
+          TestRunnable tr = new TestRunnable();
+          tasks.add(tr);
+          scheduler.execute(tr);
+        }
+        localTasks.set(tasks);
+        btr.run();
+      });
+      btr.blockTillStarted();
+
+      List<Runnable> result = scheduler.shutdownNow();
+      assertEquals(TEST_QTY, result.size());
+      assertTrue(result.containsAll(localTasks.get()));
+    } finally {
+      btr.unblock();
+      factory.shutdown();
+    }
+  }
+
+  @Test
+  public void localTaskMovedToExecuteQueueTest() {
+    ConcurrentLinkedDeque<LocalTaskWrapper> localQueue = new ConcurrentLinkedDeque<>();
+    QueueSet queueSet = new QueueSet(() -> { /* ignored */ });
+    LocalTaskWrapper tw = new LocalTaskWrapper(DoNothingRunnable.instance(), localQueue);
+    localQueue.add(tw);
+
+    assertTrue(localQueue.poll() == tw);
+    tw.moveToExecuteQueue(queueSet);
+
+    assertTrue(queueSet.getNextTask() == tw);
+    assertTrue(tw.canExecute(tw.getExecuteReference()));
+    assertFalse(tw.canExecute(tw.getExecuteReference()));
+    assertEquals(0, queueSet.queueSize());
+  }
+
+  private static class WorkStealingPrioritySchedulerFactory implements PrioritySchedulerServiceFactory {
+    private final List<PriorityScheduler> executors;
+
+    public WorkStealingPrioritySchedulerFactory() {
+      executors = new ArrayList<>(2);
+    }
+
+    @Override
+    public SchedulerService makeSchedulerService(int poolSize, boolean prestartIfAvailable) {
+      PriorityScheduler result = makePriorityScheduler(poolSize);
+      if (prestartIfAvailable) {
+        result.prestartAllThreads();
+      }
+
+      return result;
+    }
+
+    @Override
+    public AbstractPriorityScheduler makeAbstractPriorityScheduler(int poolSize,
+                                                                   TaskPriority defaultPriority,
+                                                                   long maxWaitForLowPriority) {
+      return makePriorityScheduler(poolSize, defaultPriority, maxWaitForLowPriority);
+    }
+
+    @Override
+    public AbstractPriorityScheduler makeAbstractPriorityScheduler(int poolSize) {
+      return makePriorityScheduler(poolSize);
+    }
+
+    @Override
+    public PriorityScheduler makePriorityScheduler(int poolSize, TaskPriority defaultPriority,
+                                                   long maxWaitForLowPriority) {
+      PriorityScheduler result = 
+          new PriorityScheduler(poolSize, defaultPriority, maxWaitForLowPriority, null, 
+                                new PriorityScheduler.Options().setWorkStealing(true));
+      executors.add(result);
+
+      return result;
+    }
+
+    @Override
+    public PriorityScheduler makePriorityScheduler(int poolSize) {
+      return makePriorityScheduler(poolSize, TaskPriority.High,
+                                   PriorityScheduler.DEFAULT_LOW_PRIORITY_MAX_WAIT_IN_MS);
+    }
+
+    @Override
+    public void shutdown() {
+      Iterator<PriorityScheduler> it = executors.iterator();
+      while (it.hasNext()) {
+        it.next().shutdownNow();
+        it.remove();
+      }
+    }
+  }
+}
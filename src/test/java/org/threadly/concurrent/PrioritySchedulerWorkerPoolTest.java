@@ -45,6 +45,23 @@ public class PrioritySchedulerWorkerPoolTest extends ThreadlyTester {
     assertTrue(workerPool.isShutdownFinished());
   }
   
+  @Test
+  public void handleQueueUpdateMultipleTasksStartsWorkersTest() {
+    WorkerPool workerPool = new WorkerPool(new ConfigurableThreadFactory(), 4);
+    workerPool.start(new QueueManager(workerPool, 1000));
+    try {
+      workerPool.handleQueueUpdate(2);
+      assertEquals(2, workerPool.getCurrentPoolSize());
+      
+      // should not grow past the max pool size
+      workerPool.handleQueueUpdate(10);
+      assertEquals(4, workerPool.getCurrentPoolSize());
+    } finally {
+      workerPool.startShutdown();
+      workerPool.finishShutdown();
+    }
+  }
+  
   @Test
   public void getAndSetPoolSizeTest() {
     int corePoolSize = 10;
@@ -0,0 +1,171 @@
+package org.threadly.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.nio.channels.SelectionKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.threadly.test.concurrent.AsyncVerifier;
+import org.threadly.test.concurrent.TestRunnable;
+import org.threadly.util.Clock;
+
+@SuppressWarnings("javadoc")
+public class SelectorSchedulerTest extends NoThreadSchedulerTest {
+  private SelectorScheduler selectorScheduler;
+
+  @Before
+  @Override
+  public void setup() {
+    try {
+      scheduler = selectorScheduler = new SelectorScheduler();
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @After
+  @Override
+  public void cleanup() {
+    super.cleanup();
+    try {
+      selectorScheduler.getSelector().close();
+    } catch (IOException e) {
+      // ignored
+    }
+    selectorScheduler = null;
+  }
+
+  @SuppressWarnings("unused")
+  @Test (expected = IllegalArgumentException.class)
+  public void constructorFail() {
+    new SelectorScheduler(null);
+  }
+
+  @Test
+  public void selectTickRunsReadyTasksTest() throws Exception {
+    TestRunnable tr = new TestRunnable();
+    selectorScheduler.execute(tr);
+    selectorScheduler.execute(tr);
+
+    assertEquals(2, selectorScheduler.selectTick(null, null));
+    assertEquals(2, tr.getRunCount());
+  }
+
+  @Test
+  public void selectTickWakeUpTest() throws InterruptedException, TimeoutException {
+    final AsyncVerifier av = new AsyncVerifier();
+    TestRunnable tickRunnable = new TestRunnable() {
+      @Override
+      public void handleRunStart() {
+        try {
+          int runCount = selectorScheduler.selectTick(null, null);  // should block
+          av.assertEquals(1, runCount);
+          av.signalComplete();
+        } catch (Exception e) {
+          av.fail(e);
+        }
+      }
+    };
+    new Thread(tickRunnable).start();
+
+    // should be selecting now
+    tickRunnable.blockTillStarted();
+
+    TestRunnable testTask = new TestRunnable();
+    selectorScheduler.execute(testTask);
+
+    testTask.blockTillFinished();
+    av.waitForTest();
+  }
+
+  @Test
+  public void selectTickScheduledTaskTest() throws Exception {
+    TestRunnable tr = new TestRunnable();
+    long startTime = Clock.accurateForwardProgressingMillis();
+    selectorScheduler.schedule(tr, DELAY_TIME);
+
+    while (selectorScheduler.selectTick(null, null) == 0) {
+      // select may return before the task is ready, depending on clock resolution
+    }
+    assertEquals(1, tr.getRunCount());
+    assertTrue(Clock.accurateForwardProgressingMillis() - startTime >= DELAY_TIME);
+  }
+
+  @Test
+  public void selectTickChannelReadyTest() throws Exception {
+    Pipe pipe = Pipe.open();
+    try {
+      pipe.source().configureBlocking(false);
+      SelectionKey registeredKey =
+          pipe.source().register(selectorScheduler.getSelector(), SelectionKey.OP_READ);
+      TestRunnable tr = new TestRunnable();
+      selectorScheduler.execute(tr);
+      pipe.sink().write(ByteBuffer.wrap(new byte[] { 1 }));
+
+      List<SelectionKey> selectedKeys = new ArrayList<>();
+      int handled = 0;
+      while (selectedKeys.isEmpty()) {
+        handled += selectorScheduler.selectTick(null, selectedKeys::add);
+      }
+
+      assertEquals(2, handled);
+      assertEquals(1, tr.getRunCount());
+      assertTrue(selectedKeys.get(0) == registeredKey);
+      assertTrue(selectorScheduler.getSelector().selectedKeys().isEmpty());
+    } finally {
+      pipe.sink().close();
+      pipe.source().close();
+    }
+  }
+
+  @Test
+  public void selectTickKeyHandlerExceptionTest() throws Exception {
+    Pipe pipe = Pipe.open();
+    try {
+      pipe.source().configureBlocking(false);
+      pipe.source().register(selectorScheduler.getSelector(), SelectionKey.OP_READ);
+      pipe.sink().write(ByteBuffer.wrap(new byte[] { 1 }));
+      RuntimeException failure = new RuntimeException();
+      List<Throwable> handledExceptions = new ArrayList<>();
+
+      while (handledExceptions.isEmpty()) {
+        selectorScheduler.selectTick(handledExceptions::add, (key) -> { throw failure; });
+      }
+
+      assertTrue(handledExceptions.get(0) == failure);
+    } finally {
+      pipe.sink().close();
+      pipe.source().close();
+    }
+  }
+
+  @Test
+  public void cancelTickWakesSelectorTest() throws InterruptedException, TimeoutException {
+    final AsyncVerifier av = new AsyncVerifier();
+    TestRunnable tickRunnable = new TestRunnable() {
+      @Override
+      public void handleRunStart() {
+        try {
+          av.assertEquals(0, selectorScheduler.selectTick(null, null));
+          av.signalComplete();
+        } catch (Exception e) {
+          av.fail(e);
+        }
+      }
+    };
+    new Thread(tickRunnable).start();
+
+    tickRunnable.blockTillStarted();
+    selectorScheduler.cancelTick();
+
+    av.waitForTest();
+  }
+}
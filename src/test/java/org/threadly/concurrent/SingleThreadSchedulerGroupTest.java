@@ -0,0 +1,282 @@
+package org.threadly.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.threadly.BlockingTestRunnable;
+import org.threadly.ThreadlyTester;
+import org.threadly.concurrent.SingleThreadSchedulerGroup.SelectionStrategy;
+import org.threadly.concurrent.future.ListenableFuture;
+import org.threadly.test.concurrent.TestRunnable;
+
+@SuppressWarnings("javadoc")
+public class SingleThreadSchedulerGroupTest extends ThreadlyTester {
+  private static final int SCHEDULER_COUNT = 4;
+
+  private SingleThreadSchedulerGroup group;
+
+  @Before
+  public void setup() {
+    group = new SingleThreadSchedulerGroup(SCHEDULER_COUNT);
+  }
+
+  @After
+  public void cleanup() {
+    group.shutdownNow();
+    group = null;
+  }
+
+  @SuppressWarnings("unused")
+  @Test
+  public void constructorFail() {
+    try {
+      new SingleThreadSchedulerGroup(0);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      new SingleThreadSchedulerGroup(1, null);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      new SingleThreadSchedulerGroup(1, new ConfigurableThreadFactory(), null, false);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void getSchedulerForKeyTest() {
+    for (int i = 0; i < TEST_QTY; i++) {
+      Object key = "key-" + i;
+      assertSame(group.getSchedulerForKey(key), group.getSchedulerForKey("key-" + i));
+    }
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void getSchedulerForNullKeyFail() {
+    group.getSchedulerForKey(null);
+  }
+
+  @Test
+  public void nextRoundRobinTest() {
+    List<SingleThreadScheduler> schedulers = group.getSchedulers();
+    assertEquals(SCHEDULER_COUNT, schedulers.size());
+    assertEquals(SCHEDULER_COUNT, group.getSchedulerCount());
+    for (int i = 0; i < SCHEDULER_COUNT * 2; i++) {
+      assertSame(schedulers.get(i % SCHEDULER_COUNT), group.next());
+    }
+  }
+
+  @Test
+  public void nextLeastLoadedTest() {
+    SingleThreadSchedulerGroup group =
+        new SingleThreadSchedulerGroup(2, new ConfigurableThreadFactory(),
+                                       SelectionStrategy.LeastLoaded, false);
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      SingleThreadScheduler blockedScheduler = group.getSchedulers().get(0);
+      blockedScheduler.execute(btr);
+      btr.blockTillStarted();
+
+      for (int i = 0; i < SCHEDULER_COUNT; i++) {
+        assertSame(group.getSchedulers().get(1), group.next());
+      }
+    } finally {
+      btr.unblock();
+      group.shutdownNow();
+    }
+  }
+
+  @Test
+  public void executeKeyOrderTest() {
+    keyOrderTest(group);
+  }
+
+  @Test
+  public void executeKeyOrderTrackingLoadTest() {
+    SingleThreadSchedulerGroup group =
+        new SingleThreadSchedulerGroup(SCHEDULER_COUNT, new ConfigurableThreadFactory(),
+                                       SelectionStrategy.RoundRobin, true);
+    try {
+      keyOrderTest(group);
+    } finally {
+      group.shutdownNow();
+    }
+  }
+
+  private static void keyOrderTest(SingleThreadSchedulerGroup group) {
+    int keyCount = SCHEDULER_COUNT * 2;
+    List<List<Integer>> keyRuns = new ArrayList<>(keyCount);
+    List<TestRunnable> lastRunnables = new ArrayList<>(keyCount);
+    for (int k = 0; k < keyCount; k++) {
+      List<Integer> runs = Collections.synchronizedList(new ArrayList<>());
+      keyRuns.add(runs);
+      for (int i = 0; i < TEST_QTY; i++) {
+        int value = i;
+        group.execute(k, () -> runs.add(value));
+      }
+      TestRunnable tr = new TestRunnable();
+      group.execute(k, tr);
+      lastRunnables.add(tr);
+    }
+
+    for (int k = 0; k < keyCount; k++) {
+      lastRunnables.get(k).blockTillFinished();
+      List<Integer> runs = keyRuns.get(k);
+      assertEquals(TEST_QTY, runs.size());
+      for (int i = 0; i < TEST_QTY; i++) {
+        assertEquals(i, runs.get(i).intValue());
+      }
+    }
+  }
+
+  @Test
+  public void submitKeyTest() throws Exception {
+    Object result = new Object();
+    TestRunnable tr = new TestRunnable();
+    ListenableFuture<?> f1 = group.submit("foo", tr);
+    ListenableFuture<Object> f2 = group.submit("foo", DoNothingRunnable.instance(), result);
+    ListenableFuture<Object> f3 = group.submit("foo", () -> result);
+
+    assertNull(f1.get());
+    assertSame(result, f2.get());
+    assertSame(result, f3.get());
+    assertEquals(1, tr.getRunCount());
+    assertSame(group.submit("foo", () -> Thread.currentThread()).get(),
+               group.getSchedulerForKey("foo").submit(() -> Thread.currentThread()).get());
+  }
+
+  @Test
+  public void aggregateCountsTest() {
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      SingleThreadScheduler scheduler = group.getSchedulerForKey("foo");
+      group.execute("foo", btr);
+      btr.blockTillStarted();
+      for (int i = 0; i < TEST_QTY; i++) {
+        scheduler.execute(DoNothingRunnable.instance());
+      }
+
+      assertEquals(1, group.getActiveTaskCount());
+      assertEquals(TEST_QTY, group.getQueuedTaskCount());
+      assertEquals(TEST_QTY, group.getWaitingForExecutionTaskCount());
+    } finally {
+      btr.unblock();
+    }
+  }
+
+  @Test
+  public void rebalanceNotTrackingTest() {
+    assertEquals(0, group.rebalance());
+  }
+
+  @Test
+  public void rebalanceTest() {
+    SingleThreadSchedulerGroup group =
+        new SingleThreadSchedulerGroup(2, new ConfigurableThreadFactory(),
+                                       SelectionStrategy.RoundRobin, true);
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      SingleThreadScheduler loadedScheduler = group.getSchedulers().get(0);
+      Object blockedKey = null;
+      List<Object> idleKeys = new ArrayList<>();
+      for (int i = 0; idleKeys.size() < TEST_QTY; i++) {
+        if (group.getSchedulerForKey(i) == loadedScheduler) {
+          if (blockedKey == null) {
+            blockedKey = i;
+          } else {
+            idleKeys.add(i);
+          }
+        }
+      }
+      group.execute(blockedKey, btr);
+      btr.blockTillStarted();
+      for (int i = 0; i < TEST_QTY; i++) {
+        group.execute(blockedKey, DoNothingRunnable.instance());
+      }
+
+      assertTrue(group.rebalance() > 0);
+      // bucket with queued tasks must never move
+      assertSame(loadedScheduler, group.getSchedulerForKey(blockedKey));
+      boolean keyMoved = false;
+      for (Object key : idleKeys) {
+        if (group.getSchedulerForKey(key) != loadedScheduler) {
+          keyMoved = true;
+          break;
+        }
+      }
+      assertTrue(keyMoved);
+    } finally {
+      btr.unblock();
+      group.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shutdownTest() throws InterruptedException {
+    TestRunnable tr = new TestRunnable();
+    group.execute("foo", tr);
+    group.shutdown();
+
+    assertTrue(group.isShutdown());
+    group.awaitTermination();
+    assertTrue(group.isTerminated());
+    assertEquals(1, tr.getRunCount());
+    try {
+      group.execute("foo", DoNothingRunnable.instance());
+      fail("Exception should have thrown");
+    } catch (RejectedExecutionException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void shutdownNowTest() throws InterruptedException {
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      group.execute("foo", btr);
+      btr.blockTillStarted();
+      group.execute("foo", DoNothingRunnable.instance());
+
+      assertEquals(1, group.shutdownNow().size());
+      assertTrue(group.isShutdown());
+      assertFalse(group.awaitTermination(DELAY_TIME));
+    } finally {
+      btr.unblock();
+    }
+    assertTrue(group.awaitTermination(1000 * 10));
+    assertTrue(group.isTerminated());
+  }
+
+  @Test
+  public void shutdownNowUnwrapsTrackedTasksTest() {
+    SingleThreadSchedulerGroup group =
+        new SingleThreadSchedulerGroup(1, new ConfigurableThreadFactory(),
+                                       SelectionStrategy.RoundRobin, true);
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    TestRunnable tr = new TestRunnable();
+    try {
+      group.execute("foo", btr);
+      btr.blockTillStarted();
+      group.execute("foo", tr);
+
+      List<Runnable> removed = group.shutdownNow();
+      assertEquals(1, removed.size());
+      assertSame(tr, removed.get(0));
+    } finally {
+      btr.unblock();
+    }
+  }
+}
@@ -5,10 +5,12 @@ import static org.junit.Assert.*;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.RejectedExecutionException;
 
 import org.junit.Test;
 import org.threadly.BlockingTestRunnable;
+import org.threadly.concurrent.AbstractPriorityScheduler.QueueSet;
 import org.threadly.concurrent.future.ListenableFuture;
 import org.threadly.concurrent.wrapper.priority.DefaultPriorityWrapper;
 import org.threadly.test.concurrent.TestCondition;
@@ -49,6 +51,89 @@ public class SingleThreadSchedulerTest extends AbstractPrioritySchedulerTest {
     assertTrue(sts.sManager.execThread.isAlive());
   }
   
+  @Test
+  public void spinYieldIdleStrategyTest() {
+    SingleThreadScheduler sts = new SingleThreadScheduler();
+    try {
+      IdleStrategy idleStrategy = new IdleStrategy.SpinYieldIdleStrategy(100, 100);
+      sts.setIdleStrategy(idleStrategy);
+      assertTrue(idleStrategy == sts.getIdleStrategy());
+      
+      TestRunnable tr = new TestRunnable();
+      sts.execute(tr);
+      tr.blockTillFinished();
+      TestRunnable scheduledRunnable = new TestRunnable();
+      sts.schedule(scheduledRunnable, DELAY_TIME);
+      assertTrue(scheduledRunnable.getDelayTillFirstRun() >= DELAY_TIME);
+    } finally {
+      sts.shutdownNow();
+    }
+  }
+  
+  @Test
+  public void executeFromSchedulerThreadTest() throws InterruptedException, ExecutionException {
+    SingleThreadScheduler sts = new SingleThreadScheduler();
+    try {
+      QueueSet queueSet = sts.getQueueManager().getQueueSet(sts.getDefaultPriority());
+      List<Integer> runOrder = new ArrayList<>(TEST_QTY);
+      TestRunnable lastRunnable = new TestRunnable();
+      ListenableFuture<?> submitFuture = sts.submit(() -> {
+        for (int i = 0; i < TEST_QTY; i++) {
+          int index = i;
+          sts.execute(() -> runOrder.add(index));
+        }
+        sts.execute(lastRunnable);
+        if (queueSet.localExecuteQueue.size() != TEST_QTY + 1) {
+          throw new IllegalStateException("Tasks not queued locally");
+        }
+      });
+      
+      lastRunnable.blockTillFinished();
+      submitFuture.get();  // will throw if tasks were not queued locally
+      assertEquals(TEST_QTY, runOrder.size());
+      for (int i = 0; i < TEST_QTY; i++) {
+        assertEquals(i, runOrder.get(i).intValue());
+      }
+    } finally {
+      sts.shutdownNow();
+    }
+  }
+  
+  @Test
+  public void shutdownNowWithLocalTasksTest() {
+    SingleThreadScheduler sts = new SingleThreadScheduler();
+    List<TestRunnable> expectedRunnables = new ArrayList<>(TEST_QTY);
+    for (int i = 0; i < TEST_QTY; i++) {
+      expectedRunnables.add(new TestRunnable());
+    }
+    BlockingTestRunnable btr = new BlockingTestRunnable() {
+      @Override
+      public void handleRunStart() throws InterruptedException {
+        for (TestRunnable tr : expectedRunnables) {
+          sts.execute(tr);
+        }
+        super.handleRunStart();
+      }
+    };
+    try {
+      sts.execute(btr);
+      btr.blockTillStarted();
+      
+      List<Runnable> canceledRunnables = sts.shutdownNow();
+      btr.unblock();
+      
+      assertTrue(canceledRunnables.containsAll(expectedRunnables));
+      assertTrue(expectedRunnables.containsAll(canceledRunnables));
+      new TestCondition(() -> ! sts.sManager.execThread.isAlive()).blockTillTrue();
+      for (TestRunnable tr : expectedRunnables) {
+        assertEquals(0, tr.getRunCount());
+      }
+      assertEquals(0, sts.getQueuedTaskCount());
+    } finally {
+      btr.unblock();
+    }
+  }
+  
   @Test
   public void isShutdownTest() {
     SingleThreadScheduler sts = new SingleThreadScheduler();
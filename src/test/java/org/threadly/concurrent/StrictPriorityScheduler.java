@@ -137,6 +137,17 @@ public class StrictPriorityScheduler extends PriorityScheduler {
     super.addToScheduleQueue(queueSet, task);
   }
 
+  private static void verifyClaimedRecurringTask(RecurringTaskWrapper task) {
+    // task may be removed while executing, in which case it will no longer be tracked
+    if (task.queueSet.recurringQueue.contains(task) || 
+        (! task.queueSet.recurringTasks.contains(task) && task.isQueued())) {
+      IllegalStateException e = 
+          new IllegalStateException("Invalid queue state: " + task.queueSet.recurringQueue);
+      e.printStackTrace();
+      throw e;
+    }
+  }
+
   protected static class StrictRecurringDelayTaskWrapper extends RecurringDelayTaskWrapper {
     protected StrictRecurringDelayTaskWrapper(Runnable task, QueueSet queueSet, long firstRunTime,
                                               long recurringDelay) {
@@ -145,23 +156,11 @@ public class StrictPriorityScheduler extends PriorityScheduler {
 
     @Override
     public boolean canExecute(short executeReference) {
-      synchronized (queueSet.scheduleQueue.getModificationLock()) {
-        if (super.canExecute(executeReference)) {
-          int index = queueSet.scheduleQueue.lastIndexOf(this);
-          if (index != queueSet.scheduleQueue.size() - 1) {
-            for (int i = index + 1; i < queueSet.scheduleQueue.size(); i++) {
-              if (queueSet.scheduleQueue.get(i).getRunTime() != Long.MAX_VALUE) {
-                IllegalStateException e = 
-                    new IllegalStateException("Invalid queue state: " + queueSet.scheduleQueue);
-                e.printStackTrace();
-                throw e;
-              }
-            }
-          }
-          return true;
-        } else {
-          return false;
-        }
+      if (super.canExecute(executeReference)) {
+        verifyClaimedRecurringTask(this);
+        return true;
+      } else {
+        return false;
       }
     }
   }
@@ -174,23 +173,11 @@ public class StrictPriorityScheduler extends PriorityScheduler {
 
     @Override
     public boolean canExecute(short executeReference) {
-      synchronized (queueSet.scheduleQueue.getModificationLock()) {
-        if (super.canExecute(executeReference)) {
-          int index = queueSet.scheduleQueue.lastIndexOf(this);
-          if (index != queueSet.scheduleQueue.size() - 1) {
-            for (int i = index + 1; i < queueSet.scheduleQueue.size(); i++) {
-              if (queueSet.scheduleQueue.get(i).getRunTime() != Long.MAX_VALUE) {
-                IllegalStateException e = 
-                    new IllegalStateException("Invalid queue state: " + queueSet.scheduleQueue);
-                e.printStackTrace();
-                throw e;
-              }
-            }
-          }
-          return true;
-        } else {
-          return false;
-        }
+      if (super.canExecute(executeReference)) {
+        verifyClaimedRecurringTask(this);
+        return true;
+      } else {
+        return false;
       }
     }
   }
@@ -0,0 +1,188 @@
+package org.threadly.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.threadly.BlockingTestRunnable;
+import org.threadly.concurrent.wrapper.limiter.SchedulerServiceLimiter;
+import org.threadly.test.concurrent.TestCondition;
+import org.threadly.test.concurrent.TestRunnable;
+import org.threadly.test.concurrent.TestUtils;
+
+@SuppressWarnings("javadoc")
+public class ThreadPerTaskSchedulerTest extends SchedulerServiceInterfaceTest {
+  private ThreadPerTaskScheduler scheduler;
+
+  @Before
+  public void setup() {
+    scheduler = new ThreadPerTaskScheduler();
+  }
+
+  @After
+  public void cleanup() {
+    scheduler.shutdownNow();
+    scheduler = null;
+  }
+
+  @Override
+  protected SchedulerServiceFactory getSchedulerServiceFactory() {
+    return new ThreadPerTaskSchedulerFactory();
+  }
+
+  @Override
+  protected boolean isSingleThreaded() {
+    return false;
+  }
+
+  @Test
+  @Override
+  public void executeInOrderTest() {
+    // ignored, each task runs on its own thread so there is no execution order
+  }
+
+  @Test
+  @Override
+  public void scheduleInOrderTest() {
+    // ignored, each task runs on its own thread so there is no execution order
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  @SuppressWarnings("unused")
+  public void constructorFail() {
+    new ThreadPerTaskScheduler(null);
+  }
+
+  @Test
+  public void unboundedConcurrencyTest() {
+    List<BlockingTestRunnable> blockingRunnables = new ArrayList<>(TEST_QTY);
+    try {
+      for (int i = 0; i < TEST_QTY; i++) {
+        BlockingTestRunnable btr = new BlockingTestRunnable();
+        blockingRunnables.add(btr);
+        scheduler.execute(btr);
+      }
+      // all tasks should be able to block concurrently
+      for (BlockingTestRunnable btr : blockingRunnables) {
+        btr.blockTillStarted();
+      }
+      assertEquals(TEST_QTY, scheduler.getActiveTaskCount());
+    } finally {
+      for (BlockingTestRunnable btr : blockingRunnables) {
+        btr.unblock();
+      }
+    }
+    new TestCondition(() -> scheduler.getActiveTaskCount() == 0).blockTillTrue();
+  }
+
+  @Test
+  public void recurringTaskDoesNotOverlapTest() {
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      scheduler.scheduleAtFixedRate(btr, 0, 1);
+      btr.blockTillStarted();
+      TestUtils.sleep(DELAY_TIME);
+
+      // previous execution is still blocked, so should not have started again
+      assertEquals(1, scheduler.getActiveTaskCount());
+    } finally {
+      btr.unblock();
+    }
+    btr.blockTillFinished(1000 * 10, 2);
+    assertTrue(scheduler.remove(btr));
+  }
+
+  @Test
+  public void shutdownNowTest() {
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      scheduler.execute(btr);
+      TestRunnable tr = new TestRunnable();
+      scheduler.schedule(tr, 1000 * 60);
+      scheduler.scheduleWithFixedDelay(DoNothingRunnable.instance(), 1000 * 60, 1000);
+      btr.blockTillStarted();
+
+      List<Runnable> waitingTasks = scheduler.shutdownNow();
+      assertEquals(2, waitingTasks.size());
+      assertTrue(waitingTasks.contains(tr));
+      assertTrue(scheduler.isShutdown());
+      assertFalse(scheduler.isTerminated());
+    } finally {
+      btr.unblock();
+    }
+    new TestCondition(() -> scheduler.isTerminated()).blockTillTrue();
+    try {
+      scheduler.execute(DoNothingRunnable.instance());
+      fail("Exception should have thrown");
+    } catch (RejectedExecutionException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void shutdownRunsDelayedTasksTest() throws InterruptedException {
+    TestRunnable delayed = new TestRunnable();
+    TestRunnable recurring = new TestRunnable();
+    scheduler.schedule(delayed, DELAY_TIME);
+    scheduler.scheduleWithFixedDelay(recurring, DELAY_TIME, DELAY_TIME);
+
+    scheduler.shutdown();
+    assertTrue(scheduler.isShutdown());
+    try {
+      scheduler.execute(DoNothingRunnable.instance());
+      fail("Exception should have thrown");
+    } catch (RejectedExecutionException e) {
+      // expected
+    }
+
+    assertTrue(scheduler.awaitTermination(1000 * 10));
+    assertTrue(scheduler.isTerminated());
+    assertEquals(1, delayed.getRunCount());
+    assertEquals(0, recurring.getRunCount());
+  }
+
+  @Test
+  public void awaitTerminationTest() throws InterruptedException {
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      scheduler.execute(btr);
+      btr.blockTillStarted();
+
+      scheduler.shutdown();
+      assertFalse(scheduler.awaitTermination(DELAY_TIME));
+    } finally {
+      btr.unblock();
+    }
+    assertTrue(scheduler.awaitTermination(1000 * 10));
+    assertTrue(scheduler.isTerminated());
+  }
+
+  private static class ThreadPerTaskSchedulerFactory implements SchedulerServiceFactory {
+    private final List<ThreadPerTaskScheduler> schedulers = new ArrayList<>(2);
+
+    @Override
+    public SubmitterExecutor makeSubmitterExecutor(int poolSize, boolean prestartIfAvailable) {
+      return makeSchedulerService(poolSize, prestartIfAvailable);
+    }
+
+    @Override
+    public SchedulerService makeSchedulerService(int poolSize, boolean prestartIfAvailable) {
+      ThreadPerTaskScheduler scheduler = new ThreadPerTaskScheduler();
+      schedulers.add(scheduler);
+      // interface tests expect pool size to be respected, so bound with a limiter
+      return new SchedulerServiceLimiter(scheduler, poolSize);
+    }
+
+    @Override
+    public void shutdown() {
+      for (ThreadPerTaskScheduler tpts : schedulers) {
+        tpts.shutdownNow();
+      }
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package org.threadly.concurrent;
+
+import org.junit.Test;
+import org.threadly.concurrent.UnfairExecutor.AtomicStripeGenerator;
+import org.threadly.concurrent.UnfairExecutorTest.UnfairExecutorFactory;
+
+@SuppressWarnings("javadoc")
+public class UnfairExecutorRingQueueTest extends SubmitterExecutorInterfaceTest {
+  @Override
+  protected SubmitterExecutorFactory getSubmitterExecutorFactory() {
+    // small ring so that tests will also overflow the ring
+    return new UnfairExecutorFactory(AtomicStripeGenerator.instance(), false, 8);
+  }
+
+  @Test
+  @Override
+  public void executeInOrderTest() {
+    // ignored, this test makes no sense for this executor
+  }
+}
@@ -0,0 +1,19 @@
+package org.threadly.concurrent;
+
+import org.junit.Test;
+import org.threadly.concurrent.UnfairExecutor.SubmitterAffinityStripeGenerator;
+import org.threadly.concurrent.UnfairExecutorTest.UnfairExecutorFactory;
+
+@SuppressWarnings("javadoc")
+public class UnfairExecutorSubmitterAffinityTest extends SubmitterExecutorInterfaceTest {
+  @Override
+  protected SubmitterExecutorFactory getSubmitterExecutorFactory() {
+    return new UnfairExecutorFactory(SubmitterAffinityStripeGenerator.instance(), true);
+  }
+
+  @Test
+  @Override
+  public void executeInOrderTest() {
+    // ignored, this test makes no sense for this executor
+  }
+}
@@ -3,15 +3,20 @@ package org.threadly.concurrent;
 import static org.junit.Assert.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Test;
 import org.threadly.BlockingTestRunnable;
 import org.threadly.ThreadlyTester;
 import org.threadly.concurrent.SubmitterExecutorInterfaceTest.SubmitterExecutorFactory;
+import org.threadly.concurrent.UnfairExecutor.RingTaskQueue;
+import org.threadly.concurrent.UnfairExecutor.SubmitterAffinityStripeGenerator;
 import org.threadly.concurrent.UnfairExecutor.TaskStripeGenerator;
+import org.threadly.test.concurrent.AsyncVerifier;
 import org.threadly.test.concurrent.TestRunnable;
 import org.threadly.util.Clock;
 
@@ -144,6 +149,267 @@ public class UnfairExecutorTest extends ThreadlyTester {
     assertTrue(Clock.accurateForwardProgressingMillis() - start >= (DELAY_TIME - ALLOWED_VARIANCE));
   }
   
+  @Test
+  public void spinYieldIdleStrategyTest() {
+    UnfairExecutor ue = new UnfairExecutor(2);
+    try {
+      IdleStrategy idleStrategy = new IdleStrategy.SpinYieldIdleStrategy(100, 100);
+      ue.setIdleStrategy(idleStrategy);
+      assertTrue(idleStrategy == ue.getIdleStrategy());
+      
+      List<TestRunnable> runnables = SubmitterExecutorInterfaceTest.executeTestRunnables(ue, 0);
+      for (TestRunnable tr : runnables) {
+        tr.blockTillFinished();
+      }
+    } finally {
+      ue.shutdownNow();
+    }
+  }
+  
+  @Test
+  public void workStealingSkewedStripeTest() {
+    int threadCount = 4;
+    UnfairExecutor ue = new UnfairExecutor(threadCount, new ConfigurableThreadFactory(), 
+                                           (task) -> 0, true);
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      ue.execute(btr);
+      btr.blockTillStarted();
+      
+      // all tasks are queued on the blocked worker, they can only complete if stolen
+      List<TestRunnable> runnables = new ArrayList<>(TEST_QTY * threadCount);
+      for (int i = 0; i < TEST_QTY * threadCount; i++) {
+        TestRunnable tr = new TestRunnable();
+        runnables.add(tr);
+        ue.execute(tr);
+      }
+      for (TestRunnable tr : runnables) {
+        tr.blockTillFinished();
+      }
+    } finally {
+      btr.unblock();
+      ue.shutdownNow();
+    }
+  }
+  
+  @Test
+  public void workStealingShutdownTest() throws InterruptedException {
+    UnfairExecutor ue = new UnfairExecutor(4, new ConfigurableThreadFactory(), (task) -> 0, true);
+    TestRunnable lastRunnable = 
+        SubmitterExecutorInterfaceTest.executeTestRunnables(ue, 5).get(TEST_QTY - 1);
+    
+    ue.shutdown();
+    assertTrue(ue.awaitTermination(1000 * 10));
+    
+    // tasks queued before shutdown should complete, even if stolen
+    assertTrue(lastRunnable.ranOnce());
+  }
+  
+  @Test
+  public void workStealingShutdownNowTest() {
+    UnfairExecutor ue = new UnfairExecutor(1, new ConfigurableThreadFactory(), (task) -> 0, true);
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    ue.execute(btr);
+    try {
+      List<TestRunnable> expectedRunnables = 
+          SubmitterExecutorInterfaceTest.executeTestRunnables(ue, 0);
+      btr.blockTillStarted();
+      
+      List<Runnable> canceledRunnables = ue.shutdownNow();
+      assertTrue(canceledRunnables.containsAll(expectedRunnables));
+      assertTrue(expectedRunnables.containsAll(canceledRunnables));
+    } finally {
+      btr.unblock();
+    }
+  }
+  
+  @Test
+  public void executeAllTest() {
+    UnfairExecutor ue = new UnfairExecutor(3);
+    try {
+      List<TestRunnable> runnables = new ArrayList<>(TEST_QTY);
+      for (int i = 0; i < TEST_QTY; i++) {
+        runnables.add(new TestRunnable());
+      }
+      ue.executeAll(runnables);
+      ue.executeAll(Collections.emptyList());
+
+      for (TestRunnable tr : runnables) {
+        tr.blockTillFinished();
+        assertEquals(1, tr.getRunCount());
+      }
+    } finally {
+      ue.shutdownNow();
+    }
+  }
+
+  @Test
+  public void executeAllSingleStripeOrderTest() {
+    UnfairExecutor ue = new UnfairExecutor(1, new ConfigurableThreadFactory(), (task) -> 0, false);
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      ue.execute(btr);
+      btr.blockTillStarted();
+      List<TestRunnable> runnables = new ArrayList<>(TEST_QTY);
+      for (int i = 0; i < TEST_QTY; i++) {
+        runnables.add(new TestRunnable());
+      }
+      ue.executeAll(runnables);
+
+      List<Runnable> queuedRunnables = ue.shutdownNow();
+      assertEquals(runnables, queuedRunnables);
+    } finally {
+      btr.unblock();
+    }
+  }
+
+  @Test
+  public void executeAllFail() {
+    UnfairExecutor ue = new UnfairExecutor(1);
+    try {
+      ue.executeAll(null);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException expected) {
+      // expected
+    }
+    try {
+      ue.executeAll(Collections.singletonList(null));
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException expected) {
+      // expected
+    }
+    ue.shutdown();
+    try {
+      ue.executeAll(Collections.singletonList(DoNothingRunnable.instance()));
+      fail("Exception should have thrown");
+    } catch (RejectedExecutionException expected) {
+      // expected
+    }
+  }
+
+  @Test
+  public void interruptNotLeakedToNextTaskTest() {
+    UnfairExecutor ue = new UnfairExecutor(1);
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      ue.execute(btr);
+      btr.blockTillStarted();
+      // queue both tasks while the worker is busy so they are run back to back without idling
+      ue.execute(() -> Thread.currentThread().interrupt());
+      AtomicBoolean interrupted = new AtomicBoolean(true);
+      TestRunnable tr = new TestRunnable() {
+        @Override
+        public void handleRunStart() {
+          interrupted.set(Thread.currentThread().isInterrupted());
+        }
+      };
+      ue.execute(tr);
+      btr.unblock();
+      tr.blockTillFinished();
+
+      assertFalse(interrupted.get());
+    } finally {
+      btr.unblock();
+      ue.shutdownNow();
+    }
+  }
+
+  @Test
+  public void interruptedTaskTest() {
+    UnfairExecutor ue = new UnfairExecutor(1);
+    try {
+      TestRunnable interruptingRunnable = new TestRunnable() {
+        @Override
+        public void handleRunFinish() {
+          Thread.currentThread().interrupt();
+        }
+      };
+      ue.execute(interruptingRunnable);
+      interruptingRunnable.blockTillFinished();
+
+      // worker should have reset the interrupt, so a future task must still run
+      TestRunnable tr = new TestRunnable();
+      ue.execute(tr);
+      tr.blockTillFinished();
+    } finally {
+      ue.shutdownNow();
+    }
+  }
+
+  @Test
+  public void ringTaskQueueTest() {
+    RingTaskQueue queue = new RingTaskQueue(3);
+    assertEquals(4, queue.sequences.length());
+    assertTrue(queue.isEmpty());
+    assertNull(queue.poll());
+
+    List<Runnable> runnables = new ArrayList<>(TEST_QTY);
+    for (int i = 0; i < TEST_QTY; i++) {
+      TestRunnable tr = new TestRunnable();
+      runnables.add(tr);
+      assertTrue(queue.offer(tr));
+    }
+    // ring is full so remaining tasks should overflow
+    assertEquals(TEST_QTY - 4, queue.overflowQueue.size());
+    assertEquals(TEST_QTY, queue.size());
+    List<Runnable> iteratedRunnables = new ArrayList<>(TEST_QTY);
+    Iterator<Runnable> it = queue.iterator();
+    while (it.hasNext()) {
+      iteratedRunnables.add(it.next());
+    }
+    assertEquals(runnables, iteratedRunnables);
+
+    for (Runnable r : runnables) {
+      assertTrue(r == queue.peek());
+      assertTrue(r == queue.poll());
+    }
+    assertTrue(queue.isEmpty());
+    assertEquals(0, queue.size());
+
+    // ring slots should be reusable after wrapping
+    for (int i = 0; i < TEST_QTY; i++) {
+      assertTrue(queue.offer(runnables.get(i)));
+      assertTrue(runnables.get(i) == queue.poll());
+    }
+    assertTrue(queue.overflowQueue.isEmpty());
+  }
+
+  @Test
+  public void submitterAffinityWorkerStripeTest() throws Exception {
+    SubmitterAffinityStripeGenerator stripeGenerator = SubmitterAffinityStripeGenerator.instance();
+    UnfairExecutor ue = new UnfairExecutor(3, new ConfigurableThreadFactory(), stripeGenerator);
+    try {
+      // stripe from a worker thread must map back to that worker
+      for (int i = 0; i < TEST_QTY; i++) {
+        AsyncVerifier av = new AsyncVerifier();
+        ue.execute(() -> {
+          long stripe = stripeGenerator.getStripe(DoNothingRunnable.instance());
+          av.assertTrue(ue.schedulers[(int)stripe].thread == Thread.currentThread());
+          av.signalComplete();
+        });
+        av.waitForTest();
+      }
+    } finally {
+      ue.shutdownNow();
+    }
+  }
+
+  @Test
+  public void submitterAffinityExternalStripeTest() throws InterruptedException {
+    SubmitterAffinityStripeGenerator stripeGenerator = SubmitterAffinityStripeGenerator.instance();
+    long stripe = stripeGenerator.getStripe(DoNothingRunnable.instance());
+    for (int i = 0; i < TEST_QTY; i++) {
+      assertEquals(stripe, stripeGenerator.getStripe(new TestRunnable()));
+    }
+    long[] otherThreadStripe = new long[1];
+    Thread t = new Thread(() -> {
+      otherThreadStripe[0] = stripeGenerator.getStripe(DoNothingRunnable.instance());
+    });
+    t.start();
+    t.join();
+    assertNotEquals(stripe, otherThreadStripe[0]);
+  }
+
   @Test (expected = RejectedExecutionException.class)
   public void shutdownExecutionFail() {
     UnfairExecutor ue = new UnfairExecutor(1);
@@ -162,15 +428,30 @@ public class UnfairExecutorTest extends ThreadlyTester {
 
   protected static class UnfairExecutorFactory implements SubmitterExecutorFactory {
     private final TaskStripeGenerator stripeGenerator;
+    private final boolean workStealing;
+    private final int queueRingCapacity;
     private List<UnfairExecutor> executors = new ArrayList<>(1);
     
     public UnfairExecutorFactory(TaskStripeGenerator stripeGenerator) {
+      this(stripeGenerator, false);
+    }
+    
+    public UnfairExecutorFactory(TaskStripeGenerator stripeGenerator, boolean workStealing) {
+      this(stripeGenerator, workStealing, 0);
+    }
+    
+    public UnfairExecutorFactory(TaskStripeGenerator stripeGenerator, boolean workStealing, 
+                                 int queueRingCapacity) {
       this.stripeGenerator = stripeGenerator;
+      this.workStealing = workStealing;
+      this.queueRingCapacity = queueRingCapacity;
     }
     
     @Override
     public UnfairExecutor makeSubmitterExecutor(int poolSize, boolean prestartIfAvailable) {
-      UnfairExecutor result = new UnfairExecutor(poolSize, stripeGenerator);
+      UnfairExecutor result = 
+          new UnfairExecutor(poolSize, new ConfigurableThreadFactory(), stripeGenerator, 
+                             workStealing, queueRingCapacity);
       executors.add(result);
       
       return result;
@@ -0,0 +1,19 @@
+package org.threadly.concurrent;
+
+import org.junit.Test;
+import org.threadly.concurrent.UnfairExecutorTest.UnfairExecutorFactory;
+
+@SuppressWarnings("javadoc")
+public class UnfairExecutorWorkStealingTest extends SubmitterExecutorInterfaceTest {
+  @Override
+  protected SubmitterExecutorFactory getSubmitterExecutorFactory() {
+    // all tasks are submitted to a single worker, so every other worker must steal
+    return new UnfairExecutorFactory((task) -> 0, true);
+  }
+
+  @Test
+  @Override
+  public void executeInOrderTest() {
+    // ignored, this test makes no sense for this executor
+  }
+}
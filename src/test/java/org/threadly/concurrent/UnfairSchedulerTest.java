@@ -0,0 +1,181 @@
+package org.threadly.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.threadly.BlockingTestRunnable;
+import org.threadly.concurrent.UnfairExecutor.TaskStripeGenerator;
+import org.threadly.test.concurrent.TestRunnable;
+
+@SuppressWarnings("javadoc")
+public class UnfairSchedulerTest extends SchedulerServiceInterfaceTest {
+  private UnfairScheduler scheduler;
+
+  @Before
+  public void setup() {
+    scheduler = new UnfairScheduler(1);
+  }
+
+  @After
+  public void cleanup() {
+    scheduler.shutdownNow();
+    scheduler = null;
+  }
+
+  @Override
+  protected SchedulerServiceFactory getSchedulerServiceFactory() {
+    return new UnfairSchedulerFactory();
+  }
+
+  @Override
+  protected boolean isSingleThreaded() {
+    return false;
+  }
+
+  @Test
+  @SuppressWarnings("unused")
+  public void constructorFail() {
+    try {
+      new UnfairScheduler(0);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException expected) {
+      // expected
+    }
+    try {
+      new UnfairScheduler(1, null);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException expected) {
+      // expected
+    }
+    try {
+      new UnfairScheduler(1, new ConfigurableThreadFactory(), (TaskStripeGenerator)null);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException expected) {
+      // expected
+    }
+  }
+
+  @Test
+  public void constructorTest() {
+    UnfairScheduler daemonScheduler = new UnfairScheduler(2, true);
+    UnfairScheduler nonDaemonScheduler = new UnfairScheduler(2, false);
+    try {
+      assertTrue(daemonScheduler.schedulers[0].thread.isDaemon());
+      assertFalse(nonDaemonScheduler.schedulers[0].thread.isDaemon());
+    } finally {
+      daemonScheduler.shutdownNow();
+      nonDaemonScheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void scheduledTaskRunsBetweenExecuteTasksTest() {
+    TestRunnable scheduledRunnable = new TestRunnable();
+    scheduler.schedule(scheduledRunnable, DELAY_TIME);
+    List<TestRunnable> executeRunnables = new ArrayList<>(TEST_QTY);
+    for (int i = 0; i < TEST_QTY; i++) {
+      TestRunnable tr = new TestRunnable(1);
+      executeRunnables.add(tr);
+      scheduler.execute(tr);
+    }
+
+    scheduledRunnable.blockTillFinished();
+    assertTrue(scheduledRunnable.getDelayTillFirstRun() >= DELAY_TIME);
+    for (TestRunnable tr : executeRunnables) {
+      tr.blockTillFinished();
+    }
+  }
+
+  @Test
+  public void removeRecurringTaskWhileRunningTest() {
+    TestRunnable tr = new TestRunnable();
+    scheduler.scheduleWithFixedDelay(tr, 0, 1);
+    tr.blockTillFinished(1000 * 10, 2);
+
+    assertTrue(scheduler.remove(tr));
+    int runCount = tr.getRunCount();
+    TestRunnable lastRunnable = new TestRunnable();
+    scheduler.schedule(lastRunnable, DELAY_TIME);
+    lastRunnable.blockTillFinished();
+    // may have been running during remove, but should not run again after
+    assertTrue(tr.getRunCount() <= runCount + 1);
+    assertEquals(0, scheduler.getQueuedTaskCount());
+  }
+
+  @Test
+  public void idleStrategyTest() {
+    IdleStrategy idleStrategy = new IdleStrategy.SpinYieldIdleStrategy(100, 100);
+    scheduler.setIdleStrategy(idleStrategy);
+    assertTrue(idleStrategy == scheduler.getIdleStrategy());
+
+    TestRunnable scheduledRunnable = new TestRunnable();
+    scheduler.schedule(scheduledRunnable, DELAY_TIME);
+    assertTrue(scheduledRunnable.getDelayTillFirstRun() >= DELAY_TIME);
+  }
+
+  @Test
+  public void shutdownTest() throws InterruptedException {
+    TestRunnable tr = new TestRunnable();
+    scheduler.execute(tr);
+    scheduler.schedule(DoNothingRunnable.instance(), 1000 * 60);
+    scheduler.shutdown();
+
+    assertTrue(scheduler.isShutdown());
+    assertTrue(scheduler.awaitTermination(1000 * 10));
+    assertEquals(1, tr.getRunCount());
+    try {
+      scheduler.execute(DoNothingRunnable.instance());
+      fail("Exception should have thrown");
+    } catch (RejectedExecutionException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void shutdownNowTest() throws InterruptedException {
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      scheduler.execute(btr);
+      btr.blockTillStarted();
+      scheduler.execute(DoNothingRunnable.instance());
+      scheduler.schedule(DoNothingRunnable.instance(), 1000 * 60);
+      scheduler.scheduleAtFixedRate(DoNothingRunnable.instance(), 1000 * 60, 1000);
+
+      assertEquals(3, scheduler.shutdownNow().size());
+      assertTrue(scheduler.isShutdown());
+      assertFalse(scheduler.awaitTermination(DELAY_TIME));
+    } finally {
+      btr.unblock();
+    }
+    assertTrue(scheduler.awaitTermination(1000 * 10));
+  }
+
+  public static class UnfairSchedulerFactory implements SchedulerServiceFactory {
+    private final List<UnfairScheduler> schedulers = new ArrayList<>(2);
+
+    @Override
+    public SubmitterExecutor makeSubmitterExecutor(int poolSize, boolean prestartIfAvailable) {
+      return makeSchedulerService(poolSize, prestartIfAvailable);
+    }
+
+    @Override
+    public SchedulerService makeSchedulerService(int poolSize, boolean prestartIfAvailable) {
+      UnfairScheduler result = new UnfairScheduler(poolSize);
+      schedulers.add(result);
+      return result;
+    }
+
+    @Override
+    public void shutdown() {
+      for (UnfairScheduler us : schedulers) {
+        us.shutdownNow();
+      }
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package org.threadly.concurrent;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.threadly.ThreadlyTester;
+import org.threadly.test.concurrent.TestRunnable;
+
+@SuppressWarnings("javadoc")
+public class VirtualThreadFactoryTest extends ThreadlyTester {
+  @Test
+  public void newThreadTest() {
+    VirtualThreadFactory factory = new VirtualThreadFactory("foo-");
+    assertEquals(VirtualThreadFactory.isVirtualThreadSupported(), factory.isProducingVirtualThreads());
+
+    TestRunnable tr = new TestRunnable();
+    Thread t = factory.newThread(tr);
+    assertFalse(t.isAlive());
+    assertTrue(t.getName().startsWith("foo-"));
+    assertTrue(t.isDaemon());
+
+    t.start();
+    tr.blockTillFinished();
+    assertTrue(tr.ranOnce());
+  }
+
+  @Test
+  public void defaultNamePrefixTest() {
+    Thread t = new VirtualThreadFactory().newThread(DoNothingRunnable.instance());
+    assertTrue(t.getName().startsWith(VirtualThreadFactory.DEFAULT_THREAD_NAME_PREFIX));
+  }
+}
@@ -0,0 +1,168 @@
+package org.threadly.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.threadly.BlockingTestRunnable;
+import org.threadly.ThreadlyTester;
+import org.threadly.concurrent.AbstractPriorityScheduler.OneTimeTaskWrapper;
+import org.threadly.concurrent.AbstractPriorityScheduler.QueueSetListener;
+import org.threadly.concurrent.AbstractPriorityScheduler.TaskWrapper;
+import org.threadly.concurrent.WeightedPriorityScheduler.WeightedQueueManager;
+import org.threadly.concurrent.future.ListenableFuture;
+import org.threadly.test.concurrent.TestRunnable;
+import org.threadly.util.Clock;
+
+@SuppressWarnings("javadoc")
+public class WeightedPrioritySchedulerTest extends ThreadlyTester {
+  private static final QueueSetListener IGNORE_LISTENER = new QueueSetListener() {
+    @Override
+    public void handleQueueUpdate() {
+      // ignore event
+    }
+  };
+
+  @Test
+  @SuppressWarnings("unused")
+  public void constructorFail() {
+    try {
+      new WeightedPriorityScheduler(1);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      new WeightedPriorityScheduler(1, 2, 0);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      new WeightedPriorityScheduler(0, 1);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void getWeightClassSchedulerFail() {
+    WeightedPriorityScheduler scheduler = new WeightedPriorityScheduler(1, 2, 1);
+    try {
+      scheduler.getWeightClassScheduler(2);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException e) {
+      // expected
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void weightClassExecuteTest() throws Exception {
+    WeightedPriorityScheduler scheduler = new WeightedPriorityScheduler(2, 4, 2, 1);
+    try {
+      assertEquals(3, scheduler.getWeightClassCount());
+      assertEquals(2, scheduler.getWeight(1));
+
+      List<ListenableFuture<?>> futures = new ArrayList<>(TEST_QTY);
+      for (int i = 0; i < TEST_QTY; i++) {
+        futures.add(scheduler.getWeightClassScheduler(i % 3).submit(new TestRunnable()));
+      }
+      futures.add(scheduler.submit(new TestRunnable(), TaskPriority.Starvable));
+      futures.add(scheduler.getWeightClassScheduler(1).submitScheduled(new TestRunnable(),
+                                                                       DELAY_TIME));
+
+      for (ListenableFuture<?> f : futures) {
+        f.get();
+      }
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void proportionalShareTest() throws Exception {
+    final WeightedPriorityScheduler scheduler = new WeightedPriorityScheduler(1, 3, 1);
+    try {
+      BlockingTestRunnable btr = new BlockingTestRunnable();
+      scheduler.execute(btr);
+      btr.blockTillStarted();
+
+      final List<Integer> executionOrder = Collections.synchronizedList(new ArrayList<>());
+      int taskPerClass = 20;
+      List<ListenableFuture<?>> futures = new ArrayList<>(taskPerClass * 2);
+      for (int i = 0; i < taskPerClass; i++) {
+        for (int weightClass = 0; weightClass < 2; weightClass++) {
+          final int wc = weightClass;
+          futures.add(scheduler.getWeightClassScheduler(wc).submit(() -> executionOrder.add(wc)));
+        }
+      }
+      assertEquals(taskPerClass, scheduler.getWeightClassScheduler(1).getQueuedTaskCount());
+      assertEquals(taskPerClass * 2, scheduler.getQueuedTaskCount());
+
+      btr.unblock();
+      for (ListenableFuture<?> f : futures) {
+        f.get();
+      }
+
+      // while both classes have tasks the first class should get three times the executions
+      int firstClassCount = 0;
+      for (int i = 0; i < 20; i++) {
+        if (executionOrder.get(i) == 0) {
+          firstClassCount++;
+        }
+      }
+      assertTrue(firstClassCount >= 14 && firstClassCount <= 16);
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shutdownNowTest() {
+    WeightedPriorityScheduler scheduler = new WeightedPriorityScheduler(1, 1, 1, 1);
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      scheduler.execute(btr);
+      btr.blockTillStarted();
+
+      TestRunnable tr = new TestRunnable();
+      scheduler.getWeightClassScheduler(1).execute(tr);
+      assertEquals(1, scheduler.getWaitingForExecutionTaskCount());
+
+      List<Runnable> remaining = scheduler.shutdownNow();
+      assertEquals(1, remaining.size());
+      assertTrue(remaining.get(0) == tr);
+    } finally {
+      btr.unblock();
+    }
+  }
+
+  @Test
+  public void queueManagerStrideOrderTest() {
+    WeightedQueueManager queueManager = new WeightedQueueManager(IGNORE_LISTENER, 0, 2, 1);
+    long now = Clock.accurateForwardProgressingMillis();
+    for (int i = 0; i < 3; i++) {
+      for (int weightClass = 0; weightClass < 2; weightClass++) {
+        queueManager.weightedQueueSets[weightClass]
+            .addExecute(new OneTimeTaskWrapper(new TestRunnable(),
+                                               queueManager.weightedQueueSets[weightClass].executeQueue,
+                                               now));
+      }
+    }
+
+    int[] expectedOrder = new int[] { 0, 1, 0, 0, 1, 1 };
+    for (int expectedClass : expectedOrder) {
+      TaskWrapper task = queueManager.getNextTask();
+      assertTrue(task.owningQueueSet == queueManager.weightedQueueSets[expectedClass]);
+      assertTrue(task.canExecute(task.getExecuteReference()));
+      queueManager.taskClaimed(task);
+    }
+    assertNull(queueManager.getNextTask());
+  }
+}
@@ -1316,7 +1316,7 @@ public class FutureUtilsTest extends ThreadlyTester {
     assertEquals(1, scheduler.advance(1));
     int startCount = runCount.get();
     f.cancel(false);
-    assertEquals(1, scheduler.advance(1));  // should be task realizing it was canceled
+    assertEquals(0, scheduler.advance(1));  // canceled task should be purged rather than run
     // verify task did not run
     assertEquals(startCount, runCount.get());
     assertEquals(0, scheduler.advance(100));  // should never run again
@@ -1531,7 +1531,7 @@ public class FutureUtilsTest extends ThreadlyTester {
     assertEquals(1, scheduler.advance(1));
     int startCount = runCount.get();
     f.cancel(false);
-    assertEquals(1, scheduler.advance(1));  // should be task realizing it was canceled
+    assertEquals(0, scheduler.advance(1));  // canceled task should be purged rather than run
     // verify task did not run
     assertEquals(startCount, runCount.get());
     assertEquals(0, scheduler.advance(100));  // should never run again
@@ -2,6 +2,8 @@ package org.threadly.concurrent.statistics;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -76,6 +78,22 @@ public class NoThreadSchedulerStatisticTrackerTest extends NoThreadSchedulerTest
                  scheduler.getTotalExecutionCount(null));
   }
   
+  @Test
+  public void getTotalExecutionCountExecuteAllTest() {
+    NoThreadSchedulerStatisticTracker scheduler = new NoThreadSchedulerStatisticTracker();
+    List<Runnable> tasks = new ArrayList<>(TEST_QTY);
+    for (int i = 0; i < TEST_QTY; i++) {
+      tasks.add(DoNothingRunnable.instance());
+    }
+    scheduler.executeAll(tasks, TaskPriority.High);
+    scheduler.submitAll(Collections.nCopies(TEST_QTY, () -> null), TaskPriority.Low);
+    
+    assertEquals(TEST_QTY * 2, scheduler.tick(null));
+    
+    assertEquals(TEST_QTY, scheduler.getTotalExecutionCount(TaskPriority.High));
+    assertEquals(TEST_QTY, scheduler.getTotalExecutionCount(TaskPriority.Low));
+  }
+  
   @Test
   public void getAverageExecutionDelayNoInputTest() {
     NoThreadSchedulerStatisticTracker scheduler = new NoThreadSchedulerStatisticTracker();
@@ -0,0 +1,139 @@
+package org.threadly.concurrent.wrapper;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.threadly.concurrent.PrioritySchedulerTest.PrioritySchedulerFactory;
+import org.threadly.concurrent.SubmitterScheduler;
+import org.threadly.concurrent.SubmitterSchedulerInterfaceTest;
+import org.threadly.test.concurrent.TestRunnable;
+import org.threadly.test.concurrent.TestableScheduler;
+
+@SuppressWarnings("javadoc")
+public class PhaseSpreadingSubmitterSchedulerTest extends SubmitterSchedulerInterfaceTest {
+  @Override
+  protected SubmitterSchedulerFactory getSubmitterSchedulerFactory() {
+    return new PhaseSpreadingSchedulerFactory();
+  }
+
+  @Override
+  protected boolean isSingleThreaded() {
+    return false;
+  }
+
+  @SuppressWarnings("unused")
+  @Test (expected = IllegalArgumentException.class)
+  public void constructorFail() {
+    new PhaseSpreadingSubmitterScheduler(null);
+  }
+
+  @Test
+  public void vanDerCorputTest() {
+    assertEquals(0, PhaseSpreadingSubmitterScheduler.vanDerCorput(0), 0);
+    assertEquals(.5, PhaseSpreadingSubmitterScheduler.vanDerCorput(1), 0);
+    assertEquals(.25, PhaseSpreadingSubmitterScheduler.vanDerCorput(2), 0);
+    assertEquals(.75, PhaseSpreadingSubmitterScheduler.vanDerCorput(3), 0);
+    assertEquals(.125, PhaseSpreadingSubmitterScheduler.vanDerCorput(4), 0);
+    assertTrue(PhaseSpreadingSubmitterScheduler.vanDerCorput(-1) < 1);
+  }
+
+  @Test
+  public void recurringPhaseSpreadTest() {
+    TestableScheduler testableScheduler = new TestableScheduler();
+    PhaseSpreadingSubmitterScheduler scheduler =
+        new PhaseSpreadingSubmitterScheduler(testableScheduler);
+    int period = 100;
+    TestRunnable[] runnables = new TestRunnable[4];
+    for (int i = 0; i < runnables.length; i++) {
+      runnables[i] = new TestRunnable();
+      if (i % 2 == 0) {
+        scheduler.scheduleAtFixedRate(runnables[i], 0, period);
+      } else {
+        scheduler.scheduleWithFixedDelay(runnables[i], 0, period);
+      }
+    }
+    // different period is spread independently
+    TestRunnable otherPeriodRunnable = new TestRunnable();
+    scheduler.scheduleAtFixedRate(otherPeriodRunnable, 0, period * 10);
+
+    // offsets should be 0, 50, 25, 75
+    long startTime = testableScheduler.getLastTickTime();
+    assertEquals(2, testableScheduler.tick(startTime));
+    assertEquals(1, otherPeriodRunnable.getRunCount());
+    assertEquals(1, runnables[0].getRunCount());
+    assertEquals(1, testableScheduler.tick(startTime + 25));
+    assertEquals(1, runnables[2].getRunCount());
+    assertEquals(1, testableScheduler.tick(startTime + 50));
+    assertEquals(1, runnables[1].getRunCount());
+    assertEquals(1, testableScheduler.tick(startTime + 75));
+    assertEquals(1, runnables[3].getRunCount());
+    assertEquals(1, testableScheduler.tick(startTime + 100));
+    assertEquals(2, runnables[0].getRunCount());
+  }
+
+  @Test
+  public void removeFreesPhaseTest() {
+    TestableScheduler testableScheduler = new TestableScheduler();
+    PhaseSpreadingSubmitterScheduler scheduler =
+        new PhaseSpreadingSubmitterScheduler(testableScheduler);
+    int period = 100;
+    TestRunnable[] runnables = new TestRunnable[3];
+    for (int i = 0; i < runnables.length; i++) {
+      runnables[i] = new TestRunnable();
+      scheduler.scheduleAtFixedRate(runnables[i], 0, period);
+    }
+
+    // the task at offset 50 is removed, so the next task should take its place
+    assertTrue(scheduler.remove(runnables[1]));
+    assertFalse(scheduler.remove(runnables[1]));
+    TestRunnable replacementRunnable = new TestRunnable();
+    scheduler.scheduleWithFixedDelay(replacementRunnable, 0, period);
+
+    long startTime = testableScheduler.getLastTickTime();
+    assertEquals(2, testableScheduler.tick(startTime + 25));
+    assertEquals(0, replacementRunnable.getRunCount());
+    assertEquals(1, testableScheduler.tick(startTime + 50));
+    assertEquals(1, replacementRunnable.getRunCount());
+    assertEquals(0, runnables[1].getRunCount());
+
+    assertTrue(scheduler.remove(runnables[0]));
+    assertTrue(scheduler.remove(runnables[2]));
+    assertTrue(scheduler.remove(replacementRunnable));
+    assertTrue(scheduler.periodPhases.isEmpty());
+    assertTrue(scheduler.taskPhases.isEmpty());
+  }
+
+  @Test
+  public void oneTimeTaskNotDelayedTest() {
+    TestableScheduler testableScheduler = new TestableScheduler();
+    PhaseSpreadingSubmitterScheduler scheduler =
+        new PhaseSpreadingSubmitterScheduler(testableScheduler);
+    scheduler.scheduleAtFixedRate(new TestRunnable(), 1000, 1000);
+    TestRunnable tr = new TestRunnable();
+
+    scheduler.execute(tr);
+    scheduler.schedule(tr, 10);
+
+    long startTime = testableScheduler.getLastTickTime();
+    assertEquals(1, testableScheduler.tick(startTime));
+    assertEquals(1, testableScheduler.tick(startTime + 10));
+    assertEquals(2, tr.getRunCount());
+  }
+
+  private static class PhaseSpreadingSchedulerFactory implements SubmitterSchedulerFactory {
+    private final PrioritySchedulerFactory schedulerFactory = new PrioritySchedulerFactory();
+
+    @Override
+    public SubmitterScheduler makeSubmitterScheduler(int poolSize, boolean prestartIfAvailable) {
+      SubmitterScheduler scheduler =
+          schedulerFactory.makeSubmitterScheduler(poolSize, prestartIfAvailable);
+
+      return new PhaseSpreadingSubmitterScheduler(scheduler);
+    }
+
+    @Override
+    public void shutdown() {
+      schedulerFactory.shutdown();
+    }
+  }
+}
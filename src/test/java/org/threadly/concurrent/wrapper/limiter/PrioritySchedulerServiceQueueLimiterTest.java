@@ -0,0 +1,290 @@
+package org.threadly.concurrent.wrapper.limiter;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+import org.threadly.BlockingTestRunnable;
+import org.threadly.concurrent.DoNothingRunnable;
+import org.threadly.concurrent.PriorityScheduler;
+import org.threadly.concurrent.PrioritySchedulerTest.PrioritySchedulerFactory;
+import org.threadly.concurrent.SchedulerService;
+import org.threadly.concurrent.SchedulerServiceInterfaceTest;
+import org.threadly.concurrent.SubmitterExecutor;
+import org.threadly.concurrent.SubmitterScheduler;
+import org.threadly.concurrent.TaskPriority;
+import org.threadly.concurrent.future.ListenableFuture;
+import org.threadly.concurrent.wrapper.limiter.PrioritySchedulerServiceQueueLimiter.OverflowPolicy;
+import org.threadly.test.concurrent.TestRunnable;
+import org.threadly.test.concurrent.TestableScheduler;
+
+@SuppressWarnings("javadoc")
+public class PrioritySchedulerServiceQueueLimiterTest extends SchedulerServiceInterfaceTest {
+  @Override
+  protected SchedulerServiceFactory getSchedulerServiceFactory() {
+    return new PrioritySchedulerServiceQueueLimiterFactory();
+  }
+
+  @Override
+  protected boolean isSingleThreaded() {
+    return false;
+  }
+
+  @SuppressWarnings("unused")
+  @Test
+  public void constructorFail() {
+    try {
+      new PrioritySchedulerServiceQueueLimiter(null, TEST_QTY, OverflowPolicy.Reject);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      new PrioritySchedulerServiceQueueLimiter(new TestableScheduler(), TEST_QTY, null);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      new PrioritySchedulerServiceQueueLimiter(new TestableScheduler(), TEST_QTY,
+                                               OverflowPolicy.Block, -1);
+      fail("Exception should have thrown");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void getSetQueueLimitTest() {
+    PrioritySchedulerServiceQueueLimiter limiter =
+        new PrioritySchedulerServiceQueueLimiter(new TestableScheduler(), 1, 2, 3,
+                                                 OverflowPolicy.Reject, 0, null);
+
+    assertEquals(1, limiter.getQueueLimit(TaskPriority.High));
+    assertEquals(2, limiter.getQueueLimit(TaskPriority.Low));
+    assertEquals(3, limiter.getQueueLimit(TaskPriority.Starvable));
+
+    limiter.setQueueLimit(TaskPriority.Low, TEST_QTY);
+    assertEquals(TEST_QTY, limiter.getQueueLimit(TaskPriority.Low));
+  }
+
+  @Override
+  @Test
+  public void getQueuedTaskCountTest() {
+    TestableScheduler testableScheduler = new TestableScheduler();
+    PrioritySchedulerServiceQueueLimiter limiter =
+        new PrioritySchedulerServiceQueueLimiter(testableScheduler, TEST_QTY, OverflowPolicy.Reject);
+
+    for (int i = 0; i < TEST_QTY; i++) {
+      assertEquals(i, limiter.getQueuedTaskCount());
+      assertEquals(i, limiter.getQueuedTaskCount(TaskPriority.Low));
+      limiter.execute(DoNothingRunnable.instance(), TaskPriority.Low);
+    }
+    assertEquals(0, limiter.getQueuedTaskCount(TaskPriority.High));
+
+    assertEquals(TEST_QTY, testableScheduler.tick());
+
+    assertEquals(0, limiter.getQueuedTaskCount());
+  }
+
+  @Test
+  public void rejectPerPriorityTest() {
+    TestableScheduler testableScheduler = new TestableScheduler();
+    PrioritySchedulerServiceQueueLimiter limiter =
+        new PrioritySchedulerServiceQueueLimiter(testableScheduler, 1, 2, 1,
+                                                 OverflowPolicy.Reject, 0, null);
+
+    limiter.execute(DoNothingRunnable.instance(), TaskPriority.High);
+    try {
+      limiter.execute(DoNothingRunnable.instance(), TaskPriority.High);
+      fail("Exception should have thrown");
+    } catch (RejectedExecutionException e) {
+      // expected
+    }
+    // other priorities are still accepted
+    limiter.execute(DoNothingRunnable.instance(), TaskPriority.Low);
+    limiter.execute(DoNothingRunnable.instance(), TaskPriority.Low);
+    limiter.submit(DoNothingRunnable.instance(), TaskPriority.Starvable);
+
+    // verify the rejected task was never added
+    assertEquals(4, testableScheduler.tick());
+
+    limiter.execute(DoNothingRunnable.instance(), TaskPriority.High);
+  }
+
+  @Test
+  public void callerRunsTest() {
+    TestableScheduler testableScheduler = new TestableScheduler();
+    PrioritySchedulerServiceQueueLimiter limiter =
+        new PrioritySchedulerServiceQueueLimiter(testableScheduler, 1, OverflowPolicy.CallerRuns);
+    TestRunnable queuedRunnable = new TestRunnable();
+    TestRunnable callerRunnable = new TestRunnable();
+
+    limiter.execute(queuedRunnable);
+    ListenableFuture<?> f = limiter.submit(callerRunnable);
+
+    assertTrue(f.isDone());
+    assertEquals(1, callerRunnable.getRunCount());
+    assertEquals(0, queuedRunnable.getRunCount());
+    assertEquals(1, limiter.getQueuedTaskCount());
+
+    try {
+      limiter.schedule(DoNothingRunnable.instance(), DELAY_TIME);
+      fail("Exception should have thrown");
+    } catch (RejectedExecutionException e) {
+      // expected, delayed tasks can not run in caller
+    }
+
+    assertEquals(1, testableScheduler.tick());
+    assertEquals(1, queuedRunnable.getRunCount());
+  }
+
+  @Test
+  public void blockTest() throws Exception {
+    PriorityScheduler scheduler = new PriorityScheduler(1);
+    PriorityScheduler submitScheduler = new PriorityScheduler(1);
+    BlockingTestRunnable btr = new BlockingTestRunnable();
+    try {
+      PrioritySchedulerServiceQueueLimiter limiter =
+          new PrioritySchedulerServiceQueueLimiter(scheduler, 1, OverflowPolicy.Block);
+      scheduler.execute(btr);
+      btr.blockTillStarted();
+
+      limiter.execute(DoNothingRunnable.instance());
+      ListenableFuture<?> blockedSubmit =
+          submitScheduler.submit(() -> limiter.submit(DoNothingRunnable.instance()).get());
+
+      Thread.sleep(DELAY_TIME);
+      assertFalse(blockedSubmit.isDone());
+
+      btr.unblock();
+      blockedSubmit.get();
+    } finally {
+      btr.unblock();
+      scheduler.shutdownNow();
+      submitScheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void blockTimeoutTest() {
+    TestableScheduler testableScheduler = new TestableScheduler();
+    PrioritySchedulerServiceQueueLimiter limiter =
+        new PrioritySchedulerServiceQueueLimiter(testableScheduler, 1, OverflowPolicy.Block, DELAY_TIME);
+
+    limiter.execute(DoNothingRunnable.instance());
+    try {
+      limiter.execute(DoNothingRunnable.instance());
+      fail("Exception should have thrown");
+    } catch (RejectedExecutionException e) {
+      // expected
+    }
+
+    assertEquals(1, testableScheduler.tick());
+  }
+
+  @Test
+  public void dropOldestStarvableTest() {
+    TestableScheduler testableScheduler = new TestableScheduler();
+    PrioritySchedulerServiceQueueLimiter limiter =
+        new PrioritySchedulerServiceQueueLimiter(testableScheduler, 1, 1, 2,
+                                                 OverflowPolicy.DropOldestStarvable, 0, null);
+    TestRunnable oldestStarvable = new TestRunnable();
+    TestRunnable newerStarvable = new TestRunnable();
+    ListenableFuture<?> oldestFuture = limiter.submit(oldestStarvable, TaskPriority.Starvable);
+    limiter.execute(newerStarvable, TaskPriority.Starvable);
+    limiter.execute(DoNothingRunnable.instance(), TaskPriority.High);
+
+    // over the high limit, oldest starvable task should be dropped
+    limiter.execute(DoNothingRunnable.instance(), TaskPriority.High);
+    assertTrue(oldestFuture.isCancelled());
+    assertEquals(1, limiter.getQueuedTaskCount(TaskPriority.Starvable));
+    assertEquals(2, limiter.getQueuedTaskCount(TaskPriority.High));
+
+    // high is still over the limit, newer starvable task now dropped
+    limiter.execute(DoNothingRunnable.instance(), TaskPriority.High);
+    // nothing left to drop
+    try {
+      limiter.execute(DoNothingRunnable.instance(), TaskPriority.High);
+      fail("Exception should have thrown");
+    } catch (RejectedExecutionException e) {
+      // expected
+    }
+
+    assertEquals(3, testableScheduler.tick());
+    assertEquals(0, oldestStarvable.getRunCount());
+    assertEquals(0, newerStarvable.getRunCount());
+    assertEquals(0, limiter.getQueuedTaskCount());
+  }
+
+  @Test
+  public void dropOldestStarvableFinishedTasksPurgedTest() {
+    TestableScheduler testableScheduler = new TestableScheduler();
+    PrioritySchedulerServiceQueueLimiter limiter =
+        new PrioritySchedulerServiceQueueLimiter(testableScheduler, 1, 1, 2,
+                                                 OverflowPolicy.DropOldestStarvable, 0, null);
+    for (int i = 0; i < TEST_QTY * 100; i++) {
+      limiter.execute(DoNothingRunnable.instance(), TaskPriority.Starvable);
+      assertEquals(1, testableScheduler.tick());
+    }
+    // finished tasks are left for lazy removal, but should not accumulate without bound
+    assertTrue(limiter.starvableTasks.size() < TEST_QTY * 100);
+
+    // finished entries must be skipped when dropping
+    TestRunnable starvable = new TestRunnable();
+    limiter.execute(starvable, TaskPriority.Starvable);
+    limiter.execute(DoNothingRunnable.instance(), TaskPriority.High);
+    limiter.execute(DoNothingRunnable.instance(), TaskPriority.High);
+    assertEquals(0, limiter.getQueuedTaskCount(TaskPriority.Starvable));
+    assertEquals(2, testableScheduler.tick());
+    assertEquals(0, starvable.getRunCount());
+  }
+
+  @Test
+  public void removeReleasesLimitTest() {
+    TestableScheduler testableScheduler = new TestableScheduler();
+    PrioritySchedulerServiceQueueLimiter limiter =
+        new PrioritySchedulerServiceQueueLimiter(testableScheduler, 1, OverflowPolicy.Reject);
+    TestRunnable tr = new TestRunnable();
+
+    limiter.execute(tr);
+    assertTrue(limiter.remove(tr));
+    assertFalse(limiter.remove(tr));
+    assertEquals(0, limiter.getQueuedTaskCount());
+
+    limiter.execute(DoNothingRunnable.instance());
+    assertEquals(1, testableScheduler.tick());
+    assertEquals(0, tr.getRunCount());
+  }
+
+  private static class PrioritySchedulerServiceQueueLimiterFactory implements SchedulerServiceFactory {
+    private final PrioritySchedulerFactory schedulerFactory = new PrioritySchedulerFactory();
+
+    @Override
+    public SubmitterExecutor makeSubmitterExecutor(int poolSize, boolean prestartIfAvailable) {
+      return makeSubmitterScheduler(poolSize, prestartIfAvailable);
+    }
+
+    @Override
+    public SubmitterScheduler makeSubmitterScheduler(int poolSize, boolean prestartIfAvailable) {
+      return makeSchedulerService(poolSize, prestartIfAvailable);
+    }
+
+    @Override
+    public SchedulerService makeSchedulerService(int poolSize, boolean prestartIfAvailable) {
+      PriorityScheduler scheduler = schedulerFactory.makePriorityScheduler(poolSize);
+      if (prestartIfAvailable) {
+        scheduler.prestartAllThreads();
+      }
+
+      return new PrioritySchedulerServiceQueueLimiter(scheduler, Integer.MAX_VALUE,
+                                                      OverflowPolicy.Reject);
+    }
+
+    @Override
+    public void shutdown() {
+      schedulerFactory.shutdown();
+    }
+  }
+}